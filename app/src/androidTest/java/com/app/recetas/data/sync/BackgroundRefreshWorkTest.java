@@ -0,0 +1,162 @@
+package com.app.recetas.data.sync;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.work.BackoffPolicy;
+import androidx.work.Configuration;
+import androidx.work.ListenableWorker;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.testing.SynchronousExecutor;
+import androidx.work.testing.TestDriver;
+import androidx.work.testing.TestWorkerBuilder;
+import androidx.work.testing.WorkManagerTestInitHelper;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.cache.CatalogCache;
+import com.app.recetas.fixtures.MealDbDispatcher;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de los trabajos en segundo plano con WorkManager de prueba
+ * La API apunta al servidor local de TheMealDB
+ */
+@RunWith(AndroidJUnit4.class)
+public class BackgroundRefreshWorkTest {
+    
+    // Receta del servidor local usada en los tests (se borra al terminar)
+    private static final String TEST_RECIPE_ID = "52772";
+    
+    private Context context;
+    private MealDbServer server;
+    private RecipeDao recipeDao;
+    
+    @Before
+    public void setUp() throws Exception {
+        context = ApplicationProvider.getApplicationContext();
+        Configuration configuration = new Configuration.Builder()
+                .setMinimumLoggingLevel(Log.DEBUG)
+                .setExecutor(new SynchronousExecutor())
+                .build();
+        WorkManagerTestInitHelper.initializeTestWorkManager(context, configuration);
+        
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        recipeDao = AppDatabase.getDatabase(context).recipeDao();
+        clearState();
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        clearState();
+        ApiClient.clearInstances();
+        server.close();
+    }
+    
+    @Test
+    public void requestsUseUnmeteredChargingConstraints() {
+        PeriodicWorkRequest collection = BackgroundRefreshScheduler.createCollectionRequest();
+        assertEquals(NetworkType.UNMETERED,
+                collection.getWorkSpec().constraints.getRequiredNetworkType());
+        assertTrue(collection.getWorkSpec().constraints.requiresCharging());
+        assertTrue(collection.getWorkSpec().constraints.requiresDeviceIdle());
+        
+        PeriodicWorkRequest catalog = BackgroundRefreshScheduler.createCatalogRequest();
+        assertEquals(NetworkType.UNMETERED,
+                catalog.getWorkSpec().constraints.getRequiredNetworkType());
+        assertTrue(catalog.getWorkSpec().constraints.requiresCharging());
+        assertEquals(BackoffPolicy.EXPONENTIAL, catalog.getWorkSpec().backoffPolicy);
+    }
+    
+    @Test
+    public void schedulingTwiceKeepsOneWorkPerName() throws Exception {
+        BackgroundRefreshScheduler.schedule(context);
+        BackgroundRefreshScheduler.schedule(context);
+        
+        List<WorkInfo> collection = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(BackgroundRefreshScheduler.COLLECTION_WORK).get();
+        List<WorkInfo> catalog = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(BackgroundRefreshScheduler.CATALOG_WORK).get();
+        assertEquals(1, collection.size());
+        assertEquals(1, catalog.size());
+        assertEquals(WorkInfo.State.ENQUEUED, collection.get(0).getState());
+    }
+    
+    @Test
+    public void catalogWorkRunsOnlyWhenConstraintsAreMet() throws Exception {
+        BackgroundRefreshScheduler.schedule(context);
+        WorkInfo info = WorkManager.getInstance(context)
+                .getWorkInfosForUniqueWork(BackgroundRefreshScheduler.CATALOG_WORK).get().get(0);
+        CatalogCache cache = new CatalogCache(context);
+        assertTrue(cache.getCategories().isEmpty());
+        
+        TestDriver driver = WorkManagerTestInitHelper.getTestDriver(context);
+        driver.setAllConstraintsMet(info.getId());
+        
+        assertEquals(14, cache.getCategories().size());
+        assertFalse(cache.getAreas().isEmpty());
+        assertEquals(1, server.getDispatcher().getRequestCount("categories.php"));
+    }
+    
+    @Test
+    public void collectionWorkerUpdatesStaleRecipes() {
+        Recipe stale = new Recipe(TEST_RECIPE_ID, "Teriyaki viejo", "Chicken", "Japanese",
+                "Instrucciones viejas", "", new IngredientList());
+        stale.setPersonalNotes("Mis notas");
+        recipeDao.insertRecipe(stale);
+        
+        ListenableWorker.Result result = TestWorkerBuilder
+                .from(context, CollectionRefreshWorker.class, Executors.newSingleThreadExecutor())
+                .build()
+                .doWork();
+        
+        assertTrue(result instanceof ListenableWorker.Result.Success);
+        assertTrue(result.getOutputData().getInt(CollectionRefreshWorker.OUTPUT_UPDATED, 0) >= 1);
+        Recipe saved = recipeDao.getRecipesByIds(Collections.singletonList(TEST_RECIPE_ID)).get(0);
+        assertEquals("Teriyaki Chicken Casserole", saved.getName());
+        assertEquals("Mis notas", saved.getPersonalNotes());
+    }
+    
+    @Test
+    public void collectionWorkerRetriesWhenApiFails() {
+        recipeDao.insertRecipe(new Recipe(TEST_RECIPE_ID, "Teriyaki", "Chicken", "Japanese", "Paso 1", "", new IngredientList()));
+        server.getDispatcher().failNext("lookup.php", 10, MealDbDispatcher.Fault.SERVER_ERROR);
+        
+        ListenableWorker.Result result = TestWorkerBuilder
+                .from(context, CollectionRefreshWorker.class, Executors.newSingleThreadExecutor())
+                .build()
+                .doWork();
+        
+        assertTrue(result instanceof ListenableWorker.Result.Retry);
+    }
+    
+    private void clearState() {
+        for (Recipe recipe : recipeDao.getRecipesByIds(Collections.singletonList(TEST_RECIPE_ID))) {
+            recipeDao.deleteRecipe(recipe);
+        }
+        context.getSharedPreferences("catalog_cache", Context.MODE_PRIVATE).edit().clear().commit();
+        context.getSharedPreferences("background_refresh", Context.MODE_PRIVATE).edit().clear().commit();
+    }
+}
@@ -0,0 +1,124 @@
+package com.app.recetas.presentation.ui.search.adapter;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.metrics.LatencyHistogram;
+import com.app.recetas.metrics.Metrics;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Costo de vincular las filas de resultados en un dispositivo
+ * Carga 300 resultados con instrucciones largas en un RecyclerView de pantalla completa y lo
+ * recorre de punta a punta; informa el timer "bind.search_result" y "search.build_rows"
+ * como estado de la instrumentación y en Logcat (tag SearchResultBind):
+ * ./gradlew connectedDebugAndroidTest -Pandroid.testInstrumentationRunnerArguments.class=
+ *     com.app.recetas.presentation.ui.search.adapter.SearchResultBindBenchmarkTest
+ * Solo usa setMeals(List) y getItemCount(), así corre igual sobre el adapter anterior
+ * para comparar antes/después
+ */
+@RunWith(AndroidJUnit4.class)
+public class SearchResultBindBenchmarkTest {
+
+    private static final String TAG = "SearchResultBind";
+    private static final int RESULTS = 300;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 2000;
+
+    @Test
+    public void bindWholeResultList() throws InterruptedException {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = new ContextThemeWrapper(instrumentation.getTargetContext(),
+                androidx.appcompat.R.style.Theme_AppCompat_Light);
+        List<MealDto> meals = meals();
+        Metrics.getInstance().reset();
+
+        RecyclerView[] list = new RecyclerView[1];
+        SearchResultAdapter adapter = new SearchResultAdapter(meal -> { });
+        instrumentation.runOnMainSync(() -> {
+            list[0] = new RecyclerView(context);
+            list[0].setLayoutManager(new LinearLayoutManager(context));
+            list[0].setAdapter(adapter);
+            adapter.setMeals(meals);
+        });
+
+        // Las filas se aplican en el main thread cuando termina el armado
+        int[] applied = new int[1];
+        for (int i = 0; i < 100 && applied[0] < RESULTS; i++) {
+            Thread.sleep(50);
+            instrumentation.runOnMainSync(() -> applied[0] = adapter.getItemCount());
+        }
+        assertEquals(RESULTS, applied[0]);
+
+        instrumentation.runOnMainSync(() -> {
+            RecyclerView recyclerView = list[0];
+            layout(recyclerView);
+            while (recyclerView.canScrollVertically(1)) {
+                recyclerView.scrollBy(0, HEIGHT / 2);
+                layout(recyclerView);
+            }
+        });
+
+        LatencyHistogram.Snapshot bind = Metrics.getInstance().getTimer("bind.search_result");
+        LatencyHistogram.Snapshot build = Metrics.getInstance().getTimer("search.build_rows");
+        assertNotNull(bind);
+        Bundle status = new Bundle();
+        status.putLong("bind_count", bind.getCount());
+        status.putDouble("bind_avg_ms", bind.getAverageMs());
+        status.putDouble("bind_p90_ms", bind.getPercentileMs(90));
+        status.putDouble("bind_max_ms", bind.getMaxMs());
+        if (build != null) {
+            status.putDouble("build_rows_ms", build.getTotalMs());
+        }
+        Log.i(TAG, status.toString());
+        instrumentation.sendStatus(0, status);
+
+        assertTrue(bind.getCount() >= RESULTS);
+    }
+
+    private static void layout(RecyclerView recyclerView) {
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+    }
+
+    /**
+     * Resultados con instrucciones de unos 1.000 caracteres, como las de TheMealDB
+     */
+    private static List<MealDto> meals() {
+        StringBuilder instructions = new StringBuilder();
+        while (instructions.length() < 1_000) {
+            instructions.append("Heat the oil in a large frying pan over a medium heat and stir well. ");
+        }
+        List<MealDto> meals = new ArrayList<>(RESULTS);
+        for (int i = 0; i < RESULTS; i++) {
+            MealDto meal = new MealDto();
+            meal.idMeal = String.valueOf(52_000 + i);
+            meal.strMeal = "Receta de prueba " + i;
+            meal.strCategory = "Chicken";
+            meal.strArea = "Japanese";
+            meal.strInstructions = instructions.toString();
+            meals.add(meal);
+        }
+        return meals;
+    }
+}
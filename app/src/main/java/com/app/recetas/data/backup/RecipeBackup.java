@@ -0,0 +1,462 @@
+package com.app.recetas.data.backup;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Exportación e importación de la colección completa a un único archivo JSON
+ *
+ * Formato:
+ *   {"format": "recetas-backup", "version": 1, "exportedAt": ..., "count": N,
+ *    "recipes": [{"id": ..., "name": ..., "ingredients": [{"ingredient": ..., "measure": ...}], ...}]}
+ *
+ * Las dos direcciones van en streaming (JsonWriter / JsonReader sobre buffers de tamaño fijo):
+ * la exportación lee la tabla por páginas en orden de ID y la importación guarda por lotes,
+ * cada lote en su transacción. La memoria usada no depende del tamaño de la colección
+ *
+ * Llamadas síncronas: usar solo desde un thread de background
+ */
+public class RecipeBackup {
+
+    static final String FORMAT = "recetas-backup";
+    static final int VERSION = 1;
+
+    // Recetas por página al exportar y por transacción al importar
+    static final int BATCH_SIZE = 200;
+
+    // Buffer de lectura/escritura del archivo
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Qué hacer con una receta del archivo cuyo ID ya está en la colección
+     */
+    public enum ConflictPolicy {
+        // Se deja la receta guardada sin cambios
+        SKIP,
+        // La receta del archivo reemplaza a la guardada (incluidas las notas)
+        REPLACE,
+        // Se deja la receta guardada y se le agregan las notas del archivo que no tenga
+        MERGE_NOTES
+    }
+
+    /**
+     * Avance de la exportación o importación (se llama desde el thread que la ejecuta)
+     */
+    public interface Listener {
+        /**
+         * @param processed Recetas procesadas hasta ahora
+         * @param total Total de recetas, o -1 si el archivo no lo indica
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Ejecuta un bloque en una transacción de la base (RoomDatabase::runInTransaction)
+     */
+    public interface TransactionRunner {
+        void runInTransaction(Runnable body);
+    }
+
+    /**
+     * Resultado de una importación
+     */
+    public static class ImportResult {
+        private int added;
+        private int replaced;
+        private int merged;
+        private int skipped;
+        private int invalid;
+
+        /**
+         * Recetas nuevas en la colección
+         */
+        public int getAdded() { return added; }
+
+        /**
+         * Recetas guardadas reemplazadas por las del archivo (REPLACE)
+         */
+        public int getReplaced() { return replaced; }
+
+        /**
+         * Recetas guardadas a las que se agregaron notas (MERGE_NOTES)
+         */
+        public int getMerged() { return merged; }
+
+        /**
+         * Recetas del archivo que ya estaban y no se tocaron
+         */
+        public int getSkipped() { return skipped; }
+
+        /**
+         * Entradas del archivo sin ID (no se importan)
+         */
+        public int getInvalid() { return invalid; }
+
+        public int getProcessed() { return added + replaced + merged + skipped + invalid; }
+    }
+
+    private final RecipeDao recipeDao;
+    private final TransactionRunner transactions;
+
+    /**
+     * @param recipeDao DAO de la colección
+     * @param transactions Transacciones de la base (un lote de la importación por transacción)
+     */
+    public RecipeBackup(RecipeDao recipeDao, TransactionRunner transactions) {
+        this.recipeDao = recipeDao;
+        this.transactions = transactions;
+    }
+
+    // ==================== EXPORTACIÓN ====================
+
+    /**
+     * Escribe toda la colección en el archivo
+     * El stream no se cierra (lo abre y cierra quien llama); al terminar queda vaciado
+     * @param out Destino del archivo
+     * @param listener Avance (una vez por página)
+     * @return Cantidad de recetas exportadas
+     * @throws IOException si falla la escritura
+     */
+    public int exportTo(OutputStream out, Listener listener) throws IOException {
+        int total = recipeDao.getRecipeCount();
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        writer.beginObject();
+        writer.name("format").value(FORMAT);
+        writer.name("version").value(VERSION);
+        writer.name("exportedAt").value(System.currentTimeMillis());
+        writer.name("count").value(total);
+        writer.name("recipes").beginArray();
+
+        int written = 0;
+        String cursor = "";
+        List<Recipe> page;
+        do {
+            page = recipeDao.getRecipesAfter(cursor, BATCH_SIZE);
+            for (Recipe recipe : page) {
+                writeRecipe(writer, recipe);
+            }
+            if (!page.isEmpty()) {
+                written += page.size();
+                cursor = page.get(page.size() - 1).getId();
+                listener.onProgress(written, Math.max(total, written));
+            }
+        } while (page.size() == BATCH_SIZE);
+
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return written;
+    }
+
+    private static void writeRecipe(JsonWriter writer, Recipe recipe) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(recipe.getId());
+        writeOptional(writer, "name", recipe.getName());
+        writeOptional(writer, "category", recipe.getCategory());
+        writeOptional(writer, "area", recipe.getArea());
+        writeOptional(writer, "instructions", recipe.getInstructions());
+        writeOptional(writer, "imageUrl", recipe.getImageUrl());
+        IngredientList ingredients = recipe.getIngredients();
+        if (ingredients != null) {
+            writer.name("ingredients").beginArray();
+            for (int i = 0; i < ingredients.size(); i++) {
+                writer.beginObject();
+                writer.name("ingredient").value(ingredients.getName(i));
+                writer.name("measure").value(ingredients.getMeasure(i));
+                writer.endObject();
+            }
+            writer.endArray();
+        }
+        writeOptional(writer, "personalNotes", recipe.getPersonalNotes());
+        writer.name("isPersonal").value(recipe.isPersonal());
+        writer.name("dateAdded").value(recipe.getDateAdded());
+        writer.name("dateModified").value(recipe.getDateModified());
+        writer.endObject();
+    }
+
+    private static void writeOptional(JsonWriter writer, String name, String value) throws IOException {
+        if (value != null) {
+            writer.name(name).value(value);
+        }
+    }
+
+    // ==================== IMPORTACIÓN ====================
+
+    /**
+     * Lee un archivo exportado y guarda sus recetas
+     * Cada lote se guarda en su propia transacción: si el archivo está dañado a la mitad,
+     * los lotes anteriores quedan guardados
+     * El stream no se cierra (lo abre y cierra quien llama)
+     * @param in Archivo exportado con exportTo
+     * @param policy Qué hacer con las recetas que ya están en la colección
+     * @param listener Avance (una vez por lote)
+     * @return Cantidades de recetas agregadas, reemplazadas, combinadas y omitidas
+     * @throws IOException si el archivo no es un respaldo válido o falla la lectura
+     */
+    public ImportResult importFrom(InputStream in, ConflictPolicy policy, Listener listener) throws IOException {
+        JsonReader reader = new JsonReader(new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE));
+        ImportResult result = new ImportResult();
+        boolean validFormat = false;
+        int total = -1;
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "format":
+                        validFormat = FORMAT.equals(reader.nextString());
+                        break;
+                    case "version":
+                        int version = reader.nextInt();
+                        if (version > VERSION) {
+                            throw new IOException("Versión de respaldo no soportada: " + version);
+                        }
+                        break;
+                    case "count":
+                        total = reader.nextInt();
+                        break;
+                    case "recipes":
+                        if (!validFormat) {
+                            throw new IOException("El archivo no es un respaldo de recetas");
+                        }
+                        readRecipes(reader, policy, total, listener, result);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IllegalStateException | NumberFormatException e) {
+            // JsonReader avisa así de un valor de tipo inesperado
+            throw new IOException("Respaldo dañado: " + e.getMessage(), e);
+        }
+        if (!validFormat) {
+            throw new IOException("El archivo no es un respaldo de recetas");
+        }
+        return result;
+    }
+
+    private void readRecipes(JsonReader reader, ConflictPolicy policy, int total,
+                             Listener listener, ImportResult result) throws IOException {
+        List<Recipe> batch = new ArrayList<>(BATCH_SIZE);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Recipe recipe = readRecipe(reader);
+            if (recipe == null) {
+                result.invalid++;
+                continue;
+            }
+            batch.add(recipe);
+            if (batch.size() == BATCH_SIZE) {
+                saveBatch(batch, policy, result);
+                listener.onProgress(result.getProcessed(), total);
+            }
+        }
+        reader.endArray();
+        if (!batch.isEmpty()) {
+            saveBatch(batch, policy, result);
+        }
+        listener.onProgress(result.getProcessed(), total);
+    }
+
+    /**
+     * Guarda un lote en una transacción según la política de conflictos y lo vacía
+     * Las recetas guardadas se leen sin instrucciones (getRecipesByIds es una consulta de
+     * lista): al combinar notas solo se actualizan las notas, nunca la receta entera
+     */
+    private void saveBatch(List<Recipe> batch, ConflictPolicy policy, ImportResult result) {
+        transactions.runInTransaction(() -> {
+            List<String> ids = new ArrayList<>(batch.size());
+            for (Recipe recipe : batch) {
+                ids.add(recipe.getId());
+            }
+            Map<String, Recipe> saved = new HashMap<>();
+            for (Recipe recipe : recipeDao.getRecipesByIds(ids)) {
+                saved.put(recipe.getId(), recipe);
+            }
+
+            List<Recipe> toWrite = new ArrayList<>(batch.size());
+            // IDs de recetas del archivo que ya están en toWrite
+            Set<String> pending = new HashSet<>();
+            for (Recipe imported : batch) {
+                Recipe local = saved.get(imported.getId());
+                if (local == null) {
+                    toWrite.add(imported);
+                    // Un ID repetido en el archivo cuenta como conflicto con la primera aparición
+                    saved.put(imported.getId(), imported);
+                    pending.add(imported.getId());
+                    result.added++;
+                    continue;
+                }
+                switch (policy) {
+                    case REPLACE:
+                        toWrite.add(imported);
+                        saved.put(imported.getId(), imported);
+                        pending.add(imported.getId());
+                        result.replaced++;
+                        break;
+                    case MERGE_NOTES:
+                        String notes = mergeNotes(local.getPersonalNotes(), imported.getPersonalNotes());
+                        if (Objects.equals(notes, local.getPersonalNotes())) {
+                            result.skipped++;
+                        } else {
+                            local.setPersonalNotes(notes);
+                            if (!pending.contains(local.getId())) {
+                                recipeDao.updatePersonalNotes(local.getId(), CompressedText.of(notes),
+                                        local.getDateModified());
+                            }
+                            result.merged++;
+                        }
+                        break;
+                    default:
+                        result.skipped++;
+                }
+            }
+            if (!toWrite.isEmpty()) {
+                recipeDao.insertRecipes(toWrite);
+            }
+        });
+        batch.clear();
+    }
+
+    /**
+     * Notas guardadas seguidas de las del archivo (si no las tenía ya)
+     * @return Notas combinadas (local sin cambios si no hay nada que agregar)
+     */
+    static String mergeNotes(String local, String imported) {
+        String current = local != null ? local.trim() : "";
+        String incoming = imported != null ? imported.trim() : "";
+        if (incoming.isEmpty() || current.contains(incoming)) {
+            return local;
+        }
+        if (current.isEmpty()) {
+            return incoming;
+        }
+        return current + "\n\n" + incoming;
+    }
+
+    /**
+     * @return Receta leída, o null si la entrada no tiene ID
+     */
+    private static Recipe readRecipe(JsonReader reader) throws IOException {
+        Recipe recipe = new Recipe();
+        String id = null;
+        String notes = null;
+        long dateAdded = System.currentTimeMillis();
+        long dateModified = dateAdded;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = nextStringOrNull(reader);
+                    break;
+                case "name":
+                    recipe.setName(nextStringOrNull(reader));
+                    break;
+                case "category":
+                    recipe.setCategory(nextStringOrNull(reader));
+                    break;
+                case "area":
+                    recipe.setArea(nextStringOrNull(reader));
+                    break;
+                case "instructions":
+                    recipe.setInstructions(nextStringOrNull(reader));
+                    break;
+                case "imageUrl":
+                    recipe.setImageUrl(nextStringOrNull(reader));
+                    break;
+                case "ingredients":
+                    recipe.setIngredients(readIngredients(reader));
+                    break;
+                case "personalNotes":
+                    notes = nextStringOrNull(reader);
+                    break;
+                case "isPersonal":
+                    recipe.setPersonal(reader.nextBoolean());
+                    break;
+                case "dateAdded":
+                    dateAdded = reader.nextLong();
+                    break;
+                case "dateModified":
+                    dateModified = reader.nextLong();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null || id.trim().isEmpty()) {
+            return null;
+        }
+        recipe.setId(id);
+        // Antes que las fechas: setPersonalNotes actualiza dateModified
+        recipe.setPersonalNotes(notes);
+        recipe.setDateAdded(dateAdded);
+        recipe.setDateModified(dateModified);
+        return recipe;
+    }
+
+    private static IngredientList readIngredients(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        IngredientList ingredients = new IngredientList();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String name = null;
+            String measure = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "ingredient":
+                        name = nextStringOrNull(reader);
+                        break;
+                    case "measure":
+                        measure = nextStringOrNull(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (name != null && !name.trim().isEmpty()) {
+                ingredients.add(name, measure != null ? measure : "");
+            }
+        }
+        reader.endArray();
+        return ingredients;
+    }
+
+    private static String nextStringOrNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+}
@@ -6,15 +6,24 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.RoomWarnings;
 import androidx.room.Update;
 
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
 import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.local.entities.RecipeIngredientsRow;
+import com.app.recetas.data.local.entities.RecipeSearchRow;
 
 import java.util.List;
 
 /**
  * DAO (Data Access Object) para operaciones CRUD en la tabla recipes
  * Room genera automáticamente la implementación de estos métodos
+ *
+ * Las consultas de listas (LiveData) leen Recipe.LIST_COLUMNS: no traen las instrucciones,
+ * que son la columna más pesada y solo se muestran en el detalle (getRecipeById)
+ * Las recetas de esas listas no se deben guardar enteras con updateRecipe
  */
 @Dao
 public interface RecipeDao {
@@ -22,9 +31,10 @@ public interface RecipeDao {
     /**
      * Obtiene todas las recetas ordenadas por fecha de modificación (más recientes primero)
      * Retorna LiveData para observar cambios automáticamente en la UI
-     * @return LiveData con lista de todas las recetas
+     * @return LiveData con lista de todas las recetas (sin instrucciones)
      */
-    @Query("SELECT * FROM recipes ORDER BY dateModified DESC")
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes ORDER BY dateModified DESC")
     LiveData<List<Recipe>> getAllRecipes();
     
     /**
@@ -35,6 +45,14 @@ public interface RecipeDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insertRecipe(Recipe recipe);
     
+    /**
+     * Inserta varias recetas en una sola transacción (reemplaza las que ya existen)
+     * Usado por la importación de respaldos
+     * @param recipes Recetas a insertar
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertRecipes(List<Recipe> recipes);
+    
     /**
      * Elimina una receta específica de la base de datos
      * @param recipe Receta a eliminar
@@ -49,6 +67,37 @@ public interface RecipeDao {
     @Update
     void updateRecipe(Recipe recipe);
     
+    /**
+     * Actualiza solo las notas personales (y la fecha de modificación) de una receta
+     * Usado desde las listas, cuyas recetas no traen las instrucciones
+     * @param id ID de la receta
+     * @param notes Notas nuevas
+     * @param dateModified Timestamp de modificación
+     */
+    @Query("UPDATE recipes SET personalNotes = :notes, dateModified = :dateModified WHERE id = :id")
+    void updatePersonalNotes(String id, CompressedText notes, long dateModified);
+    
+    /**
+     * Actualiza solo los datos que vienen de TheMealDB (usado por RecipeRefresher)
+     * Las notas personales y las fechas no se tocan: una edición del usuario hecha
+     * mientras se pedía el detalle no se pierde
+     */
+    @Query("UPDATE recipes SET name = :name, category = :category, area = :area, "
+            + "instructions = :instructions, imageUrl = :imageUrl, ingredients = :ingredients "
+            + "WHERE id = :id")
+    void updateApiFields(String id, String name, String category, String area,
+                         CompressedText instructions, String imageUrl, IngredientList ingredients);
+    
+    /**
+     * Obtiene una receta completa por ID (con instrucciones)
+     * Usado al abrir el detalle de una receta guardada
+     * Operación síncrona - debe llamarse desde background thread
+     * @param id ID de la receta
+     * @return Receta o null si no está guardada
+     */
+    @Query("SELECT * FROM recipes WHERE id = :id")
+    Recipe getRecipeById(String id);
+    
     /**
      * Obtiene la receta modificada más recientemente
      * Usado para mostrar en SharedPreferences cuál fue la última receta tocada
@@ -62,24 +111,27 @@ public interface RecipeDao {
      * Busca recetas por nombre (búsqueda local)
      * Útil para filtrar la colección del usuario
      * @param name Nombre o parte del nombre a buscar
-     * @return LiveData con recetas que coinciden con el nombre
+     * @return LiveData con recetas que coinciden con el nombre (sin instrucciones)
      */
-    @Query("SELECT * FROM recipes WHERE name LIKE '%' || :name || '%' ORDER BY dateModified DESC")
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE name LIKE '%' || :name || '%' ORDER BY dateModified DESC")
     LiveData<List<Recipe>> searchRecipesByName(String name);
     
     /**
      * Obtiene recetas por categoría
      * @param category Categoría a filtrar
-     * @return LiveData con recetas de la categoría especificada
+     * @return LiveData con recetas de la categoría especificada (sin instrucciones)
      */
-    @Query("SELECT * FROM recipes WHERE category = :category ORDER BY dateModified DESC")
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE category = :category ORDER BY dateModified DESC")
     LiveData<List<Recipe>> getRecipesByCategory(String category);
     
     /**
      * Obtiene solo las recetas personales (creadas por el usuario)
-     * @return LiveData con recetas donde isPersonal = true
+     * @return LiveData con recetas donde isPersonal = true (sin instrucciones)
      */
-    @Query("SELECT * FROM recipes WHERE isPersonal = 1 ORDER BY dateModified DESC")
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE isPersonal = 1 ORDER BY dateModified DESC")
     LiveData<List<Recipe>> getPersonalRecipes();
     
     /**
@@ -89,4 +141,83 @@ public interface RecipeDao {
      */
     @Query("SELECT COUNT(*) FROM recipes")
     int getRecipeCount();
-}
+    
+    /**
+     * Obtiene solo el ID y los ingredientes de todas las recetas
+     * Usado por el buscador por ingredientes para mantener su índice en memoria
+     * Operación síncrona - debe llamarse desde background thread
+     * @return Lista de filas con ID e ingredientes
+     */
+    @Query("SELECT id, ingredients FROM recipes")
+    List<RecipeIngredientsRow> getIngredientRows();
+    
+    /**
+     * Obtiene solo los nombres de todas las recetas
+     * Usado por el autocompletado de la búsqueda
+     * Operación síncrona - debe llamarse desde background thread
+     * @return Lista de nombres
+     */
+    @Query("SELECT name FROM recipes")
+    List<String> getRecipeNames();
+    
+    /**
+     * Obtiene ID, nombre e ingredientes de todas las recetas
+     * Usado por la búsqueda aproximada para mantener su índice de trigramas en memoria
+     * Operación síncrona - debe llamarse desde background thread
+     * @return Lista de filas con ID, nombre e ingredientes
+     */
+    @Query("SELECT id, name, ingredients FROM recipes")
+    List<RecipeSearchRow> getSearchRows();
+    
+    /**
+     * Obtiene varias recetas por ID (en cualquier orden)
+     * Operación síncrona - debe llamarse desde background thread
+     * @param ids IDs de las recetas (como máximo unos cientos)
+     * @return Recetas encontradas (sin instrucciones)
+     */
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE id IN (:ids)")
+    List<Recipe> getRecipesByIds(List<String> ids);
+    
+    /**
+     * Obtiene recetas de una categoría (versión síncrona)
+     * Usado por la búsqueda unificada - debe llamarse desde background thread
+     * @param category Categoría exacta
+     * @return Recetas de la categoría (sin instrucciones)
+     */
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE category = :category COLLATE NOCASE ORDER BY dateModified DESC")
+    List<Recipe> getRecipesByCategorySync(String category);
+    
+    /**
+     * Obtiene recetas de un área (versión síncrona)
+     * Usado por la búsqueda unificada - debe llamarse desde background thread
+     * @param area Área exacta
+     * @return Recetas del área (sin instrucciones)
+     */
+    @SuppressWarnings(RoomWarnings.QUERY_MISMATCH)
+    @Query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes WHERE area = :area COLLATE NOCASE ORDER BY dateModified DESC")
+    List<Recipe> getRecipesByAreaSync(String area);
+    
+    /**
+     * Obtiene recetas de la API (no personales) en orden de ID, a partir de un cursor
+     * Usado por la actualización en segundo plano para recorrer la colección por lotes
+     * Operación síncrona - debe llamarse desde background thread
+     * @param afterId Último ID procesado ("" para empezar desde el principio)
+     * @param limit Tamaño del lote
+     * @return Hasta limit recetas con ID mayor a afterId
+     */
+    @Query("SELECT * FROM recipes WHERE isPersonal = 0 AND id > :afterId ORDER BY id LIMIT :limit")
+    List<Recipe> getApiRecipesAfter(String afterId, int limit);
+    
+    /**
+     * Obtiene todas las recetas (API y personales) en orden de ID, a partir de un cursor
+     * Usado por la exportación para recorrer la colección por páginas
+     * Operación síncrona - debe llamarse desde background thread
+     * @param afterId Último ID exportado ("" para empezar desde el principio)
+     * @param limit Tamaño de la página
+     * @return Hasta limit recetas con ID mayor a afterId
+     */
+    @Query("SELECT * FROM recipes WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<Recipe> getRecipesAfter(String afterId, int limit);
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.app.recetas.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.local.entities.RecipeIngredientsRow;
+import com.app.recetas.data.local.entities.RecipeSearchRow;
+import com.app.recetas.metrics.Metrics;
+import com.app.recetas.utils.MainThreadIoGuard;
+
+import java.util.List;
+
+/**
+ * RecipeDao con trazas y métricas de cada consulta
+ * Envuelve la implementación que genera Room: las consultas síncronas se miden en el
+ * timer "dao.<método>" (con su sección de traza); las que devuelven LiveData se ejecutan
+ * después en el executor de Room, así que de esas solo se cuenta cuántas veces se piden
+ * Las síncronas pasan además por MainThreadIoGuard
+ */
+public class TracedRecipeDao implements RecipeDao {
+    
+    private final RecipeDao delegate;
+    
+    /**
+     * @param delegate DAO generado por Room
+     */
+    public TracedRecipeDao(RecipeDao delegate) {
+        this.delegate = delegate;
+    }
+    
+    @Override
+    public LiveData<List<Recipe>> getAllRecipes() {
+        Metrics.count("dao.getAllRecipes");
+        return delegate.getAllRecipes();
+    }
+    
+    @Override
+    public void insertRecipe(Recipe recipe) {
+        try (Metrics.Span span = query("dao.insertRecipe")) {
+            delegate.insertRecipe(recipe);
+        }
+    }
+    
+    @Override
+    public void insertRecipes(List<Recipe> recipes) {
+        try (Metrics.Span span = query("dao.insertRecipes")) {
+            delegate.insertRecipes(recipes);
+        }
+    }
+    
+    @Override
+    public void deleteRecipe(Recipe recipe) {
+        try (Metrics.Span span = query("dao.deleteRecipe")) {
+            delegate.deleteRecipe(recipe);
+        }
+    }
+    
+    @Override
+    public void updateRecipe(Recipe recipe) {
+        try (Metrics.Span span = query("dao.updateRecipe")) {
+            delegate.updateRecipe(recipe);
+        }
+    }
+    
+    @Override
+    public void updatePersonalNotes(String id, CompressedText notes, long dateModified) {
+        try (Metrics.Span span = query("dao.updatePersonalNotes")) {
+            delegate.updatePersonalNotes(id, notes, dateModified);
+        }
+    }
+    
+    @Override
+    public void updateApiFields(String id, String name, String category, String area,
+                                CompressedText instructions, String imageUrl, IngredientList ingredients) {
+        try (Metrics.Span span = query("dao.updateApiFields")) {
+            delegate.updateApiFields(id, name, category, area, instructions, imageUrl, ingredients);
+        }
+    }
+    
+    @Override
+    public Recipe getRecipeById(String id) {
+        try (Metrics.Span span = query("dao.getRecipeById")) {
+            return delegate.getRecipeById(id);
+        }
+    }
+    
+    @Override
+    public Recipe getLastModifiedRecipe() {
+        try (Metrics.Span span = query("dao.getLastModifiedRecipe")) {
+            return delegate.getLastModifiedRecipe();
+        }
+    }
+    
+    @Override
+    public LiveData<List<Recipe>> searchRecipesByName(String name) {
+        Metrics.count("dao.searchRecipesByName");
+        return delegate.searchRecipesByName(name);
+    }
+    
+    @Override
+    public LiveData<List<Recipe>> getRecipesByCategory(String category) {
+        Metrics.count("dao.getRecipesByCategory");
+        return delegate.getRecipesByCategory(category);
+    }
+    
+    @Override
+    public LiveData<List<Recipe>> getPersonalRecipes() {
+        Metrics.count("dao.getPersonalRecipes");
+        return delegate.getPersonalRecipes();
+    }
+    
+    @Override
+    public int getRecipeCount() {
+        try (Metrics.Span span = query("dao.getRecipeCount")) {
+            return delegate.getRecipeCount();
+        }
+    }
+    
+    @Override
+    public List<RecipeIngredientsRow> getIngredientRows() {
+        try (Metrics.Span span = query("dao.getIngredientRows")) {
+            return delegate.getIngredientRows();
+        }
+    }
+    
+    @Override
+    public List<String> getRecipeNames() {
+        try (Metrics.Span span = query("dao.getRecipeNames")) {
+            return delegate.getRecipeNames();
+        }
+    }
+    
+    @Override
+    public List<RecipeSearchRow> getSearchRows() {
+        try (Metrics.Span span = query("dao.getSearchRows")) {
+            return delegate.getSearchRows();
+        }
+    }
+    
+    @Override
+    public List<Recipe> getRecipesByIds(List<String> ids) {
+        try (Metrics.Span span = query("dao.getRecipesByIds")) {
+            return delegate.getRecipesByIds(ids);
+        }
+    }
+    
+    @Override
+    public List<Recipe> getRecipesByCategorySync(String category) {
+        try (Metrics.Span span = query("dao.getRecipesByCategorySync")) {
+            return delegate.getRecipesByCategorySync(category);
+        }
+    }
+    
+    @Override
+    public List<Recipe> getRecipesByAreaSync(String area) {
+        try (Metrics.Span span = query("dao.getRecipesByAreaSync")) {
+            return delegate.getRecipesByAreaSync(area);
+        }
+    }
+    
+    @Override
+    public List<Recipe> getApiRecipesAfter(String afterId, int limit) {
+        try (Metrics.Span span = query("dao.getApiRecipesAfter")) {
+            return delegate.getApiRecipesAfter(afterId, limit);
+        }
+    }
+    
+    @Override
+    public List<Recipe> getRecipesAfter(String afterId, int limit) {
+        try (Metrics.Span span = query("dao.getRecipesAfter")) {
+            return delegate.getRecipesAfter(afterId, limit);
+        }
+    }
+    
+    /**
+     * Abre la medición de una consulta síncrona (que no debe correr en el main thread)
+     */
+    private static Metrics.Span query(String name) {
+        MainThreadIoGuard.check(name);
+        return Metrics.trace(name);
+    }
+}
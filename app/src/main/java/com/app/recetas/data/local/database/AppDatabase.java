@@ -1,12 +1,20 @@
 package com.app.recetas.data.local.database;
 
 import android.content.Context;
+import android.database.Cursor;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.dao.TracedRecipeDao;
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
 import com.app.recetas.data.local.entities.Recipe;
 
 /**
@@ -15,16 +23,17 @@ import com.app.recetas.data.local.entities.Recipe;
  */
 @Database(
     entities = {Recipe.class}, // Lista de entidades (tablas) en la BD
-    version = 1, // Versión de la BD (incrementar para migraciones)
+    version = 3, // Versión de la BD (incrementar para migraciones)
     exportSchema = false // No exportar esquema para testing
 )
+@TypeConverters({IngredientListConverter.class, CompressedTextConverter.class}) // Ingredientes y textos largos como BLOB
 public abstract class AppDatabase extends RoomDatabase {
     
     // Instancia singleton de la base de datos
     private static volatile AppDatabase INSTANCE;
     
     // Nombre del archivo de la base de datos SQLite
-    private static final String DATABASE_NAME = "recipe_database";
+    static final String DATABASE_NAME = "recipe_database";
     
     /**
      * Método abstracto que Room implementa automáticamente
@@ -33,6 +42,21 @@ public abstract class AppDatabase extends RoomDatabase {
      */
     public abstract RecipeDao recipeDao();
     
+    // DAO con trazas y métricas (se crea una sola vez)
+    private volatile RecipeDao tracedRecipeDao;
+    
+    /**
+     * DAO de recetas con trazas y métricas de cada consulta
+     * Es el que usa la app; recipeDao() queda como la implementación de Room
+     * @return RecipeDao instrumentado
+     */
+    public RecipeDao tracedRecipeDao() {
+        if (tracedRecipeDao == null) {
+            tracedRecipeDao = new TracedRecipeDao(recipeDao());
+        }
+        return tracedRecipeDao;
+    }
+    
     /**
      * Obtiene la instancia singleton de la base de datos
      * Implementa patrón Singleton thread-safe con double-checked locking
@@ -53,6 +77,7 @@ public abstract class AppDatabase extends RoomDatabase {
                             DATABASE_NAME // Nombre del archivo SQLite
                     )
                     // Configuraciones adicionales de Room
+                    .addMigrations(MIGRATION_1_2, MIGRATION_2_3) // Conservar la colección al cambiar de esquema
                     .fallbackToDestructiveMigration() // En caso de cambio de esquema, recrear BD
                     .build();
                 }
@@ -61,6 +86,69 @@ public abstract class AppDatabase extends RoomDatabase {
         return INSTANCE;
     }
     
+    /**
+     * Versión 1 -> 2: ingredientes de JSON en texto a BLOB binario (IngredientListConverter)
+     * SQLite no cambia el tipo de una columna: se arma la tabla nueva, se copian las
+     * columnas que no cambian y los ingredientes se convierten fila por fila
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recipes_new` (`id` TEXT NOT NULL, `name` TEXT, "
+                    + "`category` TEXT, `area` TEXT, `instructions` TEXT, `imageUrl` TEXT, "
+                    + "`ingredients` BLOB, `personalNotes` TEXT, `isPersonal` INTEGER NOT NULL, "
+                    + "`dateAdded` INTEGER NOT NULL, `dateModified` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+            db.execSQL("INSERT INTO recipes_new (id, name, category, area, instructions, imageUrl, "
+                    + "personalNotes, isPersonal, dateAdded, dateModified) "
+                    + "SELECT id, name, category, area, instructions, imageUrl, "
+                    + "personalNotes, isPersonal, dateAdded, dateModified FROM recipes");
+
+            try (Cursor cursor = db.query("SELECT id, ingredients FROM recipes WHERE ingredients IS NOT NULL")) {
+                while (cursor.moveToNext()) {
+                    IngredientList ingredients = IngredientList.fromText(cursor.getString(1));
+                    db.execSQL("UPDATE recipes_new SET ingredients = ? WHERE id = ?",
+                            new Object[]{IngredientListConverter.encode(ingredients), cursor.getString(0)});
+                }
+            }
+
+            db.execSQL("DROP TABLE recipes");
+            db.execSQL("ALTER TABLE recipes_new RENAME TO recipes");
+        }
+    };
+    
+    /**
+     * Versión 2 -> 3: instrucciones y notas de TEXT a BLOB (CompressedTextConverter)
+     * Igual que en 1 -> 2: tabla nueva, copia de las columnas que no cambian y conversión
+     * fila por fila de los textos, que quedan comprimidos si superan el umbral
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `recipes_new` (`id` TEXT NOT NULL, `name` TEXT, "
+                    + "`category` TEXT, `area` TEXT, `instructions` BLOB, `imageUrl` TEXT, "
+                    + "`ingredients` BLOB, `personalNotes` BLOB, `isPersonal` INTEGER NOT NULL, "
+                    + "`dateAdded` INTEGER NOT NULL, `dateModified` INTEGER NOT NULL, PRIMARY KEY(`id`))");
+            db.execSQL("INSERT INTO recipes_new (id, name, category, area, imageUrl, "
+                    + "ingredients, isPersonal, dateAdded, dateModified) "
+                    + "SELECT id, name, category, area, imageUrl, "
+                    + "ingredients, isPersonal, dateAdded, dateModified FROM recipes");
+
+            try (Cursor cursor = db.query("SELECT id, instructions, personalNotes FROM recipes "
+                    + "WHERE instructions IS NOT NULL OR personalNotes IS NOT NULL")) {
+                while (cursor.moveToNext()) {
+                    db.execSQL("UPDATE recipes_new SET instructions = ?, personalNotes = ? WHERE id = ?",
+                            new Object[]{
+                                    CompressedTextConverter.toBlob(CompressedText.of(cursor.getString(1))),
+                                    CompressedTextConverter.toBlob(CompressedText.of(cursor.getString(2))),
+                                    cursor.getString(0)});
+                }
+            }
+
+            db.execSQL("DROP TABLE recipes");
+            db.execSQL("ALTER TABLE recipes_new RENAME TO recipes");
+        }
+    };
+    
     /**
      * Método para cerrar la base de datos (opcional)
      * Útil para testing o cuando se necesite limpiar recursos
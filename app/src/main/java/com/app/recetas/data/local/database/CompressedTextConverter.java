@@ -0,0 +1,173 @@
+package com.app.recetas.data.local.database;
+
+import androidx.room.TypeConverter;
+
+import com.app.recetas.data.local.entities.CompressedText;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Conversor de Room para los textos largos de Recipe (instrucciones y notas): CompressedText <-> BLOB
+ *
+ * Formato: [tipo] y a continuación
+ *   - RAW (0): el texto en UTF-8
+ *   - DEFLATE (1): [largo en bytes del UTF-8 como varint] [UTF-8 comprimido con Deflater (zlib)]
+ *
+ * Solo se comprimen los textos de al menos threshold bytes y solo si el resultado es más
+ * chico: en textos cortos (la mayoría de las notas) Deflater no compensa lo que cuesta
+ * Los dos tipos se leen siempre, así que cambiar el umbral no afecta los datos ya guardados
+ */
+public final class CompressedTextConverter {
+
+    static final int RAW = 0;
+    static final int DEFLATE = 1;
+
+    // Umbral por defecto: las instrucciones de TheMealDB suelen tener entre 1 y 3 KB
+    public static final int DEFAULT_THRESHOLD = 512;
+
+    // Umbral que desactiva la compresión (todo se guarda como RAW)
+    public static final int DISABLED = Integer.MAX_VALUE;
+
+    private static volatile int threshold = DEFAULT_THRESHOLD;
+
+    private CompressedTextConverter() {
+    }
+
+    /**
+     * Cambia el tamaño mínimo (en bytes UTF-8) a partir del cual se comprime
+     * Afecta solo a lo que se escriba después
+     * @param bytes Umbral, o DISABLED para guardar todo sin comprimir
+     */
+    public static void setThreshold(int bytes) {
+        threshold = Math.max(0, bytes);
+    }
+
+    public static int getThreshold() {
+        return threshold;
+    }
+
+    @TypeConverter
+    public static byte[] toBlob(CompressedText text) {
+        return text == null ? null : encode(text.getText());
+    }
+
+    @TypeConverter
+    public static CompressedText fromBlob(byte[] blob) {
+        return blob == null ? null : CompressedText.of(decode(blob));
+    }
+
+    /**
+     * Codifica un texto, comprimido si supera el umbral
+     * @param text Texto (no null)
+     * @return Bytes listos para la columna
+     */
+    public static byte[] encode(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length >= threshold) {
+            byte[] deflated = deflate(utf8);
+            if (deflated != null) {
+                return deflated;
+            }
+        }
+        byte[] raw = new byte[utf8.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(utf8, 0, raw, 1, utf8.length);
+        return raw;
+    }
+
+    /**
+     * Decodifica bytes generados por encode
+     * @param blob Bytes de la columna (no null)
+     * @return Texto original
+     * @throws IllegalArgumentException si los bytes no tienen el formato esperado
+     */
+    public static String decode(byte[] blob) {
+        if (blob.length == 0) {
+            throw new IllegalArgumentException("Texto vacío sin tipo");
+        }
+        switch (blob[0]) {
+            case RAW:
+                return new String(blob, 1, blob.length - 1, StandardCharsets.UTF_8);
+            case DEFLATE:
+                return inflate(blob);
+            default:
+                throw new IllegalArgumentException("Tipo de texto desconocido: " + blob[0]);
+        }
+    }
+
+    /**
+     * @return Bytes en formato DEFLATE, o null si comprimido no queda más chico
+     */
+    private static byte[] deflate(byte[] utf8) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 2 + 16);
+        out.write(DEFLATE);
+        int length = utf8.length;
+        while ((length & ~0x7F) != 0) {
+            out.write((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out.write(length);
+
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(utf8);
+            deflater.finish();
+            byte[] buffer = new byte[Math.min(utf8.length, 4096)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                out.write(buffer, 0, count);
+                if (out.size() >= utf8.length + 1) {
+                    return null;
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static String inflate(byte[] blob) {
+        int position = 1;
+        int length = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift >= 32 || position >= blob.length) {
+                throw new IllegalArgumentException("Texto comprimido truncado");
+            }
+            int b = blob[position++];
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        // Deflate no comprime más de ~1032:1; un largo mayor es un BLOB dañado
+        if (length < 0 || length > (blob.length - position) * 1032L) {
+            throw new IllegalArgumentException("Largo de texto inválido: " + length);
+        }
+
+        byte[] utf8 = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(blob, position, blob.length - position);
+            int read = 0;
+            while (read < length) {
+                int count = inflater.inflate(utf8, read, length - read);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += count;
+            }
+            if (read != length) {
+                throw new IllegalArgumentException("Texto comprimido truncado");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Texto comprimido inválido", e);
+        } finally {
+            inflater.end();
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
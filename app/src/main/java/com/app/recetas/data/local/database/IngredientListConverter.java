@@ -0,0 +1,184 @@
+package com.app.recetas.data.local.database;
+
+import androidx.room.TypeConverter;
+
+import com.app.recetas.data.local.entities.IngredientList;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conversor de Room para Recipe.ingredients: IngredientList <-> BLOB compacto
+ *
+ * Formato (enteros como varint de 7 bits por byte):
+ *   [versión = 1] [cantidad] y por cada ingrediente: [nombre] [medida]
+ *   - nombre: código k > 0 = DICTIONARY[k - 1]; 0 = texto UTF-8 a continuación
+ *   - texto: [largo en bytes] [bytes UTF-8]
+ *
+ * Los nombres del diccionario ocupan 1 byte y al decodificar devuelven siempre la
+ * misma instancia de String (no se crean objetos por ingrediente común)
+ */
+public final class IngredientListConverter {
+
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Ingredientes más comunes de TheMealDB, tal como los escribe la API
+     * IMPORTANTE: los datos guardados usan la posición de cada nombre; solo se puede
+     * agregar al final (nunca reordenar ni quitar) y como máximo 127 para que entren en 1 byte
+     */
+    static final String[] DICTIONARY = {
+            "Salt", "Olive Oil", "Onion", "Garlic", "Butter", "Eggs", "Water", "Sugar",
+            "Plain Flour", "Black Pepper", "Milk", "Vegetable Oil", "Garlic Clove", "Tomatoes", "Onions", "Pepper",
+            "Carrots", "Lemon", "Chicken Stock", "Double Cream", "Egg", "Parsley", "Ginger", "Flour",
+            "Caster Sugar", "Unsalted Butter", "Soy Sauce", "Cumin", "Coriander", "Chopped Tomatoes", "Brown Sugar", "Thyme",
+            "Paprika", "Red Onions", "Chicken Breasts", "Cinnamon", "Lime", "Baking Powder", "Bay Leaf", "Chilli Powder",
+            "Honey", "Chicken", "Beef Stock", "Vegetable Stock", "Tomato Puree", "Red Pepper", "Spring Onions", "Potatoes",
+            "Mozzarella", "Parmesan", "Rice", "Cornstarch", "Turmeric", "Green Chilli", "Garam Masala", "Sesame Seed Oil",
+            "Basil", "Oregano", "Mustard", "Dijon Mustard", "Celery", "Mushrooms", "Cheddar Cheese", "Yogurt",
+            "Coconut Milk", "Vanilla Extract", "Icing Sugar", "Self-raising Flour", "Sunflower Oil", "Rosemary", "Lemon Juice", "Minced Beef",
+            "Cream", "Coriander Leaves", "Cumin Seeds", "Fish Sauce", "Red Wine", "White Wine", "Bacon", "Sea Salt",
+            "Shallots", "Leek", "Chickpeas", "Lentils", "Cayenne Pepper", "Nutmeg", "Cloves", "Cardamom",
+            "Potato", "Spinach", "Courgettes", "Aubergine", "Green Beans", "Peas", "Sweetcorn", "Avocado",
+            "Red Chilli", "Chilli", "Worcestershire Sauce", "Tomato Ketchup", "Mayonnaise", "Rice Vinegar", "Red Wine Vinegar", "White Wine Vinegar",
+            "Cream Cheese", "Feta", "Ricotta", "Greek Yogurt", "Breadcrumbs", "Puff Pastry", "Dark Chocolate", "Cocoa",
+            "Bicarbonate Of Soda", "Mint", "Dill", "Sage", "Spaghetti", "Prawns", "Salmon", "Pork",
+    };
+
+    // Posición + 1 de cada nombre del diccionario (0 queda para los textos)
+    private static final Map<String, Integer> CODES = new HashMap<>(DICTIONARY.length * 2);
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            CODES.put(DICTIONARY[i], i + 1);
+        }
+    }
+
+    private IngredientListConverter() {
+    }
+
+    @TypeConverter
+    public static byte[] toBlob(IngredientList list) {
+        return list == null ? null : encode(list);
+    }
+
+    @TypeConverter
+    public static IngredientList fromBlob(byte[] blob) {
+        if (blob == null) {
+            return null;
+        }
+        IngredientList list = new IngredientList();
+        decode(blob, list);
+        return list;
+    }
+
+    /**
+     * Codifica la lista en el formato binario
+     * @param list Ingredientes
+     * @return Bytes listos para la columna (o para pasar en un Intent)
+     */
+    public static byte[] encode(IngredientList list) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + list.size() * 12);
+        out.write(FORMAT_VERSION);
+        writeVarInt(out, list.size());
+        for (int i = 0; i < list.size(); i++) {
+            String name = list.getName(i);
+            Integer code = CODES.get(name);
+            if (code != null) {
+                writeVarInt(out, code);
+            } else {
+                writeVarInt(out, 0);
+                writeString(out, name);
+            }
+            writeString(out, list.getMeasure(i));
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodifica los ingredientes sobre una lista existente (se vacía antes)
+     * @param blob Bytes generados por encode (null deja la lista vacía)
+     * @param into Lista a completar
+     * @throws IllegalArgumentException si los bytes no tienen el formato esperado
+     */
+    public static void decode(byte[] blob, IngredientList into) {
+        into.clear();
+        if (blob == null || blob.length == 0) {
+            return;
+        }
+        Reader reader = new Reader(blob);
+        int version = reader.readVarInt();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Versión de ingredientes desconocida: " + version);
+        }
+        int count = reader.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int code = reader.readVarInt();
+            String name;
+            if (code == 0) {
+                name = reader.readString();
+            } else if (code <= DICTIONARY.length) {
+                name = DICTIONARY[code - 1];
+            } else {
+                throw new IllegalArgumentException("Código de ingrediente inválido: " + code);
+            }
+            into.add(name, reader.readString());
+        }
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    /**
+     * Cursor de lectura sobre el BLOB
+     */
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        Reader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= bytes.length) {
+                    throw new IllegalArgumentException("Ingredientes truncados");
+                }
+                int b = bytes[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint inválido");
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return "";
+            }
+            if (length < 0 || length > bytes.length - position) {
+                throw new IllegalArgumentException("Ingredientes truncados");
+            }
+            String text = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return text;
+        }
+    }
+}
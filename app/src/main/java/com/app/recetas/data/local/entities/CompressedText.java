@@ -0,0 +1,55 @@
+package com.app.recetas.data.local.entities;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Texto largo de una receta (instrucciones, notas) que se guarda con CompressedTextConverter
+ * Es un tipo propio y no un String porque Room no usa conversores para String (tipo nativo):
+ * así las columnas pasan por el conversor, que comprime los textos largos
+ * Inmutable; Recipe lo expone como String en sus getters y setters
+ */
+public final class CompressedText {
+
+    private final String text;
+
+    private CompressedText(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param text Texto (puede ser null)
+     * @return CompressedText con el texto, o null si text es null
+     */
+    public static CompressedText of(String text) {
+        return text != null ? new CompressedText(text) : null;
+    }
+
+    /**
+     * @param value CompressedText (puede ser null)
+     * @return Texto guardado, o null si value es null
+     */
+    public static String textOf(CompressedText value) {
+        return value != null ? value.text : null;
+    }
+
+    @NonNull
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CompressedText && text.equals(((CompressedText) o).text));
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return text;
+    }
+}
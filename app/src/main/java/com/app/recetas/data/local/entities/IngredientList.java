@@ -0,0 +1,184 @@
+package com.app.recetas.data.local.entities;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.util.Arrays;
+
+/**
+ * Lista de ingredientes de una receta (nombre + medida por posición)
+ * Room la guarda como BLOB con IngredientListConverter; reemplaza al JSON en texto que
+ * se volvía a parsear cada vez que se abría una receta
+ *
+ * No es thread-safe: cada receta tiene su propia instancia y una lista se puede
+ * reutilizar (clear + add o IngredientListConverter.decode) para no crear objetos
+ */
+public final class IngredientList {
+
+    private static final Gson GSON = new Gson();
+
+    private String[] names;
+    private String[] measures;
+    private int size;
+
+    public IngredientList() {
+        this(8);
+    }
+
+    /**
+     * @param capacity Cantidad de ingredientes esperada (TheMealDB tiene como máximo 20)
+     */
+    public IngredientList(int capacity) {
+        names = new String[Math.max(1, capacity)];
+        measures = new String[names.length];
+    }
+
+    /**
+     * Agrega un ingrediente al final
+     * @param name Nombre (ej: "Chicken")
+     * @param measure Medida (ej: "1 whole"); null se guarda como ""
+     */
+    public void add(@NonNull String name, String measure) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+            measures = Arrays.copyOf(measures, size * 2);
+        }
+        names[size] = name;
+        measures[size] = measure != null ? measure : "";
+        size++;
+    }
+
+    /**
+     * Vacía la lista conservando la capacidad (para reutilizarla)
+     */
+    public void clear() {
+        Arrays.fill(names, 0, size, null);
+        Arrays.fill(measures, 0, size, null);
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @NonNull
+    public String getName(int index) {
+        checkIndex(index);
+        return names[index];
+    }
+
+    @NonNull
+    public String getMeasure(int index) {
+        checkIndex(index);
+        return measures[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Ingrediente " + index + " de " + size);
+        }
+    }
+
+    /**
+     * Lee los ingredientes en el formato de texto anterior a la columna binaria
+     * - JSON de MealDto: [{"ingredient":"Chicken","measure":"1 whole"}]
+     * - Texto libre de NewRecipeActivity: un ingrediente por línea (sin medida)
+     * Usado por la migración de la base de datos y por los textos escritos a mano
+     * @param raw Texto guardado en Recipe.ingredients (puede ser null)
+     * @return Lista con los ingredientes (vacía si no hay)
+     */
+    @NonNull
+    public static IngredientList fromText(String raw) {
+        IngredientList list = new IngredientList();
+        if (raw == null || raw.trim().isEmpty()) {
+            return list;
+        }
+        String trimmed = raw.trim();
+        if (trimmed.startsWith("[") && addJson(list, trimmed)) {
+            return list;
+        }
+        for (String line : trimmed.split("\\n")) {
+            if (!line.trim().isEmpty()) {
+                list.add(line.trim(), "");
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return false si el texto no es un array JSON válido (la lista queda vacía)
+     */
+    private static boolean addJson(IngredientList list, String json) {
+        try {
+            JsonArray array = GSON.fromJson(json, JsonArray.class);
+            if (array == null) {
+                return false;
+            }
+            for (JsonElement element : array) {
+                if (element.isJsonObject()) {
+                    JsonObject item = element.getAsJsonObject();
+                    String name = optString(item, "ingredient");
+                    if (!name.isEmpty()) {
+                        list.add(name, optString(item, "measure"));
+                    }
+                } else if (element.isJsonPrimitive()) {
+                    list.add(element.getAsString(), "");
+                }
+            }
+            return true;
+        } catch (JsonParseException | IllegalStateException e) {
+            list.clear();
+            return false;
+        }
+    }
+
+    private static String optString(JsonObject item, String key) {
+        JsonElement value = item.get(key);
+        return value == null || value.isJsonNull() ? "" : value.getAsString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IngredientList)) return false;
+        IngredientList other = (IngredientList) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (!names[i].equals(other.names[i]) || !measures[i].equals(other.measures[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = size;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + names[i].hashCode();
+            hash = 31 * hash + measures[i].hashCode();
+        }
+        return hash;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) text.append(", ");
+            text.append(names[i]);
+            if (!measures[i].isEmpty()) text.append(" (").append(measures[i]).append(')');
+        }
+        return text.append(']').toString();
+    }
+}
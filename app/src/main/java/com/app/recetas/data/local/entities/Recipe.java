@@ -2,8 +2,11 @@ package com.app.recetas.data.local.entities;
 
 import androidx.annotation.NonNull;
 import androidx.room.Entity;
+import androidx.room.Ignore;
 import androidx.room.PrimaryKey;
 
+import com.app.recetas.utils.StringPool;
+
 /**
  * Entidad Recipe que representa una receta en la base de datos local
  * Utiliza Room para el mapeo objeto-relacional
@@ -11,6 +14,13 @@ import androidx.room.PrimaryKey;
 @Entity(tableName = "recipes") // Define la tabla "recipes" en SQLite
 public class Recipe {
     
+    /**
+     * Columnas para las consultas de listas: todas menos instructions, que solo usa el detalle
+     * Las recetas leídas con estas columnas tienen getInstructions() == null
+     */
+    public static final String LIST_COLUMNS = "id, name, category, area, imageUrl, ingredients, "
+            + "personalNotes, isPersonal, dateAdded, dateModified";
+    
     // Clave primaria de la tabla - ID único de la receta
     @PrimaryKey
     @NonNull
@@ -20,22 +30,25 @@ public class Recipe {
     public String name;
     
     // Categoría de la receta (ej: "Pasta", "Dessert", "Beef")
-    public String category;
+    // Privada: Room la asigna con setCategory, que usa la instancia compartida de StringPool
+    private String category;
     
-    // Área geográfica de origen (ej: "Italian", "Mexican", "Chinese")
-    public String area;
+    // Área geográfica de origen (ej: "Italian", "Mexican", "Chinese"); igual que category
+    private String area;
     
     // Instrucciones paso a paso para preparar la receta
-    public String instructions;
+    // CompressedText para que Room las guarde con CompressedTextConverter (comprimidas si son largas);
+    // públicas porque Room no usa los getters/setters de String
+    public CompressedText instructions;
     
     // URL de la imagen de la receta
     public String imageUrl;
     
-    // Ingredientes en formato JSON string (para almacenar lista compleja)
-    public String ingredients;
+    // Ingredientes (nombre + medida); se guardan como BLOB con IngredientListConverter
+    public IngredientList ingredients;
     
-    // Notas personales que el usuario puede agregar
-    public String personalNotes;
+    // Notas personales que el usuario puede agregar (se guardan igual que instructions)
+    public CompressedText personalNotes;
     
     // Indica si es una receta creada por el usuario (true) o de API externa (false)
     public boolean isPersonal;
@@ -54,20 +67,21 @@ public class Recipe {
      * @param area Área geográfica
      * @param instructions Instrucciones de preparación
      * @param imageUrl URL de la imagen
-     * @param ingredients Ingredientes en formato JSON
+     * @param ingredients Ingredientes con sus medidas
      */
+    @Ignore // Room usa el constructor vacío y los setters
     public Recipe(@NonNull String id, String name, String category, String area, 
-                  String instructions, String imageUrl, String ingredients) {
+                  String instructions, String imageUrl, IngredientList ingredients) {
         this.id = id;
         this.name = name;
-        this.category = category;
-        this.area = area;
-        this.instructions = instructions;
+        this.category = StringPool.canonical(category);
+        this.area = StringPool.canonical(area);
+        this.instructions = CompressedText.of(instructions);
         this.imageUrl = imageUrl;
         this.ingredients = ingredients;
         
         // Valores por defecto
-        this.personalNotes = ""; // Sin notas inicialmente
+        this.personalNotes = CompressedText.of(""); // Sin notas inicialmente
         this.isPersonal = false; // Por defecto viene de API externa
         this.dateAdded = System.currentTimeMillis(); // Timestamp actual
         this.dateModified = System.currentTimeMillis(); // Timestamp actual
@@ -100,7 +114,7 @@ public class Recipe {
     }
     
     public void setCategory(String category) {
-        this.category = category;
+        this.category = StringPool.canonical(category);
     }
     
     public String getArea() {
@@ -108,15 +122,15 @@ public class Recipe {
     }
     
     public void setArea(String area) {
-        this.area = area;
+        this.area = StringPool.canonical(area);
     }
     
     public String getInstructions() {
-        return instructions;
+        return CompressedText.textOf(instructions);
     }
     
     public void setInstructions(String instructions) {
-        this.instructions = instructions;
+        this.instructions = CompressedText.of(instructions);
     }
     
     public String getImageUrl() {
@@ -127,20 +141,20 @@ public class Recipe {
         this.imageUrl = imageUrl;
     }
     
-    public String getIngredients() {
+    public IngredientList getIngredients() {
         return ingredients;
     }
     
-    public void setIngredients(String ingredients) {
+    public void setIngredients(IngredientList ingredients) {
         this.ingredients = ingredients;
     }
     
     public String getPersonalNotes() {
-        return personalNotes;
+        return CompressedText.textOf(personalNotes);
     }
     
     public void setPersonalNotes(String personalNotes) {
-        this.personalNotes = personalNotes;
+        this.personalNotes = CompressedText.of(personalNotes);
         // Actualizar timestamp de modificación cuando se cambian las notas
         this.dateModified = System.currentTimeMillis();
     }
@@ -0,0 +1,17 @@
+package com.app.recetas.data.local.entities;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Proyección liviana de la tabla recipes: solo ID e ingredientes
+ * Usada para reconstruir índices en memoria sin cargar instrucciones ni notas
+ */
+public class RecipeIngredientsRow {
+    
+    // ID de la receta
+    @NonNull
+    public String id = "";
+    
+    // Ingredientes tal como se guardan en Recipe.ingredients
+    public IngredientList ingredients;
+}
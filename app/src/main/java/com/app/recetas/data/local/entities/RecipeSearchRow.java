@@ -0,0 +1,20 @@
+package com.app.recetas.data.local.entities;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Proyección liviana de la tabla recipes: ID, nombre e ingredientes
+ * Usada por la búsqueda aproximada para indexar sin cargar instrucciones ni notas
+ */
+public class RecipeSearchRow {
+    
+    // ID de la receta
+    @NonNull
+    public String id = "";
+    
+    // Nombre de la receta
+    public String name;
+    
+    // Ingredientes tal como se guardan en Recipe.ingredients
+    public IngredientList ingredients;
+}
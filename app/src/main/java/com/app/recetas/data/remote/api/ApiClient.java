@@ -1,5 +1,11 @@
 package com.app.recetas.data.remote.api;
 
+import com.app.recetas.BuildConfig;
+import com.app.recetas.data.remote.api.interceptor.CircuitBreakerInterceptor;
+import com.app.recetas.data.remote.api.interceptor.NetworkMetrics;
+import com.app.recetas.data.remote.api.interceptor.NetworkMetricsInterceptor;
+import com.app.recetas.data.remote.api.interceptor.RetryInterceptor;
+
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import okhttp3.OkHttpClient;
@@ -12,8 +18,26 @@ import java.util.concurrent.TimeUnit;
  */
 public class ApiClient {
     
-    // URL base de TheMealDB API
-    private static final String BASE_URL = "https://www.themealdb.com/api/json/v1/1/";
+    // URL base de TheMealDB API (por defecto)
+    public static final String DEFAULT_BASE_URL = "https://www.themealdb.com/api/json/v1/1/";
+    
+    // Timeouts por intento: conexión corta para detectar rápido un enlace caído
+    private static final long CONNECT_TIMEOUT_SECONDS = 5;
+    private static final long READ_TIMEOUT_SECONDS = 10;
+    private static final long WRITE_TIMEOUT_SECONDS = 10;
+    
+    // Presupuesto total por llamada (incluye reintentos) y tope absoluto de OkHttp
+    private static final long CALL_BUDGET_MS = 15000;
+    private static final long CALL_TIMEOUT_SECONDS = 20;
+    
+    // Reintentos con backoff exponencial para pedidos GET
+    private static final int MAX_RETRIES = 2;
+    private static final long RETRY_BASE_DELAY_MS = 300;
+    private static final long RETRY_MAX_DELAY_MS = 2000;
+    
+    // Circuit breaker por endpoint: 5 fallas seguidas abren el circuito por 30 segundos
+    private static final int CIRCUIT_FAILURE_THRESHOLD = 5;
+    private static final long CIRCUIT_OPEN_MS = 30000;
     
     // Instancia singleton de Retrofit
     private static Retrofit retrofit = null;
@@ -21,28 +45,48 @@ public class ApiClient {
     // Instancia singleton del servicio API
     private static MealApiService apiService = null;
     
+    // Circuit breaker compartido por todas las llamadas
+    private static CircuitBreakerInterceptor circuitBreaker = null;
+    
+    // Configuración inyectable (tests, servidor local, pruebas de carga)
+    private static String baseUrl = DEFAULT_BASE_URL;
+    private static OkHttpClient customHttpClient = null;
+    
+    /**
+     * Configura la URL base y el cliente HTTP a usar
+     * Descarta las instancias existentes para que la próxima llamada use la nueva configuración
+     * @param url URL base (debe terminar en "/"), o null para usar TheMealDB
+     * @param httpClient Cliente HTTP a usar, o null para el cliente por defecto
+     */
+    public static synchronized void configure(String url, OkHttpClient httpClient) {
+        baseUrl = url != null ? url : DEFAULT_BASE_URL;
+        customHttpClient = httpClient;
+        retrofit = null;
+        apiService = null;
+    }
+    
+    /**
+     * Obtiene la URL base configurada
+     * @return URL base que usa Retrofit
+     */
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+    
     /**
      * Obtiene la instancia configurada de Retrofit
      * Si no existe, la crea con todas las configuraciones necesarias
      * @return Instancia configurada de Retrofit
      */
-    public static Retrofit getClient() {
+    public static synchronized Retrofit getClient() {
         if (retrofit == null) {
-            // Crear interceptor para logging (útil para debug)
-            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
-            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY); // Log completo de requests/responses
-            
-            // Configurar cliente HTTP con timeouts y logging
-            OkHttpClient okHttpClient = new OkHttpClient.Builder()
-                .addInterceptor(loggingInterceptor) // Agregar logging
-                .connectTimeout(30, TimeUnit.SECONDS) // Timeout de conexión: 30 segundos
-                .readTimeout(30, TimeUnit.SECONDS) // Timeout de lectura: 30 segundos
-                .writeTimeout(30, TimeUnit.SECONDS) // Timeout de escritura: 30 segundos
-                .build();
+            OkHttpClient okHttpClient = customHttpClient != null
+                    ? customHttpClient
+                    : newHttpClientBuilder().build();
             
             // Crear instancia de Retrofit con configuraciones
             retrofit = new Retrofit.Builder()
-                .baseUrl(BASE_URL) // URL base de la API
+                .baseUrl(baseUrl) // URL base de la API
                 .client(okHttpClient) // Cliente HTTP configurado
                 .addConverterFactory(GsonConverterFactory.create()) // Convertidor JSON con Gson
                 .build();
@@ -50,24 +94,75 @@ public class ApiClient {
         return retrofit;
     }
     
+    /**
+     * Crea un builder de OkHttp con la configuración por defecto de la app
+     * Sirve de base para clientes inyectados (ej: acortar timeouts en tests)
+     * @return Builder con métricas, timeouts, reintentos y circuit breaker
+     */
+    public static synchronized OkHttpClient.Builder newHttpClientBuilder() {
+        // Circuit breaker por endpoint
+        if (circuitBreaker == null) {
+            circuitBreaker = new CircuitBreakerInterceptor(CIRCUIT_FAILURE_THRESHOLD, CIRCUIT_OPEN_MS);
+        }
+        
+        // Configurar cliente HTTP con métricas, timeouts, reintentos y circuit breaker
+        // Orden: métricas -> reintentos -> circuit breaker (cada intento pasa por el breaker)
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+            .addInterceptor(new NetworkMetricsInterceptor(NetworkMetrics.getInstance())) // Latencia total, bytes y errores
+            .addInterceptor(new RetryInterceptor(MAX_RETRIES, RETRY_BASE_DELAY_MS,
+                    RETRY_MAX_DELAY_MS, CALL_BUDGET_MS)) // Backoff exponencial con jitter
+            .addInterceptor(circuitBreaker) // Cortar llamadas a endpoints caídos
+            .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS) // Timeout de conexión por intento
+            .readTimeout(READ_TIMEOUT_SECONDS, TimeUnit.SECONDS) // Timeout de lectura por intento
+            .writeTimeout(WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS) // Timeout de escritura por intento
+            .callTimeout(CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS); // Tope total de la llamada
+        
+        // Logging solo en debug: en release no se bufferean ni escriben cuerpos en logcat
+        if (BuildConfig.DEBUG) {
+            HttpLoggingInterceptor loggingInterceptor = new HttpLoggingInterceptor();
+            loggingInterceptor.setLevel(HttpLoggingInterceptor.Level.BODY); // Log completo de requests/responses
+            builder.addInterceptor(loggingInterceptor);
+        }
+        return builder;
+    }
+    
     /**
      * Obtiene la instancia del servicio API
      * Crea el servicio usando Retrofit si no existe
      * @return Instancia de MealApiService lista para usar
      */
-    public static MealApiService getApiService() {
+    public static synchronized MealApiService getApiService() {
         if (apiService == null) {
             apiService = getClient().create(MealApiService.class);
         }
         return apiService;
     }
     
+    /**
+     * Obtiene el circuit breaker compartido (útil para diagnóstico y testing)
+     * @return Interceptor con el estado de cada endpoint, o null si aún no se creó el cliente
+     */
+    public static CircuitBreakerInterceptor getCircuitBreaker() {
+        return circuitBreaker;
+    }
+    
+    /**
+     * Obtiene las métricas de red acumuladas por endpoint
+     * @return Registro compartido de NetworkMetrics
+     */
+    public static NetworkMetrics getNetworkMetrics() {
+        return NetworkMetrics.getInstance();
+    }
+    
     /**
      * Método para limpiar las instancias (útil para testing)
-     * Resetea las instancias singleton
+     * Resetea las instancias singleton y vuelve a la configuración por defecto
      */
-    public static void clearInstances() {
+    public static synchronized void clearInstances() {
         retrofit = null;
         apiService = null;
+        circuitBreaker = null;
+        baseUrl = DEFAULT_BASE_URL;
+        customHttpClient = null;
     }
 }
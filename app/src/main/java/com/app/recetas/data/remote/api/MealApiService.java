@@ -45,6 +45,16 @@ public interface MealApiService {
     @GET("filter.php")
     Call<MealResponse> searchByArea(@Query("a") String area);
     
+    /**
+     * Busca recetas por ingrediente principal
+     * Endpoint: /filter.php?i={ingrediente}
+     * Ejemplo: /filter.php?i=chicken_breast (los espacios se escriben con guión bajo)
+     * @param ingredient Ingrediente en inglés
+     * @return Call con MealResponse que contiene recetas con ese ingrediente (datos básicos)
+     */
+    @GET("filter.php")
+    Call<MealResponse> searchByIngredient(@Query("i") String ingredient);
+    
     /**
      * Obtiene todas las categorías disponibles
      * Endpoint: /categories.php
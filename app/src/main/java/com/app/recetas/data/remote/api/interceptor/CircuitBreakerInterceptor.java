@@ -0,0 +1,171 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de OkHttp con un circuit breaker por endpoint
+ * Tras varias fallas seguidas el circuito se abre y las llamadas fallan al instante
+ * Pasado el tiempo de espera deja pasar un único pedido de prueba (semi-abierto):
+ * si responde bien el circuito se cierra, si falla vuelve a abrirse
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    /**
+     * Estados posibles del circuito de un endpoint
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Fuente de tiempo (reemplazable en tests)
+     */
+    public interface Clock {
+        long currentTimeMillis();
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+    private final Clock clock;
+
+    // Estado del circuito por endpoint (ej: "search.php", "lookup.php")
+    private final Map<String, Circuit> circuits = new HashMap<>();
+
+    /**
+     * Constructor del interceptor
+     * @param failureThreshold Fallas consecutivas necesarias para abrir el circuito
+     * @param openDurationMs Tiempo que el circuito permanece abierto
+     */
+    public CircuitBreakerInterceptor(int failureThreshold, long openDurationMs) {
+        this(failureThreshold, openDurationMs, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructor con reloj configurable (útil para testing)
+     */
+    public CircuitBreakerInterceptor(int failureThreshold, long openDurationMs, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMs = openDurationMs;
+        this.clock = clock;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = endpointOf(request);
+
+        Circuit circuit;
+        synchronized (this) {
+            circuit = circuits.get(endpoint);
+            if (circuit == null) {
+                circuit = new Circuit();
+                circuits.put(endpoint, circuit);
+            }
+            long now = clock.currentTimeMillis();
+            if (circuit.state == State.OPEN) {
+                long retryIn = circuit.openedAt + openDurationMs - now;
+                if (retryIn > 0) {
+                    throw new CircuitOpenException(endpoint, retryIn);
+                }
+                // Tiempo cumplido: dejar pasar un pedido de prueba
+                circuit.state = State.HALF_OPEN;
+                circuit.trialInFlight = false;
+            }
+            if (circuit.state == State.HALF_OPEN) {
+                if (circuit.trialInFlight) {
+                    throw new CircuitOpenException(endpoint, openDurationMs);
+                }
+                circuit.trialInFlight = true;
+            }
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            // Las excepciones no chequeadas (bug de un interceptor, llamada cerrada) también
+            // liberan el pedido de prueba: si no, el circuito quedaría semi-abierto para siempre
+            if (!chain.call().isCanceled()) {
+                recordFailure(circuit);
+            } else {
+                releaseTrial(circuit);
+            }
+            throw e;
+        }
+
+        if (response.code() >= 500) {
+            recordFailure(circuit);
+        } else {
+            recordSuccess(circuit);
+        }
+        return response;
+    }
+
+    /**
+     * Obtiene el estado actual del circuito de un endpoint
+     * @param endpoint Último segmento de la ruta (ej: "lookup.php")
+     * @return Estado del circuito (CLOSED si nunca se usó)
+     */
+    public synchronized State getState(String endpoint) {
+        Circuit circuit = circuits.get(endpoint);
+        return circuit != null ? circuit.state : State.CLOSED;
+    }
+
+    /**
+     * Cierra todos los circuitos (útil para testing o al recuperar conectividad)
+     */
+    public synchronized void reset() {
+        circuits.clear();
+    }
+
+    private synchronized void recordFailure(Circuit circuit) {
+        circuit.trialInFlight = false;
+        circuit.consecutiveFailures++;
+        if (circuit.state == State.HALF_OPEN || circuit.consecutiveFailures >= failureThreshold) {
+            circuit.state = State.OPEN;
+            circuit.openedAt = clock.currentTimeMillis();
+        }
+    }
+
+    private synchronized void recordSuccess(Circuit circuit) {
+        circuit.trialInFlight = false;
+        circuit.consecutiveFailures = 0;
+        circuit.state = State.CLOSED;
+    }
+
+    private synchronized void releaseTrial(Circuit circuit) {
+        circuit.trialInFlight = false;
+    }
+
+    /**
+     * Identifica el endpoint por el último segmento de la ruta
+     * Así todas las llamadas a lookup.php comparten circuito, sin importar el ID
+     */
+    static String endpointOf(Request request) {
+        List<String> segments = request.url().pathSegments();
+        String last = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+        return last.isEmpty() ? request.url().encodedPath() : last;
+    }
+
+    /**
+     * Estado mutable de un circuito (protegido por el lock del interceptor)
+     */
+    private static class Circuit {
+        State state = State.CLOSED;
+        int consecutiveFailures = 0;
+        long openedAt = 0;
+        boolean trialInFlight = false;
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import java.io.IOException;
+
+/**
+ * Error lanzado cuando el circuito de un endpoint está abierto
+ * La llamada falla de inmediato sin tocar la red
+ * Retrofit lo entrega en Callback.onFailure como cualquier error de conexión
+ */
+public class CircuitOpenException extends IOException {
+
+    // Endpoint cuyo circuito está abierto (ej: "lookup.php")
+    private final String endpoint;
+
+    public CircuitOpenException(String endpoint, long retryInMs) {
+        super("Servicio no disponible (" + endpoint + "). Reintentar en " + (retryInMs / 1000) + " s");
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
@@ -0,0 +1,215 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Registro de métricas de red por endpoint
+ * Guarda histogramas de latencia, bytes transferidos, estado de caché y errores
+ * Usa contadores atómicos para que registrar cada llamada cueste muy poco
+ */
+public class NetworkMetrics {
+
+    /**
+     * Límites superiores (en ms) de cada bucket del histograma de latencia
+     * El último bucket (sin límite) acumula todo lo que supere 10 segundos
+     */
+    public static final long[] LATENCY_BUCKETS_MS = {50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    /**
+     * Origen de la respuesta según la caché HTTP de OkHttp
+     */
+    public enum CacheStatus {
+        NETWORK,     // Respuesta traída de la red
+        HIT,         // Respuesta servida completa desde caché
+        CONDITIONAL, // Validada contra el servidor (304) y servida desde caché
+        NONE         // La llamada falló antes de obtener respuesta
+    }
+
+    // Instancia compartida usada por ApiClient
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    // Estadísticas por endpoint (ej: "search.php", "lookup.php")
+    private final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene el registro compartido de la app
+     * @return Instancia única de NetworkMetrics
+     */
+    public static NetworkMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registra el resultado de una llamada
+     * @param endpoint Endpoint llamado
+     * @param latencyMs Duración total de la llamada
+     * @param bytesSent Bytes del cuerpo enviado (0 si no tiene o es desconocido)
+     * @param bytesReceived Bytes del cuerpo recibido (-1 si es desconocido)
+     * @param cacheStatus Origen de la respuesta
+     * @param error true si la llamada falló o respondió con código de error
+     */
+    public void record(String endpoint, long latencyMs, long bytesSent, long bytesReceived,
+                       CacheStatus cacheStatus, boolean error) {
+        EndpointStats stats = endpoints.get(endpoint);
+        if (stats == null) {
+            EndpointStats created = new EndpointStats();
+            EndpointStats existing = endpoints.putIfAbsent(endpoint, created);
+            stats = existing != null ? existing : created;
+        }
+        stats.record(latencyMs, bytesSent, bytesReceived, cacheStatus, error);
+    }
+
+    /**
+     * Obtiene una foto de las métricas de un endpoint
+     * @param endpoint Endpoint consultado
+     * @return Snapshot con los valores actuales, o null si nunca se llamó
+     */
+    public Snapshot getSnapshot(String endpoint) {
+        EndpointStats stats = endpoints.get(endpoint);
+        return stats != null ? stats.snapshot(endpoint) : null;
+    }
+
+    /**
+     * Obtiene una foto de las métricas de todos los endpoints, ordenada por nombre
+     * @return Mapa endpoint -> snapshot
+     */
+    public Map<String, Snapshot> getSnapshots() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot(entry.getKey()));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Borra todas las métricas (útil para testing)
+     */
+    public void reset() {
+        endpoints.clear();
+    }
+
+    /**
+     * Contadores de un endpoint
+     */
+    private static class EndpointStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong bytesSent = new AtomicLong();
+        final AtomicLong bytesReceived = new AtomicLong();
+        final AtomicLong unknownSizeResponses = new AtomicLong();
+        final AtomicLong totalLatencyMs = new AtomicLong();
+        final AtomicLongArray cacheStatus = new AtomicLongArray(CacheStatus.values().length);
+        final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+
+        void record(long latencyMs, long sent, long received, CacheStatus status, boolean error) {
+            calls.incrementAndGet();
+            if (error) errors.incrementAndGet();
+            if (sent > 0) bytesSent.addAndGet(sent);
+            if (received >= 0) {
+                bytesReceived.addAndGet(received);
+            } else if (status != CacheStatus.NONE) {
+                unknownSizeResponses.incrementAndGet();
+            }
+            totalLatencyMs.addAndGet(latencyMs);
+            cacheStatus.incrementAndGet(status.ordinal());
+            latencyBuckets.incrementAndGet(bucketOf(latencyMs));
+        }
+
+        Snapshot snapshot(String endpoint) {
+            long[] buckets = new long[latencyBuckets.length()];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = latencyBuckets.get(i);
+            }
+            long[] cache = new long[cacheStatus.length()];
+            for (int i = 0; i < cache.length; i++) {
+                cache[i] = cacheStatus.get(i);
+            }
+            return new Snapshot(endpoint, calls.get(), errors.get(), bytesSent.get(), bytesReceived.get(),
+                    unknownSizeResponses.get(), totalLatencyMs.get(), cache, buckets);
+        }
+
+        static int bucketOf(long latencyMs) {
+            for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+                if (latencyMs <= LATENCY_BUCKETS_MS[i]) {
+                    return i;
+                }
+            }
+            return LATENCY_BUCKETS_MS.length;
+        }
+    }
+
+    /**
+     * Foto inmutable de las métricas de un endpoint
+     */
+    public static class Snapshot {
+        private final String endpoint;
+        private final long calls;
+        private final long errors;
+        private final long bytesSent;
+        private final long bytesReceived;
+        private final long unknownSizeResponses;
+        private final long totalLatencyMs;
+        private final long[] cacheStatusCounts;
+        private final long[] latencyBuckets;
+
+        Snapshot(String endpoint, long calls, long errors, long bytesSent, long bytesReceived,
+                 long unknownSizeResponses, long totalLatencyMs, long[] cacheStatusCounts, long[] latencyBuckets) {
+            this.endpoint = endpoint;
+            this.calls = calls;
+            this.errors = errors;
+            this.bytesSent = bytesSent;
+            this.bytesReceived = bytesReceived;
+            this.unknownSizeResponses = unknownSizeResponses;
+            this.totalLatencyMs = totalLatencyMs;
+            this.cacheStatusCounts = cacheStatusCounts;
+            this.latencyBuckets = latencyBuckets;
+        }
+
+        public String getEndpoint() { return endpoint; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getBytesSent() { return bytesSent; }
+        public long getBytesReceived() { return bytesReceived; }
+        public long getUnknownSizeResponses() { return unknownSizeResponses; }
+
+        public long getCacheCount(CacheStatus status) {
+            return cacheStatusCounts[status.ordinal()];
+        }
+
+        /**
+         * Cantidad de llamadas en cada bucket (ver LATENCY_BUCKETS_MS)
+         * @return Copia del histograma, con un bucket extra para el desborde
+         */
+        public long[] getLatencyBuckets() {
+            return latencyBuckets.clone();
+        }
+
+        public long getAverageLatencyMs() {
+            return calls > 0 ? totalLatencyMs / calls : 0;
+        }
+
+        /**
+         * Percentil aproximado de latencia según el histograma
+         * @param percentile Valor entre 0 y 100 (ej: 95)
+         * @return Límite superior del bucket que contiene el percentil,
+         *         o Long.MAX_VALUE si cae en el bucket de desborde
+         */
+        public long getLatencyPercentileMs(double percentile) {
+            if (calls == 0) return 0;
+            long target = (long) Math.ceil(calls * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < latencyBuckets.length; i++) {
+                seen += latencyBuckets[i];
+                if (seen >= target) {
+                    return i < LATENCY_BUCKETS_MS.length ? LATENCY_BUCKETS_MS[i] : Long.MAX_VALUE;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import androidx.annotation.NonNull;
+import androidx.tracing.Trace;
+
+import com.app.recetas.utils.MainThreadIoGuard;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Interceptor de OkHttp que registra métricas de cada llamada en NetworkMetrics
+ * Nunca lee ni copia cuerpos: los tamaños salen de Content-Length
+ * Debe ser el primer interceptor para medir la latencia total (incluyendo reintentos)
+ * Cada llamada queda además en una sección de traza "api.<endpoint>" (thread de OkHttp)
+ */
+public class NetworkMetricsInterceptor implements Interceptor {
+
+    private final NetworkMetrics metrics;
+
+    /**
+     * Constructor del interceptor
+     * @param metrics Registro donde acumular las métricas
+     */
+    public NetworkMetricsInterceptor(NetworkMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = CircuitBreakerInterceptor.endpointOf(request);
+        MainThreadIoGuard.check("api." + endpoint); // Solo pasa con execute() desde el main thread
+        long bytesSent = request.body() != null ? Math.max(0, request.body().contentLength()) : 0;
+        long start = System.nanoTime();
+
+        Response response;
+        Trace.beginSection("api." + endpoint);
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            metrics.record(endpoint, elapsedMs(start), bytesSent, -1, NetworkMetrics.CacheStatus.NONE, true);
+            throw e;
+        } finally {
+            Trace.endSection();
+        }
+
+        metrics.record(endpoint, elapsedMs(start), bytesSent, responseSize(response),
+                cacheStatusOf(response), !response.isSuccessful());
+        return response;
+    }
+
+    /**
+     * Tamaño recibido según Content-Length
+     * Se prefiere el header de la respuesta de red porque refleja los bytes
+     * transferidos (comprimidos), antes de que OkHttp descomprima el gzip
+     */
+    private static long responseSize(Response response) {
+        Response network = response.networkResponse();
+        if (network != null) {
+            String header = network.header("Content-Length");
+            if (header != null) {
+                try {
+                    return Long.parseLong(header);
+                } catch (NumberFormatException ignored) {
+                    // Header inválido: probar con el cuerpo
+                }
+            }
+        }
+        ResponseBody body = response.body();
+        return body != null ? body.contentLength() : -1;
+    }
+
+    private static NetworkMetrics.CacheStatus cacheStatusOf(Response response) {
+        if (response.cacheResponse() == null) {
+            return NetworkMetrics.CacheStatus.NETWORK;
+        }
+        return response.networkResponse() != null
+                ? NetworkMetrics.CacheStatus.CONDITIONAL
+                : NetworkMetrics.CacheStatus.HIT;
+    }
+
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,156 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Interceptor de OkHttp que reintenta pedidos idempotentes (GET/HEAD)
+ * con backoff exponencial y jitter, dentro de un presupuesto de tiempo por llamada
+ * Reintenta ante errores de red, respuestas 5xx y 429
+ * Nunca reintenta cuando el circuito del endpoint está abierto
+ */
+public class RetryInterceptor implements Interceptor {
+
+    /**
+     * Header opcional para fijar el presupuesto (en ms) de una llamada específica
+     * Se elimina antes de enviar el pedido al servidor
+     */
+    public static final String HEADER_CALL_BUDGET = "X-Call-Budget-Ms";
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final long defaultBudgetMs;
+    private final Random random;
+
+    /**
+     * Constructor del interceptor
+     * @param maxRetries Cantidad máxima de reintentos (sin contar el primer intento)
+     * @param baseDelayMs Espera base del backoff exponencial
+     * @param maxDelayMs Espera máxima entre intentos
+     * @param defaultBudgetMs Tiempo total disponible para la llamada, incluyendo reintentos
+     */
+    public RetryInterceptor(int maxRetries, long baseDelayMs, long maxDelayMs, long defaultBudgetMs) {
+        this(maxRetries, baseDelayMs, maxDelayMs, defaultBudgetMs, new Random());
+    }
+
+    /**
+     * Constructor con generador aleatorio configurable (útil para testing)
+     */
+    RetryInterceptor(int maxRetries, long baseDelayMs, long maxDelayMs, long defaultBudgetMs, Random random) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.baseDelayMs = Math.max(1, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        this.defaultBudgetMs = defaultBudgetMs;
+        this.random = random;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        long budgetMs = readBudget(request);
+        if (request.header(HEADER_CALL_BUDGET) != null) {
+            request = request.newBuilder().removeHeader(HEADER_CALL_BUDGET).build();
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        boolean idempotent = isIdempotent(request);
+        int attempt = 0;
+
+        while (true) {
+            long remainingMs = remainingMs(deadline);
+            if (remainingMs <= 0) {
+                throw new InterruptedIOException("Presupuesto de la llamada agotado (" + budgetMs + " ms)");
+            }
+
+            // Cada intento usa como máximo el tiempo que queda del presupuesto
+            Chain attemptChain = chain
+                    .withConnectTimeout((int) Math.min(chain.connectTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS)
+                    .withReadTimeout((int) Math.min(chain.readTimeoutMillis(), remainingMs), TimeUnit.MILLISECONDS);
+
+            Response response;
+            try {
+                response = attemptChain.proceed(request);
+            } catch (CircuitOpenException e) {
+                // El endpoint está caído: no insistir
+                throw e;
+            } catch (IOException e) {
+                if (!idempotent || attempt >= maxRetries || chain.call().isCanceled()) {
+                    throw e;
+                }
+                waitBeforeRetry(attempt, deadline, e);
+                attempt++;
+                continue;
+            }
+
+            if (!idempotent || attempt >= maxRetries || !isRetryable(response)) {
+                return response;
+            }
+
+            // Liberar la conexión antes de reintentar
+            response.close();
+            waitBeforeRetry(attempt, deadline, null);
+            attempt++;
+        }
+    }
+
+    /**
+     * Calcula la espera del intento con "full jitter": aleatorio entre 0 y base * 2^intento
+     * @param attempt Número de intento fallido (empezando en 0)
+     * @return Espera en milisegundos
+     */
+    long computeDelayMs(int attempt) {
+        long exponential = baseDelayMs << Math.min(attempt, 20);
+        long cap = Math.min(maxDelayMs, exponential);
+        return (long) (random.nextDouble() * cap);
+    }
+
+    private void waitBeforeRetry(int attempt, long deadline, IOException cause) throws IOException {
+        long delayMs = computeDelayMs(attempt);
+        // Si la espera no entra en el presupuesto, fallar ya en lugar de esperar en vano
+        if (delayMs >= remainingMs(deadline)) {
+            if (cause != null) throw cause;
+            throw new InterruptedIOException("Presupuesto de la llamada agotado antes del reintento");
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Reintento interrumpido");
+        }
+    }
+
+    private long readBudget(Request request) {
+        String header = request.header(HEADER_CALL_BUDGET);
+        if (header != null) {
+            try {
+                return Long.parseLong(header.trim());
+            } catch (NumberFormatException ignored) {
+                // Header inválido: usar el presupuesto por defecto
+            }
+        }
+        return defaultBudgetMs;
+    }
+
+    private static long remainingMs(long deadlineNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return "GET".equals(request.method()) || "HEAD".equals(request.method());
+    }
+
+    private static boolean isRetryable(Response response) {
+        int code = response.code();
+        return code == 429 || code >= 500;
+    }
+}
@@ -0,0 +1,52 @@
+package com.app.recetas.data.remote.auth;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.tracing.Trace;
+
+import com.app.recetas.utils.LazyInitializer;
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Acceso perezoso a FirebaseAuth
+ * FirebaseAuth.getInstance() inicializa componentes y lee el usuario persistido: lo
+ * dispara FirebaseInitializer en un thread propio al arrancar la app y las pantallas
+ * lo usan a través de esta instancia (get() solo bloquea si todavía no terminó)
+ */
+public final class FirebaseAuthProvider {
+    
+    private static LazyInitializer<FirebaseAuth> instance;
+    
+    private FirebaseAuthProvider() {
+    }
+    
+    /**
+     * Obtiene el inicializador compartido de FirebaseAuth
+     * Los ReadyCallback se ejecutan en el main thread
+     */
+    public static synchronized LazyInitializer<FirebaseAuth> getInstance() {
+        if (instance == null) {
+            Handler mainHandler = new Handler(Looper.getMainLooper());
+            instance = new LazyInitializer<>("FirebaseAuth", FirebaseAuthProvider::create,
+                    Executors.newSingleThreadExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "firebase-init");
+                        thread.setDaemon(true);
+                        return thread;
+                    }),
+                    mainHandler::post);
+        }
+        return instance;
+    }
+    
+    private static FirebaseAuth create() {
+        Trace.beginSection("FirebaseAuth.getInstance");
+        try {
+            return FirebaseAuth.getInstance();
+        } finally {
+            Trace.endSection();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.app.recetas.data.remote.cache;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.app.recetas.utils.MainThreadIoGuard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Caché persistente de los catálogos de TheMealDB (categorías y áreas)
+ * La completa CatalogRefreshWorker en segundo plano; la búsqueda la usa para
+ * poblar los spinners al instante y como respaldo sin conexión
+ * Lee y escribe disco: usar solo desde background threads (el archivo se abre en el primer uso)
+ */
+public class CatalogCache {
+    
+    // Archivo de preferencias y claves
+    private static final String PREF_NAME = "catalog_cache";
+    private static final String KEY_CATEGORIES = "categories";
+    private static final String KEY_AREAS = "areas";
+    private static final String KEY_REFRESHED_AT = "refreshed_at";
+    
+    // Separador de nombres (los nombres de TheMealDB no tienen saltos de línea)
+    private static final String SEPARATOR = "\n";
+    
+    private final Context context;
+    private SharedPreferences preferences;
+    
+    /**
+     * @param context Contexto (se usa el de la aplicación)
+     */
+    public CatalogCache(Context context) {
+        this.context = context.getApplicationContext();
+    }
+    
+    /**
+     * Categorías guardadas
+     * @return Nombres de categorías o lista vacía si nunca se descargaron
+     */
+    public List<String> getCategories() {
+        return split(preferences("catalogCache.getCategories").getString(KEY_CATEGORIES, null));
+    }
+    
+    /**
+     * Áreas guardadas
+     * @return Nombres de áreas o lista vacía si nunca se descargaron
+     */
+    public List<String> getAreas() {
+        return split(preferences("catalogCache.getAreas").getString(KEY_AREAS, null));
+    }
+    
+    /**
+     * Guarda las categorías descargadas de la API
+     * @param categories Nombres de categorías (sin la opción por defecto del spinner)
+     */
+    public void saveCategories(List<String> categories) {
+        save(KEY_CATEGORIES, categories);
+    }
+    
+    /**
+     * Guarda las áreas descargadas de la API
+     * @param areas Nombres de áreas (sin la opción por defecto del spinner)
+     */
+    public void saveAreas(List<String> areas) {
+        save(KEY_AREAS, areas);
+    }
+    
+    /**
+     * Momento de la última actualización de cualquiera de los catálogos
+     * @return Timestamp en milisegundos o 0 si nunca se actualizaron
+     */
+    public long getRefreshedAt() {
+        return preferences("catalogCache.getRefreshedAt").getLong(KEY_REFRESHED_AT, 0);
+    }
+    
+    /**
+     * Archivo de preferencias (lo abre en el primer uso)
+     * @param operation Operación que lo usa, para MainThreadIoGuard
+     */
+    private synchronized SharedPreferences preferences(String operation) {
+        MainThreadIoGuard.check(operation);
+        if (preferences == null) {
+            preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        }
+        return preferences;
+    }
+    
+    private void save(String key, List<String> names) {
+        if (names == null || names.isEmpty()) {
+            return; // Una respuesta vacía no borra el catálogo conocido
+        }
+        preferences("catalogCache.save").edit()
+                .putString(key, join(names))
+                .putLong(KEY_REFRESHED_AT, System.currentTimeMillis())
+                .apply();
+    }
+    
+    private static String join(List<String> names) {
+        StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) continue;
+            if (builder.length() > 0) builder.append(SEPARATOR);
+            builder.append(name.trim());
+        }
+        return builder.toString();
+    }
+    
+    private static List<String> split(String value) {
+        if (value == null || value.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(Arrays.asList(value.split(SEPARATOR)));
+    }
+}
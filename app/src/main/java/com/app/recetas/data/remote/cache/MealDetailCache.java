@@ -0,0 +1,230 @@
+package com.app.recetas.data.remote.cache;
+
+import androidx.annotation.NonNull;
+
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Caché en memoria de detalles completos de recetas (respuestas de /lookup.php)
+ * Compartida por toda la app (singleton) para que el detalle precargado desde la
+ * búsqueda esté disponible al abrir RecipeDetailActivity
+ * Agrupa pedidos concurrentes del mismo ID en una sola llamada a la API
+ */
+public class MealDetailCache {
+
+    // Cantidad máxima de recetas completas guardadas en memoria
+    private static final int MAX_ENTRIES = 100;
+
+    // Instancia singleton de la caché
+    private static MealDetailCache instance = null;
+
+    // Caché LRU (LinkedHashMap ordenado por acceso)
+    private final Map<String, MealDto> cache = new LinkedHashMap<String, MealDto>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MealDto> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Llamadas en curso por ID, junto con quienes esperan su resultado
+    private final Map<String, Call<MealResponse>> inFlight = new HashMap<>();
+    private final Map<String, List<DetailCallback>> waiting = new HashMap<>();
+
+    /**
+     * Callback para recibir el detalle completo de una receta
+     */
+    public interface DetailCallback {
+        void onDetailLoaded(MealDto meal);
+        void onDetailError(String message);
+    }
+
+    /**
+     * Obtiene la instancia única de la caché
+     * @return Instancia compartida de MealDetailCache
+     */
+    public static synchronized MealDetailCache getInstance() {
+        if (instance == null) {
+            instance = new MealDetailCache();
+        }
+        return instance;
+    }
+
+    /**
+     * Obtiene una receta completa de la caché
+     * @param id ID de la receta en TheMealDB
+     * @return MealDto completo o null si no está en caché
+     */
+    public synchronized MealDto get(String id) {
+        return id != null ? cache.get(id) : null;
+    }
+
+    /**
+     * Verifica si la receta ya está en caché
+     * @param id ID de la receta
+     * @return true si el detalle completo está disponible
+     */
+    public synchronized boolean contains(String id) {
+        return id != null && cache.containsKey(id);
+    }
+
+    /**
+     * Guarda una receta completa en la caché
+     * Las recetas sin instrucciones (resultados de filter.php) se ignoran
+     * @param meal Receta con información completa
+     */
+    public synchronized void put(MealDto meal) {
+        if (meal != null && meal.idMeal != null && isComplete(meal)) {
+            cache.put(meal.idMeal, meal);
+        }
+    }
+
+    /**
+     * Verifica si hay una llamada en curso para el ID
+     * @param id ID de la receta
+     * @return true si se está descargando el detalle
+     */
+    public synchronized boolean isLoading(String id) {
+        return inFlight.containsKey(id);
+    }
+
+    /**
+     * Obtiene el detalle de una receta, desde caché o desde la API
+     * Si ya hay una llamada en curso para el mismo ID, se reutiliza
+     * @param apiService Servicio API para hacer la llamada si no está en caché
+     * @param id ID de la receta
+     * @param callback Callback con el resultado (puede ser null para solo precargar)
+     */
+    public void fetch(MealApiService apiService, String id, DetailCallback callback) {
+        if (id == null || id.isEmpty()) {
+            if (callback != null) callback.onDetailError("ID de receta inválido");
+            return;
+        }
+
+        Call<MealResponse> call;
+        synchronized (this) {
+            MealDto cached = cache.get(id);
+            if (cached != null) {
+                if (callback != null) callback.onDetailLoaded(cached);
+                return;
+            }
+
+            List<DetailCallback> callbacks = waiting.get(id);
+            if (callbacks == null) {
+                callbacks = new ArrayList<>();
+                waiting.put(id, callbacks);
+            }
+            if (callback != null) callbacks.add(callback);
+
+            // Ya hay una llamada en curso: solo esperar su resultado
+            if (inFlight.containsKey(id)) {
+                return;
+            }
+
+            call = apiService.getRecipeById(id);
+            inFlight.put(id, call);
+        }
+
+        call.enqueue(new Callback<MealResponse>() {
+            @Override
+            public void onResponse(@NonNull Call<MealResponse> call, @NonNull Response<MealResponse> response) {
+                if (response.isSuccessful() && response.body() != null && response.body().hasResults()) {
+                    MealDto meal = response.body().meals.get(0);
+                    put(meal);
+                    for (DetailCallback cb : finish(id, call)) {
+                        cb.onDetailLoaded(meal);
+                    }
+                } else {
+                    for (DetailCallback cb : finish(id, call)) {
+                        cb.onDetailError("Error en el servidor. Código: " + response.code());
+                    }
+                }
+            }
+
+            @Override
+            public void onFailure(@NonNull Call<MealResponse> call, @NonNull Throwable t) {
+                List<DetailCallback> callbacks = finish(id, call);
+                // Una cancelación no es un error para quien ya no espera el resultado
+                if (call.isCanceled()) {
+                    return;
+                }
+                for (DetailCallback cb : callbacks) {
+                    cb.onDetailError("Error de conexión: " + t.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Retira un callback de la espera y cancela la descarga si nadie más la necesita
+     * Usado por LazyResultList cuando la fila sale de pantalla
+     * @param id ID de la receta
+     * @param owner Callback registrado por quien ya no necesita el resultado
+     * @return true si la llamada fue cancelada
+     */
+    public boolean cancel(String id, DetailCallback owner) {
+        Call<MealResponse> call;
+        synchronized (this) {
+            List<DetailCallback> callbacks = waiting.get(id);
+            if (callbacks != null) {
+                callbacks.remove(owner);
+                if (!callbacks.isEmpty()) {
+                    return false;
+                }
+            }
+            call = inFlight.remove(id);
+            waiting.remove(id);
+        }
+        if (call != null) {
+            call.cancel();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Limpia la caché completa (útil para testing)
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     * Cantidad de recetas en caché
+     * @return Número de entradas
+     */
+    public synchronized int size() {
+        return cache.size();
+    }
+
+    /**
+     * Marca la llamada como terminada y devuelve los callbacks pendientes
+     */
+    private synchronized List<DetailCallback> finish(String id, Call<MealResponse> call) {
+        // Si la llamada fue cancelada y reemplazada por otra, no tocar la nueva
+        if (inFlight.get(id) != call) {
+            return new ArrayList<>();
+        }
+        inFlight.remove(id);
+        List<DetailCallback> callbacks = waiting.remove(id);
+        return callbacks != null ? callbacks : new ArrayList<>();
+    }
+
+    /**
+     * Una receta está completa si trae instrucciones (lookup.php o search.php)
+     */
+    private boolean isComplete(MealDto meal) {
+        return meal.strInstructions != null && !meal.strInstructions.trim().isEmpty();
+    }
+}
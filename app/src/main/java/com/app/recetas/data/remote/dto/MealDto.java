@@ -1,12 +1,11 @@
 package com.app.recetas.data.remote.dto;
 
+import com.app.recetas.data.local.entities.IngredientList;
 import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.utils.StringPool;
+import com.google.gson.annotations.JsonAdapter;
 import com.google.gson.annotations.SerializedName;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 /**
  * DTO (Data Transfer Object) para recibir datos de TheMealDB API
  * Mapea la respuesta JSON a objetos Java usando Gson
@@ -21,12 +20,14 @@ public class MealDto {
     @SerializedName("strMeal")
     public String strMeal;
     
-    // Categoría de la receta (Beef, Chicken, Dessert, etc.)
+    // Categoría de la receta (Beef, Chicken, Dessert, etc.); instancia compartida de StringPool
     @SerializedName("strCategory")
+    @JsonAdapter(StringPool.GsonAdapter.class)
     public String strCategory;
     
-    // Área geográfica (Italian, Mexican, British, etc.)
+    // Área geográfica (Italian, Mexican, British, etc.); instancia compartida de StringPool
     @SerializedName("strArea")
+    @JsonAdapter(StringPool.GsonAdapter.class)
     public String strArea;
     
     // Instrucciones completas de preparación
@@ -94,18 +95,81 @@ public class MealDto {
             strArea != null ? strArea : "Sin área", // Área
             strInstructions != null ? strInstructions : "Instrucciones no disponibles. Busca por nombre para obtener detalles completos.", // Instrucciones
             strMealThumb != null ? strMealThumb : "", // URL imagen
-            buildIngredientsJson() // Ingredientes en formato JSON
+            buildIngredientList() // Ingredientes con sus medidas
         );
     }
     
     /**
-     * Construye un JSON string con todos los ingredientes y medidas
+     * Crea un MealDto a partir de una receta guardada en Room
+     * Usado para mostrar la colección local junto con los resultados de la API
+     * @param recipe Receta local
+     * @return MealDto con los datos de la receta (hasta 20 ingredientes)
+     */
+    public static MealDto fromRecipe(Recipe recipe) {
+        MealDto meal = new MealDto();
+        meal.idMeal = recipe.getId();
+        meal.strMeal = recipe.getName();
+        meal.strCategory = recipe.getCategory();
+        meal.strArea = recipe.getArea();
+        meal.strInstructions = recipe.getInstructions();
+        meal.strMealThumb = recipe.getImageUrl();
+        
+        meal.setIngredients(recipe.getIngredients());
+        return meal;
+    }
+    
+    /**
+     * Asigna el ingrediente y la medida de una posición (0 a 19)
+     * @param index Posición del ingrediente
+     * @param ingredient Nombre del ingrediente
+     * @param measure Medida
+     */
+    public void setIngredient(int index, String ingredient, String measure) {
+        switch (index) {
+            case 0: strIngredient1 = ingredient; strMeasure1 = measure; break;
+            case 1: strIngredient2 = ingredient; strMeasure2 = measure; break;
+            case 2: strIngredient3 = ingredient; strMeasure3 = measure; break;
+            case 3: strIngredient4 = ingredient; strMeasure4 = measure; break;
+            case 4: strIngredient5 = ingredient; strMeasure5 = measure; break;
+            case 5: strIngredient6 = ingredient; strMeasure6 = measure; break;
+            case 6: strIngredient7 = ingredient; strMeasure7 = measure; break;
+            case 7: strIngredient8 = ingredient; strMeasure8 = measure; break;
+            case 8: strIngredient9 = ingredient; strMeasure9 = measure; break;
+            case 9: strIngredient10 = ingredient; strMeasure10 = measure; break;
+            case 10: strIngredient11 = ingredient; strMeasure11 = measure; break;
+            case 11: strIngredient12 = ingredient; strMeasure12 = measure; break;
+            case 12: strIngredient13 = ingredient; strMeasure13 = measure; break;
+            case 13: strIngredient14 = ingredient; strMeasure14 = measure; break;
+            case 14: strIngredient15 = ingredient; strMeasure15 = measure; break;
+            case 15: strIngredient16 = ingredient; strMeasure16 = measure; break;
+            case 16: strIngredient17 = ingredient; strMeasure17 = measure; break;
+            case 17: strIngredient18 = ingredient; strMeasure18 = measure; break;
+            case 18: strIngredient19 = ingredient; strMeasure19 = measure; break;
+            case 19: strIngredient20 = ingredient; strMeasure20 = measure; break;
+        }
+    }
+    
+    /**
+     * Asigna los primeros 20 ingredientes de una lista (los campos de la API)
+     * @param ingredients Ingredientes guardados (null no cambia nada)
+     */
+    public void setIngredients(IngredientList ingredients) {
+        if (ingredients == null) {
+            return;
+        }
+        for (int i = 0; i < ingredients.size() && i < 20; i++) {
+            setIngredient(i, ingredients.getName(i), ingredients.getMeasure(i));
+        }
+    }
+    
+    /**
+     * Construye la lista con todos los ingredientes y medidas
      * Filtra ingredientes vacíos o nulos
      * MÉTODO PÚBLICO para usar desde otras clases
-     * @return String JSON con formato: [{"ingredient":"Chicken","measure":"1 whole"}]
+     * @return Lista de ingredientes (con un aviso si la receta vino sin ingredientes)
      */
-    public String buildIngredientsJson() {
-        JSONArray ingredientsArray = new JSONArray();
+    public IngredientList buildIngredientList() {
+        IngredientList ingredientList = new IngredientList(20);
         
         // Array con todos los ingredientes para iterar fácilmente
         String[] ingredients = {
@@ -134,15 +198,9 @@ public class MealDto {
         
         // Si no hay ingredientes, agregar mensaje informativo
         if (!hasAnyIngredient) {
-            try {
-                JSONObject infoObj = new JSONObject();
-                infoObj.put("ingredient", "Ingredientes no disponibles");
-                infoObj.put("measure", "Busca por nombre para obtener la lista completa de ingredientes");
-                ingredientsArray.put(infoObj);
-            } catch (JSONException e) {
-                e.printStackTrace();
-            }
-            return ingredientsArray.toString();
+            ingredientList.add("Ingredientes no disponibles",
+                    "Busca por nombre para obtener la lista completa de ingredientes");
+            return ingredientList;
         }
         
         // Procesar cada ingrediente y su medida correspondiente
@@ -150,22 +208,12 @@ public class MealDto {
             String ingredient = ingredients[i];
             String measure = measures[i];
             
-            // Solo agregar si el ingrediente no está vacío
+            // Solo agregar si el ingrediente no está vacío (sin medida: string vacío)
             if (ingredient != null && !ingredient.trim().isEmpty()) {
-                try {
-                    JSONObject ingredientObj = new JSONObject();
-                    ingredientObj.put("ingredient", ingredient.trim());
-                    // Si no hay medida, usar string vacío
-                    ingredientObj.put("measure", measure != null ? measure.trim() : "");
-                    ingredientsArray.put(ingredientObj);
-                } catch (JSONException e) {
-                    // Si hay error creando JSON, continuar con el siguiente ingrediente
-                    e.printStackTrace();
-                }
+                ingredientList.add(ingredient.trim(), measure != null ? measure.trim() : "");
             }
         }
         
-        // Retornar el JSON como string, o array vacío si hay error
-        return ingredientsArray.toString();
+        return ingredientList;
     }
 }
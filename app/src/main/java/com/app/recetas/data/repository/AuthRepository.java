@@ -1,23 +1,41 @@
 package com.app.recetas.data.repository;
 
 import android.util.Log;
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
 import com.google.android.gms.tasks.OnCompleteListener;
 import com.google.firebase.auth.AuthResult;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.FirebaseAuthException;
 
+import java.util.function.Supplier;
+
 /**
  * AuthRepository con Firebase Authentication real
  * Maneja autenticación, validación de conexión y sesiones
+ * FirebaseAuth se pide recién cuando se usa: crear el repositorio no cuesta nada
  */
 public class AuthRepository {
     
     private static final String TAG = "AuthRepository";
-    private final FirebaseAuth firebaseAuth;
+    private final Supplier<FirebaseAuth> authProvider;
     
     public AuthRepository() {
-        firebaseAuth = FirebaseAuth.getInstance();
+        this(FirebaseAuthProvider.getInstance());
+    }
+    
+    /**
+     * @param authProvider Provee FirebaseAuth la primera vez que se necesita
+     */
+    public AuthRepository(Supplier<FirebaseAuth> authProvider) {
+        this.authProvider = authProvider;
+    }
+    
+    /**
+     * FirebaseAuth (espera la inicialización en background si todavía no terminó)
+     */
+    private FirebaseAuth firebaseAuth() {
+        return authProvider.get();
     }
     
     /**
@@ -31,11 +49,11 @@ public class AuthRepository {
         }
         
         Log.d(TAG, "Iniciando login para: " + email);
-        firebaseAuth.signInWithEmailAndPassword(email.trim(), password)
+        firebaseAuth().signInWithEmailAndPassword(email.trim(), password)
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         Log.d(TAG, "Login exitoso");
-                        FirebaseUser user = firebaseAuth.getCurrentUser();
+                        FirebaseUser user = firebaseAuth().getCurrentUser();
                         if (user != null) {
                             Log.d(TAG, "Usuario autenticado: " + user.getEmail());
                         }
@@ -57,11 +75,11 @@ public class AuthRepository {
         }
         
         Log.d(TAG, "Iniciando registro para: " + email);
-        firebaseAuth.createUserWithEmailAndPassword(email.trim(), password)
+        firebaseAuth().createUserWithEmailAndPassword(email.trim(), password)
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         Log.d(TAG, "Registro exitoso");
-                        FirebaseUser user = firebaseAuth.getCurrentUser();
+                        FirebaseUser user = firebaseAuth().getCurrentUser();
                         if (user != null) {
                             Log.d(TAG, "Usuario registrado: " + user.getEmail());
                         }
@@ -77,14 +95,14 @@ public class AuthRepository {
      */
     public void logout() {
         Log.d(TAG, "Cerrando sesión");
-        firebaseAuth.signOut();
+        firebaseAuth().signOut();
     }
     
     /**
      * Obtiene el usuario actual de Firebase
      */
     public FirebaseUser getCurrentUser() {
-        return firebaseAuth.getCurrentUser();
+        return firebaseAuth().getCurrentUser();
     }
     
     /**
@@ -213,7 +231,7 @@ public class AuthRepository {
     public void debugFirebaseState() {
         Log.d(TAG, "=== DEBUG FIREBASE STATE ===");
         Log.d(TAG, "Firebase App: " + com.google.firebase.FirebaseApp.getInstance().getName());
-        Log.d(TAG, "Firebase Auth: " + firebaseAuth.toString());
+        Log.d(TAG, "Firebase Auth: " + firebaseAuth().toString());
         FirebaseUser currentUser = getCurrentUser();
         if (currentUser != null) {
             Log.d(TAG, "Usuario actual: " + currentUser.getEmail());
@@ -1,18 +1,42 @@
 package com.app.recetas.data.repository;
 
 import android.app.Application;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
+import com.app.recetas.data.backup.RecipeBackup;
 import com.app.recetas.data.local.dao.RecipeDao;
 import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.local.entities.CompressedText;
 import com.app.recetas.data.local.entities.Recipe;
 import com.app.recetas.data.remote.api.ApiClient;
 import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.cache.MealDetailCache;
 import com.app.recetas.data.remote.dto.AreaResponse;
 import com.app.recetas.data.remote.dto.CategoryResponse;
+import com.app.recetas.data.remote.dto.MealDto;
 import com.app.recetas.data.remote.dto.MealResponse;
+import com.app.recetas.data.search.FacetFilter;
+import com.app.recetas.data.search.FederatedResult;
+import com.app.recetas.data.search.FederatedSearch;
+import com.app.recetas.data.search.FuzzyRecipeSearch;
+import com.app.recetas.data.search.IngredientIndex;
+import com.app.recetas.data.search.IngredientSearchEngine;
+import com.app.recetas.data.search.LazyResultList;
+import com.app.recetas.data.search.MultiFacetSearch;
+import com.app.recetas.data.search.TrigramIndex;
+import com.app.recetas.metrics.Metrics;
+import com.app.recetas.utils.SearchType;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -22,9 +46,15 @@ import retrofit2.Call;
  * Repositorio principal que maneja tanto datos locales (Room) como remotos (API)
  * Implementa patrón Repository para centralizar el acceso a datos
  * Actúa como single source of truth para los ViewModels
+ *
+ * Cada método abre una sección de traza "repo.<método>" y registra su duración en Metrics;
+ * los que devuelven un Call de Retrofit solo se cuentan (la llamada la mide NetworkMetrics)
  */
 public class RecipeRepository {
     
+    // Resultados máximos de la colección en la búsqueda unificada
+    private static final int MAX_LOCAL_RESULTS = 50;
+    
     // DAO para operaciones en base de datos local
     private RecipeDao recipeDao;
     
@@ -37,6 +67,24 @@ public class RecipeRepository {
     // Executor para operaciones en background thread
     private ExecutorService executor;
     
+    // Caché compartida de detalles completos (lookup.php)
+    private MealDetailCache detailCache;
+    
+    // Buscador local por ingredientes (índice en memoria de la colección)
+    private IngredientSearchEngine ingredientSearch;
+    
+    // Búsqueda aproximada por nombre e ingredientes (índice de trigramas de la colección)
+    private FuzzyRecipeSearch fuzzySearch;
+    
+    // Búsqueda unificada (colección + TheMealDB)
+    private FederatedSearch federatedSearch;
+    
+    // Búsqueda combinada por categoría + área + ingredientes
+    private MultiFacetSearch multiFacetSearch;
+    
+    // Exportación e importación de la colección a un archivo JSON
+    private RecipeBackup backup;
+    
     /**
      * Constructor del repositorio
      * Inicializa la base de datos local y el servicio API
@@ -45,10 +93,17 @@ public class RecipeRepository {
     public RecipeRepository(Application application) {
         // Obtener instancia de la base de datos
         AppDatabase database = AppDatabase.getDatabase(application);
-        recipeDao = database.recipeDao();
+        recipeDao = database.tracedRecipeDao();
+        ingredientSearch = IngredientSearchEngine.getInstance(database);
+        fuzzySearch = FuzzyRecipeSearch.getInstance(database);
+        backup = new RecipeBackup(recipeDao, database::runInTransaction);
         
         // Obtener servicio API
         apiService = ApiClient.getApiService();
+        detailCache = MealDetailCache.getInstance();
+        multiFacetSearch = new MultiFacetSearch(apiService);
+        federatedSearch = new FederatedSearch(this::searchCollection, apiService,
+                FederatedSearch.DEFAULT_LOCAL_TIMEOUT_MS, FederatedSearch.DEFAULT_REMOTE_TIMEOUT_MS);
         
         // Inicializar LiveData con todas las recetas
         allRecipes = recipeDao.getAllRecipes();
@@ -65,6 +120,7 @@ public class RecipeRepository {
      * @return LiveData con lista de recetas ordenadas por fecha de modificación
      */
     public LiveData<List<Recipe>> getAllRecipes() {
+        Metrics.count("repo.getAllRecipes");
         return allRecipes;
     }
     
@@ -75,7 +131,9 @@ public class RecipeRepository {
      */
     public void insertRecipe(Recipe recipe) {
         executor.execute(() -> {
-            recipeDao.insertRecipe(recipe);
+            try (Metrics.Span span = Metrics.trace("repo.insertRecipe")) {
+                recipeDao.insertRecipe(recipe);
+            }
         });
     }
     
@@ -83,8 +141,11 @@ public class RecipeRepository {
      * Inserta receta de forma síncrona (para usar en threads ya existentes)
      * @param recipe Receta a insertar
      */
+    @WorkerThread
     public void insertRecipeSync(Recipe recipe) {
-        recipeDao.insertRecipe(recipe);
+        try (Metrics.Span span = Metrics.trace("repo.insertRecipeSync")) {
+            recipeDao.insertRecipe(recipe);
+        }
     }
     
     /**
@@ -94,7 +155,9 @@ public class RecipeRepository {
      */
     public void deleteRecipe(Recipe recipe) {
         executor.execute(() -> {
-            recipeDao.deleteRecipe(recipe);
+            try (Metrics.Span span = Metrics.trace("repo.deleteRecipe")) {
+                recipeDao.deleteRecipe(recipe);
+            }
         });
     }
     
@@ -105,19 +168,54 @@ public class RecipeRepository {
      */
     public void updateRecipe(Recipe recipe) {
         executor.execute(() -> {
-            // Actualizar timestamp de modificación
-            recipe.setDateModified(System.currentTimeMillis());
-            recipeDao.updateRecipe(recipe);
+            try (Metrics.Span span = Metrics.trace("repo.updateRecipe")) {
+                // Actualizar timestamp de modificación
+                recipe.setDateModified(System.currentTimeMillis());
+                recipeDao.updateRecipe(recipe);
+            }
+        });
+    }
+    
+    /**
+     * Actualiza solo las notas personales de una receta
+     * Las recetas de las listas no traen instrucciones: guardarlas enteras con updateRecipe
+     * borraría las instrucciones de la base
+     * @param id ID de la receta
+     * @param notes Notas nuevas
+     */
+    public void updateRecipeNotes(String id, String notes) {
+        executor.execute(() -> {
+            try (Metrics.Span span = Metrics.trace("repo.updateRecipeNotes")) {
+                recipeDao.updatePersonalNotes(id, CompressedText.of(notes), System.currentTimeMillis());
+            }
         });
     }
     
+    /**
+     * Obtiene una receta guardada completa (con instrucciones) para mostrar su detalle
+     * @param id ID de la receta
+     * @return LiveData con la receta, o con null si no está en la colección
+     */
+    public LiveData<Recipe> getSavedRecipe(String id) {
+        MutableLiveData<Recipe> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try (Metrics.Span span = Metrics.trace("repo.getSavedRecipe")) {
+                result.postValue(recipeDao.getRecipeById(id));
+            }
+        });
+        return result;
+    }
+    
     /**
      * Obtiene la receta modificada más recientemente
      * Operación síncrona - debe llamarse desde background thread
      * @return Receta más reciente o null si no hay recetas
      */
+    @WorkerThread
     public Recipe getLastModifiedRecipe() {
-        return recipeDao.getLastModifiedRecipe();
+        try (Metrics.Span span = Metrics.trace("repo.getLastModifiedRecipe")) {
+            return recipeDao.getLastModifiedRecipe();
+        }
     }
     
     /**
@@ -126,15 +224,107 @@ public class RecipeRepository {
      * @return LiveData con recetas que coinciden
      */
     public LiveData<List<Recipe>> searchLocalRecipesByName(String name) {
+        Metrics.count("repo.searchLocalRecipesByName");
         return recipeDao.searchRecipesByName(name);
     }
     
+    /**
+     * Busca recetas locales por nombre o ingredientes tolerando errores de tipeo
+     * Los resultados vienen ordenados por similitud, no por fecha
+     * @param term Texto buscado (ej: "carbonra")
+     * @param limit Cantidad máxima de resultados
+     * @return LiveData con las recetas encontradas, las más parecidas primero
+     */
+    public LiveData<List<Recipe>> fuzzySearchLocalRecipes(String term, int limit) {
+        MutableLiveData<List<Recipe>> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            List<Recipe> recipes = new ArrayList<>();
+            try (Metrics.Span span = Metrics.trace("repo.fuzzySearchLocalRecipes")) {
+                for (Map.Entry<Recipe, Double> match : findFuzzyMatches(term, limit).entrySet()) {
+                    recipes.add(match.getKey());
+                }
+            }
+            result.postValue(recipes);
+        });
+        return result;
+    }
+    
+    /**
+     * Busca en la colección y en TheMealDB a la vez
+     * Los resultados locales se publican apenas están; los de la API se suman al llegar
+     * @param query Término buscado
+     * @param type Tipo de búsqueda
+     * @param listener Recibe cada actualización (desde un background thread)
+     * @return Búsqueda en curso, para cancelarla si el usuario busca otra cosa
+     */
+    public FederatedSearch.Search searchEverywhere(String query, SearchType type, FederatedSearch.Listener listener) {
+        Metrics.count("repo.searchEverywhere");
+        return federatedSearch.search(query, type, listener);
+    }
+    
+    /**
+     * Fuente local de la búsqueda unificada
+     * Por nombre usa la búsqueda aproximada; por categoría o área, coincidencia exacta
+     * Operación síncrona - se ejecuta en el thread local de FederatedSearch
+     */
+    private List<FederatedResult> searchCollection(String query, SearchType type) {
+        List<FederatedResult> results = new ArrayList<>();
+        try (Metrics.Span span = Metrics.trace("repo.searchCollection")) {
+            if (type == SearchType.NAME) {
+                for (Map.Entry<Recipe, Double> match : findFuzzyMatches(query, MAX_LOCAL_RESULTS).entrySet()) {
+                    Recipe recipe = match.getKey();
+                    results.add(FederatedResult.local(MealDto.fromRecipe(recipe), match.getValue(), recipe.getDateModified()));
+                }
+            } else {
+                List<Recipe> recipes = type == SearchType.CATEGORY
+                        ? recipeDao.getRecipesByCategorySync(query) : recipeDao.getRecipesByAreaSync(query);
+                for (Recipe recipe : recipes) {
+                    results.add(FederatedResult.local(MealDto.fromRecipe(recipe), 1.0, recipe.getDateModified()));
+                }
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Recetas de la colección parecidas al término, con su similitud
+     * Operación síncrona - debe llamarse desde background thread
+     * @return Recetas en orden de similitud (LinkedHashMap)
+     */
+    private Map<Recipe, Double> findFuzzyMatches(String term, int limit) {
+        List<TrigramIndex.Hit> hits;
+        try (Metrics.Span span = Metrics.trace("repo.fuzzyIndexSearch")) {
+            hits = fuzzySearch.search(term, limit);
+        }
+        List<String> ids = new ArrayList<>(hits.size());
+        for (TrigramIndex.Hit hit : hits) {
+            ids.add(hit.getRecipeId());
+        }
+        
+        // Room devuelve las filas en cualquier orden: reordenar según el ranking
+        Map<String, Recipe> byId = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Recipe recipe : recipeDao.getRecipesByIds(ids)) {
+                byId.put(recipe.getId(), recipe);
+            }
+        }
+        Map<Recipe, Double> matches = new LinkedHashMap<>();
+        for (TrigramIndex.Hit hit : hits) {
+            Recipe recipe = byId.get(hit.getRecipeId());
+            if (recipe != null) {
+                matches.put(recipe, hit.getScore());
+            }
+        }
+        return matches;
+    }
+    
     /**
      * Obtiene recetas locales por categoría
      * @param category Categoría a filtrar
      * @return LiveData con recetas de la categoría
      */
     public LiveData<List<Recipe>> getRecipesByCategory(String category) {
+        Metrics.count("repo.getRecipesByCategory");
         return recipeDao.getRecipesByCategory(category);
     }
     
@@ -143,9 +333,93 @@ public class RecipeRepository {
      * @return LiveData con recetas personales
      */
     public LiveData<List<Recipe>> getPersonalRecipes() {
+        Metrics.count("repo.getPersonalRecipes");
         return recipeDao.getPersonalRecipes();
     }
     
+    // ==================== RESPALDO ====================
+    
+    /**
+     * Exporta toda la colección a un archivo JSON (en streaming, por páginas)
+     * Operación síncrona - debe llamarse desde background thread
+     * @param out Archivo destino (no se cierra)
+     * @param listener Avance de la exportación
+     * @return Cantidad de recetas exportadas
+     * @throws IOException si falla la escritura
+     */
+    @WorkerThread
+    public int exportCollection(OutputStream out, RecipeBackup.Listener listener) throws IOException {
+        try (Metrics.Span span = Metrics.trace("repo.exportCollection")) {
+            return backup.exportTo(out, listener);
+        }
+    }
+    
+    /**
+     * Importa un archivo generado por exportCollection (en streaming, por lotes)
+     * Los índices de búsqueda se actualizan solos al cambiar la tabla
+     * Operación síncrona - debe llamarse desde background thread
+     * @param in Archivo a importar (no se cierra)
+     * @param policy Qué hacer con las recetas que ya están en la colección
+     * @param listener Avance de la importación
+     * @return Cantidades de recetas agregadas, reemplazadas, combinadas y omitidas
+     * @throws IOException si el archivo no es un respaldo válido o falla la lectura
+     */
+    @WorkerThread
+    public RecipeBackup.ImportResult importCollection(InputStream in, RecipeBackup.ConflictPolicy policy,
+                                                      RecipeBackup.Listener listener) throws IOException {
+        try (Metrics.Span span = Metrics.trace("repo.importCollection")) {
+            return backup.importFrom(in, policy, listener);
+        }
+    }
+    
+    // ==================== BÚSQUEDA POR INGREDIENTES ====================
+    
+    /**
+     * Busca en la colección recetas que usen todos los ingredientes indicados
+     * @param ingredients Ingredientes requeridos
+     * @return LiveData con los IDs de las recetas encontradas
+     */
+    public LiveData<List<String>> findRecipesWithAllIngredients(List<String> ingredients) {
+        MutableLiveData<List<String>> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try (Metrics.Span span = Metrics.trace("repo.findRecipesWithAllIngredients")) {
+                result.postValue(ingredientSearch.findWithAll(ingredients));
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Busca en la colección recetas que usen al menos uno de los ingredientes indicados
+     * @param ingredients Ingredientes buscados
+     * @return LiveData con los IDs de las recetas encontradas
+     */
+    public LiveData<List<String>> findRecipesWithAnyIngredient(List<String> ingredients) {
+        MutableLiveData<List<String>> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try (Metrics.Span span = Metrics.trace("repo.findRecipesWithAnyIngredient")) {
+                result.postValue(ingredientSearch.findWithAny(ingredients));
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Busca en la colección qué se puede cocinar con la despensa
+     * @param pantry Ingredientes disponibles
+     * @param maxMissing Cantidad máxima de ingredientes que pueden faltar
+     * @return LiveData con las coincidencias, las más completas primero
+     */
+    public LiveData<List<IngredientIndex.Match>> findRecipesByPantry(List<String> pantry, int maxMissing) {
+        MutableLiveData<List<IngredientIndex.Match>> result = new MutableLiveData<>();
+        executor.execute(() -> {
+            try (Metrics.Span span = Metrics.trace("repo.findRecipesByPantry")) {
+                result.postValue(ingredientSearch.findMissingAtMost(pantry, maxMissing));
+            }
+        });
+        return result;
+    }
+    
     // ==================== OPERACIONES REMOTAS (API) ====================
     
     /**
@@ -154,6 +428,7 @@ public class RecipeRepository {
      * @return Call para ejecutar la búsqueda de forma asíncrona
      */
     public Call<MealResponse> searchRecipesByName(String name) {
+        Metrics.count("repo.searchRecipesByName");
         return apiService.searchByName(name);
     }
     
@@ -163,6 +438,7 @@ public class RecipeRepository {
      * @return Call para ejecutar la búsqueda de forma asíncrona
      */
     public Call<MealResponse> searchRecipesByCategory(String category) {
+        Metrics.count("repo.searchRecipesByCategory");
         return apiService.searchByCategory(category);
     }
     
@@ -172,15 +448,40 @@ public class RecipeRepository {
      * @return Call para ejecutar la búsqueda de forma asíncrona
      */
     public Call<MealResponse> searchRecipesByArea(String area) {
+        Metrics.count("repo.searchRecipesByArea");
         return apiService.searchByArea(area);
     }
     
+    /**
+     * Busca en TheMealDB recetas que cumplan varias facetas a la vez
+     * Una llamada a filter.php por faceta (en paralelo) e intersección local de IDs
+     * @param filter Categoría, área e ingredientes a combinar
+     * @param listener Recibe la intersección (con datos básicos; las filas se completan con
+     *                 LazyResultList al hacerse visibles)
+     * @return Búsqueda en curso (cancelable)
+     */
+    public MultiFacetSearch.Search searchByFacets(FacetFilter filter, MultiFacetSearch.Listener listener) {
+        Metrics.count("repo.searchByFacets");
+        return multiFacetSearch.search(filter, listener);
+    }
+    
+    /**
+     * Crea un listado de resultados que completa sus filas con lookup.php
+     * a medida que se vuelven visibles (usa la caché compartida de detalles)
+     * @param listener Recibe el listado cada vez que se completa un lote
+     * @return Listado vacío listo para recibir resultados
+     */
+    public LazyResultList createLazyResultList(LazyResultList.Listener listener) {
+        return new LazyResultList(apiService, detailCache, LazyResultList.DEFAULT_BATCH_SIZE, listener);
+    }
+    
     /**
      * Obtiene todas las categorías disponibles en TheMealDB
      * Para poblar spinner de categorías en la búsqueda
      * @return Call con lista de categorías
      */
     public Call<CategoryResponse> getCategories() {
+        Metrics.count("repo.getCategories");
         return apiService.getCategories();
     }
     
@@ -190,6 +491,7 @@ public class RecipeRepository {
      * @return Call con lista de áreas
      */
     public Call<AreaResponse> getAreas() {
+        Metrics.count("repo.getAreas");
         return apiService.getAreas();
     }
     
@@ -199,15 +501,49 @@ public class RecipeRepository {
      * @return Call con detalles de la receta
      */
     public Call<MealResponse> getRecipeById(String id) {
+        Metrics.count("repo.getRecipeById");
         return apiService.getRecipeById(id);
     }
     
+    /**
+     * Obtiene detalles completos de una receta usando la caché compartida
+     * Si el detalle ya fue precargado, responde sin llamar a la API
+     * @param id ID de la receta en TheMealDB
+     * @param callback Callback con el detalle o el error
+     */
+    public void getRecipeDetails(String id, MealDetailCache.DetailCallback callback) {
+        Metrics.count("repo.getRecipeDetails");
+        detailCache.fetch(apiService, id, callback);
+    }
+    
+    /**
+     * Obtiene el detalle de una receta solo si ya está en caché
+     * @param id ID de la receta
+     * @return MealDto completo o null si no fue precargado
+     */
+    public MealDto getCachedRecipeDetails(String id) {
+        return detailCache.get(id);
+    }
+    
+    /**
+     * Guarda en la caché de detalles recetas que ya vienen completas
+     * (por ejemplo, resultados de búsqueda por nombre)
+     * @param meals Recetas recibidas de la API
+     */
+    public void cacheRecipeDetails(List<MealDto> meals) {
+        if (meals == null) return;
+        for (MealDto meal : meals) {
+            detailCache.put(meal);
+        }
+    }
+    
     /**
      * Obtiene una receta aleatoria de TheMealDB
      * Funcionalidad extra para sugerir recetas al usuario
      * @return Call con receta aleatoria
      */
     public Call<MealResponse> getRandomRecipe() {
+        Metrics.count("repo.getRandomRecipe");
         return apiService.getRandomRecipe();
     }
     
@@ -217,7 +553,7 @@ public class RecipeRepository {
      * @param meal MealDto a verificar
      * @return true si tiene información completa, false si solo tiene información básica
      */
-    public boolean hasCompleteInfo(com.app.recetas.data.remote.dto.MealDto meal) {
+    public boolean hasCompleteInfo(MealDto meal) {
         return meal.strInstructions != null && !meal.strInstructions.trim().isEmpty() &&
                meal.strIngredient1 != null && !meal.strIngredient1.trim().isEmpty();
     }
@@ -230,5 +566,6 @@ public class RecipeRepository {
         if (executor != null && !executor.isShutdown()) {
             executor.shutdown();
         }
+        federatedSearch.shutdown();
     }
 }
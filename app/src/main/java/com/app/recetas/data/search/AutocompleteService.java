@@ -0,0 +1,276 @@
+package com.app.recetas.data.search;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.utils.SearchType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servicio de autocompletado para la búsqueda
+ * Reúne en un AutocompleteTrie los nombres de la colección local, los nombres de
+ * recetas vistas en la API, las categorías y las áreas de TheMealDB
+ * Todo corre en un único thread propio: el trie nunca se toca desde el main thread
+ */
+public class AutocompleteService {
+
+    // Sugerencias por tecla
+    public static final int MAX_SUGGESTIONS = 8;
+
+    // Fuentes de términos (bits)
+    private static final int SOURCE_LOCAL = 1;
+    private static final int SOURCE_CATALOG = 1 << 1;
+    private static final int SOURCE_CATEGORIES = 1 << 2;
+    private static final int SOURCE_AREAS = 1 << 3;
+    private static final int SOURCE_HISTORY = 1 << 4;
+
+    // Peso inicial por fuente: lo guardado por el usuario pesa más que el catálogo
+    private static final double WEIGHT_LOCAL = 3;
+    private static final double WEIGHT_CATALOG = 1;
+    private static final double WEIGHT_FILTER = 2;
+
+    // Historial de búsquedas (frecuencia y recencia)
+    private static final String PREF_NAME = "autocomplete_history";
+    private static final int MAX_HISTORY = 200;
+
+    // Instancia singleton
+    private static AutocompleteService instance = null;
+
+    /**
+     * Callback con las sugerencias de un prefijo
+     * Se invoca en el thread del servicio: usar postValue para pasar a la UI
+     */
+    public interface SuggestionCallback {
+        void onSuggestions(String prefix, List<Suggestion> suggestions);
+    }
+
+    private final RecipeDao recipeDao;
+    private final SharedPreferences history;
+    private final AutocompleteTrie trie = new AutocompleteTrie(MAX_SUGGESTIONS);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    // Términos aportados por cada fuente reemplazable (para aplicar solo las diferencias)
+    private final Map<Integer, Set<String>> sourceTerms = new HashMap<>();
+
+    // Solo se responde el último prefijo pedido: las teclas intermedias se descartan
+    private final AtomicInteger latestRequest = new AtomicInteger();
+
+    /**
+     * Obtiene la instancia del servicio y empieza a observar la colección local
+     * @param context Contexto (se usa el de la aplicación)
+     * @return Instancia compartida de AutocompleteService
+     */
+    public static synchronized AutocompleteService getInstance(Context context) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            AppDatabase database = AppDatabase.getDatabase(appContext);
+            instance = new AutocompleteService(database.tracedRecipeDao(),
+                    appContext.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE));
+            database.getInvalidationTracker().addObserver(instance.new RecipesObserver());
+            instance.executor.execute(instance::loadHistory);
+            instance.refreshLocalRecipes();
+        }
+        return instance;
+    }
+
+    AutocompleteService(RecipeDao recipeDao, SharedPreferences history) {
+        this.recipeDao = recipeDao;
+        this.history = history;
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Pide sugerencias para lo tipeado; si llega otra tecla antes, esta se descarta
+     * @param prefix Texto actual del campo de búsqueda
+     * @param callback Recibe las sugerencias (no se llama si el pedido quedó viejo)
+     */
+    public void suggest(String prefix, SuggestionCallback callback) {
+        int request = latestRequest.incrementAndGet();
+        executor.execute(() -> {
+            if (request != latestRequest.get()) {
+                return;
+            }
+            List<Suggestion> suggestions = prefix == null || prefix.trim().isEmpty()
+                    ? Collections.<Suggestion>emptyList()
+                    : trie.suggest(prefix, MAX_SUGGESTIONS);
+            callback.onSuggestions(prefix, suggestions);
+        });
+    }
+
+    // ==================== FUENTES ====================
+
+    /**
+     * Reemplaza las categorías conocidas (ortografía exacta de TheMealDB)
+     */
+    public void updateCategories(List<String> categories) {
+        List<String> copy = new ArrayList<>(categories);
+        executor.execute(() -> replaceSource(SOURCE_CATEGORIES, SearchType.CATEGORY, WEIGHT_FILTER, copy));
+    }
+
+    /**
+     * Reemplaza las áreas conocidas (ortografía exacta de TheMealDB)
+     */
+    public void updateAreas(List<String> areas) {
+        List<String> copy = new ArrayList<>(areas);
+        executor.execute(() -> replaceSource(SOURCE_AREAS, SearchType.AREA, WEIGHT_FILTER, copy));
+    }
+
+    /**
+     * Agrega nombres de recetas vistas en resultados de la API
+     */
+    public void addCatalogNames(List<String> names) {
+        List<String> copy = new ArrayList<>(names);
+        executor.execute(() -> {
+            long now = System.currentTimeMillis();
+            for (String name : copy) {
+                if (name != null) {
+                    trie.add(name, SearchType.NAME, SOURCE_CATALOG, WEIGHT_CATALOG, now);
+                }
+            }
+        });
+    }
+
+    /**
+     * Registra una búsqueda hecha por el usuario: sube el término en el ranking
+     * y lo guarda en el historial para las próximas sesiones
+     * @param text Término buscado
+     * @param type Tipo de búsqueda usado
+     */
+    public void recordSelection(String text, SearchType type) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+        String term = text.trim();
+        executor.execute(() -> {
+            long now = System.currentTimeMillis();
+            trie.add(term, type, SOURCE_HISTORY, 0, now);
+            trie.recordUse(term, type, 1, now);
+
+            String key = type.name() + '|' + term;
+            int uses = parseUses(history.getString(key, null)) + 1;
+            history.edit().putString(key, uses + ";" + now).apply();
+        });
+    }
+
+    // ==================== CARGA INCREMENTAL ====================
+
+    /**
+     * Aplica solo las diferencias entre lo que aportaba una fuente y su nueva lista
+     */
+    private void replaceSource(int source, SearchType type, double weight, Collection<String> names) {
+        Set<String> previous = sourceTerms.get(source);
+        Set<String> current = new HashSet<>();
+        long now = System.currentTimeMillis();
+        for (String name : names) {
+            if (name == null || name.trim().isEmpty()) continue;
+            current.add(name.trim());
+            if (previous == null || !previous.contains(name.trim())) {
+                trie.add(name, type, source, weight, now);
+            }
+        }
+        if (previous != null) {
+            for (String name : previous) {
+                if (!current.contains(name)) {
+                    trie.remove(name, type, source);
+                }
+            }
+        }
+        sourceTerms.put(source, current);
+    }
+
+    private void refreshLocalRecipes() {
+        executor.execute(() -> replaceSource(SOURCE_LOCAL, SearchType.NAME, WEIGHT_LOCAL,
+                recipeDao.getRecipeNames()));
+    }
+
+    /**
+     * Reconstruye el ranking con el historial guardado (uso N veces, último uso en T)
+     */
+    private void loadHistory() {
+        Map<String, ?> all = history.getAll();
+        List<Map.Entry<String, ?>> items = new ArrayList<>(all.entrySet());
+        // Los más recientes primero para recortar el historial si creció demasiado
+        Collections.sort(items, (a, b) -> Long.compare(parseTime(b.getValue()), parseTime(a.getValue())));
+
+        SharedPreferences.Editor editor = null;
+        for (int i = 0; i < items.size(); i++) {
+            String key = items.get(i).getKey();
+            int separator = key.indexOf('|');
+            SearchType type = separator > 0 ? parseType(key.substring(0, separator)) : null;
+            if (i >= MAX_HISTORY || type == null) {
+                if (editor == null) editor = history.edit();
+                editor.remove(key);
+                continue;
+            }
+            String term = key.substring(separator + 1);
+            long lastUsed = parseTime(items.get(i).getValue());
+            trie.add(term, type, SOURCE_HISTORY, 0, lastUsed);
+            trie.recordUse(term, type, parseUses(items.get(i).getValue()), lastUsed);
+        }
+        if (editor != null) {
+            editor.apply();
+        }
+    }
+
+    private static int parseUses(Object value) {
+        if (!(value instanceof String)) return 0;
+        String text = (String) value;
+        int separator = text.indexOf(';');
+        try {
+            return Integer.parseInt(separator > 0 ? text.substring(0, separator) : text);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long parseTime(Object value) {
+        if (!(value instanceof String)) return 0;
+        String text = (String) value;
+        int separator = text.indexOf(';');
+        try {
+            return separator > 0 ? Long.parseLong(text.substring(separator + 1)) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static SearchType parseType(String name) {
+        try {
+            return SearchType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Observa la tabla recipes para mantener al día los nombres de la colección
+     */
+    private class RecipesObserver extends InvalidationTracker.Observer {
+
+        RecipesObserver() {
+            super("recipes");
+        }
+
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            refreshLocalRecipes();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.utils.SearchType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie de prefijos para autocompletar con el top-K ya calculado en cada nodo
+ * Responder una tecla es recorrer el prefijo y copiar la lista del nodo: no se
+ * recorre el subárbol. Cada término también se indexa desde el inicio de cada
+ * palabra ("carbonara" encuentra "Spaghetti Carbonara")
+ *
+ * Ranking por frecuencia y recencia con "forward decay": cada uso suma
+ * 2^((t - T0) / vidaMedia), así un uso de hoy vale el doble que uno de hace una
+ * vida media y el orden entre términos no cambia con el paso del tiempo (por eso
+ * el top-K de cada nodo sigue siendo válido sin recalcularlo)
+ * No es thread-safe: AutocompleteService lo usa desde un único thread
+ */
+public class AutocompleteTrie {
+
+    // Origen del decaimiento (2024-01-01) y vida media de un uso
+    private static final long DECAY_ORIGIN_MS = 1704067200000L;
+    private static final double HALF_LIFE_MS = 14 * 24 * 60 * 60 * 1000.0;
+
+    // Palabras más cortas no se indexan por separado ("de", "y", "a")
+    private static final int MIN_WORD_LENGTH = 3;
+
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final int topK;
+    private final Node root = new Node();
+
+    // Términos por clave (tipo + texto normalizado)
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Término indexado
+     */
+    private static final class Entry {
+        final String text;
+        final SearchType type;
+        final String[] keys;
+        int sources;
+        double score;
+
+        Entry(String text, SearchType type, String[] keys) {
+            this.text = text;
+            this.type = type;
+            this.keys = keys;
+        }
+    }
+
+    /**
+     * Nodo compacto: hijos en arrays ordenados por caracter (búsqueda binaria)
+     */
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_NODES;
+        Entry[] terminals = NO_ENTRIES;
+        Entry[] top = NO_ENTRIES;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = c;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0) return;
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+            System.arraycopy(children, i + 1, newChildren, i, children.length - i - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminals.length == 0;
+        }
+    }
+
+    /**
+     * @param topK Sugerencias que guarda cada nodo (máximo que puede pedir suggest)
+     */
+    public AutocompleteTrie(int topK) {
+        this.topK = Math.max(1, topK);
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Agrega un término (o suma una fuente a uno existente)
+     * El peso inicial cuenta como un uso en el momento del alta
+     * @param text Texto a sugerir, con la ortografía a usar en la búsqueda
+     * @param type Tipo de búsqueda que corresponde al término
+     * @param source Bit que identifica la fuente (recetas locales, catálogo, etc.)
+     * @param weight Peso inicial (solo se aplica si el término es nuevo)
+     * @param nowMs Momento del alta
+     */
+    public void add(String text, SearchType type, int source, double weight, long nowMs) {
+        String normalized = IngredientParser.normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        String id = type.name() + '|' + normalized;
+        Entry entry = entries.get(id);
+        if (entry != null) {
+            entry.sources |= source;
+            return;
+        }
+        entry = new Entry(text.trim(), type, indexKeys(normalized));
+        entry.sources = source;
+        entry.score = weight * decayFactor(nowMs);
+        entries.put(id, entry);
+        for (String key : entry.keys) {
+            insertPath(key, entry);
+        }
+    }
+
+    /**
+     * Quita una fuente de un término; el término desaparece cuando no le quedan fuentes
+     * @return true si el término se eliminó del trie
+     */
+    public boolean remove(String text, SearchType type, int source) {
+        String id = type.name() + '|' + IngredientParser.normalize(text);
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.sources &= ~source;
+        if (entry.sources != 0) {
+            return false;
+        }
+        entries.remove(id);
+        for (String key : entry.keys) {
+            removePath(key, entry);
+        }
+        return true;
+    }
+
+    /**
+     * Registra que el usuario eligió un término: sube su ranking
+     * @param weight Peso del uso (1 para una búsqueda)
+     * @param atMs Momento del uso (permite reconstruir el historial guardado)
+     */
+    public void recordUse(String text, SearchType type, double weight, long atMs) {
+        Entry entry = entries.get(type.name() + '|' + IngredientParser.normalize(text));
+        if (entry == null) {
+            return;
+        }
+        entry.score += weight * decayFactor(atMs);
+        for (String key : entry.keys) {
+            refreshPath(key);
+        }
+    }
+
+    /**
+     * Puntaje acumulado de un término (en escala de forward decay)
+     * @return Puntaje o 0 si el término no existe
+     */
+    public double getScore(String text, SearchType type) {
+        Entry entry = entries.get(type.name() + '|' + IngredientParser.normalize(text));
+        return entry != null ? entry.score : 0;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Mejores términos que empiezan con el prefijo (o con una palabra que empieza con él)
+     * @param prefix Texto tipeado por el usuario
+     * @param limit Cantidad máxima de sugerencias (como mucho topK)
+     * @return Sugerencias ordenadas de mayor a menor puntaje
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = IngredientParser.normalize(prefix);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Node node = root;
+        for (int i = 0; i < normalized.length() && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        int count = Math.min(limit, node.top.length);
+        List<Suggestion> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new Suggestion(node.top[i].text, node.top[i].type));
+        }
+        return result;
+    }
+
+    // ==================== AUXILIARES ====================
+
+    /**
+     * Factor de forward decay: se duplica cada vida media
+     */
+    static double decayFactor(long timeMs) {
+        return Math.pow(2, (timeMs - DECAY_ORIGIN_MS) / HALF_LIFE_MS);
+    }
+
+    /**
+     * Claves a indexar: el término completo y el resto desde cada palabra
+     */
+    private static String[] indexKeys(String normalized) {
+        List<String> keys = new ArrayList<>();
+        keys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (normalized.charAt(i - 1) == ' ' && normalized.length() - i >= MIN_WORD_LENGTH) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private void insertPath(String key, Entry entry) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].childOrCreate(key.charAt(i));
+        }
+        Node leaf = path[key.length()];
+        leaf.terminals = append(leaf.terminals, entry);
+        recomputeBottomUp(path);
+    }
+
+    private void removePath(String key, Entry entry) {
+        Node[] path = walk(key);
+        if (path == null) {
+            return;
+        }
+        Node leaf = path[key.length()];
+        leaf.terminals = without(leaf.terminals, entry);
+        // Podar nodos que quedaron vacíos
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+            path[i] = null;
+        }
+        recomputeBottomUp(path);
+    }
+
+    private void refreshPath(String key) {
+        Node[] path = walk(key);
+        if (path != null) {
+            recomputeBottomUp(path);
+        }
+    }
+
+    private Node[] walk(String key) {
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return null;
+            }
+        }
+        return path;
+    }
+
+    private void recomputeBottomUp(Node[] path) {
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (path[i] != null) {
+                recomputeTop(path[i]);
+            }
+        }
+    }
+
+    /**
+     * top-K de un nodo = mejores K entre sus términos propios y el top-K de cada hijo
+     */
+    private void recomputeTop(Node node) {
+        Entry[] best = new Entry[topK];
+        int size = 0;
+        size = offerAll(best, size, node.terminals);
+        for (Node child : node.children) {
+            size = offerAll(best, size, child.top);
+        }
+        node.top = size == best.length ? best : Arrays.copyOf(best, size);
+    }
+
+    private static int offerAll(Entry[] best, int size, Entry[] candidates) {
+        for (Entry candidate : candidates) {
+            size = offer(best, size, candidate);
+        }
+        return size;
+    }
+
+    /**
+     * Inserción ordenada en un array acotado (un mismo término puede llegar por varias ramas)
+     */
+    private static int offer(Entry[] best, int size, Entry candidate) {
+        for (int i = 0; i < size; i++) {
+            if (best[i] == candidate) {
+                return size;
+            }
+        }
+        int at = size;
+        while (at > 0 && best[at - 1].score < candidate.score) {
+            at--;
+        }
+        if (at >= best.length) {
+            return size;
+        }
+        int newSize = Math.min(size + 1, best.length);
+        System.arraycopy(best, at, best, at + 1, newSize - at - 1);
+        best[at] = candidate;
+        return newSize;
+    }
+
+    private static Entry[] append(Entry[] array, Entry entry) {
+        Entry[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] array, Entry entry) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == entry) {
+                Entry[] result = new Entry[array.length - 1];
+                System.arraycopy(array, 0, result, 0, i);
+                System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+                return result;
+            }
+        }
+        return array;
+    }
+}
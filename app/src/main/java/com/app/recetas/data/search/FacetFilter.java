@@ -0,0 +1,94 @@
+package com.app.recetas.data.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Filtro combinado para la búsqueda por facetas: categoría, área e ingredientes
+ * Las facetas vacías se ignoran; todas las indicadas deben cumplirse a la vez
+ * (ej: área "Italian" + categoría "Seafood" + ingrediente "garlic")
+ */
+public class FacetFilter {
+    
+    private final String category;
+    private final String area;
+    private final List<String> ingredients;
+    
+    /**
+     * @param category Categoría exacta de TheMealDB o null
+     * @param area Área exacta de TheMealDB o null
+     * @param ingredients Ingredientes en inglés (puede ser vacía)
+     */
+    public FacetFilter(String category, String area, List<String> ingredients) {
+        this.category = isBlank(category) ? null : category.trim();
+        this.area = isBlank(area) ? null : area.trim();
+        List<String> cleaned = new ArrayList<>();
+        if (ingredients != null) {
+            for (String ingredient : ingredients) {
+                String value = toApiIngredient(ingredient);
+                if (!value.isEmpty() && !cleaned.contains(value)) {
+                    cleaned.add(value);
+                }
+            }
+        }
+        this.ingredients = Collections.unmodifiableList(cleaned);
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public String getArea() {
+        return area;
+    }
+    
+    /**
+     * Ingredientes con el formato de filter.php ("chicken breast" -> "chicken_breast")
+     */
+    public List<String> getIngredients() {
+        return ingredients;
+    }
+    
+    /**
+     * Cantidad de llamadas a filter.php que requiere el filtro
+     */
+    public int getFacetCount() {
+        return (category != null ? 1 : 0) + (area != null ? 1 : 0) + ingredients.size();
+    }
+    
+    public boolean isEmpty() {
+        return getFacetCount() == 0;
+    }
+    
+    /**
+     * Descripción para mensajes (ej: "Italian · Seafood · garlic")
+     */
+    @Override
+    public String toString() {
+        List<String> parts = new ArrayList<>();
+        if (area != null) parts.add(area);
+        if (category != null) parts.add(category);
+        for (String ingredient : ingredients) {
+            parts.add(ingredient.replace('_', ' '));
+        }
+        StringBuilder builder = new StringBuilder();
+        for (String part : parts) {
+            if (builder.length() > 0) builder.append(" · ");
+            builder.append(part);
+        }
+        return builder.toString();
+    }
+    
+    private static String toApiIngredient(String ingredient) {
+        if (ingredient == null) {
+            return "";
+        }
+        return ingredient.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", "_");
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
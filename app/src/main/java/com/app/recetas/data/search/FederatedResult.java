@@ -0,0 +1,109 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.dto.MealDto;
+
+/**
+ * Resultado de la búsqueda unificada (colección local + TheMealDB)
+ * Una misma receta aparece una sola vez aunque la devuelvan ambas fuentes
+ * Inmutable: las fusiones y el puntaje crean instancias nuevas, así un snapshot ya
+ * publicado no cambia mientras llegan los resultados de la otra fuente
+ */
+public final class FederatedResult {
+    
+    private final MealDto meal;
+    private final double matchQuality;
+    private final boolean saved;
+    private final boolean remote;
+    private final long dateModified;
+    private final double score;
+    
+    /**
+     * Resultado de la colección local
+     * @param meal Receta convertida con MealDto.fromRecipe
+     * @param matchQuality Calidad de la coincidencia entre 0 y 1
+     * @param dateModified Última modificación de la receta guardada
+     */
+    public static FederatedResult local(MealDto meal, double matchQuality, long dateModified) {
+        return new FederatedResult(meal, matchQuality, true, false, dateModified, 0);
+    }
+    
+    /**
+     * Resultado de TheMealDB
+     * @param meal Receta recibida de la API
+     * @param matchQuality Calidad de la coincidencia entre 0 y 1
+     */
+    public static FederatedResult remote(MealDto meal, double matchQuality) {
+        return new FederatedResult(meal, matchQuality, false, true, 0, 0);
+    }
+    
+    private FederatedResult(MealDto meal, double matchQuality, boolean saved, boolean remote,
+                            long dateModified, double score) {
+        this.meal = meal;
+        this.matchQuality = matchQuality;
+        this.saved = saved;
+        this.remote = remote;
+        this.dateModified = dateModified;
+        this.score = score;
+    }
+    
+    /**
+     * Fusiona la misma receta llegada desde la otra fuente
+     * Se conservan los datos de la colección (pueden tener notas o cambios del usuario)
+     * y se completa con la API lo que falte
+     * @return Resultado nuevo; este no cambia
+     */
+    FederatedResult mergeWith(FederatedResult other) {
+        boolean takeOther = !saved && other.saved;
+        return new FederatedResult(
+                takeOther ? other.meal : meal,
+                Math.max(matchQuality, other.matchQuality),
+                saved || other.saved,
+                remote || other.remote,
+                takeOther ? other.dateModified : dateModified,
+                score);
+    }
+    
+    public String getId() {
+        return meal.idMeal;
+    }
+    
+    public MealDto getMeal() {
+        return meal;
+    }
+    
+    public double getMatchQuality() {
+        return matchQuality;
+    }
+    
+    /**
+     * @return true si la receta está en la colección del usuario
+     */
+    public boolean isSaved() {
+        return saved;
+    }
+    
+    /**
+     * @return true si TheMealDB también devolvió la receta
+     */
+    public boolean isRemote() {
+        return remote;
+    }
+    
+    public long getDateModified() {
+        return dateModified;
+    }
+    
+    /**
+     * Puntaje final de ranking (calidad + guardada + recencia)
+     */
+    public double getScore() {
+        return score;
+    }
+    
+    /**
+     * @return Copia con el puntaje indicado
+     */
+    FederatedResult withScore(double score) {
+        return new FederatedResult(meal, matchQuality, saved, remote, dateModified, score);
+    }
+}
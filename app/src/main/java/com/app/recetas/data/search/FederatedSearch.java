@@ -0,0 +1,300 @@
+package com.app.recetas.data.search;
+
+import androidx.annotation.NonNull;
+
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+import com.app.recetas.utils.SearchType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Búsqueda unificada sobre la colección local y TheMealDB
+ * Lanza ambas fuentes a la vez y publica un Snapshot cada vez que llega algo:
+ * lo local aparece enseguida y lo remoto se suma cuando responde la API
+ * Cada fuente tiene su propio timeout: una API lenta nunca oculta los resultados locales
+ *
+ * Todo el estado de una búsqueda se maneja en un único thread (scheduler), así que
+ * el Listener se invoca desde ese thread: usar postValue para pasar a la UI
+ */
+public class FederatedSearch {
+    
+    // Timeouts por defecto de cada fuente
+    public static final long DEFAULT_LOCAL_TIMEOUT_MS = 1_000;
+    public static final long DEFAULT_REMOTE_TIMEOUT_MS = 8_000;
+    
+    /**
+     * Estado de una fuente dentro de una búsqueda
+     */
+    public enum SourceStatus { PENDING, DONE, FAILED, TIMED_OUT }
+    
+    /**
+     * Búsqueda en la colección local (bloqueante: se ejecuta en background)
+     */
+    public interface LocalSource {
+        List<FederatedResult> search(String query, SearchType type);
+    }
+    
+    /**
+     * Recibe los resultados a medida que llegan las fuentes
+     */
+    public interface Listener {
+        void onUpdate(Snapshot snapshot);
+    }
+    
+    /**
+     * Estado de una búsqueda en un momento dado
+     */
+    public static class Snapshot {
+        private final List<FederatedResult> results;
+        private final SourceStatus localStatus;
+        private final SourceStatus remoteStatus;
+        private final String remoteError;
+        
+        Snapshot(List<FederatedResult> results, SourceStatus localStatus,
+                 SourceStatus remoteStatus, String remoteError) {
+            this.results = Collections.unmodifiableList(results);
+            this.localStatus = localStatus;
+            this.remoteStatus = remoteStatus;
+            this.remoteError = remoteError;
+        }
+        
+        /**
+         * Resultados sin repetidos y ordenados por ranking
+         */
+        public List<FederatedResult> getResults() { return results; }
+        
+        public SourceStatus getLocalStatus() { return localStatus; }
+        
+        public SourceStatus getRemoteStatus() { return remoteStatus; }
+        
+        /**
+         * Motivo del fallo de la API (null si no falló)
+         */
+        public String getRemoteError() { return remoteError; }
+        
+        /**
+         * @return true cuando ninguna fuente quedó pendiente (es el último Snapshot)
+         */
+        public boolean isComplete() {
+            return localStatus != SourceStatus.PENDING && remoteStatus != SourceStatus.PENDING;
+        }
+    }
+    
+    private final LocalSource localSource;
+    private final MealApiService apiService;
+    private final long localTimeoutMs;
+    private final long remoteTimeoutMs;
+    
+    // Thread del estado de las búsquedas (merge, timeouts y publicación)
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    
+    // Thread de la búsqueda local (puede esperar a que se cargue el índice)
+    private final ExecutorService localExecutor = Executors.newSingleThreadExecutor();
+    
+    /**
+     * @param localSource Búsqueda en la colección
+     * @param apiService Servicio de TheMealDB
+     * @param localTimeoutMs Tiempo máximo para la colección local
+     * @param remoteTimeoutMs Tiempo máximo para la API
+     */
+    public FederatedSearch(LocalSource localSource, MealApiService apiService,
+                           long localTimeoutMs, long remoteTimeoutMs) {
+        this.localSource = localSource;
+        this.apiService = apiService;
+        this.localTimeoutMs = localTimeoutMs;
+        this.remoteTimeoutMs = remoteTimeoutMs;
+    }
+    
+    /**
+     * Inicia una búsqueda en ambas fuentes
+     * @param query Término buscado
+     * @param type Tipo de búsqueda (nombre, categoría o área)
+     * @param listener Recibe un Snapshot por cada novedad; el último tiene isComplete() = true
+     * @return Búsqueda en curso (cancelarla si el usuario busca otra cosa)
+     */
+    public Search search(String query, SearchType type, Listener listener) {
+        Search search = new Search(query.trim(), type, listener);
+        scheduler.execute(search::start);
+        return search;
+    }
+    
+    /**
+     * Libera los threads (las búsquedas en curso se descartan)
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        localExecutor.shutdownNow();
+    }
+    
+    /**
+     * Pasa un resultado al thread de estado (se descarta si ya se llamó a shutdown)
+     */
+    private void post(Runnable task) {
+        try {
+            scheduler.execute(task);
+        } catch (RejectedExecutionException e) {
+            // FederatedSearch cerrado: la búsqueda ya no tiene a quién publicar
+        }
+    }
+    
+    /**
+     * Una búsqueda en curso
+     * Los campos de estado solo se tocan desde el scheduler
+     */
+    public class Search {
+        
+        private final String query;
+        private final SearchType type;
+        private final Listener listener;
+        private final SearchResultMerger merger = new SearchResultMerger(System.currentTimeMillis());
+        
+        private SourceStatus localStatus = SourceStatus.PENDING;
+        private SourceStatus remoteStatus = SourceStatus.PENDING;
+        private String remoteError;
+        private Call<MealResponse> call;
+        private volatile boolean cancelled = false;
+        
+        Search(String query, SearchType type, Listener listener) {
+            this.query = query;
+            this.type = type;
+            this.listener = listener;
+        }
+        
+        /**
+         * Cancela la búsqueda: no se publican más Snapshots
+         */
+        public void cancel() {
+            cancelled = true;
+            post(() -> {
+                if (call != null) {
+                    call.cancel();
+                }
+            });
+        }
+        
+        private void start() {
+            if (cancelled) return;
+            
+            localExecutor.execute(this::runLocal);
+            scheduler.schedule(() -> {
+                if (localStatus == SourceStatus.PENDING) {
+                    localStatus = SourceStatus.TIMED_OUT;
+                    publish();
+                }
+            }, localTimeoutMs, TimeUnit.MILLISECONDS);
+            
+            call = createRemoteCall();
+            call.enqueue(new RemoteCallback());
+            scheduler.schedule(() -> {
+                if (remoteStatus == SourceStatus.PENDING) {
+                    remoteStatus = SourceStatus.TIMED_OUT;
+                    remoteError = "La API no respondió a tiempo";
+                    call.cancel();
+                    publish();
+                }
+            }, remoteTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+        
+        private void runLocal() {
+            if (cancelled) return;
+            List<FederatedResult> results;
+            try {
+                results = localSource.search(query, type);
+            } catch (RuntimeException e) {
+                post(() -> onLocal(null));
+                return;
+            }
+            post(() -> onLocal(results));
+        }
+        
+        private void onLocal(List<FederatedResult> results) {
+            if (localStatus != SourceStatus.PENDING) {
+                return; // Llegó tarde: ya se publicó sin la colección
+            }
+            if (results == null) {
+                localStatus = SourceStatus.FAILED;
+            } else {
+                merger.addAll(results);
+                localStatus = SourceStatus.DONE;
+            }
+            publish();
+        }
+        
+        private void onRemote(List<MealDto> meals, String error) {
+            if (remoteStatus != SourceStatus.PENDING) {
+                return;
+            }
+            if (error != null) {
+                remoteStatus = SourceStatus.FAILED;
+                remoteError = error;
+            } else {
+                merger.addAll(toResults(meals));
+                remoteStatus = SourceStatus.DONE;
+            }
+            publish();
+        }
+        
+        private void publish() {
+            if (!cancelled) {
+                listener.onUpdate(new Snapshot(merger.ranked(), localStatus, remoteStatus, remoteError));
+            }
+        }
+        
+        private Call<MealResponse> createRemoteCall() {
+            switch (type) {
+                case CATEGORY:
+                    return apiService.searchByCategory(query);
+                case AREA:
+                    return apiService.searchByArea(query);
+                case NAME:
+                default:
+                    return apiService.searchByName(query);
+            }
+        }
+        
+        private List<FederatedResult> toResults(List<MealDto> meals) {
+            if (meals == null) {
+                return Collections.emptyList();
+            }
+            List<FederatedResult> results = new ArrayList<>(meals.size());
+            for (MealDto meal : meals) {
+                // Los filtros de categoría/área son exactos: todo resultado coincide igual
+                double quality = type == SearchType.NAME
+                        ? SearchResultMerger.nameMatchQuality(query, meal.strMeal) : 1.0;
+                results.add(FederatedResult.remote(meal, quality));
+            }
+            return results;
+        }
+        
+        private class RemoteCallback implements Callback<MealResponse> {
+            
+            @Override
+            public void onResponse(@NonNull Call<MealResponse> call, @NonNull Response<MealResponse> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    List<MealDto> meals = response.body().meals;
+                    post(() -> onRemote(meals, null));
+                } else {
+                    post(() -> onRemote(null, "Error en el servidor. Código: " + response.code()));
+                }
+            }
+            
+            @Override
+            public void onFailure(@NonNull Call<MealResponse> call, @NonNull Throwable t) {
+                post(() -> onRemote(null, "Error de conexión: " + t.getMessage()));
+            }
+        }
+    }
+}
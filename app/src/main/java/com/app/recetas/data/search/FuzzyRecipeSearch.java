@@ -0,0 +1,201 @@
+package com.app.recetas.data.search;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.local.entities.RecipeSearchRow;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Búsqueda aproximada sobre la colección guardada ("carbonra" encuentra "Carbonara")
+ * Mantiene un TrigramIndex en memoria sincronizado con la tabla recipes:
+ * cuando Room invalida la tabla, relee la proyección liviana (ID + nombre + ingredientes)
+ * y solo vuelve a indexar las recetas que cambiaron
+ */
+public class FuzzyRecipeSearch {
+    
+    private static final String TAG = "FuzzyRecipeSearch";
+    
+    // Candidatos por consulta que se reordenan con Damerau-Levenshtein
+    private static final int RERANK_SIZE = 50;
+    
+    // Instancia singleton (una por base de datos de la app)
+    private static FuzzyRecipeSearch instance = null;
+    
+    private final RecipeDao recipeDao;
+    private final TrigramIndex index = new TrigramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Nombre + ingredientes ya indexados por receta, para detectar qué cambió
+    private final Map<String, RecipeSearchRow> indexedRows = new HashMap<>();
+    
+    // Un solo thread: las actualizaciones se aplican en orden
+    private final Executor executor;
+    
+    // Evita encolar varias recargas seguidas cuando Room invalida en ráfaga
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    
+    // Recargas pedidas y recargas ya aplicadas (guardado con synchronized): una búsqueda
+    // espera a que se apliquen las pedidas antes que ella, así ve los cambios que la dispararon
+    private final AtomicLong refreshesRequested = new AtomicLong();
+    private long refreshesApplied = 0;
+    
+    private volatile boolean loaded = false;
+    
+    /**
+     * Obtiene la instancia del buscador y empieza a observar la tabla recipes
+     * @param database Base de datos de la app
+     * @return Instancia compartida de FuzzyRecipeSearch
+     */
+    public static synchronized FuzzyRecipeSearch getInstance(AppDatabase database) {
+        if (instance == null) {
+            instance = new FuzzyRecipeSearch(database.tracedRecipeDao());
+            database.getInvalidationTracker().addObserver(instance.new RecipesObserver());
+            instance.scheduleRefresh();
+        }
+        return instance;
+    }
+    
+    FuzzyRecipeSearch(RecipeDao recipeDao) {
+        this(recipeDao, Executors.newSingleThreadExecutor());
+    }
+    
+    FuzzyRecipeSearch(RecipeDao recipeDao, Executor executor) {
+        this.recipeDao = recipeDao;
+        this.executor = executor;
+    }
+    
+    // ==================== CONSULTAS ====================
+    
+    /**
+     * Busca recetas por nombre o ingredientes tolerando errores de tipeo
+     * Operación síncrona - debe llamarse desde background thread
+     * (espera la carga inicial del índice y las recargas pedidas hasta ahora)
+     * @param query Texto buscado
+     * @param limit Cantidad máxima de resultados
+     * @return Resultados de mayor a menor similitud
+     */
+    public List<TrigramIndex.Hit> search(String query, int limit) {
+        awaitRefreshes(refreshesRequested.get());
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit, Math.max(limit, RERANK_SIZE));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    // ==================== ACTUALIZACIÓN ====================
+    
+    /**
+     * Programa una recarga incremental del índice en background
+     */
+    void scheduleRefresh() {
+        refreshesRequested.incrementAndGet();
+        if (refreshPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                refreshPending.set(false);
+                // Leído después de bajar el flag: los pedidos que no encolaron tarea
+                // quedan cubiertos por esta recarga
+                long covered = refreshesRequested.get();
+                refresh();
+                synchronized (this) {
+                    refreshesApplied = Math.max(refreshesApplied, covered);
+                    notifyAll();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Sincroniza el índice con la base de datos
+     * Solo reindexa las recetas nuevas o con nombre/ingredientes distintos y quita las eliminadas
+     */
+    void refresh() {
+        try {
+            reindex(recipeDao.getSearchRows());
+        } catch (RuntimeException e) {
+            // Corre dentro del executor: si la excepción escapa el proceso se cae
+            Log.w(TAG, "No se pudo recargar el índice de trigramas", e);
+        } finally {
+            // Aunque la lectura falle las búsquedas no quedan esperando: responden con lo que
+            // haya en el índice y la próxima invalidación de la tabla vuelve a intentar
+            synchronized (this) {
+                loaded = true;
+                notifyAll();
+            }
+        }
+    }
+    
+    private void reindex(List<RecipeSearchRow> rows) {
+        lock.writeLock().lock();
+        try {
+            Set<String> present = new HashSet<>(rows.size() * 2);
+            for (RecipeSearchRow row : rows) {
+                present.add(row.id);
+                RecipeSearchRow previous = indexedRows.get(row.id);
+                if (previous == null || !Objects.equals(previous.name, row.name)
+                        || !Objects.equals(previous.ingredients, row.ingredients)) {
+                    index.put(row.id, row.name, IngredientParser.parse(row.ingredients));
+                    indexedRows.put(row.id, row);
+                }
+            }
+            Iterator<String> it = indexedRows.keySet().iterator();
+            while (it.hasNext()) {
+                String id = it.next();
+                if (!present.contains(id)) {
+                    index.remove(id);
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private synchronized void awaitRefreshes(long requested) {
+        while (!loaded || refreshesApplied < requested) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Observa la tabla recipes: cualquier insert/update/delete dispara una recarga
+     */
+    private class RecipesObserver extends InvalidationTracker.Observer {
+        
+        RecipesObserver() {
+            super("recipes");
+        }
+        
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            scheduleRefresh();
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.app.recetas.data.search;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido de ingredientes en memoria para responder "¿qué puedo cocinar?"
+ * Cada ingrediente se codifica como un entero (diccionario) y guarda un BitSet
+ * con las recetas que lo usan; las consultas se resuelven intersecando BitSets
+ * No es thread-safe: IngredientSearchEngine se encarga de la sincronización
+ */
+public class IngredientIndex {
+
+    // Diccionario ingrediente normalizado <-> ID entero
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    private final List<String> ingredientNames = new ArrayList<>();
+
+    // Posting list por ingrediente: bit i encendido si la receta del slot i lo usa
+    private final List<BitSet> postings = new ArrayList<>();
+
+    // Recetas por cantidad de ingredientes (para "faltan como máximo k")
+    private final List<BitSet> recipesBySize = new ArrayList<>();
+
+    // Receta (ID de Room) <-> slot del BitSet; los slots libres se reutilizan
+    private final Map<String, Integer> recipeSlots = new HashMap<>();
+    private final List<String> slotRecipeIds = new ArrayList<>();
+    private final List<int[]> slotIngredients = new ArrayList<>();
+    private final BitSet freeSlots = new BitSet();
+
+    /**
+     * Resultado de una búsqueda por despensa
+     */
+    public static class Match {
+        private final String recipeId;
+        private final int ingredientCount;
+        private final List<String> missing;
+
+        Match(String recipeId, int ingredientCount, List<String> missing) {
+            this.recipeId = recipeId;
+            this.ingredientCount = ingredientCount;
+            this.missing = missing;
+        }
+
+        public String getRecipeId() { return recipeId; }
+        public int getIngredientCount() { return ingredientCount; }
+        public int getMissingCount() { return missing.size(); }
+
+        /**
+         * Ingredientes de la receta que no están en la despensa
+         */
+        public List<String> getMissing() { return missing; }
+    }
+
+    // Más completas primero; a igual faltante, las que aprovechan más ingredientes
+    private static final Comparator<Match> BEST_FIRST = (a, b) -> {
+        if (a.getMissingCount() != b.getMissingCount()) {
+            return Integer.compare(a.getMissingCount(), b.getMissingCount());
+        }
+        return Integer.compare(b.ingredientCount - b.getMissingCount(), a.ingredientCount - a.getMissingCount());
+    };
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Agrega o reemplaza los ingredientes de una receta
+     * @param recipeId ID de la receta
+     * @param ingredients Ingredientes (se normalizan y se ignoran repetidos)
+     */
+    public void put(String recipeId, Collection<String> ingredients) {
+        remove(recipeId);
+
+        int slot = freeSlots.nextSetBit(0);
+        if (slot >= 0) {
+            freeSlots.clear(slot);
+            slotRecipeIds.set(slot, recipeId);
+        } else {
+            slot = slotRecipeIds.size();
+            slotRecipeIds.add(recipeId);
+            slotIngredients.add(null);
+        }
+        recipeSlots.put(recipeId, slot);
+
+        Set<Integer> ids = new LinkedHashSet<>();
+        for (String ingredient : ingredients) {
+            String normalized = IngredientParser.normalize(ingredient);
+            if (!normalized.isEmpty()) {
+                ids.add(internIngredient(normalized));
+            }
+        }
+        int[] encoded = new int[ids.size()];
+        int i = 0;
+        for (int id : ids) {
+            encoded[i++] = id;
+            postings.get(id).set(slot);
+        }
+        slotIngredients.set(slot, encoded);
+        sizeBucket(encoded.length).set(slot);
+    }
+
+    /**
+     * Quita una receta del índice
+     * @param recipeId ID de la receta
+     * @return true si la receta estaba indexada
+     */
+    public boolean remove(String recipeId) {
+        Integer slot = recipeSlots.remove(recipeId);
+        if (slot == null) {
+            return false;
+        }
+        int[] encoded = slotIngredients.get(slot);
+        for (int id : encoded) {
+            postings.get(id).clear(slot);
+        }
+        sizeBucket(encoded.length).clear(slot);
+        slotIngredients.set(slot, null);
+        slotRecipeIds.set(slot, null);
+        freeSlots.set(slot);
+        return true;
+    }
+
+    /**
+     * Vacía el índice (el diccionario también se descarta)
+     */
+    public void clear() {
+        ingredientIds.clear();
+        ingredientNames.clear();
+        postings.clear();
+        recipesBySize.clear();
+        recipeSlots.clear();
+        slotRecipeIds.clear();
+        slotIngredients.clear();
+        freeSlots.clear();
+    }
+
+    public int getRecipeCount() {
+        return recipeSlots.size();
+    }
+
+    public int getIngredientCount() {
+        return ingredientNames.size();
+    }
+
+    public boolean contains(String recipeId) {
+        return recipeSlots.containsKey(recipeId);
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Recetas que contienen todos los ingredientes pedidos
+     * @param ingredients Ingredientes requeridos
+     * @return IDs de recetas (vacío si algún ingrediente no existe en el índice)
+     */
+    public List<String> findWithAll(Collection<String> ingredients) {
+        List<BitSet> sets = new ArrayList<>();
+        for (String ingredient : ingredients) {
+            Integer id = ingredientIds.get(IngredientParser.normalize(ingredient));
+            if (id == null) {
+                return Collections.emptyList();
+            }
+            sets.add(postings.get(id));
+        }
+        if (sets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Empezar por la lista más corta para que la intersección se achique rápido
+        Collections.sort(sets, (a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+        BitSet result = (BitSet) sets.get(0).clone();
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            result.and(sets.get(i));
+        }
+        return toRecipeIds(result);
+    }
+
+    /**
+     * Recetas que contienen al menos uno de los ingredientes pedidos
+     * @param ingredients Ingredientes buscados
+     * @return IDs de recetas
+     */
+    public List<String> findWithAny(Collection<String> ingredients) {
+        return toRecipeIds(union(ingredients, null));
+    }
+
+    /**
+     * Recetas a las que les faltan como máximo maxMissing ingredientes
+     * respecto de lo que hay en la despensa
+     * @param pantry Ingredientes disponibles
+     * @param maxMissing Cantidad máxima de ingredientes faltantes (0 = se puede cocinar ya)
+     * @return Coincidencias ordenadas: menos faltantes primero
+     */
+    public List<Match> findMissingAtMost(Collection<String> pantry, int maxMissing) {
+        int k = Math.max(0, maxMissing);
+        BitSet pantryIds = new BitSet(ingredientNames.size());
+
+        // Candidatas: usan algún ingrediente de la despensa, o tienen k ingredientes o menos
+        BitSet candidates = union(pantry, pantryIds);
+        for (int size = 0; size <= k && size < recipesBySize.size(); size++) {
+            candidates.or(recipesBySize.get(size));
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+            int[] encoded = slotIngredients.get(slot);
+            int missingCount = 0;
+            for (int id : encoded) {
+                if (!pantryIds.get(id) && ++missingCount > k) {
+                    break;
+                }
+            }
+            if (missingCount > k) {
+                continue;
+            }
+            List<String> missing = new ArrayList<>(missingCount);
+            for (int id : encoded) {
+                if (!pantryIds.get(id)) {
+                    missing.add(ingredientNames.get(id));
+                }
+            }
+            matches.add(new Match(slotRecipeIds.get(slot), encoded.length, missing));
+        }
+        Collections.sort(matches, BEST_FIRST);
+        return matches;
+    }
+
+    /**
+     * Ingredientes conocidos (útil para autocompletar la despensa)
+     * @return Nombres normalizados en orden de alta
+     */
+    public List<String> getIngredientNames() {
+        return Collections.unmodifiableList(new ArrayList<>(ingredientNames));
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private BitSet union(Collection<String> ingredients, BitSet knownIds) {
+        BitSet result = new BitSet(slotRecipeIds.size());
+        for (String ingredient : ingredients) {
+            Integer id = ingredientIds.get(IngredientParser.normalize(ingredient));
+            if (id != null) {
+                result.or(postings.get(id));
+                if (knownIds != null) {
+                    knownIds.set(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int internIngredient(String normalized) {
+        Integer id = ingredientIds.get(normalized);
+        if (id == null) {
+            id = ingredientNames.size();
+            ingredientIds.put(normalized, id);
+            ingredientNames.add(normalized);
+            postings.add(new BitSet());
+        }
+        return id;
+    }
+
+    private BitSet sizeBucket(int size) {
+        while (recipesBySize.size() <= size) {
+            recipesBySize.add(new BitSet());
+        }
+        return recipesBySize.get(size);
+    }
+
+    private List<String> toRecipeIds(BitSet slots) {
+        List<String> result = new ArrayList<>(slots.cardinality());
+        for (int slot = slots.nextSetBit(0); slot >= 0; slot = slots.nextSetBit(slot + 1)) {
+            result.add(slotRecipeIds.get(slot));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,118 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.local.entities.IngredientList;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Extrae nombres de ingredientes del campo Recipe.ingredients
+ * Soporta las dos formas en que llegan los ingredientes:
+ * - Con medida (TheMealDB): el nombre se usa tal cual
+ * - Sin medida (texto libre de NewRecipeActivity): cada línea puede traer varios
+ *   ingredientes separados por coma y la cantidad al principio ("200 g de harina")
+ */
+public final class IngredientParser {
+
+    // Texto que MealDto usa cuando la receta vino sin ingredientes (búsqueda por categoría/área)
+    private static final String UNAVAILABLE_PLACEHOLDER = "ingredientes no disponibles";
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\n;,]+");
+    private static final Pattern BULLET = Pattern.compile("^[\\s•*·\\-]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Cantidad y unidad al inicio del texto libre (ej: "200 g de harina", "2 tazas arroz")
+    private static final Pattern LEADING_QUANTITY = Pattern.compile(
+            "^[\\d½¼¾/.,\\s-]+(?:(?:kg|g|gr|grs|gramos?|mg|l|lt|litros?|ml|cc|tazas?|cups?|"
+                    + "cucharadas?|cucharaditas?|cdas?|cdtas?|tbsp|tsp|oz|lb|unidades?|u)\\b\\.?)?\\s*(?:de\\s+)?");
+
+    private IngredientParser() {
+    }
+
+    /**
+     * Obtiene los ingredientes de una receta
+     * @param ingredients Contenido de Recipe.ingredients (puede ser null)
+     * @return Nombres normalizados, sin repetidos ni vacíos
+     */
+    public static List<String> parse(IngredientList ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(ingredients.size());
+        for (int i = 0; i < ingredients.size(); i++) {
+            String name = ingredients.getName(i);
+            if (ingredients.getMeasure(i).isEmpty()) {
+                for (String part : parseText(name)) {
+                    addNormalized(result, part);
+                }
+            } else {
+                addNormalized(result, name);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene los ingredientes de un texto en el formato anterior (JSON o texto libre)
+     * @param raw JSON de MealDto o texto libre
+     * @return Nombres normalizados, sin repetidos ni vacíos
+     */
+    public static List<String> parse(String raw) {
+        return parse(IngredientList.fromText(raw));
+    }
+
+    private static void addNormalized(List<String> result, String name) {
+        String normalized = normalize(name);
+        if (!normalized.isEmpty() && !normalized.equals(UNAVAILABLE_PLACEHOLDER) && !result.contains(normalized)) {
+            result.add(normalized);
+        }
+    }
+
+    /**
+     * Normaliza un nombre de ingrediente para compararlo
+     * Minúsculas, sin tildes y con espacios simples ("  Azúcar  Rubia" -> "azucar rubia")
+     * @param ingredient Nombre tal como lo escribió el usuario o la API
+     * @return Nombre normalizado ("" si es null)
+     */
+    public static String normalize(String ingredient) {
+        if (ingredient == null) {
+            return "";
+        }
+        String lower = ingredient.trim().toLowerCase(Locale.ROOT);
+        if (isPlainAscii(lower)) {
+            // Caso común (nombres de TheMealDB): evitar Normalizer y regex
+            return lower;
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(withoutAccents).replaceAll(" ");
+    }
+
+    private static boolean isPlainAscii(String text) {
+        char previous = 'x';
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c > 127 || (Character.isWhitespace(c) && (c != ' ' || previous == ' '))) {
+                return false;
+            }
+            previous = c;
+        }
+        return true;
+    }
+
+    private static List<String> parseText(String text) {
+        List<String> names = new ArrayList<>();
+        for (String part : SEPARATORS.split(text)) {
+            String name = BULLET.matcher(part).replaceFirst("");
+            name = LEADING_QUANTITY.matcher(name.toLowerCase(Locale.ROOT)).replaceFirst("");
+            if (!name.trim().isEmpty()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,240 @@
+package com.app.recetas.data.search;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.InvalidationTracker;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.RecipeIngredientsRow;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Buscador local por ingredientes sobre la colección guardada ("¿qué puedo cocinar?")
+ * Mantiene un IngredientIndex en memoria sincronizado con la tabla recipes:
+ * cuando Room invalida la tabla, relee la proyección liviana (ID + ingredientes)
+ * y solo vuelve a indexar las recetas que cambiaron
+ */
+public class IngredientSearchEngine {
+
+    private static final String TAG = "IngredientSearchEngine";
+
+    // Instancia singleton (una por base de datos de la app)
+    private static IngredientSearchEngine instance = null;
+
+    private final RecipeDao recipeDao;
+    private final IngredientIndex index = new IngredientIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Ingredientes ya indexados por receta, para detectar qué cambió
+    private final Map<String, IngredientList> indexedIngredients = new HashMap<>();
+
+    // Un solo thread: las actualizaciones se aplican en orden
+    private final Executor executor;
+
+    // Recibe los errores de recarga (en la app se registran con Log)
+    private final Consumer<RuntimeException> failureHandler;
+
+    // Evita encolar varias recargas seguidas cuando Room invalida en ráfaga
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Obtiene la instancia del buscador y empieza a observar la tabla recipes
+     * @param database Base de datos de la app
+     * @return Instancia compartida de IngredientSearchEngine
+     */
+    public static synchronized IngredientSearchEngine getInstance(AppDatabase database) {
+        if (instance == null) {
+            instance = new IngredientSearchEngine(database.tracedRecipeDao());
+            database.getInvalidationTracker().addObserver(instance.new RecipesObserver());
+            instance.scheduleRefresh();
+        }
+        return instance;
+    }
+
+    IngredientSearchEngine(RecipeDao recipeDao) {
+        this(recipeDao, Executors.newSingleThreadExecutor());
+    }
+
+    IngredientSearchEngine(RecipeDao recipeDao, Executor executor) {
+        this(recipeDao, executor, e -> Log.w(TAG, "No se pudo recargar el índice de ingredientes", e));
+    }
+
+    IngredientSearchEngine(RecipeDao recipeDao, Executor executor, Consumer<RuntimeException> failureHandler) {
+        this.recipeDao = recipeDao;
+        this.executor = executor;
+        this.failureHandler = failureHandler;
+    }
+
+    // ==================== CONSULTAS ====================
+    // Operaciones síncronas - deben llamarse desde background thread
+    // (la primera espera a que termine la carga inicial del índice)
+
+    /**
+     * Recetas guardadas que usan todos los ingredientes indicados
+     * @param ingredients Ingredientes requeridos
+     * @return IDs de recetas
+     */
+    public List<String> findWithAll(Collection<String> ingredients) {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return index.findWithAll(ingredients);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recetas guardadas que usan al menos uno de los ingredientes indicados
+     * @param ingredients Ingredientes buscados
+     * @return IDs de recetas
+     */
+    public List<String> findWithAny(Collection<String> ingredients) {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return index.findWithAny(ingredients);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recetas guardadas que se pueden cocinar con la despensa comprando como máximo k ingredientes
+     * @param pantry Ingredientes disponibles
+     * @param maxMissing Ingredientes faltantes permitidos
+     * @return Coincidencias ordenadas de más a menos completas
+     */
+    public List<IngredientIndex.Match> findMissingAtMost(Collection<String> pantry, int maxMissing) {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return index.findMissingAtMost(pantry, maxMissing);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ingredientes conocidos en la colección (para sugerir al cargar la despensa)
+     * @return Nombres normalizados
+     */
+    public List<String> getKnownIngredients() {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            return index.getIngredientNames();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // ==================== ACTUALIZACIÓN ====================
+
+    /**
+     * Programa una recarga incremental del índice en background
+     */
+    void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                refreshPending.set(false);
+                refresh();
+            });
+        }
+    }
+
+    /**
+     * Sincroniza el índice con la base de datos
+     * Solo reindexa las recetas nuevas o con ingredientes distintos y quita las eliminadas
+     */
+    void refresh() {
+        try {
+            reindex(recipeDao.getIngredientRows());
+        } catch (RuntimeException e) {
+            // Corre dentro del executor: si la excepción escapa el proceso se cae
+            failureHandler.accept(e);
+        } finally {
+            // Aunque la lectura falle (base cerrada, BLOB dañado) las consultas no deben quedar
+            // esperando para siempre: responden con lo que haya en el índice y la próxima
+            // invalidación de la tabla vuelve a intentar
+            synchronized (this) {
+                loaded = true;
+                notifyAll();
+            }
+        }
+    }
+
+    private void reindex(List<RecipeIngredientsRow> rows) {
+        lock.writeLock().lock();
+        try {
+            Set<String> present = new HashSet<>(rows.size() * 2);
+            for (RecipeIngredientsRow row : rows) {
+                present.add(row.id);
+                IngredientList previous = indexedIngredients.get(row.id);
+                boolean unchanged = previous != null ? previous.equals(row.ingredients)
+                        : row.ingredients == null && indexedIngredients.containsKey(row.id);
+                if (!unchanged) {
+                    index.put(row.id, IngredientParser.parse(row.ingredients));
+                    indexedIngredients.put(row.id, row.ingredients);
+                }
+            }
+            Iterator<String> it = indexedIngredients.keySet().iterator();
+            while (it.hasNext()) {
+                String id = it.next();
+                if (!present.contains(id)) {
+                    index.remove(id);
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private synchronized void awaitLoaded() {
+        while (!loaded) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Observa la tabla recipes: cualquier insert/update/delete dispara una recarga
+     */
+    private class RecipesObserver extends InvalidationTracker.Observer {
+
+        RecipesObserver() {
+            super("recipes");
+        }
+
+        @Override
+        public void onInvalidated(@NonNull Set<String> tables) {
+            scheduleRefresh();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.cache.MealDetailCache;
+import com.app.recetas.data.remote.dto.MealDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listado de resultados que se completa a medida que el usuario lo recorre
+ * filter.php (categoría/área) devuelve solo nombre e imagen: el listado entero se
+ * muestra enseguida y el detalle (lookup.php) se pide por lotes solo para las filas
+ * que entran en pantalla
+ *
+ * Cada fila recuerda su estado: una fila completa no se vuelve a pedir aunque la
+ * caché de detalles ya la haya descartado. Las cargas de lotes que salen de la
+ * ventana visible se cancelan. Una fila que falló se vuelve a pedir al reaparecer en
+ * pantalla, pero no antes de retryDelayMs (no se reintenta en cada scroll)
+ * Thread-safe: el Listener se invoca desde los threads de red (usar postValue)
+ */
+public class LazyResultList {
+    
+    // Filas por lote de carga de detalles
+    public static final int DEFAULT_BATCH_SIZE = 10;
+    
+    // Espera mínima antes de volver a pedir una fila que falló (lo que queda abierto
+    // el circuit breaker de ApiClient)
+    public static final long DEFAULT_RETRY_DELAY_MS = 30_000;
+    
+    /**
+     * Estado de una fila del listado
+     */
+    public enum RowState { BASIC, LOADING, COMPLETE, FAILED }
+    
+    /**
+     * Recibe el listado actualizado cada vez que termina de cargarse un lote
+     * Los avisos de distintos threads pueden llegar desordenados: para publicar,
+     * conviene leer getRows() en lugar de usar la lista recibida
+     */
+    public interface Listener {
+        void onRowsChanged(List<MealDto> rows);
+    }
+    
+    private final MealApiService apiService;
+    private final MealDetailCache detailCache;
+    private final int batchSize;
+    private final long retryDelayMs;
+    private final Listener listener;
+    
+    // Orden actual de las filas y datos/estado por ID (todo protegido por this)
+    private List<String> ids = new ArrayList<>();
+    private final Map<String, MealDto> rows = new HashMap<>();
+    private final Map<String, RowState> states = new HashMap<>();
+    
+    // Momento (System.nanoTime) en que falló cada fila FAILED
+    private final Map<String, Long> failedAt = new HashMap<>();
+    
+    // Cargas en curso: ID -> callback registrado en la caché
+    private final Map<String, RowCallback> inFlight = new HashMap<>();
+    
+    /**
+     * @param apiService Servicio de TheMealDB
+     * @param detailCache Caché compartida de detalles
+     * @param batchSize Filas por lote
+     * @param listener Recibe el listado al completarse cada lote
+     */
+    public LazyResultList(MealApiService apiService, MealDetailCache detailCache,
+                          int batchSize, Listener listener) {
+        this(apiService, detailCache, batchSize, DEFAULT_RETRY_DELAY_MS, listener);
+    }
+    
+    LazyResultList(MealApiService apiService, MealDetailCache detailCache,
+                   int batchSize, long retryDelayMs, Listener listener) {
+        this.apiService = apiService;
+        this.detailCache = detailCache;
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelayMs = retryDelayMs;
+        this.listener = listener;
+    }
+    
+    // ==================== CONTENIDO ====================
+    
+    /**
+     * Reemplaza el listado manteniendo lo ya cargado de las recetas que siguen presentes
+     * (la búsqueda unificada publica varias versiones del mismo listado)
+     * @param meals Resultados en orden, completos o básicos
+     * @return Filas a mostrar, con el detalle ya cargado donde lo haya
+     */
+    public List<MealDto> setResults(List<MealDto> meals) {
+        List<RowCallback> stale = new ArrayList<>();
+        List<MealDto> result;
+        synchronized (this) {
+            List<String> newIds = new ArrayList<>(meals.size());
+            Set<String> present = new HashSet<>();
+            for (MealDto meal : meals) {
+                if (meal == null || meal.idMeal == null || !present.add(meal.idMeal)) {
+                    continue;
+                }
+                newIds.add(meal.idMeal);
+                if (isComplete(meal)) {
+                    rows.put(meal.idMeal, meal);
+                    states.put(meal.idMeal, RowState.COMPLETE);
+                    failedAt.remove(meal.idMeal);
+                } else if (states.get(meal.idMeal) != RowState.COMPLETE) {
+                    rows.put(meal.idMeal, meal);
+                    if (!states.containsKey(meal.idMeal)) {
+                        states.put(meal.idMeal, RowState.BASIC);
+                    }
+                }
+            }
+            // Olvidar las recetas que ya no están en el listado
+            for (String id : ids) {
+                if (!present.contains(id)) {
+                    RowCallback callback = inFlight.remove(id);
+                    if (callback != null) stale.add(callback);
+                    rows.remove(id);
+                    states.remove(id);
+                    failedAt.remove(id);
+                }
+            }
+            ids = newIds;
+            result = currentRows();
+        }
+        cancelCalls(stale);
+        return result;
+    }
+    
+    /**
+     * Vacía el listado y cancela las cargas en curso (nueva búsqueda)
+     */
+    public void clear() {
+        List<RowCallback> stale;
+        synchronized (this) {
+            stale = new ArrayList<>(inFlight.values());
+            inFlight.clear();
+            ids = new ArrayList<>();
+            rows.clear();
+            states.clear();
+            failedAt.clear();
+        }
+        cancelCalls(stale);
+    }
+    
+    /**
+     * Filas actuales en orden
+     */
+    public synchronized List<MealDto> getRows() {
+        return currentRows();
+    }
+    
+    /**
+     * Estado de carga de una fila
+     * @param id ID de la receta
+     * @return Estado o null si no está en el listado
+     */
+    public synchronized RowState getState(String id) {
+        return states.get(id);
+    }
+    
+    // ==================== CARGA POR VENTANA ====================
+    
+    /**
+     * Informa qué filas están en pantalla: carga los lotes que las contienen más el
+     * siguiente, y cancela las cargas de lotes que quedaron fuera
+     * @param first Primera posición visible
+     * @param last Última posición visible
+     */
+    public void onVisibleRange(int first, int last) {
+        List<RowCallback> stale = new ArrayList<>();
+        List<RowCallback> toStart = new ArrayList<>();
+        List<MealDto> changed = null;
+        synchronized (this) {
+            if (ids.isEmpty() || first < 0 || last < first) {
+                return;
+            }
+            int from = (first / batchSize) * batchSize;
+            int to = Math.min(ids.size(), ((Math.min(last, ids.size() - 1) / batchSize) + 2) * batchSize);
+            
+            Set<String> window = new HashSet<>(ids.subList(from, to));
+            long now = System.nanoTime();
+            boolean updated = false;
+            for (RowCallback callback : new ArrayList<>(inFlight.values())) {
+                if (!window.contains(callback.id)) {
+                    // Vuelve a ser básica: se pedirá de nuevo si reaparece
+                    inFlight.remove(callback.id);
+                    states.put(callback.id, RowState.BASIC);
+                    stale.add(callback);
+                    callback.batch.pending.remove(callback.id);
+                    updated |= callback.batch.pending.isEmpty() && callback.batch.loaded;
+                }
+            }
+            
+            for (int start = from; start < to; start += batchSize) {
+                Batch batch = new Batch();
+                for (int i = start; i < Math.min(to, start + batchSize); i++) {
+                    String id = ids.get(i);
+                    RowState state = states.get(id);
+                    if (state != RowState.BASIC && !(state == RowState.FAILED && canRetry(id, now))) {
+                        continue;
+                    }
+                    failedAt.remove(id);
+                    // Ya descargada por otra pantalla: se completa sin ir a la red
+                    MealDto cached = detailCache.get(id);
+                    if (cached != null) {
+                        rows.put(id, cached);
+                        states.put(id, RowState.COMPLETE);
+                        updated = true;
+                        continue;
+                    }
+                    RowCallback callback = new RowCallback(id, batch);
+                    batch.pending.add(id);
+                    inFlight.put(id, callback);
+                    states.put(id, RowState.LOADING);
+                    toStart.add(callback);
+                }
+            }
+            if (updated) {
+                changed = currentRows();
+            }
+        }
+        cancelCalls(stale);
+        if (changed != null) {
+            listener.onRowsChanged(changed);
+        }
+        for (RowCallback callback : toStart) {
+            detailCache.fetch(apiService, callback.id, callback);
+        }
+    }
+    
+    // ==================== AUXILIARES ====================
+    
+    private List<MealDto> currentRows() {
+        List<MealDto> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            result.add(rows.get(id));
+        }
+        return Collections.unmodifiableList(result);
+    }
+    
+    private void cancelCalls(List<RowCallback> callbacks) {
+        for (RowCallback callback : callbacks) {
+            detailCache.cancel(callback.id, callback);
+        }
+    }
+    
+    /**
+     * Registra el fin de la carga de una fila y publica si se completó su lote
+     */
+    private void finish(RowCallback callback, MealDto meal) {
+        List<MealDto> snapshot = null;
+        synchronized (this) {
+            // Cancelada o de un listado anterior: se ignora
+            if (inFlight.get(callback.id) != callback) {
+                return;
+            }
+            inFlight.remove(callback.id);
+            if (meal != null) {
+                rows.put(callback.id, meal);
+                states.put(callback.id, RowState.COMPLETE);
+                callback.batch.loaded = true;
+            } else {
+                // Queda la fila básica: se vuelve a pedir al reaparecer en pantalla pasado
+                // retryDelayMs, o al abrirla (el detalle lo pide RecipeDetailActivity)
+                states.put(callback.id, RowState.FAILED);
+                failedAt.put(callback.id, System.nanoTime());
+            }
+            callback.batch.pending.remove(callback.id);
+            if (callback.batch.pending.isEmpty() && callback.batch.loaded) {
+                snapshot = currentRows();
+            }
+        }
+        if (snapshot != null) {
+            listener.onRowsChanged(snapshot);
+        }
+    }
+    
+    /**
+     * Si ya pasó retryDelayMs desde que falló la fila (llamar con el lock tomado)
+     */
+    private boolean canRetry(String id, long now) {
+        Long failed = failedAt.get(id);
+        return failed == null || now - failed >= TimeUnit.MILLISECONDS.toNanos(retryDelayMs);
+    }
+    
+    private static boolean isComplete(MealDto meal) {
+        return meal.strInstructions != null && !meal.strInstructions.trim().isEmpty();
+    }
+    
+    /**
+     * Filas de un lote que todavía esperan su detalle
+     */
+    private static final class Batch {
+        final Set<String> pending = new HashSet<>();
+        boolean loaded;
+    }
+    
+    /**
+     * Callback de la carga de una fila
+     */
+    private final class RowCallback implements MealDetailCache.DetailCallback {
+        final String id;
+        final Batch batch;
+        
+        RowCallback(String id, Batch batch) {
+            this.id = id;
+            this.batch = batch;
+        }
+        
+        @Override
+        public void onDetailLoaded(MealDto meal) {
+            finish(this, meal);
+        }
+        
+        @Override
+        public void onDetailError(String message) {
+            finish(this, null);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.app.recetas.data.search;
+
+import androidx.annotation.NonNull;
+
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Búsqueda por varias facetas a la vez sobre TheMealDB
+ * filter.php acepta un solo criterio por llamada, así que se lanza una llamada por
+ * faceta en paralelo y se intersectan los IDs en el dispositivo
+ * Los detalles (lookup.php) no se piden acá: LazyResultList los completa a medida
+ * que las filas de la intersección se vuelven visibles
+ */
+public class MultiFacetSearch {
+    
+    /**
+     * Recibe el resultado de la búsqueda (se invoca desde los callbacks de Retrofit)
+     */
+    public interface Listener {
+        /**
+         * IDs que cumplen todas las facetas, con datos básicos (nombre e imagen)
+         */
+        void onIntersection(List<MealDto> summaries);
+        
+        void onError(String message);
+    }
+    
+    private final MealApiService apiService;
+    
+    public MultiFacetSearch(MealApiService apiService) {
+        this.apiService = apiService;
+    }
+    
+    /**
+     * Inicia la búsqueda combinada
+     * @param filter Facetas a cumplir (al menos una)
+     * @param listener Recibe la intersección o el error
+     * @return Búsqueda en curso (cancelable)
+     */
+    public Search search(FacetFilter filter, Listener listener) {
+        Search search = new Search(listener);
+        List<Call<MealResponse>> calls = new ArrayList<>();
+        if (filter.getCategory() != null) calls.add(apiService.searchByCategory(filter.getCategory()));
+        if (filter.getArea() != null) calls.add(apiService.searchByArea(filter.getArea()));
+        for (String ingredient : filter.getIngredients()) {
+            calls.add(apiService.searchByIngredient(ingredient));
+        }
+        search.start(calls);
+        return search;
+    }
+    
+    /**
+     * Intersección de los resultados de cada faceta
+     * Recorre el conjunto más chico y conserva su orden
+     */
+    static List<MealDto> intersect(List<Map<String, MealDto>> facets) {
+        if (facets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, MealDto> smallest = facets.get(0);
+        for (Map<String, MealDto> facet : facets) {
+            if (facet.size() < smallest.size()) smallest = facet;
+        }
+        List<MealDto> result = new ArrayList<>();
+        for (Map.Entry<String, MealDto> entry : smallest.entrySet()) {
+            boolean inAll = true;
+            for (Map<String, MealDto> facet : facets) {
+                if (!facet.containsKey(entry.getKey())) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                result.add(entry.getValue());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Una búsqueda combinada en curso
+     */
+    public class Search {
+        
+        private final Listener listener;
+        private final List<Call<MealResponse>> calls = new ArrayList<>();
+        private final List<Map<String, MealDto>> facets = new ArrayList<>();
+        private boolean finished = false;
+        private volatile boolean cancelled = false;
+        
+        Search(Listener listener) {
+            this.listener = listener;
+        }
+        
+        /**
+         * Cancela las llamadas pendientes; no se invocan más callbacks
+         */
+        public synchronized void cancel() {
+            cancelled = true;
+            for (Call<MealResponse> call : calls) {
+                call.cancel();
+            }
+        }
+        
+        private void start(List<Call<MealResponse>> facetCalls) {
+            if (facetCalls.isEmpty()) {
+                listener.onError("Selecciona al menos un filtro");
+                return;
+            }
+            calls.addAll(facetCalls);
+            for (Call<MealResponse> call : facetCalls) {
+                call.enqueue(new Callback<MealResponse>() {
+                    @Override
+                    public void onResponse(@NonNull Call<MealResponse> call, @NonNull Response<MealResponse> response) {
+                        if (response.isSuccessful() && response.body() != null) {
+                            onFacet(response.body().meals);
+                        } else {
+                            onFacetError("Error en el servidor. Código: " + response.code());
+                        }
+                    }
+                    
+                    @Override
+                    public void onFailure(@NonNull Call<MealResponse> call, @NonNull Throwable t) {
+                        if (!call.isCanceled()) {
+                            onFacetError("Error de conexión: " + t.getMessage());
+                        }
+                    }
+                });
+            }
+        }
+        
+        private void onFacet(List<MealDto> meals) {
+            List<MealDto> intersection;
+            synchronized (this) {
+                if (finished || cancelled) return;
+                Map<String, MealDto> ids = new LinkedHashMap<>();
+                if (meals != null) {
+                    for (MealDto meal : meals) {
+                        if (meal.idMeal != null) ids.put(meal.idMeal, meal);
+                    }
+                }
+                facets.add(ids);
+                if (ids.isEmpty()) {
+                    // Una faceta sin resultados vacía la intersección: no esperar al resto
+                    finished = true;
+                    for (Call<MealResponse> call : calls) {
+                        call.cancel();
+                    }
+                    intersection = Collections.emptyList();
+                } else if (facets.size() < calls.size()) {
+                    return;
+                } else {
+                    finished = true;
+                    intersection = intersect(facets);
+                }
+            }
+            if (cancelled) return;
+            listener.onIntersection(intersection);
+        }
+        
+        private void onFacetError(String message) {
+            synchronized (this) {
+                if (finished || cancelled) return;
+                finished = true;
+                for (Call<MealResponse> call : calls) {
+                    call.cancel();
+                }
+            }
+            listener.onError(message);
+        }
+    }
+}
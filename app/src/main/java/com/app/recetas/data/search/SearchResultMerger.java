@@ -0,0 +1,107 @@
+package com.app.recetas.data.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Une los resultados de varias fuentes: elimina repetidos por ID y ordena
+ * por calidad de coincidencia, si la receta está guardada y qué tan reciente es
+ * No es thread-safe: FederatedSearch lo usa desde un único thread
+ */
+public class SearchResultMerger {
+    
+    // Pesos del ranking: la coincidencia manda, guardada y recencia desempatan
+    static final double WEIGHT_MATCH = 0.7;
+    static final double WEIGHT_SAVED = 0.2;
+    static final double WEIGHT_RECENCY = 0.1;
+    
+    // Vida media de la recencia de una receta guardada
+    private static final double RECENCY_HALF_LIFE_MS = 30 * 24 * 60 * 60 * 1000.0;
+    
+    private final Map<String, FederatedResult> results = new LinkedHashMap<>();
+    private final long nowMs;
+    
+    /**
+     * @param nowMs Momento de la búsqueda (referencia para la recencia)
+     */
+    public SearchResultMerger(long nowMs) {
+        this.nowMs = nowMs;
+    }
+    
+    /**
+     * Agrega resultados de una fuente; los repetidos se fusionan con el existente
+     */
+    public void addAll(Collection<FederatedResult> source) {
+        for (FederatedResult result : source) {
+            if (result.getId() == null) continue;
+            FederatedResult existing = results.get(result.getId());
+            if (existing == null) {
+                results.put(result.getId(), result);
+            } else {
+                results.put(result.getId(), existing.mergeWith(result));
+            }
+        }
+    }
+    
+    /**
+     * Resultados sin repetidos, de mayor a menor puntaje
+     * La lista es nueva en cada llamada y sus elementos son inmutables: se puede
+     * publicar a otro thread aunque después se agreguen más resultados
+     */
+    public List<FederatedResult> ranked() {
+        List<FederatedResult> list = new ArrayList<>(results.size());
+        for (FederatedResult result : results.values()) {
+            list.add(result.withScore(score(result)));
+        }
+        Collections.sort(list, (a, b) -> {
+            int byScore = Double.compare(b.getScore(), a.getScore());
+            if (byScore != 0) return byScore;
+            String nameA = a.getMeal().strMeal != null ? a.getMeal().strMeal : "";
+            String nameB = b.getMeal().strMeal != null ? b.getMeal().strMeal : "";
+            return nameA.compareToIgnoreCase(nameB);
+        });
+        return list;
+    }
+    
+    public int size() {
+        return results.size();
+    }
+    
+    private double score(FederatedResult result) {
+        double score = WEIGHT_MATCH * result.getMatchQuality();
+        if (result.isSaved()) {
+            score += WEIGHT_SAVED;
+            long age = Math.max(0, nowMs - result.getDateModified());
+            score += WEIGHT_RECENCY * Math.pow(0.5, age / RECENCY_HALF_LIFE_MS);
+        }
+        return score;
+    }
+    
+    /**
+     * Calidad de coincidencia entre lo buscado y el nombre de una receta (0 a 1)
+     * Exacta > prefijo > inicio de palabra > contenida > parecida (distancia de edición)
+     * @param query Texto buscado
+     * @param name Nombre de la receta
+     */
+    public static double nameMatchQuality(String query, String name) {
+        String q = IngredientParser.normalize(query);
+        String n = IngredientParser.normalize(name);
+        if (q.isEmpty() || n.isEmpty()) return 0;
+        if (n.equals(q)) return 1.0;
+        if (n.startsWith(q)) return 0.9;
+        int at = n.indexOf(q);
+        if (at > 0 && n.charAt(at - 1) == ' ') return 0.8;
+        if (at > 0) return 0.7;
+        // Sin coincidencia literal: comparar con cada palabra
+        double best = 0;
+        for (String word : n.split(" ")) {
+            int maxLength = Math.max(q.length(), word.length());
+            best = Math.max(best, 1.0 - (double) TrigramIndex.damerauLevenshtein(q, word) / maxLength);
+        }
+        return 0.6 * best;
+    }
+}
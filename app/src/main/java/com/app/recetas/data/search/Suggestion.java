@@ -0,0 +1,34 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.utils.SearchType;
+
+/**
+ * Sugerencia de autocompletado: el texto a buscar y el tipo de búsqueda que le corresponde
+ * Por ejemplo "Italian" sugiere una búsqueda por área con la ortografía exacta de TheMealDB
+ */
+public class Suggestion {
+
+    private final String text;
+    private final SearchType type;
+
+    public Suggestion(String text, SearchType type) {
+        this.text = text;
+        this.type = type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public SearchType getType() {
+        return type;
+    }
+
+    /**
+     * Texto para mostrar en la lista desplegable (ej: "Italian · Área")
+     */
+    @Override
+    public String toString() {
+        return type == SearchType.NAME ? text : text + " · " + type.getDisplayName();
+    }
+}
@@ -0,0 +1,434 @@
+package com.app.recetas.data.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de trigramas en memoria para búsqueda tolerante a errores de tipeo
+ * Cada palabra se descompone en trigramas ("  carbonara " -> "  c", " ca", "car", ...)
+ * y cada trigrama guarda la lista de recetas que lo contienen
+ *
+ * Una consulta cuenta cuántos trigramas comparte con cada receta (similitud) y
+ * después reordena los mejores N con distancia de Damerau-Levenshtein, que
+ * distingue mejor transposiciones y letras faltantes ("carbonra", "cabronara")
+ * No es thread-safe: FuzzyRecipeSearch se encarga de la sincronización
+ */
+public class TrigramIndex {
+    
+    // Peso de una coincidencia en ingredientes respecto de una en el nombre
+    private static final double INGREDIENT_WEIGHT = 0.8;
+    
+    // Similitud mínima de trigramas para considerar una receta candidata
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.3;
+    
+    // Puntaje final mínimo para devolver un resultado
+    private static final double MIN_SCORE = 0.45;
+    
+    // Bits de cada entrada de posting: dónde aparece el trigrama en la receta
+    private static final int IN_NAME = 1;
+    private static final int IN_INGREDIENTS = 2;
+    
+    private static final int[] NO_SLOTS = new int[0];
+    
+    // Trigrama (3 chars empaquetados en un long) -> ID
+    private final Map<Long, Integer> trigramIds = new HashMap<>();
+    
+    // Posting list por trigrama, en orden de alta: (slot << 2) | IN_NAME | IN_INGREDIENTS
+    private final List<int[]> postings = new ArrayList<>();
+    private final List<Integer> postingSizes = new ArrayList<>();
+    
+    // Datos por slot
+    private final List<String> slotRecipeIds = new ArrayList<>();
+    private final List<String[]> slotNameWords = new ArrayList<>();
+    private final List<String[]> slotIngredientWords = new ArrayList<>();
+    private final Map<String, Integer> recipeSlots = new HashMap<>();
+    
+    // Palabras compartidas entre recetas: "pollo" se guarda una sola vez
+    private final Map<String, String> wordPool = new HashMap<>();
+    
+    // Slots eliminados: se ignoran en las consultas y se compactan de a tandas
+    private final BitSet deadSlots = new BitSet();
+    private int deadCount = 0;
+    
+    /**
+     * Resultado de una búsqueda
+     */
+    public static class Hit {
+        private final String recipeId;
+        private final double score;
+        
+        Hit(String recipeId, double score) {
+            this.recipeId = recipeId;
+            this.score = score;
+        }
+        
+        public String getRecipeId() { return recipeId; }
+        
+        /**
+         * Similitud entre 0 y 1 (1 = coincidencia exacta)
+         */
+        public double getScore() { return score; }
+    }
+    
+    // ==================== ACTUALIZACIÓN ====================
+    
+    /**
+     * Agrega o reemplaza una receta
+     * @param recipeId ID de la receta
+     * @param name Nombre de la receta
+     * @param ingredients Ingredientes ya extraídos (ver IngredientParser)
+     */
+    public void put(String recipeId, String name, List<String> ingredients) {
+        remove(recipeId);
+        
+        String[] nameWords = words(name);
+        StringBuilder ingredientText = new StringBuilder();
+        for (String ingredient : ingredients) {
+            ingredientText.append(ingredient).append(' ');
+        }
+        String[] ingredientWords = words(ingredientText.toString());
+        
+        insert(recipeId, nameWords, ingredientWords);
+    }
+    
+    /**
+     * Quita una receta del índice
+     * @return true si la receta estaba indexada
+     */
+    public boolean remove(String recipeId) {
+        Integer slot = recipeSlots.remove(recipeId);
+        if (slot == null) {
+            return false;
+        }
+        deadSlots.set(slot);
+        deadCount++;
+        slotNameWords.set(slot, null);
+        slotIngredientWords.set(slot, null);
+        if (deadCount > 64 && deadCount * 4 > slotRecipeIds.size()) {
+            compact();
+        }
+        return true;
+    }
+    
+    public int getRecipeCount() {
+        return recipeSlots.size();
+    }
+    
+    public int getTrigramCount() {
+        return trigramIds.size();
+    }
+    
+    // ==================== CONSULTA ====================
+    
+    /**
+     * Busca recetas por nombre o ingredientes tolerando errores de tipeo
+     * @param query Texto buscado
+     * @param limit Cantidad máxima de resultados
+     * @param rerankSize Cuántos candidatos reordenar con Damerau-Levenshtein
+     * @return Resultados ordenados por similitud
+     */
+    public List<Hit> search(String query, int limit, int rerankSize) {
+        String[] queryWords = words(query);
+        int[] queryTrigrams = trigramsOfQuery(queryWords);
+        if (queryTrigrams.length == 0) {
+            return Collections.emptyList();
+        }
+        
+        // 1) Contar trigramas compartidos por receta (nombre e ingredientes por separado)
+        int slots = slotRecipeIds.size();
+        int[] nameHits = new int[slots];
+        int[] ingredientHits = new int[slots];
+        BitSet touched = new BitSet(slots);
+        for (int trigram : queryTrigrams) {
+            if (trigram < 0) continue;
+            int[] posting = postings.get(trigram);
+            int size = postingSizes.get(trigram);
+            for (int i = 0; i < size; i++) {
+                int entry = posting[i];
+                int slot = entry >>> 2;
+                if (deadSlots.get(slot)) continue;
+                touched.set(slot);
+                if ((entry & IN_NAME) != 0) nameHits[slot]++;
+                if ((entry & IN_INGREDIENTS) != 0) ingredientHits[slot]++;
+            }
+        }
+        
+        // 2) Similitud = fracción de trigramas de la consulta presentes en la receta
+        List<Candidate> candidates = new ArrayList<>();
+        for (int slot = touched.nextSetBit(0); slot >= 0; slot = touched.nextSetBit(slot + 1)) {
+            double nameSimilarity = (double) nameHits[slot] / queryTrigrams.length;
+            double ingredientSimilarity = INGREDIENT_WEIGHT * ingredientHits[slot] / queryTrigrams.length;
+            double similarity = Math.max(nameSimilarity, ingredientSimilarity);
+            if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                candidates.add(new Candidate(slot, similarity, nameSimilarity >= ingredientSimilarity));
+            }
+        }
+        Collections.sort(candidates, (a, b) -> Double.compare(b.score, a.score));
+        
+        // 3) Reordenar los mejores N con distancia de edición sobre las palabras
+        int rerank = Math.min(rerankSize, candidates.size());
+        String joinedQuery = String.join(" ", queryWords);
+        for (int i = 0; i < rerank; i++) {
+            Candidate candidate = candidates.get(i);
+            String[] words = candidate.byName ? slotNameWords.get(candidate.slot) : slotIngredientWords.get(candidate.slot);
+            double editSimilarity = bestWindowSimilarity(joinedQuery, queryWords.length, words);
+            double weight = candidate.byName ? 1.0 : INGREDIENT_WEIGHT;
+            candidate.score = 0.4 * candidate.score + 0.6 * weight * editSimilarity;
+        }
+        List<Candidate> reranked = candidates.subList(0, rerank);
+        Collections.sort(reranked, (a, b) -> Double.compare(b.score, a.score));
+        
+        List<Hit> hits = new ArrayList<>(Math.min(limit, rerank));
+        for (int i = 0; i < reranked.size() && hits.size() < limit; i++) {
+            Candidate candidate = reranked.get(i);
+            if (candidate.score >= MIN_SCORE) {
+                hits.add(new Hit(slotRecipeIds.get(candidate.slot), candidate.score));
+            }
+        }
+        return hits;
+    }
+    
+    // ==================== DISTANCIA DE EDICIÓN ====================
+    
+    /**
+     * Mejor similitud entre la consulta y una ventana de palabras consecutivas del texto
+     * (así "carbonra" se compara con "carbonara" y no con todo "spaghetti carbonara")
+     */
+    private static double bestWindowSimilarity(String query, int queryWordCount, String[] words) {
+        if (words == null || words.length == 0) {
+            return 0;
+        }
+        int window = Math.min(queryWordCount, words.length);
+        double best = 0;
+        StringBuilder builder = new StringBuilder();
+        for (int start = 0; start + window <= words.length; start++) {
+            builder.setLength(0);
+            for (int i = start; i < start + window; i++) {
+                if (i > start) builder.append(' ');
+                builder.append(words[i]);
+            }
+            String text = builder.toString();
+            int maxLength = Math.max(query.length(), text.length());
+            double similarity = 1.0 - (double) damerauLevenshtein(query, text) / maxLength;
+            if (similarity > best) {
+                best = similarity;
+                if (best == 1.0) break;
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Distancia de Damerau-Levenshtein (variante "optimal string alignment"):
+     * inserciones, borrados, sustituciones y transposiciones de letras vecinas
+     */
+    static int damerauLevenshtein(String a, String b) {
+        int n = a.length();
+        int m = b.length();
+        if (n == 0) return m;
+        if (m == 0) return n;
+        // Tres filas alcanzan: la actual, la anterior y la de hace dos (para transposiciones)
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) previous[j] = j;
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= m; j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+    
+    // ==================== TRIGRAMAS ====================
+    
+    private static String[] words(String text) {
+        String normalized = IngredientParser.normalize(text);
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+    
+    /**
+     * IDs de trigramas (ordenados, sin repetidos) de un conjunto de palabras
+     * Da de alta en el diccionario los trigramas nuevos
+     */
+    private int[] trigramsOf(String[] words) {
+        int[] buffer = new int[16];
+        int size = 0;
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                long key = pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2));
+                Integer id = trigramIds.get(key);
+                if (id == null) {
+                    id = postings.size();
+                    trigramIds.put(key, id);
+                    postings.add(NO_SLOTS);
+                    postingSizes.add(0);
+                }
+                if (size == buffer.length) buffer = Arrays.copyOf(buffer, size * 2);
+                buffer[size++] = id;
+            }
+        }
+        return sortedUnique(buffer, size);
+    }
+    
+    /**
+     * Trigramas distintos de la consulta, sin tocar el diccionario
+     * Los que no existen en el índice quedan como -1: igual cuentan en el total,
+     * así una consulta con letras de más no puntúa igual que una exacta
+     */
+    private int[] trigramsOfQuery(String[] words) {
+        Set<Long> keys = new LinkedHashSet<>();
+        for (String word : words) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                keys.add(pack(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+            }
+        }
+        int[] result = new int[keys.size()];
+        int i = 0;
+        for (Long key : keys) {
+            Integer id = trigramIds.get(key);
+            result[i++] = id != null ? id : -1;
+        }
+        return result;
+    }
+    
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+    
+    private void addPosting(int trigram, int entry) {
+        int[] posting = postings.get(trigram);
+        int size = postingSizes.get(trigram);
+        if (size == posting.length) {
+            posting = Arrays.copyOf(posting, Math.max(4, size + (size >> 1) + 1));
+            postings.set(trigram, posting);
+        }
+        posting[size] = entry;
+        postingSizes.set(trigram, size + 1);
+    }
+    
+    private static int[] sortedUnique(int[] values, int size) {
+        if (size == 0) return NO_SLOTS;
+        int[] sorted = Arrays.copyOf(values, size);
+        Arrays.sort(sorted);
+        int unique = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[unique - 1]) sorted[unique++] = sorted[i];
+        }
+        return unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+    
+    private static int[] union(int[] a, int[] b) {
+        int[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        return sortedUnique(merged, merged.length);
+    }
+    
+    /**
+     * Reconstruye las posting lists sin los slots eliminados
+     */
+    private void compact() {
+        List<String> ids = new ArrayList<>(slotRecipeIds);
+        List<String[]> names = new ArrayList<>(slotNameWords);
+        List<String[]> ingredients = new ArrayList<>(slotIngredientWords);
+        BitSet dead = (BitSet) deadSlots.clone();
+        
+        trigramIds.clear();
+        postings.clear();
+        postingSizes.clear();
+        slotRecipeIds.clear();
+        slotNameWords.clear();
+        slotIngredientWords.clear();
+        recipeSlots.clear();
+        deadSlots.clear();
+        deadCount = 0;
+        
+        for (int slot = 0; slot < ids.size(); slot++) {
+            if (dead.get(slot)) continue;
+            insert(ids.get(slot), names.get(slot), ingredients.get(slot));
+        }
+    }
+    
+    private void insert(String recipeId, String[] nameWords, String[] ingredientWords) {
+        intern(nameWords);
+        intern(ingredientWords);
+        int slot = slotRecipeIds.size();
+        slotRecipeIds.add(recipeId);
+        slotNameWords.add(nameWords);
+        slotIngredientWords.add(ingredientWords);
+        recipeSlots.put(recipeId, slot);
+        
+        // Un slot aparece una sola vez por posting aunque el trigrama esté en nombre e ingredientes
+        int[] nameTrigrams = trigramsOf(nameWords);
+        int[] ingredientTrigrams = trigramsOf(ingredientWords);
+        for (int trigram : union(nameTrigrams, ingredientTrigrams)) {
+            int where = (Arrays.binarySearch(nameTrigrams, trigram) >= 0 ? IN_NAME : 0)
+                    | (Arrays.binarySearch(ingredientTrigrams, trigram) >= 0 ? IN_INGREDIENTS : 0);
+            addPosting(trigram, (slot << 2) | where);
+        }
+    }
+    
+    private void intern(String[] words) {
+        for (int i = 0; i < words.length; i++) {
+            String pooled = wordPool.get(words[i]);
+            if (pooled == null) {
+                wordPool.put(words[i], words[i]);
+            } else {
+                words[i] = pooled;
+            }
+        }
+    }
+    
+    /**
+     * Candidato durante una consulta
+     */
+    private static final class Candidate {
+        final int slot;
+        final boolean byName;
+        double score;
+        
+        Candidate(int slot, double score, boolean byName) {
+            this.slot = slot;
+            this.score = score;
+            this.byName = byName;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.app.recetas.data.sync;
+
+import android.content.Context;
+
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Programa los trabajos periódicos de actualización en segundo plano
+ * Ambos corren solo con red no medida (WiFi) y el equipo cargando, para no gastar
+ * datos ni batería del usuario. La revalidación de la colección además espera a
+ * que el equipo esté inactivo
+ *
+ * JobScheduler no admite backoff en trabajos con restricción de inactividad: ese
+ * trabajo reintenta en la próxima ventana inactiva, y el de catálogos (liviano)
+ * usa backoff exponencial
+ */
+public class BackgroundRefreshScheduler {
+    
+    // Nombres únicos de los trabajos (evitan duplicados al reprogramar)
+    public static final String COLLECTION_WORK = "collection_refresh";
+    public static final String CATALOG_WORK = "catalog_refresh";
+    
+    // Períodos de cada trabajo
+    static final long COLLECTION_INTERVAL_HOURS = 12;
+    static final long CATALOG_INTERVAL_HOURS = 24;
+    
+    // Espera inicial del backoff exponencial de los catálogos
+    static final long CATALOG_BACKOFF_MINUTES = 15;
+    
+    /**
+     * Programa ambos trabajos si todavía no están programados
+     * Llamar en cada inicio de la app: los ya programados se conservan
+     * @param context Contexto de la aplicación
+     */
+    public static void schedule(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        workManager.enqueueUniquePeriodicWork(COLLECTION_WORK,
+                ExistingPeriodicWorkPolicy.KEEP, createCollectionRequest());
+        workManager.enqueueUniquePeriodicWork(CATALOG_WORK,
+                ExistingPeriodicWorkPolicy.KEEP, createCatalogRequest());
+    }
+    
+    static PeriodicWorkRequest createCollectionRequest() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .setRequiresDeviceIdle(true)
+                .build();
+        return new PeriodicWorkRequest.Builder(CollectionRefreshWorker.class,
+                COLLECTION_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .build();
+    }
+    
+    static PeriodicWorkRequest createCatalogRequest() {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .setRequiresCharging(true)
+                .build();
+        return new PeriodicWorkRequest.Builder(CatalogRefreshWorker.class,
+                CATALOG_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, CATALOG_BACKOFF_MINUTES, TimeUnit.MINUTES)
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.app.recetas.data.sync;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.cache.CatalogCache;
+import com.app.recetas.data.remote.dto.AreaResponse;
+import com.app.recetas.data.remote.dto.CategoryResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Response;
+
+/**
+ * Trabajo periódico que actualiza la caché de categorías y áreas de TheMealDB
+ * Así la búsqueda arranca con los catálogos completos aunque no haya conexión
+ * Se programa desde BackgroundRefreshScheduler
+ */
+public class CatalogRefreshWorker extends Worker {
+    
+    private static final String TAG = "CatalogRefresh";
+    
+    // Reintentos (con backoff exponencial) antes de esperar al próximo período
+    static final int MAX_ATTEMPTS = 5;
+    
+    public CatalogRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        MealApiService apiService = ApiClient.getApiService();
+        CatalogCache cache = new CatalogCache(getApplicationContext());
+        try {
+            Response<CategoryResponse> categories = apiService.getCategories().execute();
+            Response<AreaResponse> areas = apiService.getAreas().execute();
+            if (!categories.isSuccessful() || !areas.isSuccessful()
+                    || categories.body() == null || areas.body() == null) {
+                Log.w(TAG, "Respuesta inválida: " + categories.code() + " / " + areas.code());
+                return retryOrFail();
+            }
+            cache.saveCategories(categoryNames(categories.body()));
+            cache.saveAreas(areaNames(areas.body()));
+            return Result.success();
+        } catch (IOException e) {
+            Log.w(TAG, "Error de conexión: " + e.getMessage());
+            return retryOrFail();
+        }
+    }
+    
+    private Result retryOrFail() {
+        return getRunAttemptCount() < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+    }
+    
+    private static List<String> categoryNames(CategoryResponse response) {
+        List<String> names = new ArrayList<>();
+        if (response.meals != null) {
+            for (CategoryResponse.CategoryDto category : response.meals) {
+                if (category.strCategory != null && !category.strCategory.isEmpty()) {
+                    names.add(category.strCategory);
+                }
+            }
+        }
+        return names;
+    }
+    
+    private static List<String> areaNames(AreaResponse response) {
+        List<String> names = new ArrayList<>();
+        if (response.meals != null) {
+            for (AreaResponse.AreaDto area : response.meals) {
+                if (area.strArea != null && !area.strArea.isEmpty()) {
+                    names.add(area.strArea);
+                }
+            }
+        }
+        return names;
+    }
+}
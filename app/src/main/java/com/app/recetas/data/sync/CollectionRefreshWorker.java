@@ -0,0 +1,114 @@
+package com.app.recetas.data.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Data;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.remote.api.ApiClient;
+import com.bumptech.glide.Glide;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Trabajo periódico que mantiene al día las recetas de la API guardadas en la colección
+ * Cada ejecución revalida unos pocos lotes con RecipeRefresher (continúa donde quedó la
+ * anterior) y precarga en la caché de Glide las miniaturas de esas recetas
+ * Se programa desde BackgroundRefreshScheduler
+ */
+public class CollectionRefreshWorker extends Worker {
+    
+    private static final String TAG = "CollectionRefresh";
+    
+    // Recetas por lote y lotes por ejecución (acota el trabajo de cada corrida)
+    public static final int BATCH_SIZE = 20;
+    public static final int MAX_BATCHES_PER_RUN = 3;
+    
+    // Reintentos antes de dejar la corrida para el próximo período
+    static final int MAX_ATTEMPTS = 5;
+    
+    // Tiempo máximo de descarga de cada miniatura
+    private static final long THUMBNAIL_TIMEOUT_SECONDS = 15;
+    
+    // Cursor del recorrido de la colección entre ejecuciones
+    private static final String PREF_NAME = "background_refresh";
+    private static final String KEY_CURSOR = "collection_cursor";
+    
+    // Claves del resultado (útiles para testing y diagnóstico)
+    public static final String OUTPUT_CHECKED = "checked";
+    public static final String OUTPUT_UPDATED = "updated";
+    
+    public CollectionRefreshWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SharedPreferences state = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        RecipeRefresher refresher = new RecipeRefresher(
+                AppDatabase.getDatabase(context).tracedRecipeDao(), ApiClient.getApiService());
+        
+        String cursor = state.getString(KEY_CURSOR, "");
+        int checked = 0;
+        int updated = 0;
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN && !isStopped(); batch++) {
+            RecipeRefresher.BatchResult result = refresher.refreshBatch(cursor, BATCH_SIZE);
+            checked += result.getChecked();
+            updated += result.getUpdated();
+            warmThumbnails(result.getImageUrls());
+            
+            if (result.isFailed()) {
+                // Guardar el avance: el reintento sigue desde la última receta procesada
+                state.edit().putString(KEY_CURSOR, result.getCursor()).commit();
+                Log.w(TAG, "Lote interrumpido: " + result.getError());
+                return getRunAttemptCount() < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+            }
+            if (result.isEndOfCollection()) {
+                cursor = ""; // Recorrido completo: el próximo empieza desde el principio
+                break;
+            }
+            cursor = result.getCursor();
+        }
+        state.edit().putString(KEY_CURSOR, cursor).commit();
+        
+        Log.d(TAG, "Recetas revalidadas: " + checked + ", actualizadas: " + updated);
+        return Result.success(new Data.Builder()
+                .putInt(OUTPUT_CHECKED, checked)
+                .putInt(OUTPUT_UPDATED, updated)
+                .build());
+    }
+    
+    /**
+     * Descarga las imágenes a la caché de disco de Glide
+     * Una miniatura que falla no interrumpe la actualización
+     */
+    private void warmThumbnails(List<String> urls) {
+        for (String url : urls) {
+            if (isStopped()) {
+                return;
+            }
+            try {
+                Glide.with(getApplicationContext())
+                        .downloadOnly()
+                        .load(url)
+                        .submit()
+                        .get(THUMBNAIL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                Log.w(TAG, "No se pudo precargar " + url);
+            }
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.app.recetas.data.sync;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import retrofit2.Response;
+
+/**
+ * Revalida contra lookup.php las recetas de la API guardadas en la colección
+ * Recorre la colección por lotes en orden de ID: cada lote continúa desde el cursor
+ * del anterior, así una ejecución en segundo plano nunca procesa todo de una vez
+ *
+ * Solo se actualizan los datos que vienen de TheMealDB (nombre, categoría, área,
+ * instrucciones, imagen e ingredientes); las notas personales no se tocan
+ * Llamadas síncronas: usar solo desde un thread de background (Worker)
+ */
+public class RecipeRefresher {
+    
+    /**
+     * Resultado de un lote
+     */
+    public static class BatchResult {
+        private final int checked;
+        private final int updated;
+        private final String cursor;
+        private final boolean endOfCollection;
+        private final String error;
+        private final List<String> imageUrls;
+        
+        BatchResult(int checked, int updated, String cursor, boolean endOfCollection,
+                    String error, List<String> imageUrls) {
+            this.checked = checked;
+            this.updated = updated;
+            this.cursor = cursor;
+            this.endOfCollection = endOfCollection;
+            this.error = error;
+            this.imageUrls = imageUrls;
+        }
+        
+        /**
+         * Recetas revalidadas con éxito
+         */
+        public int getChecked() { return checked; }
+        
+        /**
+         * Recetas que tenían datos viejos y se actualizaron
+         */
+        public int getUpdated() { return updated; }
+        
+        /**
+         * Último ID procesado: el próximo lote empieza después de él
+         */
+        public String getCursor() { return cursor; }
+        
+        /**
+         * @return true si el lote llegó al final de la colección (el próximo recorrido vuelve a empezar)
+         */
+        public boolean isEndOfCollection() { return endOfCollection; }
+        
+        /**
+         * Motivo por el que el lote se cortó antes de terminar (null si terminó bien)
+         */
+        public String getError() { return error; }
+        
+        public boolean isFailed() { return error != null; }
+        
+        /**
+         * Imágenes de las recetas revalidadas (para precargar miniaturas)
+         */
+        public List<String> getImageUrls() { return imageUrls; }
+    }
+    
+    private final RecipeDao recipeDao;
+    private final MealApiService apiService;
+    
+    /**
+     * @param recipeDao DAO de la colección
+     * @param apiService Servicio de TheMealDB
+     */
+    public RecipeRefresher(RecipeDao recipeDao, MealApiService apiService) {
+        this.recipeDao = recipeDao;
+        this.apiService = apiService;
+    }
+    
+    /**
+     * Revalida un lote de recetas
+     * Si una llamada falla, el lote se corta y el cursor queda en la última receta
+     * procesada: al reintentar no se repite lo ya hecho
+     * @param afterId Cursor del lote anterior ("" o null para empezar desde el principio)
+     * @param batchSize Cantidad máxima de recetas del lote
+     * @return Resultado con el nuevo cursor
+     */
+    public BatchResult refreshBatch(String afterId, int batchSize) {
+        String cursor = afterId != null ? afterId : "";
+        List<Recipe> recipes = recipeDao.getApiRecipesAfter(cursor, batchSize);
+        List<String> imageUrls = new ArrayList<>();
+        int checked = 0;
+        int updated = 0;
+        
+        for (Recipe recipe : recipes) {
+            MealDto remote;
+            try {
+                remote = fetch(recipe.getId());
+            } catch (IOException e) {
+                return new BatchResult(checked, updated, cursor, false, e.getMessage(), imageUrls);
+            }
+            // La receta ya no existe en TheMealDB: se conserva tal como la guardó el usuario
+            if (remote != null && applyRemote(recipe, remote)) {
+                recipeDao.updateApiFields(recipe.getId(), recipe.getName(), recipe.getCategory(),
+                        recipe.getArea(), CompressedText.of(recipe.getInstructions()), recipe.getImageUrl(), recipe.getIngredients());
+                updated++;
+            }
+            if (recipe.getImageUrl() != null && !recipe.getImageUrl().isEmpty()) {
+                imageUrls.add(recipe.getImageUrl());
+            }
+            checked++;
+            cursor = recipe.getId();
+        }
+        return new BatchResult(checked, updated, cursor, recipes.size() < batchSize, null, imageUrls);
+    }
+    
+    /**
+     * Copia sobre la receta guardada los datos de TheMealDB que cambiaron
+     * @param recipe Receta de la colección (se modifica)
+     * @param remote Detalle completo recibido de lookup.php
+     * @return true si algún campo cambió
+     */
+    static boolean applyRemote(Recipe recipe, MealDto remote) {
+        // Sin instrucciones no es un detalle completo: no pisar datos buenos
+        if (remote.strInstructions == null || remote.strInstructions.trim().isEmpty()) {
+            return false;
+        }
+        Recipe fresh = remote.toRecipe();
+        boolean changed = false;
+        if (differs(recipe.getName(), fresh.getName())) {
+            recipe.setName(fresh.getName());
+            changed = true;
+        }
+        if (differs(recipe.getCategory(), fresh.getCategory())) {
+            recipe.setCategory(fresh.getCategory());
+            changed = true;
+        }
+        if (differs(recipe.getArea(), fresh.getArea())) {
+            recipe.setArea(fresh.getArea());
+            changed = true;
+        }
+        if (differs(recipe.getInstructions(), fresh.getInstructions())) {
+            recipe.setInstructions(fresh.getInstructions());
+            changed = true;
+        }
+        if (differs(recipe.getImageUrl(), fresh.getImageUrl())) {
+            recipe.setImageUrl(fresh.getImageUrl());
+            changed = true;
+        }
+        if (differs(recipe.getIngredients(), fresh.getIngredients())) {
+            recipe.setIngredients(fresh.getIngredients());
+            changed = true;
+        }
+        return changed;
+    }
+    
+    /**
+     * Detalle de una receta
+     * @return Receta o null si TheMealDB ya no la tiene
+     * @throws IOException Error de red o respuesta no exitosa (vale la pena reintentar)
+     */
+    private MealDto fetch(String id) throws IOException {
+        Response<MealResponse> response = apiService.getRecipeById(id).execute();
+        if (!response.isSuccessful()) {
+            throw new IOException("Error en el servidor. Código: " + response.code());
+        }
+        MealResponse body = response.body();
+        return body != null && body.hasResults() ? body.meals.get(0) : null;
+    }
+    
+    private static boolean differs(String current, String fresh) {
+        return fresh != null && !fresh.isEmpty() && !fresh.equals(current);
+    }
+    
+    private static boolean differs(IngredientList current, IngredientList fresh) {
+        return fresh != null && !fresh.isEmpty() && !fresh.equals(current);
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.recetas.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Frames lentos y congelados por pantalla y estado del listado
+ * Lo alimenta JankMonitor con cada frame que reporta JankStats; se consulta desde Metrics
+ *
+ * - Lento: JankStats lo marcó como jank (tardó más de lo que permite la tasa de refresco)
+ * - Congelado: tardó 700 ms o más (mismo umbral que Android vitals)
+ */
+public class FrameStats {
+    
+    // Umbral de frame congelado
+    public static final long FROZEN_FRAME_NANOS = 700_000_000L;
+    
+    // Pantalla -> contadores (total y por estado del listado)
+    private final Map<String, ScreenCounts> screens = new TreeMap<>();
+    
+    /**
+     * Registra un frame
+     * @param screen Pantalla visible (ej: "search")
+     * @param listState Estado del listado (ej: "idle", "dragging", "update") o null
+     * @param durationNanos Duración del frame en el UI thread
+     * @param jank true si JankStats lo marcó como lento
+     */
+    public synchronized void record(String screen, String listState, long durationNanos, boolean jank) {
+        boolean frozen = durationNanos >= FROZEN_FRAME_NANOS;
+        ScreenCounts counts = screens.get(screen);
+        if (counts == null) {
+            counts = new ScreenCounts();
+            screens.put(screen, counts);
+        }
+        counts.total.add(jank, frozen);
+        if (listState != null) {
+            Counts state = counts.states.get(listState);
+            if (state == null) {
+                state = new Counts();
+                counts.states.put(listState, state);
+            }
+            state.add(jank, frozen);
+        }
+    }
+    
+    /**
+     * Foto de todas las pantallas, ordenada por nombre
+     * @return Mapa pantalla -> snapshot
+     */
+    public synchronized Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> result = new TreeMap<>();
+        for (Map.Entry<String, ScreenCounts> entry : screens.entrySet()) {
+            ScreenCounts counts = entry.getValue();
+            Map<String, Snapshot> states = new TreeMap<>();
+            for (Map.Entry<String, Counts> state : counts.states.entrySet()) {
+                states.put(state.getKey(), state.getValue().snapshot(Collections.<String, Snapshot>emptyMap()));
+            }
+            result.put(entry.getKey(), counts.total.snapshot(Collections.unmodifiableMap(states)));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * Borra los contadores
+     */
+    public synchronized void reset() {
+        screens.clear();
+    }
+    
+    private static class ScreenCounts {
+        final Counts total = new Counts();
+        final Map<String, Counts> states = new TreeMap<>();
+    }
+    
+    private static class Counts {
+        long frames;
+        long slow;
+        long frozen;
+        
+        void add(boolean jank, boolean isFrozen) {
+            frames++;
+            if (jank || isFrozen) slow++;
+            if (isFrozen) frozen++;
+        }
+        
+        Snapshot snapshot(Map<String, Snapshot> states) {
+            return new Snapshot(frames, slow, frozen, states);
+        }
+    }
+    
+    /**
+     * Frames de una pantalla (o de un estado del listado dentro de ella)
+     * Los congelados también cuentan como lentos
+     */
+    public static class Snapshot {
+        private final long frames;
+        private final long slow;
+        private final long frozen;
+        private final Map<String, Snapshot> states;
+        
+        Snapshot(long frames, long slow, long frozen, Map<String, Snapshot> states) {
+            this.frames = frames;
+            this.slow = slow;
+            this.frozen = frozen;
+            this.states = states;
+        }
+        
+        public long getFrames() { return frames; }
+        public long getSlowFrames() { return slow; }
+        public long getFrozenFrames() { return frozen; }
+        
+        public double getSlowPercent() {
+            return frames > 0 ? slow * 100.0 / frames : 0;
+        }
+        
+        public double getFrozenPercent() {
+            return frames > 0 ? frozen * 100.0 / frames : 0;
+        }
+        
+        /**
+         * @return Estado del listado -> frames en ese estado (vacío dentro de un estado)
+         */
+        public Map<String, Snapshot> getStates() { return states; }
+    }
+}
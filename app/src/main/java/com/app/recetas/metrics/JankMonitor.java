@@ -0,0 +1,150 @@
+package com.app.recetas.metrics;
+
+import android.app.Activity;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.metrics.performance.FrameData;
+import androidx.metrics.performance.JankStats;
+import androidx.metrics.performance.PerformanceMetricsState;
+import androidx.metrics.performance.StateInfo;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Medición de frames con JankStats
+ * Cada frame de la ventana se registra en Metrics.recordFrame con la pantalla y el estado
+ * del listado que estaban vigentes mientras se dibujaba:
+ *
+ * - "screen": lo fija el fragment visible en onResume (setScreen). Las pestañas se
+ *   muestran/ocultan sin destruirse: la que se oculta no lo quita, ya que la que
+ *   aparece lo reemplaza en la misma transacción
+ * - "list": estado de scroll del RecyclerView (trackList) o "update" en el frame en que
+ *   el adapter recibe datos nuevos (markListUpdate)
+ *
+ * Los frames sin pantalla (transiciones, diálogos de la Activity) no se registran
+ */
+public class JankMonitor {
+    
+    public static final String STATE_SCREEN = "screen";
+    public static final String STATE_LIST = "list";
+    
+    // Valor de "list" en el frame que aplica datos nuevos al adapter
+    public static final String LIST_UPDATE = "update";
+    
+    private final JankStats jankStats;
+    
+    private JankMonitor(JankStats jankStats) {
+        this.jankStats = jankStats;
+    }
+    
+    /**
+     * Empieza a medir los frames de la ventana de una Activity
+     * Llamar en onCreate, después de setContentView
+     * @param activity Activity que aloja los fragments medidos
+     * @return Monitor para pausarlo en onPause / reanudarlo en onResume
+     */
+    public static JankMonitor track(Activity activity) {
+        Metrics metrics = Metrics.getInstance();
+        return new JankMonitor(JankStats.createAndTrack(activity.getWindow(), frame -> record(metrics, frame)));
+    }
+    
+    /**
+     * Pausa o reanuda la medición (la Activity no dibuja en segundo plano)
+     */
+    public void setEnabled(boolean enabled) {
+        jankStats.setTrackingEnabled(enabled);
+    }
+    
+    /**
+     * El FrameData se reutiliza entre frames: se lee acá mismo, sin guardarlo
+     */
+    private static void record(Metrics metrics, FrameData frame) {
+        String screen = null;
+        String list = null;
+        for (StateInfo state : frame.getStates()) {
+            if (STATE_SCREEN.equals(state.getKey())) {
+                screen = state.getValue();
+            } else if (STATE_LIST.equals(state.getKey())) {
+                // El estado de un solo frame ("update") gana sobre el de scroll
+                if (list == null || LIST_UPDATE.equals(state.getValue())) {
+                    list = state.getValue();
+                }
+            }
+        }
+        if (screen != null) {
+            metrics.recordFrame(screen, list, frame.getFrameDurationUiNanos(), frame.isJank());
+        }
+    }
+    
+    // ==================== ESTADO DE LA UI ====================
+    
+    /**
+     * Fija la pantalla visible para los frames siguientes (con el listado quieto)
+     * @param view Cualquier vista de la jerarquía de la Activity
+     * @param screen Nombre de la pantalla (ej: "search") o null para quitarla
+     */
+    public static void setScreen(View view, String screen) {
+        PerformanceMetricsState state = stateOf(view);
+        if (state == null) {
+            return;
+        }
+        if (screen != null) {
+            state.putState(STATE_SCREEN, screen);
+            state.putState(STATE_LIST, "idle");
+        } else {
+            state.removeState(STATE_SCREEN);
+            state.removeState(STATE_LIST);
+        }
+    }
+    
+    /**
+     * Etiqueta los frames con el estado de scroll del listado ("idle", "dragging", "settling")
+     * @param recyclerView Listado de la pantalla
+     */
+    public static void trackList(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView view, int newState) {
+                PerformanceMetricsState state = stateOf(view);
+                if (state != null) {
+                    state.putState(STATE_LIST, scrollStateName(newState));
+                }
+            }
+        });
+    }
+    
+    /**
+     * Etiqueta el próximo frame como actualización del listado
+     * Llamar justo antes de pasarle datos nuevos al adapter
+     * @param recyclerView Listado que se actualiza
+     */
+    public static void markListUpdate(RecyclerView recyclerView) {
+        PerformanceMetricsState state = stateOf(recyclerView);
+        if (state != null) {
+            state.putSingleFrameState(STATE_LIST, LIST_UPDATE);
+        }
+    }
+    
+    /**
+     * Estado de la jerarquía de la vista; null si la vista no cuelga de la ventana medida
+     * No exige que la ventana ya esté visible: en el primer onResume todavía no lo está,
+     * pero la vista ya está bajo la DecorView donde JankStats guarda el estado
+     */
+    private static PerformanceMetricsState stateOf(View view) {
+        if (view == null) {
+            return null;
+        }
+        return PerformanceMetricsState.getHolderForHierarchy(view).getState();
+    }
+    
+    private static String scrollStateName(int scrollState) {
+        switch (scrollState) {
+            case RecyclerView.SCROLL_STATE_DRAGGING:
+                return "dragging";
+            case RecyclerView.SCROLL_STATE_SETTLING:
+                return "settling";
+            default:
+                return "idle";
+        }
+    }
+}
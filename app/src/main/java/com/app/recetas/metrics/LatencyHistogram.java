@@ -0,0 +1,117 @@
+package com.app.recetas.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latencias con buckets fijos
+ * Los buckets empiezan en 100 µs porque un bind o una consulta a Room suelen durar
+ * menos de un milisegundo; 16 ms marca el presupuesto de un frame
+ * Registrar cuesta unos pocos incrementos atómicos (sin locks ni reservas de memoria)
+ */
+public class LatencyHistogram {
+    
+    /**
+     * Límites superiores (en µs) de cada bucket
+     * El último bucket (sin límite) acumula todo lo que supere 10 segundos
+     */
+    public static final long[] BUCKET_BOUNDS_US = {
+            100, 250, 500, 1_000, 2_500, 5_000, 10_000, 16_000, 25_000, 50_000,
+            100_000, 250_000, 500_000, 1_000_000, 2_500_000, 10_000_000};
+    
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS_US.length + 1);
+    
+    /**
+     * Registra una medición
+     * @param durationNanos Duración en nanosegundos (los valores negativos cuentan como 0)
+     */
+    public void record(long durationNanos) {
+        long nanos = Math.max(0, durationNanos);
+        count.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        buckets.incrementAndGet(bucketOf(nanos / 1_000));
+        long max = maxNanos.get();
+        while (nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+            max = maxNanos.get();
+        }
+    }
+    
+    /**
+     * Foto de los valores actuales
+     * Los contadores se leen uno por uno: con registros concurrentes puede quedar
+     * algún valor de diferencia entre count y los buckets
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[buckets.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = buckets.get(i);
+        }
+        return new Snapshot(count.get(), totalNanos.get(), maxNanos.get(), copy);
+    }
+    
+    static int bucketOf(long micros) {
+        for (int i = 0; i < BUCKET_BOUNDS_US.length; i++) {
+            if (micros <= BUCKET_BOUNDS_US[i]) {
+                return i;
+            }
+        }
+        return BUCKET_BOUNDS_US.length;
+    }
+    
+    /**
+     * Foto inmutable de un histograma
+     */
+    public static class Snapshot {
+        private final long count;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] buckets;
+        
+        Snapshot(long count, long totalNanos, long maxNanos, long[] buckets) {
+            this.count = count;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.buckets = buckets;
+        }
+        
+        public long getCount() { return count; }
+        
+        public double getTotalMs() { return totalNanos / 1_000_000.0; }
+        
+        public double getMaxMs() { return maxNanos / 1_000_000.0; }
+        
+        public double getAverageMs() {
+            return count > 0 ? totalNanos / 1_000_000.0 / count : 0;
+        }
+        
+        /**
+         * Cantidad de mediciones en cada bucket (ver BUCKET_BOUNDS_US)
+         * @return Copia del histograma, con un bucket extra para el desborde
+         */
+        public long[] getBuckets() {
+            return buckets.clone();
+        }
+        
+        /**
+         * Percentil aproximado según el histograma
+         * @param percentile Valor entre 0 y 100 (ej: 95)
+         * @return Límite superior (en ms) del bucket que contiene el percentil;
+         *         si cae en el bucket de desborde, la máxima medición
+         */
+        public double getPercentileMs(double percentile) {
+            if (count == 0) return 0;
+            long target = (long) Math.ceil(count * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_BOUNDS_US.length; i++) {
+                seen += buckets[i];
+                if (seen >= target) {
+                    return BUCKET_BOUNDS_US[i] / 1_000.0;
+                }
+            }
+            return getMaxMs();
+        }
+    }
+}
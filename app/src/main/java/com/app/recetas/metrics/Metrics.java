@@ -0,0 +1,261 @@
+package com.app.recetas.metrics;
+
+import androidx.tracing.Trace;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de métricas de rendimiento de la app (repositorio, DAO, búsqueda y listados)
+ * Contadores e histogramas de latencia por nombre ("dao.getRecipesByIds", "bind.search_result", ...)
+ * Cada Span abre además una sección de androidx.tracing con el mismo nombre, para verla
+ * en Perfetto / Android Studio junto con el resto del sistema
+ *
+ * También guarda los frames lentos/congelados por pantalla (recordFrame, desde JankMonitor)
+ *
+ * Las métricas de red por endpoint siguen en NetworkMetrics; MetricsDump junta ambas
+ */
+public class Metrics {
+    
+    // Instancia compartida usada por toda la app
+    private static final Metrics INSTANCE = new Metrics();
+    
+    // Cookies de las secciones asíncronas (identifican cada sección abierta)
+    private static final AtomicInteger NEXT_COOKIE = new AtomicInteger();
+    
+    private final ConcurrentHashMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+    private final FrameStats frames = new FrameStats();
+    
+    /**
+     * Obtiene el registro compartido de la app
+     * @return Instancia única de Metrics
+     */
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * Abre una sección de traza y empieza a medir en el registro compartido
+     * Cerrarla en el mismo thread (try-with-resources)
+     * @param name Nombre de la operación (ej: "repo.searchCollection")
+     * @return Span a cerrar cuando termina la operación
+     */
+    public static Span trace(String name) {
+        return INSTANCE.startSpan(name);
+    }
+    
+    /**
+     * Abre una sección de traza asíncrona en el registro compartido
+     * Para operaciones que terminan en otro thread (ej: una búsqueda que responde por callback)
+     * @param name Nombre de la operación
+     * @return Span que se puede cerrar desde cualquier thread
+     */
+    public static Span traceAsync(String name) {
+        return INSTANCE.startAsyncSpan(name);
+    }
+    
+    /**
+     * Suma uno a un contador del registro compartido
+     * @param name Nombre del contador
+     */
+    public static void count(String name) {
+        INSTANCE.increment(name, 1);
+    }
+    
+    // ==================== REGISTRO ====================
+    
+    /**
+     * Suma a un contador
+     * @param name Nombre del contador
+     * @param delta Cantidad a sumar
+     */
+    public void increment(String name, long delta) {
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            AtomicLong created = new AtomicLong();
+            AtomicLong existing = counters.putIfAbsent(name, created);
+            counter = existing != null ? existing : created;
+        }
+        counter.addAndGet(delta);
+    }
+    
+    /**
+     * Registra la duración de una operación
+     * @param name Nombre del timer
+     * @param durationNanos Duración en nanosegundos
+     */
+    public void recordNanos(String name, long durationNanos) {
+        LatencyHistogram histogram = timers.get(name);
+        if (histogram == null) {
+            LatencyHistogram created = new LatencyHistogram();
+            LatencyHistogram existing = timers.putIfAbsent(name, created);
+            histogram = existing != null ? existing : created;
+        }
+        histogram.record(durationNanos);
+    }
+    
+    /**
+     * Abre una sección de traza síncrona y empieza a medir
+     * @param name Nombre de la operación
+     * @return Span a cerrar en el mismo thread
+     */
+    public Span startSpan(String name) {
+        Trace.beginSection(name);
+        return new Span(this, name, -1);
+    }
+    
+    /**
+     * Abre una sección de traza asíncrona y empieza a medir
+     * @param name Nombre de la operación
+     * @return Span que se puede cerrar desde cualquier thread
+     */
+    public Span startAsyncSpan(String name) {
+        int cookie = NEXT_COOKIE.incrementAndGet() & Integer.MAX_VALUE;
+        Trace.beginAsyncSection(name, cookie);
+        return new Span(this, name, cookie);
+    }
+    
+    /**
+     * Registra un frame dibujado en una pantalla
+     * La duración va además al timer "frame.<pantalla>" (percentiles de tiempo de frame)
+     * @param screen Pantalla visible (ej: "search", "collection")
+     * @param listState Estado del listado ("idle", "dragging", "settling", "update") o null
+     * @param durationNanos Duración del frame en el UI thread
+     * @param jank true si JankStats lo marcó como lento
+     */
+    public void recordFrame(String screen, String listState, long durationNanos, boolean jank) {
+        frames.record(screen, listState, durationNanos, jank);
+        recordNanos("frame." + screen, durationNanos);
+    }
+    
+    // ==================== CONSULTA ====================
+    
+    /**
+     * Valor actual de un contador
+     * @param name Nombre del contador
+     * @return Valor o 0 si nunca se incrementó
+     */
+    public long getCount(String name) {
+        AtomicLong counter = counters.get(name);
+        return counter != null ? counter.get() : 0;
+    }
+    
+    /**
+     * Foto de un timer
+     * @param name Nombre del timer
+     * @return Snapshot con los valores actuales, o null si nunca se registró
+     */
+    public LatencyHistogram.Snapshot getTimer(String name) {
+        LatencyHistogram histogram = timers.get(name);
+        return histogram != null ? histogram.snapshot() : null;
+    }
+    
+    /**
+     * Foto de todos los contadores, ordenada por nombre
+     * @return Mapa nombre -> valor
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : counters.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * Foto de todos los timers, ordenada por nombre
+     * @return Mapa nombre -> snapshot
+     */
+    public Map<String, LatencyHistogram.Snapshot> getTimers() {
+        Map<String, LatencyHistogram.Snapshot> result = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : timers.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+    
+    /**
+     * Frames lentos y congelados por pantalla, ordenados por nombre
+     * @return Mapa pantalla -> snapshot (con el desglose por estado del listado)
+     */
+    public Map<String, FrameStats.Snapshot> getFrameStats() {
+        return frames.snapshot();
+    }
+    
+    /**
+     * Borra todas las métricas (útil para testing y desde la pantalla de debug)
+     */
+    public void reset() {
+        counters.clear();
+        timers.clear();
+        frames.reset();
+    }
+    
+    /**
+     * Medición en curso de una operación
+     * Al cerrarla se cierra la sección de traza y se registra la duración en el timer
+     * con el mismo nombre; si se marcó como fallida se cuenta además en "<nombre>.errors"
+     */
+    public static final class Span implements AutoCloseable {
+        private final Metrics metrics;
+        private final String name;
+        private final int asyncCookie;
+        private final long startNanos = System.nanoTime();
+        private final AtomicInteger closed = new AtomicInteger();
+        private volatile boolean failed = false;
+        
+        Span(Metrics metrics, String name, int asyncCookie) {
+            this.metrics = metrics;
+            this.name = name;
+            this.asyncCookie = asyncCookie;
+        }
+        
+        /**
+         * Marca la operación como fallida (se cuenta al cerrar)
+         */
+        public void markFailed() {
+            failed = true;
+        }
+        
+        /**
+         * Cierra la sección y registra la duración (solo la primera vez)
+         */
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(0, 1)) {
+                return;
+            }
+            long elapsed = System.nanoTime() - startNanos;
+            endSection();
+            metrics.recordNanos(name, elapsed);
+            if (failed) {
+                metrics.increment(name + ".errors", 1);
+            }
+        }
+        
+        /**
+         * Cierra la sección sin registrar la duración (operación cancelada a mitad de camino)
+         * Se cuenta en "<nombre>.cancelled"; no hace nada si el span ya estaba cerrado
+         */
+        public void cancel() {
+            if (!closed.compareAndSet(0, 1)) {
+                return;
+            }
+            endSection();
+            metrics.increment(name + ".cancelled", 1);
+        }
+        
+        private void endSection() {
+            if (asyncCookie >= 0) {
+                Trace.endAsyncSection(name, asyncCookie);
+            } else {
+                Trace.endSection();
+            }
+        }
+    }
+}
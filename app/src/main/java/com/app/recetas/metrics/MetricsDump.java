@@ -0,0 +1,243 @@
+package com.app.recetas.metrics;
+
+import com.app.recetas.data.remote.api.interceptor.NetworkMetrics;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Volcado de las métricas de la app, de red y de las violaciones de StrictMode
+ * toJson() es la API estable que leen los tests (y que se comparte desde la pantalla de debug);
+ * toText() es el resumen legible que muestra esa pantalla
+ *
+ * Formato JSON:
+ * {
+ *   "counters": {"dao.getAllRecipes": 3, ...},
+ *   "timers": {"dao.getRecipesByIds": {"count", "totalMs", "avgMs", "maxMs", "p50Ms", "p95Ms", "p99Ms",
+ *              "buckets": [{"leMs": 0.1, "count": 2}, ..., {"leMs": null, "count": 0}]}, ...},
+ *   "frames": {"search": {"frames", "slow", "frozen", "slowPct", "frozenPct",
+ *              "states": {"dragging": {"frames", "slow", ...}, ...}}, ...},
+ *   "network": {"search.php": {"calls", "errors", "avgMs", "p95Ms", "bytesReceived"}, ...},
+ *   "violations": [{"type": "main_thread_io", "detail", "count", "stack"}, ...]
+ * }
+ */
+public final class MetricsDump {
+    
+    private MetricsDump() {
+    }
+    
+    /**
+     * Vuelca los registros compartidos de la app
+     * @return JSON con contadores, timers, red y violaciones
+     */
+    public static String toJson() {
+        return toJson(Metrics.getInstance(), NetworkMetrics.getInstance(), ViolationLog.getInstance());
+    }
+    
+    /**
+     * @param metrics Métricas de la app
+     * @param network Métricas de red (puede ser null)
+     * @return JSON con contadores, timers y red
+     */
+    public static String toJson(Metrics metrics, NetworkMetrics network) {
+        return toJson(metrics, network, null);
+    }
+    
+    /**
+     * @param metrics Métricas de la app
+     * @param network Métricas de red (puede ser null)
+     * @param violations Violaciones registradas (puede ser null)
+     * @return JSON con contadores, timers, red y violaciones
+     */
+    public static String toJson(Metrics metrics, NetworkMetrics network, ViolationLog violations) {
+        try {
+            JSONObject root = new JSONObject();
+            
+            JSONObject counters = new JSONObject();
+            for (Map.Entry<String, Long> entry : metrics.getCounters().entrySet()) {
+                counters.put(entry.getKey(), entry.getValue());
+            }
+            root.put("counters", counters);
+            
+            JSONObject timers = new JSONObject();
+            for (Map.Entry<String, LatencyHistogram.Snapshot> entry : metrics.getTimers().entrySet()) {
+                timers.put(entry.getKey(), timerToJson(entry.getValue()));
+            }
+            root.put("timers", timers);
+            
+            JSONObject frames = new JSONObject();
+            for (Map.Entry<String, FrameStats.Snapshot> entry : metrics.getFrameStats().entrySet()) {
+                JSONObject json = framesToJson(entry.getValue());
+                JSONObject states = new JSONObject();
+                for (Map.Entry<String, FrameStats.Snapshot> state : entry.getValue().getStates().entrySet()) {
+                    states.put(state.getKey(), framesToJson(state.getValue()));
+                }
+                json.put("states", states);
+                frames.put(entry.getKey(), json);
+            }
+            root.put("frames", frames);
+            
+            JSONObject endpoints = new JSONObject();
+            if (network != null) {
+                for (Map.Entry<String, NetworkMetrics.Snapshot> entry : network.getSnapshots().entrySet()) {
+                    NetworkMetrics.Snapshot snapshot = entry.getValue();
+                    JSONObject json = new JSONObject();
+                    json.put("calls", snapshot.getCalls());
+                    json.put("errors", snapshot.getErrors());
+                    json.put("avgMs", snapshot.getAverageLatencyMs());
+                    json.put("p95Ms", snapshot.getLatencyPercentileMs(95));
+                    json.put("bytesReceived", snapshot.getBytesReceived());
+                    endpoints.put(entry.getKey(), json);
+                }
+            }
+            root.put("network", endpoints);
+            
+            JSONArray violationList = new JSONArray();
+            if (violations != null) {
+                for (ViolationLog.Entry entry : violations.getEntries()) {
+                    JSONObject json = new JSONObject();
+                    json.put("type", entry.getType());
+                    json.put("detail", entry.getDetail());
+                    json.put("count", entry.getCount());
+                    json.put("stack", entry.getStackTrace());
+                    violationList.put(json);
+                }
+            }
+            root.put("violations", violationList);
+            
+            return root.toString(2);
+        } catch (JSONException e) {
+            // Solo se ponen números y strings: no debería pasar
+            throw new IllegalStateException("No se pudieron volcar las métricas", e);
+        }
+    }
+    
+    /**
+     * Resumen legible: timers ordenados por tiempo total (lo más caro primero),
+     * contadores, frames, red y violaciones
+     * @param metrics Métricas de la app
+     * @param network Métricas de red (puede ser null)
+     * @param violations Violaciones registradas (puede ser null)
+     * @return Texto para la pantalla de debug
+     */
+    public static String toText(Metrics metrics, NetworkMetrics network, ViolationLog violations) {
+        StringBuilder text = new StringBuilder();
+        
+        List<Map.Entry<String, LatencyHistogram.Snapshot>> timers = new ArrayList<>(metrics.getTimers().entrySet());
+        Collections.sort(timers, (a, b) -> Double.compare(b.getValue().getTotalMs(), a.getValue().getTotalMs()));
+        text.append("⏱️ Timers (total / n / p50 / p95 / máx, en ms)\n");
+        if (timers.isEmpty()) {
+            text.append("  (sin datos)\n");
+        }
+        for (Map.Entry<String, LatencyHistogram.Snapshot> entry : timers) {
+            LatencyHistogram.Snapshot snapshot = entry.getValue();
+            text.append(String.format(Locale.US, "  %s\n    %.1f / %d / %.2f / %.2f / %.2f\n",
+                    entry.getKey(), snapshot.getTotalMs(), snapshot.getCount(),
+                    snapshot.getPercentileMs(50), snapshot.getPercentileMs(95), snapshot.getMaxMs()));
+        }
+        
+        text.append("\n🔢 Contadores\n");
+        Map<String, Long> counters = metrics.getCounters();
+        if (counters.isEmpty()) {
+            text.append("  (sin datos)\n");
+        }
+        for (Map.Entry<String, Long> entry : counters.entrySet()) {
+            text.append("  ").append(entry.getKey()).append(": ").append(entry.getValue()).append('\n');
+        }
+        
+        text.append("\n🎞️ Frames (total / lentos / congelados)\n");
+        Map<String, FrameStats.Snapshot> frames = metrics.getFrameStats();
+        if (frames.isEmpty()) {
+            text.append("  (sin datos)\n");
+        }
+        for (Map.Entry<String, FrameStats.Snapshot> entry : frames.entrySet()) {
+            appendFrames(text, "  " + entry.getKey(), entry.getValue());
+            for (Map.Entry<String, FrameStats.Snapshot> state : entry.getValue().getStates().entrySet()) {
+                appendFrames(text, "    " + state.getKey(), state.getValue());
+            }
+        }
+        
+        text.append("\n🌐 Red (llamadas / errores / prom / p95, en ms)\n");
+        Map<String, NetworkMetrics.Snapshot> endpoints = network != null
+                ? network.getSnapshots() : Collections.<String, NetworkMetrics.Snapshot>emptyMap();
+        if (endpoints.isEmpty()) {
+            text.append("  (sin datos)\n");
+        }
+        for (NetworkMetrics.Snapshot snapshot : endpoints.values()) {
+            long p95 = snapshot.getLatencyPercentileMs(95);
+            text.append(String.format(Locale.US, "  %s: %d / %d / %d / %s\n",
+                    snapshot.getEndpoint(), snapshot.getCalls(), snapshot.getErrors(),
+                    snapshot.getAverageLatencyMs(), p95 == Long.MAX_VALUE ? ">10000" : String.valueOf(p95)));
+        }
+        
+        text.append("\n🚨 Violaciones (StrictMode / I/O en el main thread)\n");
+        List<ViolationLog.Entry> entries = violations != null
+                ? violations.getEntries() : Collections.<ViolationLog.Entry>emptyList();
+        if (entries.isEmpty()) {
+            text.append("  (sin datos)\n");
+        }
+        for (ViolationLog.Entry entry : entries) {
+            text.append(String.format(Locale.US, "  %s x%d: %s\n", entry.getType(), entry.getCount(), entry.getDetail()));
+            // Solo los primeros frames: el stack completo va en el JSON
+            String[] stackLines = entry.getStackTrace().split("\n");
+            for (int i = 0; i < stackLines.length && i < 4; i++) {
+                if (!stackLines[i].isEmpty()) {
+                    text.append("    ").append(stackLines[i]).append('\n');
+                }
+            }
+        }
+        return text.toString();
+    }
+    
+    private static JSONObject framesToJson(FrameStats.Snapshot snapshot) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("frames", snapshot.getFrames());
+        json.put("slow", snapshot.getSlowFrames());
+        json.put("frozen", snapshot.getFrozenFrames());
+        json.put("slowPct", round(snapshot.getSlowPercent()));
+        json.put("frozenPct", round(snapshot.getFrozenPercent()));
+        return json;
+    }
+    
+    private static void appendFrames(StringBuilder text, String label, FrameStats.Snapshot snapshot) {
+        text.append(String.format(Locale.US, "%s: %d / %.1f%% / %.1f%%\n", label,
+                snapshot.getFrames(), snapshot.getSlowPercent(), snapshot.getFrozenPercent()));
+    }
+    
+    private static JSONObject timerToJson(LatencyHistogram.Snapshot snapshot) throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("count", snapshot.getCount());
+        json.put("totalMs", round(snapshot.getTotalMs()));
+        json.put("avgMs", round(snapshot.getAverageMs()));
+        json.put("maxMs", round(snapshot.getMaxMs()));
+        json.put("p50Ms", round(snapshot.getPercentileMs(50)));
+        json.put("p95Ms", round(snapshot.getPercentileMs(95)));
+        json.put("p99Ms", round(snapshot.getPercentileMs(99)));
+        
+        JSONArray buckets = new JSONArray();
+        long[] counts = snapshot.getBuckets();
+        for (int i = 0; i < counts.length; i++) {
+            JSONObject bucket = new JSONObject();
+            bucket.put("leMs", i < LatencyHistogram.BUCKET_BOUNDS_US.length
+                    ? LatencyHistogram.BUCKET_BOUNDS_US[i] / 1_000.0 : JSONObject.NULL);
+            bucket.put("count", counts[i]);
+            buckets.put(bucket);
+        }
+        json.put("buckets", buckets);
+        return json;
+    }
+    
+    /**
+     * Redondea a 3 decimales (resolución de microsegundos)
+     */
+    private static double round(double ms) {
+        return Math.round(ms * 1_000.0) / 1_000.0;
+    }
+}
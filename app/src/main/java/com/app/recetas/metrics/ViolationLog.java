@@ -0,0 +1,124 @@
+package com.app.recetas.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registro de violaciones de rendimiento (StrictMode y MainThreadIoGuard)
+ * Agrupa las violaciones repetidas por tipo y stack trace: cada grupo guarda cuántas veces
+ * pasó y el stack de la primera, para que la pantalla de debug y el volcado JSON muestren
+ * desde dónde se hizo I/O en el main thread
+ *
+ * Cada violación suma además al contador "violation.<tipo>" de Metrics
+ */
+public class ViolationLog {
+    
+    // Grupos distintos que se guardan (los siguientes solo se cuentan)
+    public static final int MAX_ENTRIES = 30;
+    
+    // Frames del stack que se guardan por grupo
+    private static final int MAX_FRAMES = 20;
+    
+    // Instancia compartida usada por toda la app
+    private static final ViolationLog INSTANCE = new ViolationLog(Metrics.getInstance());
+    
+    private final Metrics metrics;
+    
+    // Clave (tipo + stack) -> grupo, en orden de aparición
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    
+    /**
+     * Obtiene el registro compartido de la app
+     * @return Instancia única de ViolationLog
+     */
+    public static ViolationLog getInstance() {
+        return INSTANCE;
+    }
+    
+    /**
+     * @param metrics Métricas donde se cuentan las violaciones
+     */
+    public ViolationLog(Metrics metrics) {
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Registra una violación
+     * @param type Tipo (ej: "main_thread_io", "DiskReadViolation")
+     * @param detail Operación o mensaje (ej: "dao.getRecipesByIds")
+     * @param stack Excepción con el stack trace de donde ocurrió
+     */
+    public void record(String type, String detail, Throwable stack) {
+        metrics.increment("violation." + type, 1);
+        String trace = stackOf(stack);
+        String key = type + '\n' + detail + '\n' + trace;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                if (entries.size() >= MAX_ENTRIES) {
+                    return;
+                }
+                entry = new Entry(type, detail, trace);
+                entries.put(key, entry);
+            }
+            entry.count++;
+        }
+    }
+    
+    /**
+     * Foto de los grupos registrados, en orden de aparición
+     * @return Copia de cada grupo
+     */
+    public synchronized List<Entry> getEntries() {
+        List<Entry> copy = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            Entry snapshot = new Entry(entry.type, entry.detail, entry.stackTrace);
+            snapshot.count = entry.count;
+            copy.add(snapshot);
+        }
+        return Collections.unmodifiableList(copy);
+    }
+    
+    /**
+     * Borra los grupos (útil para testing y desde la pantalla de debug)
+     */
+    public synchronized void reset() {
+        entries.clear();
+    }
+    
+    private static String stackOf(Throwable throwable) {
+        if (throwable == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        StackTraceElement[] frames = throwable.getStackTrace();
+        for (int i = 0; i < frames.length && i < MAX_FRAMES; i++) {
+            text.append("at ").append(frames[i]).append('\n');
+        }
+        return text.toString();
+    }
+    
+    /**
+     * Grupo de violaciones iguales
+     */
+    public static class Entry {
+        private final String type;
+        private final String detail;
+        private final String stackTrace;
+        private long count;
+        
+        Entry(String type, String detail, String stackTrace) {
+            this.type = type;
+            this.detail = detail;
+            this.stackTrace = stackTrace;
+        }
+        
+        public String getType() { return type; }
+        public String getDetail() { return detail; }
+        public String getStackTrace() { return stackTrace; }
+        public long getCount() { return count; }
+    }
+}
@@ -7,46 +7,83 @@ import android.widget.Button;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
+import androidx.activity.OnBackPressedCallback;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.fragment.app.FragmentTransaction;
+import androidx.lifecycle.Lifecycle;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.app.recetas.BuildConfig;
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
 import com.app.recetas.data.repository.AuthRepository;
+import com.app.recetas.data.sync.BackgroundRefreshScheduler;
+import com.app.recetas.metrics.JankMonitor;
 import com.app.recetas.presentation.ui.auth.LoginActivity;
+import com.app.recetas.presentation.ui.common.RecipeRowHolder;
+import com.app.recetas.presentation.ui.common.RecipeRowPool;
+import com.app.recetas.presentation.ui.debug.MetricsDebugActivity;
 import com.app.recetas.presentation.ui.search.SearchFragment;
 import com.app.recetas.presentation.ui.collection.MyRecipesFragment; // <-- si creaste el fragment nuevo
 import com.app.recetas.presentation.viewmodel.HomeViewModel;
 import com.app.recetas.utils.PreferencesManager;
 import com.app.recetas.utils.SessionValidator;
 
-public class MainActivity extends AppCompatActivity {
+public class MainActivity extends AppCompatActivity implements RecipeRowPool.Host {
 
     private HomeViewModel homeViewModel;
     private AuthRepository authRepository;
     private SessionValidator sessionValidator;
+    private PreferencesManager preferencesManager;
     private TextView textInfo;
     private Button btnLogout, btnSearch, btnMyRecipes;
 
-    // Fragment actual
-    private Fragment currentFragment;
+    // Tags de las pestañas: cada fragment se crea una sola vez y después se muestra/oculta
+    private static final String TAG_SEARCH = "SEARCH";
+    private static final String TAG_MY_RECIPES = "MY_RECIPES";
+    private static final String STATE_CURRENT_TAB = "current_tab";
+    private static final String STATE_CONTAINER_ID = "container_id";
+
+    // Pestaña visible (TAG_SEARCH o TAG_MY_RECIPES)
+    private String currentTab;
+
+    // Atrás desde la colección vuelve a la búsqueda (como hacía el back stack)
+    private final OnBackPressedCallback backToSearch = new OnBackPressedCallback(false) {
+        @Override
+        public void handleOnBackPressed() {
+            showSearchFragment();
+        }
+    };
 
     // ID del contenedor para los fragments (evitamos depender de R.id.*)
     private int containerId;
 
+    // Frames lentos/congelados por pantalla (los fragments fijan la pantalla visible)
+    private JankMonitor jankMonitor;
+
+    // Filas de receta compartidas entre la búsqueda y la colección
+    private final RecipeRowPool recipeRowPool = new RecipeRowPool();
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        // Inicializar dependencias
+        // Inicializar dependencias (FirebaseAuth se sigue inicializando en background)
         authRepository = new AuthRepository();
         sessionValidator = new SessionValidator(this);
+        preferencesManager = new PreferencesManager(this);
         
-        // Validar sesión antes de continuar
-        if (!sessionValidator.validateSessionOrRedirect(this)) {
-            return; // Si la sesión no es válida, ya se redirigió a login
+        // Los fragments restaurados vuelven al contenedor con el id que tenían
+        if (savedInstanceState != null) {
+            containerId = savedInstanceState.getInt(STATE_CONTAINER_ID);
         }
 
+        // La colección se dibuja desde Room enseguida; la sesión se valida en onResume
+        // cuando FirebaseAuth está listo (si no es válida, se redirige a login)
         createMainUI();
+        jankMonitor = JankMonitor.track(this);
         homeViewModel = new ViewModelProvider(this).get(HomeViewModel.class);
         setupClickListeners();
         observeData();
@@ -54,22 +91,86 @@ public class MainActivity extends AppCompatActivity {
         // 👇 UNIFICADO
         refreshHeader();
 
-        showSearchFragment();
+        getOnBackPressedDispatcher().addCallback(this, backToSearch);
+        if (savedInstanceState != null && TAG_MY_RECIPES.equals(savedInstanceState.getString(STATE_CURRENT_TAB))) {
+            // Los fragments los restauró el FragmentManager: solo se vuelve a la pestaña
+            showMyRecipesInfo();
+        } else {
+            showSearchFragment();
+        }
+
+        // Preparar filas en los ratos libres del main thread: la primera búsqueda y el
+        // primer cambio a la colección no las arman en el medio de un frame
+        recipeRowPool.prefillWhenIdle(findViewById(containerId),
+                RecipeRowHolder.TYPE_SEARCH_RESULT, RecipeRowHolder.TYPE_SAVED_RECIPE);
+
+        // Actualización periódica de la colección y los catálogos (WiFi + cargando)
+        BackgroundRefreshScheduler.schedule(this);
+    }
+    
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Actualizar en background los datos del usuario (p. ej. email verificado)
+        sessionValidator.refreshSessionState();
     }
     
     @Override
     protected void onResume() {
         super.onResume();
+        jankMonitor.setEnabled(true);
+        
         // Actualizar actividad del usuario
         sessionValidator.updateUserActivity();
         
         // Validar sesión en cada resume
-        if (!sessionValidator.validateSessionOrRedirect(this)) {
-            return;
-        }
-        
-        // Refrescar header con información actualizada
-        refreshHeader();
+        validateSessionWhenReady();
+    }
+    
+    /**
+     * Valida la sesión sin bloquear el main thread esperando a FirebaseAuth
+     */
+    private void validateSessionWhenReady() {
+        FirebaseAuthProvider.getInstance().whenReady(auth -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (sessionValidator.validateSessionOrRedirect(this)) {
+                // Refrescar header con información actualizada
+                refreshHeader();
+            }
+        });
+    }
+
+    @Override
+    protected void onPause() {
+        super.onPause();
+        jankMonitor.setEnabled(false);
+    }
+
+    @Override
+    protected void onDestroy() {
+        recipeRowPool.cancelPrefill();
+        super.onDestroy();
+    }
+
+    @Override
+    public RecipeRowPool getRecipeRowPool() {
+        return recipeRowPool;
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putString(STATE_CURRENT_TAB, currentTab);
+        outState.putInt(STATE_CONTAINER_ID, containerId);
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Pasar a disco la actividad acumulada en memoria antes de quedar en segundo plano
+        preferencesManager.flush();
     }
 
     private void createMainUI() {
@@ -86,6 +187,13 @@ public class MainActivity extends AppCompatActivity {
         title.setText("🍽️ Mis Recetas");
         title.setTextSize(24);
         title.setPadding(0, 0, 0, 10);
+        if (BuildConfig.DEBUG) {
+            // Pantalla de métricas de rendimiento (solo debug)
+            title.setOnLongClickListener(v -> {
+                startActivity(new Intent(this, MetricsDebugActivity.class));
+                return true;
+            });
+        }
         headerLayout.addView(title);
 
         textInfo = new TextView(this);
@@ -126,7 +234,9 @@ public class MainActivity extends AppCompatActivity {
         fragmentContainer.setLayoutParams(new LinearLayout.LayoutParams(
                 LinearLayout.LayoutParams.MATCH_PARENT, 0, 1f));
 
-        containerId = View.generateViewId();     // <-- generamos id único
+        if (containerId == 0) {
+            containerId = View.generateViewId(); // <-- generamos id único
+        }
         fragmentContainer.setId(containerId);    // <-- lo asignamos al contenedor
 
         mainLayout.addView(fragmentContainer);
@@ -155,13 +265,31 @@ public class MainActivity extends AppCompatActivity {
    }
 
     // Construye SIEMPRE el encabezado completo (usuario, cantidad y última receta)
+    // Sesión y última receta se leen en el thread del almacén de preferencias cuando
+    // terminó de cargarse: el main thread no espera la carga al arrancar
     private void refreshHeader() {
-        // 1) Usuario
-        String userEmail = authRepository.getCurrentUserEmail();
-        String header = "👤 " + (userEmail != null ? userEmail : "Usuario de prueba");
+        preferencesManager.runWhenLoaded(() -> {
+            long sessionDuration = preferencesManager.getSessionDurationMinutes();
+            String[] last = preferencesManager.getLastRecipe(); // [id, name, timestamp] o null
+            runOnUiThread(() -> showHeader(sessionDuration, last));
+        });
+    }
+
+    private void showHeader(long sessionDuration, String[] last) {
+        if (isDestroyed()) {
+            return;
+        }
+
+        // 1) Usuario (mientras FirebaseAuth se inicializa no se lo espera)
+        String header;
+        if (FirebaseAuthProvider.getInstance().isReady()) {
+            String userEmail = authRepository.getCurrentUserEmail();
+            header = "👤 " + (userEmail != null ? userEmail : "Usuario de prueba");
+        } else {
+            header = "👤 Cargando usuario...";
+        }
         
         // Agregar información de sesión
-        long sessionDuration = new PreferencesManager(this).getSessionDurationMinutes();
         if (sessionDuration > 0) {
             header += " (Sesión: " + sessionDuration + " min)";
         }
@@ -173,9 +301,7 @@ public class MainActivity extends AppCompatActivity {
         }
         header += "\n📊 Recetas guardadas: " + count;
 
-        // 3) Última receta (PreferencesManager de TU proyecto)
-        PreferencesManager pm = new PreferencesManager(this);
-        String[] last = pm.getLastRecipe(); // [id, name, timestamp] o null
+        // 3) Última receta
         if (last != null && last.length == 3) {
             String lastName = last[1];
             long ts = 0L;
@@ -197,14 +323,7 @@ public class MainActivity extends AppCompatActivity {
         // Actualizar actividad del usuario
         sessionValidator.updateUserActivity();
         
-        SearchFragment searchFragment = new SearchFragment();
-
-        getSupportFragmentManager()
-                .beginTransaction()
-                .replace(containerId, searchFragment) // <-- usamos containerId
-                .commit();
-
-        currentFragment = searchFragment;
+        showTab(TAG_SEARCH);
 
         // Actualizar botones
         btnSearch.setEnabled(false);
@@ -218,19 +337,50 @@ public class MainActivity extends AppCompatActivity {
         // Actualizar actividad del usuario
         sessionValidator.updateUserActivity();
         
-        // (Podés dejar el layout informativo si querés, pero lo ideal es mostrar tu fragment)
-        getSupportFragmentManager()
-                .beginTransaction()
-                .setReorderingAllowed(true)
-                .replace(containerId, MyRecipesFragment.newInstance(), "MY_RECIPES") // <-- containerId
-                .addToBackStack("MY_RECIPES")
-                .commit();
+        showTab(TAG_MY_RECIPES);
 
         // Actualizar botones
         btnSearch.setEnabled(true);
         btnMyRecipes.setEnabled(false);
     }
 
+    /**
+     * Muestra la pestaña indicada y oculta la otra
+     * Los fragments se crean la primera vez y después solo se muestran/ocultan: sus vistas,
+     * sus ViewModels (y el RecipeRepository de la búsqueda) siguen vivos, así que cambiar de
+     * pestaña no vuelve a construir nada ni a descargar categorías y áreas.
+     * La pestaña oculta queda en STARTED (onPause) para que JankMonitor y los observers
+     * que dependen de RESUMED solo vean la pestaña visible
+     * @param tag TAG_SEARCH o TAG_MY_RECIPES
+     */
+    private void showTab(String tag) {
+        if (tag.equals(currentTab)) {
+            return;
+        }
+        FragmentManager fragmentManager = getSupportFragmentManager();
+        FragmentTransaction transaction = fragmentManager.beginTransaction()
+                .setReorderingAllowed(true);
+
+        for (String otherTag : new String[]{TAG_SEARCH, TAG_MY_RECIPES}) {
+            Fragment other = fragmentManager.findFragmentByTag(otherTag);
+            if (other != null && !otherTag.equals(tag)) {
+                transaction.hide(other).setMaxLifecycle(other, Lifecycle.State.STARTED);
+            }
+        }
+
+        Fragment fragment = fragmentManager.findFragmentByTag(tag);
+        if (fragment == null) {
+            fragment = TAG_SEARCH.equals(tag) ? new SearchFragment() : MyRecipesFragment.newInstance();
+            transaction.add(containerId, fragment, tag); // <-- usamos containerId
+        } else {
+            transaction.show(fragment);
+        }
+        transaction.setMaxLifecycle(fragment, Lifecycle.State.RESUMED).commit();
+
+        currentTab = tag;
+        backToSearch.setEnabled(TAG_MY_RECIPES.equals(tag));
+    }
+
     private void performLogout() {
         // Cerrar sesión usando SessionValidator
         sessionValidator.endSession();
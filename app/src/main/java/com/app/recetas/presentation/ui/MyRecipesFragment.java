@@ -16,7 +16,10 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.app.recetas.data.local.database.IngredientListConverter;
 import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.presentation.ui.common.RecipeRowHolder;
+import com.app.recetas.presentation.ui.common.RecipeRowPool;
 import com.app.recetas.presentation.ui.detail.RecipeDetailActivity;
 import com.app.recetas.presentation.viewmodel.HomeViewModel;
 import com.app.recetas.utils.PreferencesManager;
@@ -91,6 +94,7 @@ public class MyRecipesFragment extends Fragment {
         );
         
         recyclerViewMyRecipes.setLayoutManager(new LinearLayoutManager(getContext()));
+        RecipeRowPool.attach(recyclerViewMyRecipes, requireActivity());
         recyclerViewMyRecipes.setAdapter(adapter);
     }
     
@@ -116,19 +120,19 @@ public class MyRecipesFragment extends Fragment {
         // Pasar datos de la receta guardada
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_ID, recipe.id);
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_NAME, recipe.name);
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_CATEGORY, recipe.category);
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_AREA, recipe.area);
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INSTRUCTIONS, recipe.instructions);
+        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_CATEGORY, recipe.getCategory());
+        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_AREA, recipe.getArea());
+        // Sin instrucciones: la lista no las lee; RecipeDetailActivity las busca en Room
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_IMAGE, recipe.imageUrl);
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS, recipe.ingredients);
+        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS, IngredientListConverter.toBlob(recipe.ingredients));
         
         startActivity(intent);
     }
     
     /**
-     * Adapter para mostrar las recetas guardadas
+     * Adapter para mostrar las recetas guardadas (filas compactas de RecipeRowHolder)
      */
-    private static class MyRecipesAdapter extends RecyclerView.Adapter<MyRecipesAdapter.ViewHolder> {
+    private static class MyRecipesAdapter extends RecyclerView.Adapter<RecipeRowHolder> {
         
         private List<Recipe> recipes;
         private final OnRecipeClickListener onRecipeClick;
@@ -154,84 +158,30 @@ public class MyRecipesFragment extends Fragment {
         
         @NonNull
         @Override
-        public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-            LinearLayout itemLayout = new LinearLayout(parent.getContext());
-            itemLayout.setOrientation(LinearLayout.VERTICAL);
-            itemLayout.setPadding(20, 20, 20, 20);
-            itemLayout.setBackgroundColor(0xFFF5F5F5);
-            
-            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(
-                LinearLayout.LayoutParams.MATCH_PARENT, 
-                LinearLayout.LayoutParams.WRAP_CONTENT);
-            params.setMargins(0, 0, 0, 20);
-            itemLayout.setLayoutParams(params);
-            
-            return new ViewHolder(itemLayout);
+        public RecipeRowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return RecipeRowHolder.create(parent, viewType);
+        }
+        
+        @Override
+        public int getItemViewType(int position) {
+            return RecipeRowHolder.TYPE_COMPACT;
         }
         
         @Override
-        public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        public void onBindViewHolder(@NonNull RecipeRowHolder holder, int position) {
             Recipe recipe = recipes.get(position);
-            holder.bind(recipe, onRecipeClick, onRecipeDelete);
+            holder.title.setText("🍽️ " + recipe.name);
+            holder.subtitle.setText("📂 " + (recipe.getCategory() != null ? recipe.getCategory() : "Sin categoría"));
+            holder.body.setText("🌍 " + (recipe.getArea() != null ? recipe.getArea() : "Sin área"));
+            
+            // Los botones ya son parte de la fila: solo se cambian los listeners
+            holder.primaryButton.setOnClickListener(v -> onRecipeClick.onRecipeClick(recipe));
+            holder.secondaryButton.setOnClickListener(v -> onRecipeDelete.onRecipeDelete(recipe));
         }
         
         @Override
         public int getItemCount() {
             return recipes != null ? recipes.size() : 0;
         }
-        
-        static class ViewHolder extends RecyclerView.ViewHolder {
-            private TextView textName, textCategory, textArea;
-            private LinearLayout buttonLayout;
-            
-            public ViewHolder(@NonNull View itemView) {
-                super(itemView);
-                
-                LinearLayout layout = (LinearLayout) itemView;
-                
-                textName = new TextView(itemView.getContext());
-                textName.setTextSize(18);
-                textName.setPadding(0, 0, 0, 10);
-                layout.addView(textName);
-                
-                textCategory = new TextView(itemView.getContext());
-                textCategory.setTextSize(14);
-                layout.addView(textCategory);
-                
-                textArea = new TextView(itemView.getContext());
-                textArea.setTextSize(14);
-                textArea.setPadding(0, 0, 0, 15);
-                layout.addView(textArea);
-                
-                buttonLayout = new LinearLayout(itemView.getContext());
-                buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
-                layout.addView(buttonLayout);
-            }
-            
-            public void bind(Recipe recipe, OnRecipeClickListener onRecipeClick, OnRecipeDeleteListener onRecipeDelete) {
-                textName.setText("🍽️ " + recipe.name);
-                textCategory.setText("📂 " + (recipe.category != null ? recipe.category : "Sin categoría"));
-                textArea.setText("🌍 " + (recipe.area != null ? recipe.area : "Sin área"));
-                
-                // Limpiar botones anteriores
-                buttonLayout.removeAllViews();
-                
-                // Botón ver detalle
-                android.widget.Button btnView = new android.widget.Button(itemView.getContext());
-                btnView.setText("Ver Detalle");
-                btnView.setLayoutParams(new LinearLayout.LayoutParams(0, 
-                    LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-                btnView.setOnClickListener(v -> onRecipeClick.onRecipeClick(recipe));
-                buttonLayout.addView(btnView);
-                
-                // Botón eliminar
-                android.widget.Button btnDelete = new android.widget.Button(itemView.getContext());
-                btnDelete.setText("Eliminar");
-                btnDelete.setLayoutParams(new LinearLayout.LayoutParams(0, 
-                    LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-                btnDelete.setOnClickListener(v -> onRecipeDelete.onRecipeDelete(recipe));
-                buttonLayout.addView(btnDelete);
-            }
-        }
     }
 }
@@ -7,10 +7,12 @@ import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
 import com.app.recetas.data.repository.AuthRepository;
 import com.app.recetas.presentation.ui.auth.LoginActivity;
 import com.app.recetas.utils.FirebaseConnectionValidator;
 import com.app.recetas.utils.SessionValidator;
+import com.app.recetas.utils.StartupTrace;
 
 /**
  * SplashActivity que verifica conexión, autenticación y sesión
@@ -24,6 +26,7 @@ public class SplashActivity extends AppCompatActivity {
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        StartupTrace.mark("splash_create");
         
         // Crear splash screen simple
         splashText = new TextView(this);
@@ -33,6 +36,13 @@ public class SplashActivity extends AppCompatActivity {
         splashText.setPadding(50, 200, 50, 50);
         setContentView(splashText);
         
+        // Primer frame dibujado: el resumen sale cuando FirebaseAuth también terminó
+        splashText.post(() -> {
+            StartupTrace.mark("splash_first_frame");
+            FirebaseAuthProvider.getInstance().whenReady(
+                    auth -> StartupTrace.report(FirebaseAuthProvider.getInstance()));
+        });
+        
         // Inicializar dependencias
         authRepository = new AuthRepository();
         sessionValidator = new SessionValidator(this);
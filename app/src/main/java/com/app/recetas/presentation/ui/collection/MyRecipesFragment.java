@@ -1,6 +1,7 @@
 package com.app.recetas.presentation.ui.collection;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,6 +11,8 @@ import android.widget.EditText;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
@@ -18,7 +21,11 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.app.recetas.data.backup.RecipeBackup;
+import com.app.recetas.data.local.database.IngredientListConverter;
 import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.metrics.JankMonitor;
+import com.app.recetas.presentation.ui.common.RecipeRowPool;
 import com.app.recetas.presentation.viewmodel.HomeViewModel;
 import com.app.recetas.presentation.ui.detail.RecipeDetailActivity;
 import com.app.recetas.utils.PreferencesManager;
@@ -29,6 +36,17 @@ public class MyRecipesFragment extends Fragment {
     private HomeViewModel homeViewModel;
     private SavedRecipesAdapter adapter;
     private TextView emptyView;
+    private RecyclerView recyclerView;
+    private TextView backupStatusView;
+
+    // Selectores de archivo para exportar e importar la colección
+    private final ActivityResultLauncher<String> exportLauncher = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/json"),
+            uri -> {
+                if (uri != null) homeViewModel.exportCollection(uri);
+            });
+    private final ActivityResultLauncher<String[]> importLauncher = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::askConflictPolicy);
 
     public MyRecipesFragment() { }
 
@@ -70,6 +88,32 @@ public class MyRecipesFragment extends Fragment {
             startActivity(intent);
         });
 
+        // Respaldo: exportar/importar la colección a un archivo JSON
+        LinearLayout backupRow = new LinearLayout(requireContext());
+        backupRow.setOrientation(LinearLayout.HORIZONTAL);
+
+        Button btnExport = new Button(requireContext());
+        btnExport.setText("💾 Exportar");
+        btnExport.setAllCaps(false);
+        btnExport.setLayoutParams(new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
+        btnExport.setOnClickListener(v -> exportLauncher.launch("mis-recetas.json"));
+        backupRow.addView(btnExport);
+
+        Button btnImport = new Button(requireContext());
+        btnImport.setText("📂 Importar");
+        btnImport.setAllCaps(false);
+        btnImport.setLayoutParams(new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
+        // Algunos proveedores de archivos no reconocen el tipo JSON
+        btnImport.setOnClickListener(v -> importLauncher.launch(
+                new String[]{"application/json", "application/octet-stream", "text/*"}));
+        backupRow.addView(btnImport);
+        root.addView(backupRow);
+
+        backupStatusView = new TextView(requireContext());
+        backupStatusView.setTextSize(14f);
+        backupStatusView.setVisibility(View.GONE);
+        root.addView(backupStatusView);
+
         emptyView = new TextView(requireContext());
         emptyView.setText("No tenés recetas todavía.\nUsá 'Buscar' para agregarlas.");
         emptyView.setTextSize(16f);
@@ -80,6 +124,8 @@ public class MyRecipesFragment extends Fragment {
         rv.setLayoutParams(new LinearLayout.LayoutParams(
                 ViewGroup.LayoutParams.MATCH_PARENT, 0, 1f));
         rv.setLayoutManager(new LinearLayoutManager(requireContext()));
+        // Filas compartidas con la búsqueda: al volver a esta pestaña se reutilizan
+        RecipeRowPool.attach(rv, requireActivity());
 
         // Adapter con las 3 acciones: Ver, Notas, Eliminar
         adapter = new SavedRecipesAdapter(new SavedRecipesAdapter.OnRecipeAction() {
@@ -100,6 +146,8 @@ public class MyRecipesFragment extends Fragment {
         });
 
         rv.setAdapter(adapter);
+        JankMonitor.trackList(rv);
+        recyclerView = rv;
         root.addView(rv);
 
         return root;
@@ -111,10 +159,23 @@ public class MyRecipesFragment extends Fragment {
         homeViewModel = new ViewModelProvider(requireActivity()).get(HomeViewModel.class);
 
         homeViewModel.getRecipes().observe(getViewLifecycleOwner(), recipes -> {
+            JankMonitor.markListUpdate(recyclerView);
             adapter.submit(recipes);
             boolean isEmpty = (recipes == null || recipes.isEmpty());
             emptyView.setVisibility(isEmpty ? View.VISIBLE : View.GONE);
         });
+
+        homeViewModel.getBackupStatus().observe(getViewLifecycleOwner(), status -> {
+            backupStatusView.setText(status);
+            backupStatusView.setVisibility(status != null ? View.VISIBLE : View.GONE);
+        });
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Los frames siguientes cuentan para la pantalla de la colección
+        JankMonitor.setScreen(getView(), "collection");
     }
 
     // ---------- Editar notas ----------
@@ -138,6 +199,26 @@ public class MyRecipesFragment extends Fragment {
                 .show();
     }
 
+    // ---------- Importar respaldo ----------
+
+    private void askConflictPolicy(Uri uri) {
+        if (uri == null) return;
+        final RecipeBackup.ConflictPolicy[] policies = {
+                RecipeBackup.ConflictPolicy.SKIP,
+                RecipeBackup.ConflictPolicy.REPLACE,
+                RecipeBackup.ConflictPolicy.MERGE_NOTES,
+        };
+        new AlertDialog.Builder(requireContext())
+                .setTitle("Recetas que ya están guardadas")
+                .setItems(new String[]{
+                        "Dejar las mías sin cambios",
+                        "Reemplazar por las del archivo",
+                        "Agregar las notas del archivo",
+                }, (d, which) -> homeViewModel.importCollection(uri, policies[which]))
+                .setNegativeButton("Cancelar", null)
+                .show();
+    }
+
     // ---------- Ver detalle de la receta guardada ----------
 
     private void openSavedRecipeDetail(Recipe r) {
@@ -148,9 +229,9 @@ public class MyRecipesFragment extends Fragment {
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_NAME, r.getName());
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_CATEGORY, r.getCategory());
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_AREA, r.getArea());
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INSTRUCTIONS, r.getInstructions());
+        // Sin instrucciones: la lista no las lee; RecipeDetailActivity las busca en Room
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_IMAGE, r.getImageUrl());
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS, r.getIngredients());
+        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS, IngredientListConverter.toBlob(r.getIngredients()));
 
         startActivity(intent);
     }
@@ -1,23 +1,19 @@
 package com.app.recetas.presentation.ui.collection;
 
-import android.content.Context;
-import android.view.View;
 import android.view.ViewGroup;
-import android.widget.Button;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.recetas.data.local.entities.Recipe;
-// import com.bumptech.glide.Glide;
+import com.app.recetas.metrics.Metrics;
+import com.app.recetas.presentation.ui.common.RecipeRowHolder;
+import com.bumptech.glide.Glide;
 
 import java.util.ArrayList;
 import java.util.List;
 
-public class SavedRecipesAdapter extends RecyclerView.Adapter<SavedRecipesAdapter.VH> {
+public class SavedRecipesAdapter extends RecyclerView.Adapter<RecipeRowHolder> {
 
     public interface OnRecipeAction {
         void onOpen(Recipe r);       // <-- NUEVO: abrir detalle
@@ -39,98 +35,51 @@ public class SavedRecipesAdapter extends RecyclerView.Adapter<SavedRecipesAdapte
     }
 
     @NonNull @Override
-    public VH onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        Context ctx = parent.getContext();
-        int pad = (int)(12 * ctx.getResources().getDisplayMetrics().density);
-
-        LinearLayout root = new LinearLayout(ctx);
-        root.setOrientation(LinearLayout.HORIZONTAL);
-        root.setPadding(pad, pad, pad, pad);
-        root.setLayoutParams(new RecyclerView.LayoutParams(
-                ViewGroup.LayoutParams.MATCH_PARENT,
-                ViewGroup.LayoutParams.WRAP_CONTENT));
-
-        ImageView img = new ImageView(ctx);
-        int imgSize = (int)(72 * ctx.getResources().getDisplayMetrics().density);
-        LinearLayout.LayoutParams imgLp = new LinearLayout.LayoutParams(imgSize, imgSize);
-        imgLp.rightMargin = pad;
-        img.setLayoutParams(imgLp);
-        img.setScaleType(ImageView.ScaleType.CENTER_CROP);
-        root.addView(img);
-
-        LinearLayout col = new LinearLayout(ctx);
-        col.setOrientation(LinearLayout.VERTICAL);
-        col.setLayoutParams(new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
-        root.addView(col);
-
-        TextView title = new TextView(ctx);
-        title.setTextSize(18f);
-        col.addView(title);
-
-        TextView meta = new TextView(ctx);
-        meta.setTextSize(14f);
-        col.addView(meta);
-
-        TextView notes = new TextView(ctx);
-        notes.setTextSize(13f);
-        col.addView(notes);
-
-        LinearLayout btns = new LinearLayout(ctx);
-        btns.setOrientation(LinearLayout.VERTICAL);
-        root.addView(btns);
-
-        Button btnOpen = new Button(ctx);
-        btnOpen.setText("Ver");              // <-- NUEVO
-        btns.addView(btnOpen);
-
-        Button btnNotes = new Button(ctx);
-        btnNotes.setText("Notas");
-        btns.addView(btnNotes);
-
-        Button btnDelete = new Button(ctx);
-        btnDelete.setText("Eliminar");
-        btns.addView(btnDelete);
-
-        return new VH(root, img, title, meta, notes, btnOpen, btnNotes, btnDelete);
+    public RecipeRowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return RecipeRowHolder.create(parent, viewType);
     }
 
     @Override
-    public void onBindViewHolder(@NonNull VH h, int position) {
-        Recipe r = data.get(position);
-
-        h.title.setText(r.getName() != null ? r.getName() : "(Sin título)");
-
-        StringBuilder sb = new StringBuilder();
-        if (r.getCategory() != null && !r.getCategory().isEmpty()) sb.append("• ").append(r.getCategory()).append("  ");
-        if (r.getArea() != null && !r.getArea().isEmpty()) sb.append("• ").append(r.getArea());
-        h.meta.setText(sb.toString());
-
-        String n = r.getPersonalNotes();
-        h.notes.setText(n != null && !n.isEmpty() ? "📝 " + n : "");
+    public int getItemViewType(int position) {
+        return RecipeRowHolder.TYPE_SAVED_RECIPE;
+    }
 
-        // Imagen si tenés Glide:
-        // if (r.getImageUrl() != null && !r.getImageUrl().isEmpty()) {
-        //     Glide.with(h.itemView.getContext()).load(r.getImageUrl()).into(h.img);
-        // } else {
-        //     h.img.setImageResource(android.R.drawable.ic_menu_report_image);
-        // }
+    @Override
+    public void onBindViewHolder(@NonNull RecipeRowHolder h, int position) {
+        Recipe r = data.get(position);
+        try (Metrics.Span span = Metrics.trace("bind.saved_recipe")) {
+            h.title.setText(r.getName() != null ? r.getName() : "(Sin título)");
+
+            StringBuilder sb = new StringBuilder();
+            if (r.getCategory() != null && !r.getCategory().isEmpty()) sb.append("• ").append(r.getCategory()).append("  ");
+            if (r.getArea() != null && !r.getArea().isEmpty()) sb.append("• ").append(r.getArea());
+            h.subtitle.setText(sb.toString());
+
+            String n = r.getPersonalNotes();
+            h.body.setText(n != null && !n.isEmpty() ? "📝 " + n : "");
+
+            // Imagen (normalmente ya en la caché de disco por CollectionRefreshWorker)
+            if (r.getImageUrl() != null && !r.getImageUrl().isEmpty()) {
+                Glide.with(h.itemView.getContext()).load(r.getImageUrl()).into(h.image);
+            } else {
+                Glide.with(h.itemView.getContext()).clear(h.image);
+                h.image.setImageResource(android.R.drawable.ic_menu_report_image);
+            }
+
+            // Clicks
+            h.itemView.setOnClickListener(v -> actions.onOpen(r)); // abrir con tap al item
+            h.primaryButton.setOnClickListener(v -> actions.onOpen(r));  // o con botón "Ver"
+            h.secondaryButton.setOnClickListener(v -> actions.onEditNotes(r));
+            h.tertiaryButton.setOnClickListener(v -> actions.onDelete(r));
+        }
+    }
 
-        // Clicks
-        h.itemView.setOnClickListener(v -> actions.onOpen(r)); // abrir con tap al item
-        h.btnOpen.setOnClickListener(v -> actions.onOpen(r));  // o con botón "Ver"
-        h.btnNotes.setOnClickListener(v -> actions.onEditNotes(r));
-        h.btnDelete.setOnClickListener(v -> actions.onDelete(r));
+    @Override
+    public void onViewRecycled(@NonNull RecipeRowHolder h) {
+        // La fila vuelve al pool compartido: cortar la carga de imagen pendiente
+        // (con el Context de la app: al cerrar la Activity ya está destruida)
+        Glide.with(h.itemView.getContext().getApplicationContext()).clear(h.image);
     }
 
     @Override public int getItemCount() { return data.size(); }
-
-    static class VH extends RecyclerView.ViewHolder {
-        ImageView img; TextView title, meta, notes; Button btnOpen, btnNotes, btnDelete;
-        VH(@NonNull View itemView, ImageView img, TextView title, TextView meta, TextView notes,
-           Button btnOpen, Button btnNotes, Button btnDelete) {
-            super(itemView);
-            this.img = img; this.title = title; this.meta = meta; this.notes = notes;
-            this.btnOpen = btnOpen; this.btnNotes = btnNotes; this.btnDelete = btnDelete;
-        }
-    }
 }
@@ -0,0 +1,228 @@
+package com.app.recetas.presentation.ui.common;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.ImageView;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * Fila de receta común a todos los listados (búsqueda, colección y listado compacto)
+ * Cada plantilla tiene un tipo de vista propio y único en la app: como todos los adapters
+ * usan esta misma clase de ViewHolder, las filas se pueden compartir entre listados a
+ * través de RecipeRowPool sin mezclar plantillas
+ *
+ * Vistas de cada plantilla (las que no usa quedan en null):
+ * - SEARCH_RESULT: título, subtítulo (categoría/área), cuerpo (preview), Ver / Agregar
+ * - SAVED_RECIPE: imagen, título, subtítulo, cuerpo (notas), Ver / Notas / Eliminar
+ * - COMPACT: título, subtítulo (categoría), cuerpo (área), Ver / Eliminar
+ */
+public class RecipeRowHolder extends RecyclerView.ViewHolder {
+
+    // Tipos de vista (distintos de 0, el tipo por defecto de RecyclerView)
+    public static final int TYPE_SEARCH_RESULT = 1;
+    public static final int TYPE_SAVED_RECIPE = 2;
+    public static final int TYPE_COMPACT = 3;
+
+    public final ImageView image;
+    public final TextView title;
+    public final TextView subtitle;
+    public final TextView body;
+    public final Button primaryButton;
+    public final Button secondaryButton;
+    public final Button tertiaryButton;
+
+    private RecipeRowHolder(@NonNull View itemView, ImageView image, TextView title, TextView subtitle,
+                            TextView body, Button primaryButton, Button secondaryButton, Button tertiaryButton) {
+        super(itemView);
+        this.image = image;
+        this.title = title;
+        this.subtitle = subtitle;
+        this.body = body;
+        this.primaryButton = primaryButton;
+        this.secondaryButton = secondaryButton;
+        this.tertiaryButton = tertiaryButton;
+    }
+
+    /**
+     * Crea la fila de una plantilla (llamar desde onCreateViewHolder o RecipeRowPool)
+     * @param parent RecyclerView (o cualquier ViewGroup del mismo Context)
+     * @param viewType Uno de los TYPE_*
+     * @return ViewHolder con todas las vistas de la plantilla ya creadas
+     */
+    public static RecipeRowHolder create(@NonNull ViewGroup parent, int viewType) {
+        switch (viewType) {
+            case TYPE_SEARCH_RESULT:
+                return createSearchResult(parent.getContext());
+            case TYPE_SAVED_RECIPE:
+                return createSavedRecipe(parent.getContext());
+            case TYPE_COMPACT:
+                return createCompact(parent.getContext());
+            default:
+                throw new IllegalArgumentException("Tipo de fila desconocido: " + viewType);
+        }
+    }
+
+    private static RecipeRowHolder createSearchResult(Context context) {
+        LinearLayout itemLayout = new LinearLayout(context);
+        itemLayout.setOrientation(LinearLayout.VERTICAL);
+        itemLayout.setPadding(20, 15, 20, 15);
+        itemLayout.setClickable(true);
+        itemLayout.setFocusable(true);
+
+        // Agregar borde visual y efecto de clic
+        itemLayout.setBackgroundColor(0xFFF5F5F5);
+        RecyclerView.LayoutParams layoutParams = new RecyclerView.LayoutParams(
+            RecyclerView.LayoutParams.MATCH_PARENT,
+            RecyclerView.LayoutParams.WRAP_CONTENT);
+        layoutParams.setMargins(10, 5, 10, 5);
+        itemLayout.setLayoutParams(layoutParams);
+
+        // Nombre de la receta
+        TextView textName = new TextView(context);
+        textName.setTextSize(18);
+        textName.setTextColor(0xFF000000);
+        itemLayout.addView(textName);
+
+        // Categoría y área
+        TextView textDetails = new TextView(context);
+        textDetails.setTextSize(14);
+        textDetails.setTextColor(0xFF666666);
+        textDetails.setPadding(0, 5, 0, 10);
+        itemLayout.addView(textDetails);
+
+        // Instrucciones (preview)
+        TextView textInstructions = new TextView(context);
+        textInstructions.setTextSize(12);
+        textInstructions.setTextColor(0xFF888888);
+        textInstructions.setMaxLines(2);
+        textInstructions.setPadding(0, 0, 0, 10);
+        itemLayout.addView(textInstructions);
+
+        // Botones: ver detalle y agregar
+        LinearLayout buttonLayout = new LinearLayout(context);
+        buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
+        Button btnDetail = weightedButton(context, "👁️ Ver Receta", 12);
+        buttonLayout.addView(btnDetail);
+        Button btnAdd = weightedButton(context, "➕ Agregar", 12);
+        buttonLayout.addView(btnAdd);
+        itemLayout.addView(buttonLayout);
+
+        return new RecipeRowHolder(itemLayout, null, textName, textDetails, textInstructions,
+                btnDetail, btnAdd, null);
+    }
+
+    private static RecipeRowHolder createSavedRecipe(Context context) {
+        float density = context.getResources().getDisplayMetrics().density;
+        int pad = (int) (12 * density);
+
+        LinearLayout root = new LinearLayout(context);
+        root.setOrientation(LinearLayout.HORIZONTAL);
+        root.setPadding(pad, pad, pad, pad);
+        root.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT));
+
+        ImageView img = new ImageView(context);
+        int imgSize = (int) (72 * density);
+        LinearLayout.LayoutParams imgLp = new LinearLayout.LayoutParams(imgSize, imgSize);
+        imgLp.rightMargin = pad;
+        img.setLayoutParams(imgLp);
+        img.setScaleType(ImageView.ScaleType.CENTER_CROP);
+        root.addView(img);
+
+        LinearLayout col = new LinearLayout(context);
+        col.setOrientation(LinearLayout.VERTICAL);
+        col.setLayoutParams(new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1f));
+        root.addView(col);
+
+        TextView title = new TextView(context);
+        title.setTextSize(18f);
+        col.addView(title);
+
+        TextView meta = new TextView(context);
+        meta.setTextSize(14f);
+        col.addView(meta);
+
+        TextView notes = new TextView(context);
+        notes.setTextSize(13f);
+        col.addView(notes);
+
+        LinearLayout btns = new LinearLayout(context);
+        btns.setOrientation(LinearLayout.VERTICAL);
+        root.addView(btns);
+
+        Button btnOpen = new Button(context);
+        btnOpen.setText("Ver");
+        btns.addView(btnOpen);
+
+        Button btnNotes = new Button(context);
+        btnNotes.setText("Notas");
+        btns.addView(btnNotes);
+
+        Button btnDelete = new Button(context);
+        btnDelete.setText("Eliminar");
+        btns.addView(btnDelete);
+
+        return new RecipeRowHolder(root, img, title, meta, notes, btnOpen, btnNotes, btnDelete);
+    }
+
+    private static RecipeRowHolder createCompact(Context context) {
+        LinearLayout itemLayout = new LinearLayout(context);
+        itemLayout.setOrientation(LinearLayout.VERTICAL);
+        itemLayout.setPadding(20, 20, 20, 20);
+        itemLayout.setBackgroundColor(0xFFF5F5F5);
+
+        RecyclerView.LayoutParams params = new RecyclerView.LayoutParams(
+            RecyclerView.LayoutParams.MATCH_PARENT,
+            RecyclerView.LayoutParams.WRAP_CONTENT);
+        params.setMargins(0, 0, 0, 20);
+        itemLayout.setLayoutParams(params);
+
+        TextView textName = new TextView(context);
+        textName.setTextSize(18);
+        textName.setPadding(0, 0, 0, 10);
+        itemLayout.addView(textName);
+
+        TextView textCategory = new TextView(context);
+        textCategory.setTextSize(14);
+        itemLayout.addView(textCategory);
+
+        TextView textArea = new TextView(context);
+        textArea.setTextSize(14);
+        textArea.setPadding(0, 0, 0, 15);
+        itemLayout.addView(textArea);
+
+        // Los botones son parte de la plantilla (antes se recreaban en cada bind)
+        LinearLayout buttonLayout = new LinearLayout(context);
+        buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
+        Button btnView = weightedButton(context, "Ver Detalle", 0);
+        buttonLayout.addView(btnView);
+        Button btnDelete = weightedButton(context, "Eliminar", 0);
+        buttonLayout.addView(btnDelete);
+        itemLayout.addView(buttonLayout);
+
+        return new RecipeRowHolder(itemLayout, null, textName, textCategory, textArea,
+                btnView, btnDelete, null);
+    }
+
+    /**
+     * Botón que ocupa una parte igual de una fila horizontal
+     * @param textSize Tamaño en sp o 0 para el tamaño por defecto
+     */
+    private static Button weightedButton(Context context, String text, int textSize) {
+        Button button = new Button(context);
+        button.setText(text);
+        if (textSize > 0) {
+            button.setTextSize(textSize);
+        }
+        button.setLayoutParams(new LinearLayout.LayoutParams(0,
+            LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+        return button;
+    }
+}
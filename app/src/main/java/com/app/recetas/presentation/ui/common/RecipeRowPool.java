@@ -0,0 +1,116 @@
+package com.app.recetas.presentation.ui.common;
+
+import android.app.Activity;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.app.recetas.metrics.Metrics;
+
+/**
+ * Pool de filas de receta compartido por los listados de una Activity
+ * Cuando un listado se destruye, sus filas vuelven al pool y el próximo listado las
+ * reutiliza en vez de armar otra vez cada árbol de vistas. Mientras el main thread
+ * está ocioso se pre-crean las filas que faltan (una por vez, sin demorar frames)
+ *
+ * Las filas tienen el Context de la Activity: el pool vive y muere con ella
+ */
+public class RecipeRowPool extends RecyclerView.RecycledViewPool {
+
+    // Filas guardadas por tipo: alcanza para una pantalla completa de cada listado
+    public static final int MAX_ROWS_PER_TYPE = 12;
+
+    // Filas que se pre-crean por tipo (las visibles en una pantalla típica)
+    public static final int PREFILL_ROWS = 6;
+
+    /**
+     * Activity que comparte un pool entre sus listados
+     */
+    public interface Host {
+        RecipeRowPool getRecipeRowPool();
+    }
+
+    // Crea filas fuera de un listado (el tipo lo fija createViewHolder)
+    private final RecyclerView.Adapter<RecipeRowHolder> templates = new TemplateAdapter();
+    private MessageQueue.IdleHandler prefill;
+
+    public RecipeRowPool() {
+        setMaxRecycledViews(RecipeRowHolder.TYPE_SEARCH_RESULT, MAX_ROWS_PER_TYPE);
+        setMaxRecycledViews(RecipeRowHolder.TYPE_SAVED_RECIPE, MAX_ROWS_PER_TYPE);
+        setMaxRecycledViews(RecipeRowHolder.TYPE_COMPACT, MAX_ROWS_PER_TYPE);
+    }
+
+    /**
+     * Conecta un listado al pool de su Activity (antes de setAdapter)
+     * Las filas visibles vuelven al pool cuando se destruye la vista del listado
+     * @param recyclerView Listado con LinearLayoutManager
+     * @param activity Activity del fragment; si no es Host el listado usa su propio pool
+     */
+    public static void attach(RecyclerView recyclerView, Activity activity) {
+        if (!(activity instanceof Host)) {
+            return;
+        }
+        recyclerView.setRecycledViewPool(((Host) activity).getRecipeRowPool());
+        RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        }
+    }
+
+    /**
+     * Pre-crea filas de los tipos indicados cuando el main thread está ocioso
+     * Una fila por pasada; termina cuando cada tipo tiene PREFILL_ROWS en el pool
+     * @param parent ViewGroup de la Activity (da el Context de las filas)
+     * @param viewTypes Tipos a preparar, en orden de prioridad
+     */
+    public void prefillWhenIdle(@NonNull ViewGroup parent, int... viewTypes) {
+        cancelPrefill();
+        prefill = () -> {
+            for (int viewType : viewTypes) {
+                if (getRecycledViewCount(viewType) < PREFILL_ROWS) {
+                    try (Metrics.Span span = Metrics.trace("rows.prefill")) {
+                        putRecycledView(templates.createViewHolder(parent, viewType));
+                    }
+                    return true;
+                }
+            }
+            prefill = null;
+            return false;
+        };
+        Looper.myQueue().addIdleHandler(prefill);
+    }
+
+    /**
+     * Cancela el pre-armado pendiente (llamar en onDestroy de la Activity)
+     */
+    public void cancelPrefill() {
+        if (prefill != null) {
+            Looper.myQueue().removeIdleHandler(prefill);
+            prefill = null;
+        }
+    }
+
+    /**
+     * Adapter que solo crea filas vacías para el pool
+     */
+    private static class TemplateAdapter extends RecyclerView.Adapter<RecipeRowHolder> {
+        @NonNull
+        @Override
+        public RecipeRowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+            return RecipeRowHolder.create(parent, viewType);
+        }
+
+        @Override
+        public void onBindViewHolder(@NonNull RecipeRowHolder holder, int position) {
+        }
+
+        @Override
+        public int getItemCount() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.app.recetas.presentation.ui.debug;
+
+import android.content.Intent;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import androidx.appcompat.app.AppCompatActivity;
+
+import com.app.recetas.data.remote.api.interceptor.NetworkMetrics;
+import com.app.recetas.metrics.Metrics;
+import com.app.recetas.metrics.MetricsDump;
+import com.app.recetas.metrics.ViolationLog;
+
+/**
+ * Pantalla de debug con las métricas de rendimiento
+ * Muestra timers (lo más caro primero), contadores, red y violaciones de StrictMode; permite compartir el volcado
+ * JSON y reiniciar las métricas antes de reproducir un caso ("la búsqueda anda lenta")
+ * Solo se abre en builds debug (mantener presionado el título de MainActivity)
+ */
+public class MetricsDebugActivity extends AppCompatActivity {
+    
+    private TextView textReport;
+    
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        createUI();
+        refresh();
+    }
+    
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+    
+    /**
+     * Crea la interfaz de usuario programáticamente
+     */
+    private void createUI() {
+        LinearLayout mainLayout = new LinearLayout(this);
+        mainLayout.setOrientation(LinearLayout.VERTICAL);
+        mainLayout.setPadding(30, 30, 30, 30);
+        
+        TextView title = new TextView(this);
+        title.setText("📈 Métricas de rendimiento");
+        title.setTextSize(22);
+        title.setPadding(0, 0, 0, 20);
+        mainLayout.addView(title);
+        
+        // Acciones
+        LinearLayout buttons = new LinearLayout(this);
+        buttons.setOrientation(LinearLayout.HORIZONTAL);
+        
+        Button btnRefresh = new Button(this);
+        btnRefresh.setText("Actualizar");
+        btnRefresh.setOnClickListener(v -> refresh());
+        buttons.addView(btnRefresh, new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        
+        Button btnShare = new Button(this);
+        btnShare.setText("Compartir JSON");
+        btnShare.setOnClickListener(v -> shareJson());
+        buttons.addView(btnShare, new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        
+        Button btnReset = new Button(this);
+        btnReset.setText("Reiniciar");
+        btnReset.setOnClickListener(v -> reset());
+        buttons.addView(btnReset, new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, 1f));
+        
+        mainLayout.addView(buttons);
+        
+        // Reporte
+        ScrollView scrollView = new ScrollView(this);
+        textReport = new TextView(this);
+        textReport.setTextSize(12);
+        textReport.setTypeface(Typeface.MONOSPACE);
+        textReport.setTextIsSelectable(true);
+        textReport.setPadding(0, 20, 0, 0);
+        scrollView.addView(textReport);
+        mainLayout.addView(scrollView, new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.MATCH_PARENT, 0, 1f));
+        
+        setContentView(mainLayout);
+    }
+    
+    private void refresh() {
+        textReport.setText(MetricsDump.toText(Metrics.getInstance(), NetworkMetrics.getInstance(),
+                ViolationLog.getInstance()));
+    }
+    
+    /**
+     * Comparte el volcado JSON (mail, Drive, etc.) para analizarlo fuera del teléfono
+     */
+    private void shareJson() {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("application/json");
+        intent.putExtra(Intent.EXTRA_SUBJECT, "Métricas de Mis Recetas");
+        intent.putExtra(Intent.EXTRA_TEXT, MetricsDump.toJson());
+        startActivity(Intent.createChooser(intent, "Compartir métricas"));
+    }
+    
+    private void reset() {
+        Metrics.getInstance().reset();
+        NetworkMetrics.getInstance().reset();
+        ViolationLog.getInstance().reset();
+        refresh();
+        Toast.makeText(this, "Métricas reiniciadas", Toast.LENGTH_SHORT).show();
+    }
+}
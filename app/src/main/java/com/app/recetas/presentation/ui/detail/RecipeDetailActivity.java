@@ -11,13 +11,12 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.app.recetas.data.local.database.IngredientListConverter;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.remote.cache.MealDetailCache;
 import com.app.recetas.data.remote.dto.MealDto;
 import com.app.recetas.presentation.viewmodel.SearchViewModel;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 /**
  * Activity para mostrar el detalle completo de una receta
  * Muestra nombre, categoría, área, ingredientes e instrucciones
@@ -159,42 +158,79 @@ public class RecipeDetailActivity extends AppCompatActivity {
         currentMeal.strInstructions = intent.getStringExtra(EXTRA_MEAL_INSTRUCTIONS);
         currentMeal.strMealThumb = intent.getStringExtra(EXTRA_MEAL_IMAGE);
         
-        // Obtener ingredientes (viene como JSON string)
-        String ingredientsJson = intent.getStringExtra(EXTRA_MEAL_INGREDIENTS);
-        parseAndSetIngredients(ingredientsJson);
+        // Obtener ingredientes (vienen en el formato binario de IngredientListConverter)
+        decodeAndSetIngredients(intent.getByteArrayExtra(EXTRA_MEAL_INGREDIENTS));
         
         // Mostrar datos en la UI
         displayRecipeData();
+        
+        // Completar con el detalle precargado (o descargarlo) si faltan datos
+        loadCompleteDetails();
     }
     
     /**
-     * Parsea los ingredientes desde JSON y los asigna al MealDto
+     * Completa la receta cuando el Intent trae solo una parte:
+     * - detalle de lookup.php ya precargado en la caché compartida (resultados de la búsqueda)
+     * - recetas de la colección: las listas no leen las instrucciones, se leen de Room
+     * - resultados de categoría/área que no están en la caché: se descarga el detalle
      */
-    private void parseAndSetIngredients(String ingredientsJson) {
-        if (ingredientsJson == null || ingredientsJson.isEmpty()) {
+    private void loadCompleteDetails() {
+        if (currentMeal.idMeal == null || searchViewModel.getRepository().hasCompleteInfo(currentMeal)) {
             return;
         }
         
-        try {
-            JSONArray ingredientsArray = new JSONArray(ingredientsJson);
-            
-            // Asignar ingredientes a los campos del MealDto
-            for (int i = 0; i < ingredientsArray.length() && i < 20; i++) {
-                JSONObject ingredientObj = ingredientsArray.getJSONObject(i);
-                String ingredient = ingredientObj.optString("ingredient", "");
-                String measure = ingredientObj.optString("measure", "");
-                
-                // Asignar a los campos correspondientes del MealDto
-                switch (i) {
-                    case 0: currentMeal.strIngredient1 = ingredient; currentMeal.strMeasure1 = measure; break;
-                    case 1: currentMeal.strIngredient2 = ingredient; currentMeal.strMeasure2 = measure; break;
-                    case 2: currentMeal.strIngredient3 = ingredient; currentMeal.strMeasure3 = measure; break;
-                    case 3: currentMeal.strIngredient4 = ingredient; currentMeal.strMeasure4 = measure; break;
-                    case 4: currentMeal.strIngredient5 = ingredient; currentMeal.strMeasure5 = measure; break;
-                    // Agregar más casos según sea necesario
+        MealDto cached = searchViewModel.getRepository().getCachedRecipeDetails(currentMeal.idMeal);
+        if (cached != null) {
+            currentMeal = cached;
+            displayRecipeData();
+            return;
+        }
+        
+        searchViewModel.getRepository().getSavedRecipe(currentMeal.idMeal).observe(this, recipe -> {
+            if (recipe != null) {
+                currentMeal = MealDto.fromRecipe(recipe);
+                displayRecipeData();
+                // Las recetas personales no existen en TheMealDB
+                if (recipe.isPersonal() || searchViewModel.getRepository().hasCompleteInfo(currentMeal)) {
+                    return;
                 }
             }
-        } catch (JSONException e) {
+            loadRemoteDetails();
+        });
+    }
+    
+    /**
+     * Descarga el detalle de lookup.php (o lo toma de la caché si otra pantalla ya lo pidió)
+     */
+    private void loadRemoteDetails() {
+        searchViewModel.getRepository().getRecipeDetails(currentMeal.idMeal, new MealDetailCache.DetailCallback() {
+            @Override
+            public void onDetailLoaded(MealDto meal) {
+                if (isFinishing() || isDestroyed()) return;
+                currentMeal = meal;
+                displayRecipeData();
+            }
+            
+            @Override
+            public void onDetailError(String message) {
+                // Se mantiene la información que ya se muestra
+            }
+        });
+    }
+    
+    /**
+     * Decodifica los ingredientes y los asigna al MealDto (hasta 20)
+     */
+    private void decodeAndSetIngredients(byte[] ingredientsBlob) {
+        if (ingredientsBlob == null) {
+            return;
+        }
+        
+        try {
+            IngredientList ingredients = new IngredientList(20);
+            IngredientListConverter.decode(ingredientsBlob, ingredients);
+            currentMeal.setIngredients(ingredients);
+        } catch (IllegalArgumentException e) {
             e.printStackTrace();
         }
     }
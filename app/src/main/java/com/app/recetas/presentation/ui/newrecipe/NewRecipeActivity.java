@@ -15,6 +15,7 @@ import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
+import com.app.recetas.data.local.entities.IngredientList;
 import com.app.recetas.data.local.entities.Recipe;
 import com.app.recetas.presentation.viewmodel.NewRecipeViewModel;
 import com.app.recetas.utils.InputValidator;
@@ -233,7 +234,7 @@ public class NewRecipeActivity extends AppCompatActivity {
         recipe.setName(name);
         recipe.setCategory(category);
         recipe.setArea(area);
-        recipe.setIngredients(ingredients);
+        recipe.setIngredients(IngredientList.fromText(ingredients)); // Un ingrediente por línea
         recipe.setInstructions(instructions);
         recipe.setPersonalNotes(notes);
         recipe.setPersonal(true);
@@ -2,12 +2,14 @@ package com.app.recetas.presentation.ui.search;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.ArrayAdapter;
+import android.widget.AutoCompleteTextView;
 import android.widget.Button;
-import android.widget.EditText;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 import android.widget.Spinner;
@@ -22,9 +24,14 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 
+import com.app.recetas.data.local.database.IngredientListConverter;
 import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.search.Suggestion;
+import com.app.recetas.metrics.JankMonitor;
+import com.app.recetas.presentation.ui.common.RecipeRowPool;
 import com.app.recetas.presentation.ui.detail.RecipeDetailActivity;
 import com.app.recetas.presentation.ui.search.adapter.SearchResultAdapter;
+import com.app.recetas.presentation.ui.search.adapter.SuggestionAdapter;
 import com.app.recetas.presentation.viewmodel.SearchViewModel;
 import com.app.recetas.utils.SearchType;
 import com.app.recetas.utils.PreferencesManager;
@@ -41,7 +48,7 @@ public class SearchFragment extends Fragment {
     private SearchViewModel searchViewModel;
     
     // UI Components
-    private EditText editSearchTerm;
+    private AutoCompleteTextView editSearchTerm;
     private Spinner spinnerSearchType, spinnerCategory, spinnerArea;
     private Button btnSearch, btnRandomRecipe;
     private TextView textStatus;
@@ -51,6 +58,9 @@ public class SearchFragment extends Fragment {
     // Adapter
     private SearchResultAdapter adapter;
     
+    // Sugerencias de autocompletado del campo de búsqueda
+    private SuggestionAdapter suggestionAdapter;
+    
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
@@ -72,6 +82,13 @@ public class SearchFragment extends Fragment {
         return rootView;
     }
     
+    @Override
+    public void onResume() {
+        super.onResume();
+        // Los frames siguientes cuentan para la pantalla de búsqueda
+        JankMonitor.setScreen(getView(), "search");
+    }
+    
     /**
      * Crea la interfaz de usuario programáticamente
      */
@@ -94,7 +111,7 @@ public class SearchFragment extends Fragment {
         mainLayout.addView(labelSearchType);
         
         spinnerSearchType = new Spinner(getContext());
-        String[] searchTypes = {"Por nombre", "Por categoría", "Por área"};
+        String[] searchTypes = {"Por nombre", "Por categoría", "Por área", "Combinado"};
         ArrayAdapter<String> searchTypeAdapter = new ArrayAdapter<>(getContext(), 
             android.R.layout.simple_spinner_item, searchTypes);
         searchTypeAdapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
@@ -107,9 +124,13 @@ public class SearchFragment extends Fragment {
         labelSearch.setPadding(0, 20, 0, 5);
         mainLayout.addView(labelSearch);
         
-        editSearchTerm = new EditText(getContext());
+        editSearchTerm = new AutoCompleteTextView(getContext());
         editSearchTerm.setHint("Ej: pasta, chicken, pizza...");
         editSearchTerm.setPadding(20, 20, 20, 20);
+        editSearchTerm.setSingleLine(true);
+        editSearchTerm.setThreshold(1); // Sugerir desde la primera letra
+        suggestionAdapter = new SuggestionAdapter(getContext());
+        editSearchTerm.setAdapter(suggestionAdapter);
         mainLayout.addView(editSearchTerm);
         
         // Spinner de categorías
@@ -214,16 +235,45 @@ public class SearchFragment extends Fragment {
         );
 
         recyclerViewResults.setLayoutManager(new LinearLayoutManager(getContext()));
+        // Filas compartidas con la colección: al volver a esta pestaña se reutilizan
+        RecipeRowPool.attach(recyclerViewResults, requireActivity());
         recyclerViewResults.setAdapter(adapter);
-    }
-
+        JankMonitor.trackList(recyclerViewResults);
 
+        // Completar el detalle de las filas a medida que entran en pantalla
+        recyclerViewResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                reportVisibleRows();
+            }
+        });
+    }
 
+    /**
+     * Informa al ViewModel qué filas están visibles para cargar su detalle
+     */
+    private void reportVisibleRows() {
+        if (recyclerViewResults == null) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerViewResults.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first != RecyclerView.NO_POSITION && last != RecyclerView.NO_POSITION) {
+            searchViewModel.onResultsVisible(first, last);
+        }
+    }
 
     /**
      * Abre la pantalla de detalle de receta
      */
     private void openRecipeDetail(MealDto meal) {
+        // Si el detalle ya fue precargado, abrir con la receta completa
+        MealDto cached = searchViewModel.getRepository().getCachedRecipeDetails(meal.idMeal);
+        if (cached != null) {
+            meal = cached;
+        }
+        
         Intent intent = new Intent(getContext(), RecipeDetailActivity.class);
         
         // Pasar datos de la receta
@@ -234,9 +284,9 @@ public class SearchFragment extends Fragment {
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INSTRUCTIONS, meal.strInstructions);
         intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_IMAGE, meal.strMealThumb);
         
-        // Convertir ingredientes a JSON para pasar
-        String ingredientsJson = meal.buildIngredientsJson();
-        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS, ingredientsJson);
+        // Ingredientes en el mismo formato binario que la base de datos
+        intent.putExtra(RecipeDetailActivity.EXTRA_MEAL_INGREDIENTS,
+                IngredientListConverter.encode(meal.buildIngredientList()));
         
         startActivity(intent);
     }
@@ -248,6 +298,31 @@ public class SearchFragment extends Fragment {
         btnSearch.setOnClickListener(v -> performSearch());
         btnRandomRecipe.setOnClickListener(v -> searchViewModel.getRandomRecipe());
         
+        // Autocompletado: cada tecla pide sugerencias (se calculan en background)
+        editSearchTerm.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
+            
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {}
+            
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Ignorar el texto que pone el propio desplegable al elegir una sugerencia
+                // (y la búsqueda combinada, donde el campo recibe ingredientes)
+                if (!editSearchTerm.isPerformingCompletion() && spinnerSearchType.getSelectedItemPosition() != 3) {
+                    searchViewModel.requestSuggestions(s.toString());
+                }
+            }
+        });
+        
+        // Elegir una sugerencia busca con el tipo que le corresponde (nombre, categoría o área)
+        editSearchTerm.setOnItemClickListener((parent, view, position, id) -> {
+            Suggestion suggestion = suggestionAdapter.getItem(position);
+            editSearchTerm.dismissDropDown();
+            searchViewModel.searchRecipes(suggestion.getText(), suggestion.getType());
+        });
+        
         // Listener para cambio de tipo de búsqueda
         spinnerSearchType.setOnItemSelectedListener(new android.widget.AdapterView.OnItemSelectedListener() {
             @Override
@@ -280,7 +355,16 @@ public class SearchFragment extends Fragment {
                 spinnerCategory.setVisibility(View.GONE);
                 spinnerArea.setVisibility(View.VISIBLE);
                 break;
+            case 3: // Combinado: categoría + área + ingredientes
+                editSearchTerm.setVisibility(View.VISIBLE);
+                spinnerCategory.setVisibility(View.VISIBLE);
+                spinnerArea.setVisibility(View.VISIBLE);
+                break;
         }
+        // En la búsqueda combinada el campo de texto recibe ingredientes
+        editSearchTerm.setHint(position == 3
+                ? "Ingredientes en inglés, separados por coma (ej: garlic, tomato)"
+                : "Ej: pasta, chicken, pizza...");
     }
     
     /**
@@ -292,6 +376,9 @@ public class SearchFragment extends Fragment {
         SearchType searchType = SearchType.NAME;
         
         switch (searchTypePosition) {
+            case 3: // Combinado
+                performCombinedSearch();
+                return;
             case 0: // Por nombre
                 query = editSearchTerm.getText().toString().trim();
                 searchType = SearchType.NAME;
@@ -327,6 +414,17 @@ public class SearchFragment extends Fragment {
         searchViewModel.searchRecipes(query, searchType);
     }
     
+    /**
+     * Búsqueda combinada: las opciones "Seleccionar ..." de los spinners no filtran
+     */
+    private void performCombinedSearch() {
+        String category = spinnerCategory.getSelectedItemPosition() > 0 && spinnerCategory.getSelectedItem() != null
+                ? spinnerCategory.getSelectedItem().toString() : null;
+        String area = spinnerArea.getSelectedItemPosition() > 0 && spinnerArea.getSelectedItem() != null
+                ? spinnerArea.getSelectedItem().toString() : null;
+        searchViewModel.searchCombined(category, area, editSearchTerm.getText().toString());
+    }
+    
     /**
      * Observa los datos del ViewModel
      */
@@ -334,15 +432,34 @@ public class SearchFragment extends Fragment {
         // Observar resultados de búsqueda
         searchViewModel.getSearchResults().observe(getViewLifecycleOwner(), results -> {
             if (results != null) {
-                adapter.setMeals(results);
+                // Las filas se arman en background; al aplicarlas se marca el frame y,
+                // cuando termina el layout, se piden detalles de lo visible
+                adapter.setMeals(results, () -> {
+                    JankMonitor.markListUpdate(recyclerViewResults);
+                    recyclerViewResults.post(this::reportVisibleRows);
+                });
                 if (results.isEmpty()) {
                     textStatus.setText("No se encontraron recetas. Prueba con otro término.");
                 } else {
-                    textStatus.setText("✅ " + results.size() + " recetas encontradas con detalles completos.");
+                    textStatus.setText("✅ " + results.size() + " recetas encontradas.");
                 }
             }
         });
         
+        // Observar qué resultados ya están en la colección
+        searchViewModel.getSavedResultIds().observe(getViewLifecycleOwner(), savedIds -> adapter.setSavedIds(savedIds));
+        
+        // Observar sugerencias de autocompletado
+        searchViewModel.getSuggestions().observe(getViewLifecycleOwner(), suggestions -> {
+            suggestionAdapter.setSuggestions(suggestions);
+            if (suggestions != null && !suggestions.isEmpty() && editSearchTerm.hasFocus()
+                    && editSearchTerm.getVisibility() == View.VISIBLE) {
+                editSearchTerm.showDropDown();
+            } else {
+                editSearchTerm.dismissDropDown();
+            }
+        });
+        
         // Observar categorías para spinner
         searchViewModel.getCategories().observe(getViewLifecycleOwner(), categories -> {
             if (categories != null && !categories.isEmpty()) {
@@ -1,28 +1,51 @@
 package com.app.recetas.presentation.ui.search.adapter;
 
-import android.view.LayoutInflater;
-import android.view.View;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.ViewGroup;
 import android.widget.Button;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.metrics.Metrics;
+import com.app.recetas.presentation.ui.common.RecipeRowHolder;
 
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Adapter para mostrar resultados de búsqueda de recetas
  * Permite ver detalle y agregar a colección
+ *
+ * Las filas se arman en background cuando llegan los resultados (SearchResultRow, con el
+ * texto ya medido): onBindViewHolder solo asigna textos y listeners
  */
-public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapter.SearchResultViewHolder> {
+public class SearchResultAdapter extends RecyclerView.Adapter<RecipeRowHolder> {
     
-    private List<MealDto> meals = new ArrayList<>();
+    // Armado de filas fuera del main thread (compartido por todas las instancias)
+    private static final ExecutorService ROW_EXECUTOR = Executors.newSingleThreadExecutor();
+    
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private List<SearchResultRow> rows = new ArrayList<>();
+    
+    // Parámetros de texto de las filas (de una fila modelo, al conectarse al RecyclerView)
+    private SearchResultRow.TextParams textParams;
+    
+    // Cada setMeals descarta el armado anterior que todavía no se aplicó
+    private int generation = 0;
+    
+    private Set<String> savedIds = new HashSet<>();
     private OnAddToCollectionListener addListener;
     private OnRecipeClickListener clickListener;
     
@@ -60,178 +83,215 @@ public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapte
     
     @NonNull
     @Override
-    public SearchResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        View itemView = createItemView(parent);
-        return new SearchResultViewHolder(itemView);
+    public RecipeRowHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return RecipeRowHolder.create(parent, viewType);
     }
     
     @Override
-    public void onBindViewHolder(@NonNull SearchResultViewHolder holder, int position) {
-        MealDto meal = meals.get(position);
-        holder.bind(meal);
-
+    public int getItemViewType(int position) {
+        return RecipeRowHolder.TYPE_SEARCH_RESULT;
+    }
+    
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        if (textParams == null) {
+            // Fila modelo: las filas reales se crean con la misma configuración de texto
+            RecipeRowHolder prototype = RecipeRowHolder.create(recyclerView, RecipeRowHolder.TYPE_SEARCH_RESULT);
+            textParams = SearchResultRow.TextParams.from(prototype.title, prototype.subtitle, prototype.body);
+        }
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull RecipeRowHolder holder, int position) {
+        try (Metrics.Span span = Metrics.trace("bind.search_result")) {
+            bind(holder, rows.get(position));
+        }
     }
     
     @Override
     public int getItemCount() {
-        return meals.size();
+        return rows.size();
     }
     
+    /**
+     * Reemplaza los resultados mostrados
+     * @param newMeals Resultados en orden
+     */
     public void setMeals(List<MealDto> newMeals) {
-        this.meals = newMeals != null ? newMeals : new ArrayList<>();
+        setMeals(newMeals, null);
+    }
+    
+    /**
+     * Reemplaza los resultados mostrados
+     * Las filas se arman en background y se aplican en el main thread; si mientras tanto
+     * llega otro listado, este se descarta. Si es el mismo listado con filas recién
+     * completadas, solo se rearman y redibujan esas filas
+     * @param newMeals Resultados en orden
+     * @param onApplied Se ejecuta en el main thread al aplicar las filas (puede ser null)
+     */
+    public void setMeals(List<MealDto> newMeals, Runnable onApplied) {
+        List<MealDto> meals = newMeals != null ? new ArrayList<>(newMeals) : new ArrayList<>();
+        List<SearchResultRow> previous = rows;
+        SearchResultRow.TextParams params = textParams;
+        int requested = ++generation;
+        ROW_EXECUTOR.execute(() -> {
+            List<SearchResultRow> built;
+            try (Metrics.Span span = Metrics.trace("search.build_rows")) {
+                built = buildRows(meals, previous, params);
+            }
+            mainHandler.post(() -> {
+                if (requested != generation) {
+                    return;
+                }
+                applyRows(built);
+                if (onApplied != null) {
+                    onApplied.run();
+                }
+            });
+        });
+    }
+    
+    /**
+     * Arma las filas reutilizando las de las recetas que no cambiaron (misma instancia)
+     */
+    private static List<SearchResultRow> buildRows(List<MealDto> meals, List<SearchResultRow> previous,
+                                                   SearchResultRow.TextParams params) {
+        Map<MealDto, SearchResultRow> reusable = new IdentityHashMap<>();
+        for (SearchResultRow row : previous) {
+            if (row.params == params) {
+                reusable.put(row.meal, row);
+            }
+        }
+        List<SearchResultRow> built = new ArrayList<>(meals.size());
+        for (MealDto meal : meals) {
+            SearchResultRow row = reusable.get(meal);
+            built.add(row != null ? row : SearchResultRow.build(meal, params));
+        }
+        return built;
+    }
+    
+    /**
+     * Aplica filas ya armadas (main thread)
+     */
+    private void applyRows(List<SearchResultRow> built) {
+        List<SearchResultRow> previous = rows;
+        this.rows = built;
+        if (!sameRows(previous, built)) {
+            notifyDataSetChanged();
+            return;
+        }
+        for (int i = 0; i < built.size(); i++) {
+            if (previous.get(i) != built.get(i)) {
+                notifyItemChanged(i);
+            }
+        }
+    }
+    
+    /**
+     * @return true si ambos listados tienen las mismas recetas en el mismo orden
+     */
+    private static boolean sameRows(List<SearchResultRow> a, List<SearchResultRow> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            String idA = a.get(i).meal != null ? a.get(i).meal.idMeal : null;
+            String idB = b.get(i).meal != null ? b.get(i).meal.idMeal : null;
+            if (idA == null || !idA.equals(idB)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Indica qué resultados ya están en la colección del usuario
+     * @param ids IDs de recetas guardadas
+     */
+    public void setSavedIds(Set<String> ids) {
+        this.savedIds = ids != null ? ids : new HashSet<>();
         notifyDataSetChanged();
     }
     
     /**
-     * Crea la vista de cada item programáticamente
+     * Obtiene la receta en una posición del listado
+     * @param position Posición en el adapter
+     * @return MealDto o null si la posición no es válida
      */
-    private View createItemView(ViewGroup parent) {
-        LinearLayout itemLayout = new LinearLayout(parent.getContext());
-        itemLayout.setOrientation(LinearLayout.VERTICAL);
-        itemLayout.setPadding(20, 15, 20, 15);
-        itemLayout.setClickable(true);
-        itemLayout.setFocusable(true);
-        
-        // Agregar borde visual y efecto de clic
-        itemLayout.setBackgroundColor(0xFFF5F5F5);
-        LinearLayout.LayoutParams layoutParams = new LinearLayout.LayoutParams(
-            LinearLayout.LayoutParams.MATCH_PARENT, 
-            LinearLayout.LayoutParams.WRAP_CONTENT);
-        layoutParams.setMargins(10, 5, 10, 5);
-        itemLayout.setLayoutParams(layoutParams);
-        
-        // Nombre de la receta
-        TextView textName = new TextView(parent.getContext());
-        textName.setId(View.generateViewId());
-        textName.setTextSize(18);
-        textName.setTextColor(0xFF000000);
-        itemLayout.addView(textName);
-        
-        // Categoría y área
-        TextView textDetails = new TextView(parent.getContext());
-        textDetails.setId(View.generateViewId());
-        textDetails.setTextSize(14);
-        textDetails.setTextColor(0xFF666666);
-        textDetails.setPadding(0, 5, 0, 10);
-        itemLayout.addView(textDetails);
+    public MealDto getMealAt(int position) {
+        return position >= 0 && position < rows.size() ? rows.get(position).meal : null;
+    }
+    
+    /**
+     * Vincula la fila ya armada con las vistas
+     */
+    private void bind(RecipeRowHolder holder, SearchResultRow row) {
+        MealDto meal = row.meal;
+        Button btnAdd = holder.secondaryButton;
         
-        // Instrucciones (preview)
-        TextView textInstructions = new TextView(parent.getContext());
-        textInstructions.setId(View.generateViewId());
-        textInstructions.setTextSize(12);
-        textInstructions.setTextColor(0xFF888888);
-        textInstructions.setMaxLines(2);
-        textInstructions.setPadding(0, 0, 0, 10);
-        itemLayout.addView(textInstructions);
+        // Nombre, categoría/área y preview de instrucciones (ya medidos)
+        setRowText(holder, holder.title, row.name);
+        setRowText(holder, holder.subtitle, row.details);
+        setRowText(holder, holder.body, row.preview);
         
-        // Layout para botones
-        LinearLayout buttonLayout = new LinearLayout(parent.getContext());
-        buttonLayout.setOrientation(LinearLayout.HORIZONTAL);
+        // Configurar botón ver detalle
+        holder.primaryButton.setOnClickListener(v -> {
+            if (clickListener != null) {
+                clickListener.onRecipeClick(meal);
+            }
+        });
         
-        // Botón ver detalle
-        Button btnDetail = new Button(parent.getContext());
-        btnDetail.setId(View.generateViewId());
-        btnDetail.setText("👁️ Ver Receta");
-        btnDetail.setTextSize(12);
-        btnDetail.setLayoutParams(new LinearLayout.LayoutParams(0, 
-            LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-        buttonLayout.addView(btnDetail);
+        // Configurar clic en todo el item para ver detalle
+        holder.itemView.setOnClickListener(v -> {
+            if (clickListener != null) {
+                clickListener.onRecipeClick(meal);
+            }
+        });
         
-        // Botón agregar
-        Button btnAdd = new Button(parent.getContext());
-        btnAdd.setId(View.generateViewId());
+        // Recetas que ya están en la colección: no se ofrece agregarlas
+        if (savedIds.contains(meal.idMeal)) {
+            btnAdd.setText("⭐ En tu colección");
+            btnAdd.setEnabled(false);
+            btnAdd.setOnClickListener(null);
+            return;
+        }
         btnAdd.setText("➕ Agregar");
-        btnAdd.setTextSize(12);
-        btnAdd.setLayoutParams(new LinearLayout.LayoutParams(0, 
-            LinearLayout.LayoutParams.WRAP_CONTENT, 1));
-        buttonLayout.addView(btnAdd);
-        
-        itemLayout.addView(buttonLayout);
+        btnAdd.setEnabled(true);
         
-        return itemLayout;
+        // Configurar botón agregar
+        btnAdd.setOnClickListener(v -> {
+            if (addListener != null) {
+                addListener.onAddToCollection(meal);
+                
+                // Cambiar texto del botón temporalmente
+                btnAdd.setText("✅ Agregado");
+                btnAdd.setEnabled(false);
+                
+                // Restaurar botón después de 2 segundos
+                btnAdd.postDelayed(() -> {
+                    btnAdd.setText("➕ Agregar");
+                    btnAdd.setEnabled(true);
+                }, 2000);
+            }
+        });
     }
     
     /**
-     * ViewHolder para cada item de receta
+     * Asigna un texto medido; si no coincide con la configuración de la vista (p. ej.
+     * cambió la dirección del texto) se usa como texto plano y las próximas filas se
+     * miden con los parámetros de esta vista
      */
-    class SearchResultViewHolder extends RecyclerView.ViewHolder {
-        
-        private TextView textName, textDetails, textInstructions;
-        private Button btnDetail, btnAdd;
-        private LinearLayout itemLayout;
-        
-        public SearchResultViewHolder(@NonNull View itemView) {
-            super(itemView);
-            
-            // Encontrar vistas por ID
-            itemLayout = (LinearLayout) itemView;
-            textName = (TextView) itemLayout.getChildAt(0);
-            textDetails = (TextView) itemLayout.getChildAt(1);
-            textInstructions = (TextView) itemLayout.getChildAt(2);
-            
-            LinearLayout buttonLayout = (LinearLayout) itemLayout.getChildAt(3);
-            btnDetail = (Button) buttonLayout.getChildAt(0);
-            btnAdd = (Button) buttonLayout.getChildAt(1);
-        }
-        
-        /**
-         * Vincula los datos de la receta con las vistas
-         */
-        public void bind(MealDto meal) {
-            // Nombre de la receta
-            textName.setText(meal.strMeal != null ? meal.strMeal : "Sin nombre");
-            
-            // Categoría y área
-            String details = "";
-            if (meal.strCategory != null && !meal.strCategory.isEmpty()) {
-                details += "📂 " + meal.strCategory;
-            }
-            if (meal.strArea != null && !meal.strArea.isEmpty()) {
-                if (!details.isEmpty()) details += " • ";
-                details += "🌍 " + meal.strArea;
-            }
-            textDetails.setText(details.isEmpty() ? "Sin categoría" : details);
-            
-            // Preview de instrucciones
-            if (meal.strInstructions != null && !meal.strInstructions.isEmpty()) {
-                String preview = meal.strInstructions.length() > 80 ? 
-                    meal.strInstructions.substring(0, 80) + "..." : 
-                    meal.strInstructions;
-                textInstructions.setText("📝 " + preview);
-            } else {
-                textInstructions.setText("📝 Sin instrucciones disponibles");
+    private void setRowText(RecipeRowHolder holder, TextView view, CharSequence text) {
+        if (text instanceof PrecomputedTextCompat) {
+            try {
+                TextViewCompat.setPrecomputedText(view, (PrecomputedTextCompat) text);
+                return;
+            } catch (IllegalArgumentException e) {
+                Metrics.count("bind.precomputed_mismatch");
+                textParams = SearchResultRow.TextParams.from(holder.title, holder.subtitle, holder.body);
             }
-            
-            // Configurar botón ver detalle
-            btnDetail.setOnClickListener(v -> {
-                if (clickListener != null) {
-                    clickListener.onRecipeClick(meal);
-                }
-            });
-            
-            // Configurar clic en todo el item para ver detalle
-            itemLayout.setOnClickListener(v -> {
-                if (clickListener != null) {
-                    clickListener.onRecipeClick(meal);
-                }
-            });
-            
-            // Configurar botón agregar
-            btnAdd.setOnClickListener(v -> {
-                if (addListener != null) {
-                    addListener.onAddToCollection(meal);
-                    
-                    // Cambiar texto del botón temporalmente
-                    btnAdd.setText("✅ Agregado");
-                    btnAdd.setEnabled(false);
-                    
-                    // Restaurar botón después de 2 segundos
-                    btnAdd.postDelayed(() -> {
-                        btnAdd.setText("➕ Agregar");
-                        btnAdd.setEnabled(true);
-                    }, 2000);
-                }
-            });
         }
+        view.setText(text.toString());
     }
 }
@@ -0,0 +1,112 @@
+package com.app.recetas.presentation.ui.search.adapter;
+
+import android.widget.TextView;
+
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import com.app.recetas.data.remote.dto.MealDto;
+
+/**
+ * Fila de resultados lista para mostrar
+ * Se arma fuera del main thread cuando llegan los resultados: los textos ya vienen
+ * concatenados y, si se conocen los parámetros de las vistas, medidos con
+ * PrecomputedTextCompat; bind() solo los asigna
+ */
+final class SearchResultRow {
+    
+    // Largo máximo del preview de instrucciones
+    static final int PREVIEW_LENGTH = 80;
+    
+    final MealDto meal;
+    final CharSequence name;
+    final CharSequence details;
+    final CharSequence preview;
+    
+    // Parámetros con los que se midieron los textos (null si son texto plano)
+    final TextParams params;
+    
+    private SearchResultRow(MealDto meal, CharSequence name, CharSequence details,
+                            CharSequence preview, TextParams params) {
+        this.meal = meal;
+        this.name = name;
+        this.details = details;
+        this.preview = preview;
+        this.params = params;
+    }
+    
+    /**
+     * Arma la fila (llamar fuera del main thread)
+     * @param meal Receta
+     * @param params Parámetros de las vistas de la fila o null para texto plano
+     * @return Fila lista para bind()
+     */
+    static SearchResultRow build(MealDto meal, TextParams params) {
+        String name = formatName(meal);
+        String details = formatDetails(meal);
+        String preview = formatPreview(meal);
+        if (params == null) {
+            return new SearchResultRow(meal, name, details, preview, null);
+        }
+        return new SearchResultRow(meal,
+                PrecomputedTextCompat.create(name, params.name),
+                PrecomputedTextCompat.create(details, params.details),
+                PrecomputedTextCompat.create(preview, params.preview),
+                params);
+    }
+    
+    static String formatName(MealDto meal) {
+        return meal.strMeal != null ? meal.strMeal : "Sin nombre";
+    }
+    
+    /**
+     * Categoría y área (ej: "📂 Seafood • 🌍 Japanese")
+     */
+    static String formatDetails(MealDto meal) {
+        StringBuilder details = new StringBuilder();
+        if (meal.strCategory != null && !meal.strCategory.isEmpty()) {
+            details.append("📂 ").append(meal.strCategory);
+        }
+        if (meal.strArea != null && !meal.strArea.isEmpty()) {
+            if (details.length() > 0) details.append(" • ");
+            details.append("🌍 ").append(meal.strArea);
+        }
+        return details.length() == 0 ? "Sin categoría" : details.toString();
+    }
+    
+    /**
+     * Primeros caracteres de las instrucciones
+     */
+    static String formatPreview(MealDto meal) {
+        if (meal.strInstructions == null || meal.strInstructions.isEmpty()) {
+            return "📝 Sin instrucciones disponibles";
+        }
+        return meal.strInstructions.length() > PREVIEW_LENGTH
+                ? "📝 " + meal.strInstructions.substring(0, PREVIEW_LENGTH) + "..."
+                : "📝 " + meal.strInstructions;
+    }
+    
+    /**
+     * Parámetros de medición de las tres vistas de texto de una fila
+     * Se toman de una fila creada en el main thread; los textos medidos con ellos
+     * solo se pueden asignar a vistas configuradas igual
+     */
+    static final class TextParams {
+        final PrecomputedTextCompat.Params name;
+        final PrecomputedTextCompat.Params details;
+        final PrecomputedTextCompat.Params preview;
+        
+        private TextParams(PrecomputedTextCompat.Params name, PrecomputedTextCompat.Params details,
+                           PrecomputedTextCompat.Params preview) {
+            this.name = name;
+            this.details = details;
+            this.preview = preview;
+        }
+        
+        static TextParams from(TextView name, TextView details, TextView preview) {
+            return new TextParams(TextViewCompat.getTextMetricsParams(name),
+                    TextViewCompat.getTextMetricsParams(details),
+                    TextViewCompat.getTextMetricsParams(preview));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.app.recetas.presentation.ui.search.adapter;
+
+import android.content.Context;
+import android.widget.ArrayAdapter;
+import android.widget.Filter;
+
+import androidx.annotation.NonNull;
+
+import com.app.recetas.data.search.Suggestion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Adapter del desplegable de autocompletado de SearchFragment
+ * Las sugerencias ya llegan filtradas y ordenadas por AutocompleteService,
+ * así que el filtro propio de ArrayAdapter se reemplaza por uno que no hace nada
+ */
+public class SuggestionAdapter extends ArrayAdapter<Suggestion> {
+    
+    // Sugerencias actuales (las entrega el ViewModel)
+    private final List<Suggestion> suggestions = new ArrayList<>();
+    
+    public SuggestionAdapter(@NonNull Context context) {
+        super(context, android.R.layout.simple_dropdown_item_1line);
+    }
+    
+    /**
+     * Reemplaza las sugerencias mostradas
+     * @param newSuggestions Sugerencias para el texto actual
+     */
+    public void setSuggestions(List<Suggestion> newSuggestions) {
+        suggestions.clear();
+        if (newSuggestions != null) {
+            suggestions.addAll(newSuggestions);
+        }
+        notifyDataSetChanged();
+    }
+    
+    @Override
+    public int getCount() {
+        return suggestions.size();
+    }
+    
+    @Override
+    public Suggestion getItem(int position) {
+        return suggestions.get(position);
+    }
+    
+    @NonNull
+    @Override
+    public Filter getFilter() {
+        return passThroughFilter;
+    }
+    
+    // Filtro que deja la lista tal cual (el filtrado real ocurre fuera del main thread)
+    private final Filter passThroughFilter = new Filter() {
+        @Override
+        protected FilterResults performFiltering(CharSequence constraint) {
+            FilterResults results = new FilterResults();
+            results.count = suggestions.size();
+            return results;
+        }
+        
+        @Override
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            notifyDataSetChanged();
+        }
+        
+        @Override
+        public CharSequence convertResultToString(Object resultValue) {
+            return resultValue instanceof Suggestion ? ((Suggestion) resultValue).getText() : "";
+        }
+    };
+}
@@ -1,16 +1,25 @@
 package com.app.recetas.presentation.viewmodel;
 
 import android.app.Application;
+import android.net.Uri;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
 
+import com.app.recetas.data.backup.RecipeBackup;
 import com.app.recetas.data.local.entities.Recipe;
 import com.app.recetas.data.repository.RecipeRepository;
 import com.app.recetas.utils.PreferencesManager;
+import com.app.recetas.utils.PreferencesStore;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * ViewModel para la pantalla principal (HomeFragment)
@@ -19,10 +28,16 @@ import java.util.List;
  */
 public class HomeViewModel extends AndroidViewModel {
     
+    // Largo mínimo del término para usar la búsqueda aproximada
+    private static final int MIN_FUZZY_LENGTH = 3;
+    
+    // Resultados máximos de la búsqueda local
+    private static final int MAX_SEARCH_RESULTS = 50;
+    
     // Repositorio para acceso a datos
     private RecipeRepository repository;
     
-    // Manager para SharedPreferences
+    // Manager de preferencias
     private PreferencesManager preferencesManager;
     
     // LiveData con todas las recetas del usuario
@@ -37,6 +52,15 @@ public class HomeViewModel extends AndroidViewModel {
     // LiveData para información de la última receta
     private MutableLiveData<String> lastRecipeInfo = new MutableLiveData<>();
     
+    // Observa la última receta en el almacén de preferencias
+    private PreferencesStore.Listener lastRecipeListener;
+    
+    // LiveData con el avance y el resultado de la exportación/importación
+    private MutableLiveData<String> backupStatus = new MutableLiveData<>();
+    
+    // Un solo respaldo a la vez (exportación o importación), fuera del main thread
+    private ExecutorService backupExecutor = Executors.newSingleThreadExecutor();
+    
     /**
      * Constructor del ViewModel
      * @param application Contexto de aplicación para inicializar dependencias
@@ -51,8 +75,9 @@ public class HomeViewModel extends AndroidViewModel {
         // Obtener LiveData de recetas del repositorio
         recipes = repository.getAllRecipes();
         
-        // Cargar información de la última receta
-        loadLastRecipeInfo();
+        // Información de la última receta: llega cuando termina de cargarse el almacén
+        // y se actualiza sola cada vez que se guarda o limpia
+        lastRecipeListener = preferencesManager.observeLastRecipe(this::loadLastRecipeInfo);
     }
     
     // ==================== GETTERS PARA LIVEDATA ====================
@@ -82,6 +107,14 @@ public class HomeViewModel extends AndroidViewModel {
         return isLoading;
     }
     
+    /**
+     * Obtiene LiveData con el avance y el resultado de la exportación/importación
+     * @return LiveData con el texto a mostrar (null si no hay nada en curso)
+     */
+    public LiveData<String> getBackupStatus() {
+        return backupStatus;
+    }
+    
     /**
      * Obtiene LiveData con información de la última receta modificada
      * @return LiveData con texto informativo sobre última receta
@@ -112,12 +145,8 @@ public class HomeViewModel extends AndroidViewModel {
         // Mostrar mensaje de confirmación
         message.setValue("Receta '" + recipe.getName() + "' eliminada correctamente");
         
-        // Verificar si era la última receta modificada y limpiar si es necesario
-        String[] lastRecipe = preferencesManager.getLastRecipe();
-        if (lastRecipe != null && lastRecipe[0].equals(recipe.getId())) {
-            preferencesManager.clearLastRecipe();
-            lastRecipeInfo.setValue("");
-        }
+        // Si era la última receta modificada, limpiarla (se verifica fuera del main thread)
+        preferencesManager.clearLastRecipeIf(recipe.getId());
         
         // Ocultar loading
         isLoading.setValue(false);
@@ -137,21 +166,70 @@ public class HomeViewModel extends AndroidViewModel {
         // Actualizar notas y timestamp
         recipe.setPersonalNotes(newNotes);
         
-        // Guardar cambios en la base de datos
-        repository.updateRecipe(recipe);
+        // Guardar solo las notas: la receta viene de una lista y no trae las instrucciones
+        repository.updateRecipeNotes(recipe.getId(), newNotes);
         
         // Actualizar información de última receta modificada
         preferencesManager.saveLastRecipe(recipe.getId(), recipe.getName());
-        loadLastRecipeInfo();
         
         message.setValue("Notas actualizadas correctamente");
     }
     
+    // ==================== RESPALDO ====================
+    
+    /**
+     * Exporta la colección al archivo elegido por el usuario
+     * @param uri Documento creado con el selector de archivos (ACTION_CREATE_DOCUMENT)
+     */
+    public void exportCollection(Uri uri) {
+        backupStatus.setValue("Exportando…");
+        backupExecutor.execute(() -> {
+            try (OutputStream out = getApplication().getContentResolver().openOutputStream(uri, "wt")) {
+                if (out == null) {
+                    throw new IOException("No se pudo abrir el archivo");
+                }
+                int count = repository.exportCollection(out, (processed, total) ->
+                        backupStatus.postValue("Exportando " + processed + " de " + total + "…"));
+                backupStatus.postValue("✅ " + count + " recetas exportadas");
+            } catch (IOException | RuntimeException e) {
+                // RuntimeException cubre SecurityException y los errores de Room: si escapa
+                // del executor el proceso se cae en el medio del respaldo
+                backupStatus.postValue("❌ Error al exportar: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Importa un archivo exportado con exportCollection
+     * @param uri Documento elegido con el selector de archivos (ACTION_OPEN_DOCUMENT)
+     * @param policy Qué hacer con las recetas que ya están en la colección
+     */
+    public void importCollection(Uri uri, RecipeBackup.ConflictPolicy policy) {
+        backupStatus.setValue("Importando…");
+        backupExecutor.execute(() -> {
+            try (InputStream in = getApplication().getContentResolver().openInputStream(uri)) {
+                if (in == null) {
+                    throw new IOException("No se pudo abrir el archivo");
+                }
+                RecipeBackup.ImportResult result = repository.importCollection(in, policy, (processed, total) ->
+                        backupStatus.postValue(total > 0
+                                ? "Importando " + processed + " de " + total + "…"
+                                : "Importando " + processed + "…"));
+                backupStatus.postValue("✅ Importación: " + result.getAdded() + " nuevas, "
+                        + result.getReplaced() + " reemplazadas, " + result.getMerged() + " con notas combinadas, "
+                        + result.getSkipped() + " sin cambios, " + result.getInvalid() + " inválidas");
+            } catch (IOException | RuntimeException e) {
+                // RuntimeException cubre SecurityException, los errores de Room y los de JsonReader
+                backupStatus.postValue("❌ Error al importar: " + e.getMessage());
+            }
+        });
+    }
+    
     // ==================== MÉTODOS PRIVADOS ====================
     
     /**
-     * Carga información de la última receta modificada desde SharedPreferences
-     * Actualiza el LiveData correspondiente
+     * Carga información de la última receta modificada desde las preferencias
+     * Actualiza el LiveData correspondiente (se llama desde el thread del almacén)
      */
     private void loadLastRecipeInfo() {
         String[] lastRecipe = preferencesManager.getLastRecipe();
@@ -163,9 +241,9 @@ public class HomeViewModel extends AndroidViewModel {
             // Formatear mensaje con información de la última receta
             String timeAgo = getTimeAgoString(timestamp);
             String info = "Última receta modificada: " + recipeName + " (" + timeAgo + ")";
-            lastRecipeInfo.setValue(info);
+            lastRecipeInfo.postValue(info);
         } else {
-            lastRecipeInfo.setValue("");
+            lastRecipeInfo.postValue("");
         }
     }
     
@@ -198,7 +276,9 @@ public class HomeViewModel extends AndroidViewModel {
     // ==================== FILTROS Y BÚSQUEDAS ====================
     
     /**
-     * Busca recetas locales por nombre
+     * Busca recetas locales por nombre o ingredientes, tolerando errores de tipeo
+     * Con menos de 3 letras no hay trigramas útiles: se usa la búsqueda por substring
+     * La búsqueda aproximada se repite cada vez que cambia la colección
      * @param searchTerm Término de búsqueda
      * @return LiveData con recetas filtradas
      */
@@ -206,7 +286,11 @@ public class HomeViewModel extends AndroidViewModel {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return recipes; // Retornar todas las recetas si no hay término
         }
-        return repository.searchLocalRecipesByName(searchTerm);
+        if (searchTerm.trim().length() < MIN_FUZZY_LENGTH) {
+            return repository.searchLocalRecipesByName(searchTerm.trim());
+        }
+        return Transformations.switchMap(recipes,
+                all -> repository.fuzzySearchLocalRecipes(searchTerm, MAX_SEARCH_RESULTS));
     }
     
     /**
@@ -237,6 +321,9 @@ public class HomeViewModel extends AndroidViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
+        preferencesManager.stopObserving(lastRecipeListener);
+        // Un respaldo en curso termina; no se aceptan nuevos
+        backupExecutor.shutdown();
         // Limpiar recursos del repositorio
         repository.cleanup();
     }
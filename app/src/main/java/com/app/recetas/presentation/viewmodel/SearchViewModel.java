@@ -5,16 +5,32 @@ import androidx.annotation.NonNull;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.MutableLiveData;
 
+import com.app.recetas.data.remote.cache.CatalogCache;
 import com.app.recetas.data.remote.dto.AreaResponse;
 import com.app.recetas.data.remote.dto.CategoryResponse;
 import com.app.recetas.data.remote.dto.MealDto;
 import com.app.recetas.data.remote.dto.MealResponse;
 import com.app.recetas.data.repository.RecipeRepository;
+import com.app.recetas.data.search.AutocompleteService;
+import com.app.recetas.data.search.FacetFilter;
+import com.app.recetas.data.search.FederatedResult;
+import com.app.recetas.data.search.FederatedSearch;
+import com.app.recetas.data.search.LazyResultList;
+import com.app.recetas.data.search.MultiFacetSearch;
+import com.app.recetas.data.search.Suggestion;
+import com.app.recetas.metrics.Metrics;
 import com.app.recetas.utils.PreferencesManager;
 import com.app.recetas.utils.SearchType;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -33,6 +49,19 @@ public class SearchViewModel extends AndroidViewModel {
     // Manager para SharedPreferences
     private PreferencesManager preferencesManager;
     
+    // Autocompletado de nombres, categorías y áreas
+    private AutocompleteService autocompleteService;
+    
+    // Categorías y áreas guardadas (las actualiza CatalogRefreshWorker)
+    private CatalogCache catalogCache;
+    
+    // Lecturas y escrituras de la caché de catálogos, fuera del main thread
+    private ExecutorService catalogExecutor = Executors.newSingleThreadExecutor();
+    
+    // Pedidos de categorías y áreas en curso (se cancelan en onCleared)
+    private volatile Call<CategoryResponse> categoriesCall;
+    private volatile Call<AreaResponse> areasCall;
+    
     // LiveData para resultados de búsqueda
     private MutableLiveData<List<MealDto>> searchResults = new MutableLiveData<>();
     
@@ -51,6 +80,33 @@ public class SearchViewModel extends AndroidViewModel {
     // LiveData para controlar estado de error
     private MutableLiveData<String> error = new MutableLiveData<>();
     
+    // LiveData con sugerencias para el texto que se está escribiendo
+    private MutableLiveData<List<Suggestion>> suggestions = new MutableLiveData<>();
+    
+    // LiveData con los IDs de los resultados que ya están en la colección
+    private MutableLiveData<Set<String>> savedResultIds = new MutableLiveData<>();
+    
+    // Búsqueda unificada en curso (se cancela si el usuario busca otra cosa)
+    private FederatedSearch.Search currentSearch;
+    
+    // Búsqueda combinada en curso
+    private MultiFacetSearch.Search currentFacetSearch;
+    
+    // Medición de la búsqueda en curso (se cancela junto con la búsqueda)
+    private Metrics.Span currentSearchSpan;
+    
+    // Resultados mostrados: las filas básicas se completan al hacerse visibles
+    private LazyResultList resultList;
+    
+    // Publicaciones de resultados en orden: llegan desde el thread de FederatedSearch,
+    // los de red y el main thread. Bajo este lock se cambia el listado y se publica su
+    // estado actual, así una publicación nunca pisa a otra más nueva
+    private final Object resultsLock = new Object();
+    
+    // Búsqueda dueña del listado (protegido por resultsLock): se descartan las
+    // actualizaciones de búsquedas anteriores
+    private int resultsGeneration = 0;
+    
     /**
      * Constructor del ViewModel
      * @param application Contexto de aplicación
@@ -61,10 +117,15 @@ public class SearchViewModel extends AndroidViewModel {
         // Inicializar dependencias
         repository = new RecipeRepository(application);
         preferencesManager = new PreferencesManager(application);
+        autocompleteService = AutocompleteService.getInstance(application);
+        catalogCache = new CatalogCache(application);
+        resultList = repository.createLazyResultList(rows -> publishRows());
         
-        // Cargar datos iniciales
-        loadCategories();
-        loadAreas();
+        // Cargar datos iniciales: primero la caché (en background), después la API
+        catalogExecutor.execute(() -> {
+            loadCategories(catalogCache.getCategories());
+            loadAreas(catalogCache.getAreas());
+        });
         
         // Inicializar con lista vacía
         searchResults.setValue(new ArrayList<>());
@@ -120,6 +181,22 @@ public class SearchViewModel extends AndroidViewModel {
         return error;
     }
     
+    /**
+     * Obtiene LiveData con sugerencias de autocompletado
+     * @return LiveData con sugerencias para el último texto pedido
+     */
+    public MutableLiveData<List<Suggestion>> getSuggestions() {
+        return suggestions;
+    }
+    
+    /**
+     * Obtiene LiveData con los IDs de resultados que ya están en la colección
+     * @return LiveData con IDs de recetas guardadas
+     */
+    public MutableLiveData<Set<String>> getSavedResultIds() {
+        return savedResultIds;
+    }
+    
     /**
      * Obtiene el repositorio (para verificaciones internas)
      * @return RecipeRepository
@@ -128,10 +205,34 @@ public class SearchViewModel extends AndroidViewModel {
         return repository;
     }
     
+    // ==================== AUTOCOMPLETADO ====================
+    
+    /**
+     * Pide sugerencias para el texto escrito (se calculan fuera del main thread)
+     * @param prefix Texto actual del campo de búsqueda
+     */
+    public void requestSuggestions(String prefix) {
+        autocompleteService.suggest(prefix, (requested, result) -> suggestions.postValue(result));
+    }
+    
+    // ==================== CARGA PEREZOSA DE DETALLES ====================
+    
+    /**
+     * Informa qué filas del listado están en pantalla
+     * Pide el detalle de esas filas (por lotes) y cancela el de las que ya no se ven
+     * @param first Primera posición visible
+     * @param last Última posición visible
+     */
+    public void onResultsVisible(int first, int last) {
+        resultList.onVisibleRange(first, last);
+    }
+    
     // ==================== OPERACIONES DE BÚSQUEDA ====================
     
     /**
      * Realiza búsqueda de recetas según el tipo especificado
+     * Busca a la vez en la colección y en TheMealDB: lo guardado aparece enseguida
+     * y los resultados de la API se suman (sin repetidos) cuando llegan
      * @param query Término de búsqueda
      * @param searchType Tipo de búsqueda (NAME, CATEGORY, AREA)
      */
@@ -146,63 +247,200 @@ public class SearchViewModel extends AndroidViewModel {
         isLoading.setValue(true);
         error.setValue(""); // Limpiar errores previos
         
-        // Crear call según tipo de búsqueda
-        Call<MealResponse> call;
-        switch (searchType) {
-            case NAME:
-                call = repository.searchRecipesByName(query.trim());
-                break;
-            case CATEGORY:
-                call = repository.searchRecipesByCategory(query.trim());
-                break;
-            case AREA:
-                call = repository.searchRecipesByArea(query.trim());
-                break;
-            default:
-                call = repository.searchRecipesByName(query.trim());
-                break;
+        // Una búsqueda nueva descarta la anterior
+        int generation = cancelSearches();
+        String term = query.trim();
+        
+        // Métricas: tiempo hasta los primeros resultados y hasta que responden todas las fuentes
+        Metrics.Span span = Metrics.traceAsync("search.federated");
+        long start = System.nanoTime();
+        AtomicBoolean firstUpdate = new AtomicBoolean(true);
+        currentSearchSpan = span;
+        currentSearch = repository.searchEverywhere(term, searchType, snapshot -> {
+            if (firstUpdate.compareAndSet(true, false)) {
+                Metrics.getInstance().recordNanos("search.first_results", System.nanoTime() - start);
+            }
+            if (snapshot.isComplete()) {
+                if (snapshot.getRemoteError() != null) span.markFailed();
+                span.close();
+            }
+            onSearchUpdate(generation, term, searchType, snapshot);
+        });
+    }
+    
+    /**
+     * Busca recetas que cumplan a la vez categoría, área e ingredientes
+     * (ej: "Italian" + "Seafood" + "garlic")
+     * @param category Categoría o null para no filtrar
+     * @param area Área o null para no filtrar
+     * @param ingredientsText Ingredientes en inglés separados por coma (puede estar vacío)
+     */
+    public void searchCombined(String category, String area, String ingredientsText) {
+        List<String> ingredients = new ArrayList<>();
+        if (ingredientsText != null) {
+            for (String ingredient : ingredientsText.split(",")) {
+                ingredients.add(ingredient);
+            }
+        }
+        FacetFilter filter = new FacetFilter(category, area, ingredients);
+        if (filter.isEmpty()) {
+            error.setValue("Selecciona una categoría, un área o escribe ingredientes");
+            return;
         }
         
-        // Ejecutar búsqueda de forma asíncrona
-        call.enqueue(new Callback<MealResponse>() {
+        isLoading.setValue(true);
+        error.setValue("");
+        int generation = cancelSearches();
+        Metrics.Span span = Metrics.traceAsync("search.facets");
+        currentSearchSpan = span;
+        currentFacetSearch = repository.searchByFacets(filter, new MultiFacetSearch.Listener() {
             @Override
-            public void onResponse(@NonNull Call<MealResponse> call, @NonNull Response<MealResponse> response) {
-                // Ocultar loading
-                isLoading.setValue(false);
-                
-                if (response.isSuccessful() && response.body() != null) {
-                    MealResponse mealResponse = response.body();
-                    
-                    if (mealResponse.hasResults()) {
-                        // Verificar si necesitamos obtener detalles completos
-                        if (searchType == SearchType.CATEGORY || searchType == SearchType.AREA) {
-                            // Para búsquedas por categoría/área, obtener detalles completos
-                            fetchCompleteRecipeDetails(mealResponse.meals);
-                        } else {
-                            // Para búsqueda por nombre, usar directamente
-                            searchResults.setValue(mealResponse.meals);
-                            message.setValue("Se encontraron " + mealResponse.getResultCount() + " recetas");
-                        }
-                    } else {
-                        // Búsqueda exitosa pero sin resultados
-                        searchResults.setValue(new ArrayList<>());
-                        message.setValue("No se encontraron recetas para: " + query);
-                    }
+            public void onIntersection(List<MealDto> summaries) {
+                // Solo datos básicos: las filas visibles se completan con LazyResultList
+                if (!showResults(generation, summaries)) {
+                    return;
+                }
+                span.close();
+                isLoading.postValue(false);
+                savedResultIds.postValue(new HashSet<>());
+                if (summaries.isEmpty()) {
+                    message.postValue("No hay recetas que cumplan: " + filter);
                 } else {
-                    // Error en la respuesta del servidor
-                    handleApiError("Error en el servidor. Código: " + response.code());
+                    message.postValue("Se encontraron " + summaries.size() + " recetas para " + filter);
                 }
             }
             
             @Override
-            public void onFailure(@NonNull Call<MealResponse> call, @NonNull Throwable t) {
-                // Error de conexión o red
-                isLoading.setValue(false);
-                handleApiError("Error de conexión: " + t.getMessage());
+            public void onError(String errorMessage) {
+                if (!showResults(generation, Collections.<MealDto>emptyList())) {
+                    return;
+                }
+                span.markFailed();
+                span.close();
+                isLoading.postValue(false);
+                error.postValue(errorMessage);
             }
         });
     }
     
+    /**
+     * Cancela las búsquedas en curso (unificada y combinada) y las cargas de detalles
+     * @return Generación de la búsqueda que empieza (para showResults)
+     */
+    private int cancelSearches() {
+        if (currentSearch != null) {
+            currentSearch.cancel();
+            currentSearch = null;
+        }
+        if (currentFacetSearch != null) {
+            currentFacetSearch.cancel();
+            currentFacetSearch = null;
+        }
+        if (currentSearchSpan != null) {
+            // Si la búsqueda ya había terminado no hace nada
+            currentSearchSpan.cancel();
+            currentSearchSpan = null;
+        }
+        synchronized (resultsLock) {
+            resultList.clear();
+            return ++resultsGeneration;
+        }
+    }
+    
+    /**
+     * Reemplaza el listado y lo publica, si la búsqueda sigue siendo la actual
+     * @param generation Generación devuelta por cancelSearches al iniciar la búsqueda
+     * @param meals Resultados nuevos
+     * @return false si la búsqueda ya fue reemplazada (no se publicó nada)
+     */
+    private boolean showResults(int generation, List<MealDto> meals) {
+        synchronized (resultsLock) {
+            if (generation != resultsGeneration) {
+                return false;
+            }
+            resultList.setResults(meals);
+            searchResults.postValue(resultList.getRows());
+            return true;
+        }
+    }
+    
+    /**
+     * Reemplaza el listado sin pasar por una búsqueda (receta aleatoria, limpiar)
+     * Las actualizaciones pendientes de búsquedas anteriores se descartan
+     */
+    private void replaceResults(List<MealDto> meals) {
+        synchronized (resultsLock) {
+            resultList.clear();
+            showResults(++resultsGeneration, meals);
+        }
+    }
+    
+    /**
+     * Publica el estado actual del listado (filas completadas por LazyResultList)
+     * Se lee al publicar, no al completarse el lote: una publicación atrasada no
+     * puede volver a mostrar un listado anterior
+     */
+    private void publishRows() {
+        synchronized (resultsLock) {
+            searchResults.postValue(resultList.getRows());
+        }
+    }
+    
+    /**
+     * Publica cada actualización de la búsqueda unificada
+     * Se invoca desde el thread de FederatedSearch: usar postValue
+     * Las de una búsqueda ya reemplazada se descartan
+     */
+    private void onSearchUpdate(int generation, String query, SearchType searchType,
+                                FederatedSearch.Snapshot snapshot) {
+        List<MealDto> meals = new ArrayList<>(snapshot.getResults().size());
+        Set<String> saved = new HashSet<>();
+        List<MealDto> remoteMeals = new ArrayList<>();
+        for (FederatedResult result : snapshot.getResults()) {
+            meals.add(result.getMeal());
+            if (result.isSaved()) {
+                saved.add(result.getId());
+            } else {
+                remoteMeals.add(result.getMeal());
+            }
+        }
+        // Se conservan los detalles ya cargados de snapshots anteriores
+        if (!showResults(generation, meals)) {
+            return;
+        }
+        savedResultIds.postValue(saved);
+        
+        if (!snapshot.isComplete()) {
+            return;
+        }
+        isLoading.postValue(false);
+        
+        if (snapshot.getRemoteStatus() == FederatedSearch.SourceStatus.DONE && !remoteMeals.isEmpty()) {
+            // Búsqueda con resultados: sube en el ranking del autocompletado
+            autocompleteService.recordSelection(query, searchType);
+            autocompleteService.addCatalogNames(mealNames(remoteMeals));
+            
+            // Por nombre ya vienen completas: se guardan en la caché de detalles
+            // (por categoría/área llegan básicas y se completan al hacerse visibles)
+            if (searchType == SearchType.NAME) {
+                repository.cacheRecipeDetails(remoteMeals);
+            }
+        }
+        
+        if (meals.isEmpty()) {
+            if (snapshot.getRemoteError() != null) {
+                error.postValue(snapshot.getRemoteError());
+            } else {
+                message.postValue("No se encontraron recetas para: " + query);
+            }
+        } else if (snapshot.getRemoteError() != null) {
+            message.postValue("Se encontraron " + meals.size() + " recetas en tu colección ("
+                    + snapshot.getRemoteError() + ")");
+        } else {
+            message.postValue("Se encontraron " + meals.size() + " recetas (" + saved.size() + " en tu colección)");
+        }
+    }
+    
     /**
      * Obtiene una receta aleatoria de la API
      * Funcionalidad extra para sugerir recetas al usuario
@@ -220,7 +458,7 @@ public class SearchViewModel extends AndroidViewModel {
                     // Mostrar la receta aleatoria como resultado único
                     List<MealDto> randomList = new ArrayList<>();
                     randomList.add(response.body().meals.get(0));
-                    searchResults.setValue(randomList);
+                    replaceResults(randomList);
                     message.setValue("Receta aleatoria sugerida");
                 } else {
                     handleApiError("No se pudo obtener receta aleatoria");
@@ -235,65 +473,6 @@ public class SearchViewModel extends AndroidViewModel {
         });
     }
     
-    /**
-     * Obtiene los detalles completos para una lista de recetas básicas
-     * @param basicRecipes Lista de recetas con información básica
-     */
-    private void fetchCompleteRecipeDetails(List<MealDto> basicRecipes) {
-        if (basicRecipes == null || basicRecipes.isEmpty()) {
-            searchResults.setValue(new ArrayList<>());
-            return;
-        }
-        
-        List<MealDto> completeRecipes = new ArrayList<>();
-        final int totalRecipes = Math.min(basicRecipes.size(), 10); // Limitar a 10 para no sobrecargar
-        
-        // Contador para saber cuándo terminamos todas las llamadas
-        final int[] completedCalls = {0};
-        
-        for (int i = 0; i < totalRecipes; i++) {
-            MealDto basicRecipe = basicRecipes.get(i);
-            
-            repository.getRecipeById(basicRecipe.idMeal).enqueue(new Callback<MealResponse>() {
-                @Override
-                public void onResponse(@NonNull Call<MealResponse> call, @NonNull Response<MealResponse> response) {
-                    synchronized (completeRecipes) {
-                        if (response.isSuccessful() && response.body() != null && response.body().hasResults()) {
-                            completeRecipes.add(response.body().meals.get(0));
-                        } else {
-                            // Si falla obtener detalles, usar la receta básica
-                            completeRecipes.add(basicRecipe);
-                        }
-                        
-                        completedCalls[0]++;
-                        
-                        // Cuando terminemos todas las llamadas, actualizar UI
-                        if (completedCalls[0] == totalRecipes) {
-                            isLoading.setValue(false);
-                            searchResults.setValue(completeRecipes);
-                            message.setValue("Se encontraron " + completeRecipes.size() + " recetas con detalles completos");
-                        }
-                    }
-                }
-                
-                @Override
-                public void onFailure(@NonNull Call<MealResponse> call, @NonNull Throwable t) {
-                    synchronized (completeRecipes) {
-                        // Si falla, usar la receta básica
-                        completeRecipes.add(basicRecipe);
-                        completedCalls[0]++;
-                        
-                        if (completedCalls[0] == totalRecipes) {
-                            isLoading.setValue(false);
-                            searchResults.setValue(completeRecipes);
-                            message.setValue("Se encontraron " + completeRecipes.size() + " recetas");
-                        }
-                    }
-                }
-            });
-        }
-    }
-    
     // ==================== GESTIÓN DE COLECCIÓN ====================
     
     /**
@@ -309,7 +488,11 @@ public class SearchViewModel extends AndroidViewModel {
         // Mostrar loading
         isLoading.setValue(true);
         
-        // Las recetas ya vienen completas desde la búsqueda
+        // Filas de categoría/área que aún no se completaron: pedir el detalle antes de guardar
+        if (mealDto.strInstructions == null || mealDto.strInstructions.trim().isEmpty()) {
+            getCompleteRecipeAndAdd(mealDto.idMeal, mealDto.strMeal);
+            return;
+        }
         addRecipeToCollection(mealDto);
     }
     
@@ -375,9 +558,19 @@ public class SearchViewModel extends AndroidViewModel {
     /**
      * Carga todas las categorías disponibles desde la API
      * Para poblar el spinner de categorías
+     * Se llama desde catalogExecutor: el catálogo guardado se publica antes de pedir la API,
+     * así la respuesta (que llega al main thread) siempre lo reemplaza
+     * @param cached Categorías leídas de la caché (vacía si nunca se descargaron)
      */
-    private void loadCategories() {
-        repository.getCategories().enqueue(new Callback<CategoryResponse>() {
+    private void loadCategories(List<String> cached) {
+        // Mostrar enseguida el catálogo guardado; la API lo reemplaza al responder
+        if (!cached.isEmpty()) {
+            postCategories(withDefaultOption("Seleccionar categoría", cached));
+        }
+        
+        Call<CategoryResponse> call = repository.getCategories();
+        categoriesCall = call;
+        call.enqueue(new Callback<CategoryResponse>() {
             @Override
             public void onResponse(@NonNull Call<CategoryResponse> call, @NonNull Response<CategoryResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().meals != null) {
@@ -391,19 +584,23 @@ public class SearchViewModel extends AndroidViewModel {
                         }
                     }
                     
-                    categories.setValue(categoryNames);
-                } else {
-                    // Error cargando categorías, usar lista por defecto
+                    publishCategories(categoryNames);
+                    List<String> fresh = new ArrayList<>(categoryNames.subList(1, categoryNames.size()));
+                    saveCatalog(() -> catalogCache.saveCategories(fresh));
+                } else if (cached.isEmpty()) {
+                    // Error cargando categorías y sin catálogo guardado, usar lista por defecto
                     List<String> defaultCategories = getDefaultCategories();
-                    categories.setValue(defaultCategories);
+                    publishCategories(defaultCategories);
                 }
             }
             
             @Override
             public void onFailure(@NonNull Call<CategoryResponse> call, @NonNull Throwable t) {
-                // Error de conexión, usar lista por defecto
-                List<String> defaultCategories = getDefaultCategories();
-                categories.setValue(defaultCategories);
+                // Error de conexión: queda el catálogo guardado o la lista por defecto
+                if (cached.isEmpty()) {
+                    List<String> defaultCategories = getDefaultCategories();
+                    publishCategories(defaultCategories);
+                }
             }
         });
     }
@@ -411,9 +608,18 @@ public class SearchViewModel extends AndroidViewModel {
     /**
      * Carga todas las áreas disponibles desde la API
      * Para poblar el spinner de áreas
+     * Se llama desde catalogExecutor, igual que loadCategories
+     * @param cached Áreas leídas de la caché (vacía si nunca se descargaron)
      */
-    private void loadAreas() {
-        repository.getAreas().enqueue(new Callback<AreaResponse>() {
+    private void loadAreas(List<String> cached) {
+        // Mostrar enseguida el catálogo guardado; la API lo reemplaza al responder
+        if (!cached.isEmpty()) {
+            postAreas(withDefaultOption("Seleccionar área", cached));
+        }
+        
+        Call<AreaResponse> call = repository.getAreas();
+        areasCall = call;
+        call.enqueue(new Callback<AreaResponse>() {
             @Override
             public void onResponse(@NonNull Call<AreaResponse> call, @NonNull Response<AreaResponse> response) {
                 if (response.isSuccessful() && response.body() != null && response.body().meals != null) {
@@ -427,23 +633,73 @@ public class SearchViewModel extends AndroidViewModel {
                         }
                     }
                     
-                    areas.setValue(areaNames);
-                } else {
-                    // Error cargando áreas, usar lista por defecto
+                    publishAreas(areaNames);
+                    List<String> fresh = new ArrayList<>(areaNames.subList(1, areaNames.size()));
+                    saveCatalog(() -> catalogCache.saveAreas(fresh));
+                } else if (cached.isEmpty()) {
+                    // Error cargando áreas y sin catálogo guardado, usar lista por defecto
                     List<String> defaultAreas = getDefaultAreas();
-                    areas.setValue(defaultAreas);
+                    publishAreas(defaultAreas);
                 }
             }
             
             @Override
             public void onFailure(@NonNull Call<AreaResponse> call, @NonNull Throwable t) {
-                // Error de conexión, usar lista por defecto
-                List<String> defaultAreas = getDefaultAreas();
-                areas.setValue(defaultAreas);
+                // Error de conexión: queda el catálogo guardado o la lista por defecto
+                if (cached.isEmpty()) {
+                    List<String> defaultAreas = getDefaultAreas();
+                    publishAreas(defaultAreas);
+                }
             }
         });
     }
     
+    /**
+     * Guarda el catálogo descargado en catalogExecutor
+     * Si el ViewModel ya se destruyó no se guarda: CatalogRefreshWorker lo vuelve a descargar
+     */
+    private void saveCatalog(Runnable write) {
+        try {
+            catalogExecutor.execute(write);
+        } catch (RejectedExecutionException e) {
+            // catalogExecutor ya cerrado en onCleared
+        }
+    }
+    
+    /**
+     * Publica las categorías para el spinner y el autocompletado
+     * @param categoryNames Nombres con la opción por defecto en la primera posición
+     */
+    private void publishCategories(List<String> categoryNames) {
+        categories.setValue(categoryNames);
+        autocompleteService.updateCategories(categoryNames.subList(1, categoryNames.size()));
+    }
+    
+    /**
+     * Publica las áreas para el spinner y el autocompletado
+     * @param areaNames Nombres con la opción por defecto en la primera posición
+     */
+    private void publishAreas(List<String> areaNames) {
+        areas.setValue(areaNames);
+        autocompleteService.updateAreas(areaNames.subList(1, areaNames.size()));
+    }
+    
+    /**
+     * Como publishCategories, desde un background thread
+     */
+    private void postCategories(List<String> categoryNames) {
+        categories.postValue(categoryNames);
+        autocompleteService.updateCategories(categoryNames.subList(1, categoryNames.size()));
+    }
+    
+    /**
+     * Como publishAreas, desde un background thread
+     */
+    private void postAreas(List<String> areaNames) {
+        areas.postValue(areaNames);
+        autocompleteService.updateAreas(areaNames.subList(1, areaNames.size()));
+    }
+    
     // ==================== MÉTODOS AUXILIARES ====================
     
     /**
@@ -452,7 +708,35 @@ public class SearchViewModel extends AndroidViewModel {
      */
     private void handleApiError(String errorMessage) {
         error.setValue(errorMessage);
-        searchResults.setValue(new ArrayList<>()); // Limpiar resultados
+        replaceResults(Collections.<MealDto>emptyList()); // Limpiar resultados
+    }
+    
+    /**
+     * Extrae los nombres de una lista de recetas de la API
+     * @param meals Recetas recibidas
+     * @return Nombres no vacíos
+     */
+    private List<String> mealNames(List<MealDto> meals) {
+        List<String> names = new ArrayList<>();
+        for (MealDto meal : meals) {
+            if (meal.strMeal != null && !meal.strMeal.isEmpty()) {
+                names.add(meal.strMeal);
+            }
+        }
+        return names;
+    }
+    
+    /**
+     * Agrega la opción por defecto del spinner delante de un catálogo
+     * @param defaultOption Texto de la opción "sin selección"
+     * @param names Nombres del catálogo
+     * @return Lista para el spinner
+     */
+    private List<String> withDefaultOption(String defaultOption, List<String> names) {
+        List<String> list = new ArrayList<>(names.size() + 1);
+        list.add(defaultOption);
+        list.addAll(names);
+        return list;
     }
     
     /**
@@ -491,7 +775,7 @@ public class SearchViewModel extends AndroidViewModel {
      * Limpia los resultados de búsqueda
      */
     public void clearSearchResults() {
-        searchResults.setValue(new ArrayList<>());
+        replaceResults(Collections.<MealDto>emptyList());
         message.setValue("");
         error.setValue("");
     }
@@ -504,6 +788,16 @@ public class SearchViewModel extends AndroidViewModel {
     @Override
     protected void onCleared() {
         super.onCleared();
+        cancelSearches();
+        Call<CategoryResponse> pendingCategories = categoriesCall;
+        if (pendingCategories != null) {
+            pendingCategories.cancel();
+        }
+        Call<AreaResponse> pendingAreas = areasCall;
+        if (pendingAreas != null) {
+            pendingAreas.cancel();
+        }
+        catalogExecutor.shutdown();
         repository.cleanup();
     }
 }
@@ -0,0 +1,38 @@
+package com.app.recetas.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
+import com.app.recetas.utils.LazyInitializer;
+import com.app.recetas.utils.StartupTrace;
+import com.google.firebase.auth.FirebaseAuth;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Initializer de App Startup (registrado en el AndroidManifest)
+ * Corre antes de la primera Activity y solo lanza la creación de FirebaseAuth en
+ * background: el main thread sigue de largo y dibuja el splash sin esperarla
+ */
+public class FirebaseInitializer implements Initializer<LazyInitializer<FirebaseAuth>> {
+    
+    @NonNull
+    @Override
+    public LazyInitializer<FirebaseAuth> create(@NonNull Context context) {
+        StartupTrace.mark("startup_initializer");
+        LazyInitializer<FirebaseAuth> auth = FirebaseAuthProvider.getInstance();
+        auth.warmUpAsync();
+        return auth;
+    }
+    
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        // StrictMode primero (en debug), para que también vea el arranque de Firebase
+        return Collections.<Class<? extends Initializer<?>>>singletonList(StrictModeInitializer.class);
+    }
+}
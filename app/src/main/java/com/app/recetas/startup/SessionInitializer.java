@@ -0,0 +1,32 @@
+package com.app.recetas.startup;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.app.recetas.utils.SessionStateCache;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Initializer de App Startup que crea el estado de sesión antes de la primera Activity
+ * Solo lanza trabajo en background (carga de preferencias y conexión a FirebaseAuth):
+ * cuando SplashActivity valida la sesión, la foto ya está en memoria
+ */
+public class SessionInitializer implements Initializer<SessionStateCache> {
+    
+    @NonNull
+    @Override
+    public SessionStateCache create(@NonNull Context context) {
+        return SessionStateCache.getInstance(context);
+    }
+    
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        // FirebaseAuth ya se está creando en background cuando se registra whenReady
+        return Collections.<Class<? extends Initializer<?>>>singletonList(FirebaseInitializer.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.app.recetas.startup;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.StrictMode;
+
+import androidx.annotation.NonNull;
+import androidx.startup.Initializer;
+
+import com.app.recetas.BuildConfig;
+import com.app.recetas.metrics.ViolationLog;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Initializer de App Startup que activa StrictMode en builds debug
+ * Corre antes que los demás initializers (FirebaseInitializer depende de él), así
+ * también se ve el I/O del arranque
+ *
+ * - Thread: lecturas/escrituras de disco, red y llamadas lentas en el main thread
+ * - VM: Cursors, Closeables y registros sin cerrar, Activities filtradas
+ *
+ * Cada violación se escribe en logcat y, desde Android 9, se guarda con su stack trace
+ * en ViolationLog (pantalla de métricas y volcado JSON)
+ */
+public class StrictModeInitializer implements Initializer<Void> {
+    
+    @Override
+    public Void create(@NonNull Context context) {
+        if (!BuildConfig.DEBUG) {
+            return null;
+        }
+        
+        StrictMode.ThreadPolicy.Builder threadPolicy = new StrictMode.ThreadPolicy.Builder()
+                .detectDiskReads()
+                .detectDiskWrites()
+                .detectNetwork()
+                .detectCustomSlowCalls()
+                .penaltyLog();
+        StrictMode.VmPolicy.Builder vmPolicy = new StrictMode.VmPolicy.Builder()
+                .detectLeakedSqlLiteObjects()
+                .detectLeakedClosableObjects()
+                .detectLeakedRegistrationObjects()
+                .detectActivityLeaks()
+                .penaltyLog();
+        
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            threadPolicy.detectUnbufferedIo();
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            // Los listeners corren en un thread propio: registrar no demora al que violó
+            ExecutorService listenerExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "strictmode-listener");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ViolationLog log = ViolationLog.getInstance();
+            threadPolicy.penaltyListener(listenerExecutor, violation -> log.record(
+                    violation.getClass().getSimpleName(), String.valueOf(violation.getMessage()), violation));
+            vmPolicy.penaltyListener(listenerExecutor, violation -> log.record(
+                    violation.getClass().getSimpleName(), String.valueOf(violation.getMessage()), violation));
+        }
+        
+        StrictMode.setThreadPolicy(threadPolicy.build());
+        StrictMode.setVmPolicy(vmPolicy.build());
+        return null;
+    }
+    
+    @NonNull
+    @Override
+    public List<Class<? extends Initializer<?>>> dependencies() {
+        return Collections.emptyList();
+    }
+}
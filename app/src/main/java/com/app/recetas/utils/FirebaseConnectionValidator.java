@@ -4,7 +4,7 @@ import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.util.Log;
-import com.google.firebase.auth.FirebaseAuth;
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
 
 /**
  * Utilidad para validar conexión con Firebase
@@ -29,17 +29,10 @@ public class FirebaseConnectionValidator {
     
     /**
      * Verifica si Firebase Auth está inicializado
+     * Solo consulta: no fuerza la inicialización (que corre en background desde el arranque)
      */
     public static boolean isFirebaseAuthInitialized() {
-        try {
-            FirebaseAuth auth = FirebaseAuth.getInstance();
-            boolean initialized = auth != null;
-            Log.d(TAG, "Firebase Auth inicializado: " + initialized);
-            return initialized;
-        } catch (Exception e) {
-            Log.e(TAG, "Error verificando Firebase Auth", e);
-            return false;
-        }
+        return FirebaseAuthProvider.getInstance().isReady();
     }
     
     /**
@@ -54,15 +47,18 @@ public class FirebaseConnectionValidator {
             return;
         }
         
-        // 2. Verificar Firebase Auth
-        if (!isFirebaseAuthInitialized()) {
-            callback.onConnectionResult(false, "Firebase Auth no inicializado");
-            return;
-        }
-        
-        // Firebase Auth está disponible
-        Log.d(TAG, "Conexión con Firebase Auth exitosa");
-        callback.onConnectionResult(true, "Conexión exitosa");
+        // 2. Esperar a Firebase Auth sin bloquear (el callback llega en el main thread)
+        FirebaseAuthProvider.getInstance().whenReady(auth -> {
+            if (auth == null) {
+                Log.e(TAG, "Firebase Auth no se pudo inicializar");
+                callback.onConnectionResult(false, "Firebase Auth no inicializado");
+                return;
+            }
+            
+            // Firebase Auth está disponible
+            Log.d(TAG, "Conexión con Firebase Auth exitosa");
+            callback.onConnectionResult(true, "Conexión exitosa");
+        });
     }
     
     /**
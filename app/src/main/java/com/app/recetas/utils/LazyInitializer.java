@@ -0,0 +1,186 @@
+package com.app.recetas.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Inicialización perezosa de un componente caro (p. ej. FirebaseAuth)
+ * El componente se crea una sola vez: en background con warmUpAsync() o, si alguien
+ * lo necesita antes, en el thread que llama a get() (que espera a la creación en curso)
+ * Registra cuánto tardó la creación y en qué thread, para la traza de arranque
+ *
+ * @param <T> Tipo del componente
+ */
+public class LazyInitializer<T> implements Supplier<T> {
+    
+    /**
+     * Recibe el componente cuando está listo
+     */
+    public interface ReadyCallback<T> {
+        
+        /**
+         * @param value Componente creado, o null si la creación falló
+         */
+        void onReady(T value);
+    }
+    
+    private final String name;
+    private final Supplier<T> factory;
+    private final Executor backgroundExecutor;
+    private final Executor callbackExecutor;
+    
+    // Solo un thread crea el componente; los demás esperan en este lock
+    private final Object initLock = new Object();
+    
+    // Estado (protegido por this)
+    private volatile T value;
+    private RuntimeException failure;
+    private boolean warming = false;
+    private final List<ReadyCallback<T>> callbacks = new ArrayList<>();
+    
+    // Traza de la creación
+    private volatile long initDurationMs = -1;
+    private volatile String initThreadName;
+    
+    /**
+     * @param name Nombre del componente (para la traza)
+     * @param factory Crea el componente (se llama una sola vez)
+     * @param backgroundExecutor Thread donde se hace el warm-up
+     * @param callbackExecutor Thread donde se avisa a los ReadyCallback (el main thread en la app)
+     */
+    public LazyInitializer(String name, Supplier<T> factory,
+                           Executor backgroundExecutor, Executor callbackExecutor) {
+        this.name = name;
+        this.factory = factory;
+        this.backgroundExecutor = backgroundExecutor;
+        this.callbackExecutor = callbackExecutor;
+    }
+    
+    /**
+     * Obtiene el componente, creándolo si todavía no existe
+     * @throws RuntimeException El error de la creación, si falló
+     */
+    @Override
+    public T get() {
+        T current = value;
+        if (current != null) {
+            return current;
+        }
+        synchronized (initLock) {
+            synchronized (this) {
+                if (value != null) return value;
+                if (failure != null) throw failure;
+            }
+            initialize();
+        }
+        synchronized (this) {
+            if (failure != null) throw failure;
+            return value;
+        }
+    }
+    
+    /**
+     * Empieza a crear el componente en background (no hace nada si ya empezó)
+     */
+    public void warmUpAsync() {
+        synchronized (this) {
+            if (value != null || failure != null || warming) {
+                return;
+            }
+            warming = true;
+        }
+        backgroundExecutor.execute(() -> {
+            try {
+                get();
+            } catch (RuntimeException ignored) {
+                // Ya quedó registrado: los ReadyCallback reciben null
+            }
+        });
+    }
+    
+    /**
+     * Ejecuta el callback con el componente
+     * Si ya está listo se ejecuta enseguida en el thread que llama; si no, se inicia el
+     * warm-up y el callback se ejecuta en el callbackExecutor cuando termine
+     */
+    public void whenReady(ReadyCallback<T> callback) {
+        T current;
+        synchronized (this) {
+            current = value;
+            if (current == null && failure == null) {
+                callbacks.add(callback);
+            }
+        }
+        if (current != null || isFailed()) {
+            callback.onReady(current);
+        } else {
+            warmUpAsync();
+        }
+    }
+    
+    /**
+     * @return true si el componente ya existe (get() no va a bloquear)
+     */
+    public boolean isReady() {
+        return value != null;
+    }
+    
+    public synchronized boolean isFailed() {
+        return failure != null;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Duración de la creación
+     * @return Milisegundos o -1 si todavía no se creó
+     */
+    public long getInitDurationMs() {
+        return initDurationMs;
+    }
+    
+    /**
+     * Thread donde se creó el componente (null si todavía no se creó)
+     */
+    public String getInitThreadName() {
+        return initThreadName;
+    }
+    
+    /**
+     * Crea el componente (con initLock tomado) y avisa a los callbacks pendientes
+     */
+    private void initialize() {
+        long start = System.nanoTime();
+        T created = null;
+        RuntimeException error = null;
+        try {
+            created = factory.get();
+            if (created == null) {
+                error = new IllegalStateException(name + " no se pudo crear");
+            }
+        } catch (RuntimeException e) {
+            error = e;
+        }
+        initDurationMs = (System.nanoTime() - start) / 1_000_000;
+        initThreadName = Thread.currentThread().getName();
+        
+        List<ReadyCallback<T>> toNotify;
+        synchronized (this) {
+            if (error != null) {
+                failure = error;
+            } else {
+                value = created;
+            }
+            toNotify = new ArrayList<>(callbacks);
+            callbacks.clear();
+        }
+        T delivered = error == null ? created : null;
+        for (ReadyCallback<T> callback : toNotify) {
+            callbackExecutor.execute(() -> callback.onReady(delivered));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.recetas.utils;
+
+import android.os.Looper;
+
+import com.app.recetas.metrics.ViolationLog;
+
+/**
+ * Control de I/O en el main thread en los puntos de I/O propios de la app:
+ * consultas a Room (TracedRecipeDao), llamadas HTTP (NetworkMetricsInterceptor),
+ * escrituras del almacén de preferencias y lecturas que esperan su carga, y la
+ * caché de catálogos (CatalogCache, sobre SharedPreferences)
+ *
+ * StrictMode detecta lo mismo en el dispositivo, pero solo en builds debug y sin poder
+ * hacer fallar un test local (en la JVM no ve el I/O de java.io); este control siempre
+ * registra la violación en ViolationLog y, en tests, puede lanzar la excepción
+ */
+public final class MainThreadIoGuard {
+    
+    private static volatile boolean throwOnViolation = false;
+    
+    // En tests locales sin Robolectric, Looper es un stub que lanza excepción
+    private static volatile boolean looperUnavailable = false;
+    
+    private MainThreadIoGuard() {
+    }
+    
+    /**
+     * Verifica que la operación no corra en el main thread
+     * @param operation Nombre de la operación (ej: "dao.getRecipesByIds")
+     * @throws IllegalStateException Si corre en el main thread y los tests pidieron fallar
+     */
+    public static void check(String operation) {
+        if (!isMainThread()) {
+            return;
+        }
+        IllegalStateException violation = new IllegalStateException("I/O en el main thread: " + operation);
+        ViolationLog.getInstance().record("main_thread_io", operation, violation);
+        if (throwOnViolation) {
+            throw violation;
+        }
+    }
+    
+    /**
+     * Hace que check() lance la excepción en vez de solo registrarla (para tests)
+     */
+    public static void setThrowOnViolation(boolean enabled) {
+        throwOnViolation = enabled;
+    }
+    
+    /**
+     * @return true si el thread actual es el main thread
+     */
+    public static boolean isMainThread() {
+        if (looperUnavailable) {
+            return false;
+        }
+        try {
+            Looper mainLooper = Looper.getMainLooper();
+            return mainLooper != null && mainLooper.getThread() == Thread.currentThread();
+        } catch (RuntimeException e) {
+            looperUnavailable = true;
+            return false;
+        }
+    }
+}
@@ -1,19 +1,25 @@
 package com.app.recetas.utils;
 
 import android.content.Context;
-import android.content.SharedPreferences;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 
 /**
- * Clase para manejar SharedPreferences de la aplicación
+ * Clase para manejar las preferencias de la aplicación
  * Almacena información sobre la última receta modificada/agregada
  * Requerimiento: mostrar cuál fue la última receta ingresada o modificada
+ *
+ * Los datos viven en un PreferencesStore binario que se carga en background
+ * (el XML de SharedPreferences se migra la primera vez)
  */
 public class PreferencesManager {
     
     // Nombre del archivo de preferencias
     private static final String PREF_NAME = "recipe_preferences";
     
-    // Claves para almacenar datos en SharedPreferences
+    // Claves para almacenar datos en el almacén de preferencias
     private static final String KEY_LAST_RECIPE_ID = "last_recipe_id";
     private static final String KEY_LAST_RECIPE_NAME = "last_recipe_name";
     private static final String KEY_LAST_RECIPE_TIME = "last_recipe_time";
@@ -25,15 +31,23 @@ public class PreferencesManager {
     private static final String KEY_LAST_ACTIVITY_TIME = "last_activity_time";
     private static final String KEY_SESSION_START_TIME = "session_start_time";
     
-    // Instancia de SharedPreferences
-    private SharedPreferences preferences;
+    // Almacén binario (compartido por todas las instancias)
+    private final PreferencesStore preferences;
     
     /**
-     * Constructor que inicializa SharedPreferences
+     * Constructor que inicia la carga de las preferencias
      * @param context Contexto de la aplicación
      */
     public PreferencesManager(Context context) {
-        preferences = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+        preferences = PreferencesStore.forFile(context, PREF_NAME);
+    }
+    
+    /**
+     * Constructor para tests
+     * @param preferences Almacén a usar
+     */
+    PreferencesManager(PreferencesStore preferences) {
+        this.preferences = preferences;
     }
     
     // ==================== ÚLTIMA RECETA ====================
@@ -45,11 +59,11 @@ public class PreferencesManager {
      * @param recipeName Nombre de la receta para mostrar al usuario
      */
     public void saveLastRecipe(String recipeId, String recipeName) {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putString(KEY_LAST_RECIPE_ID, recipeId);
-        editor.putString(KEY_LAST_RECIPE_NAME, recipeName);
-        editor.putLong(KEY_LAST_RECIPE_TIME, System.currentTimeMillis()); // Timestamp actual
-        editor.apply(); // Aplicar cambios de forma asíncrona
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(KEY_LAST_RECIPE_ID, recipeId);
+        changes.put(KEY_LAST_RECIPE_NAME, recipeName);
+        changes.put(KEY_LAST_RECIPE_TIME, System.currentTimeMillis()); // Timestamp actual
+        preferences.update(changes);
     }
     
     /**
@@ -76,16 +90,68 @@ public class PreferencesManager {
         return getLastRecipe() != null;
     }
     
+    /**
+     * Observa la última receta: el Listener recibe un aviso al terminar la carga y cada
+     * vez que se guarda o limpia (desde un thread de background, usar postValue)
+     * @param onChange Se ejecuta cuando cambia la última receta
+     * @return Listener registrado, para pasarlo a stopObserving
+     */
+    public PreferencesStore.Listener observeLastRecipe(Runnable onChange) {
+        PreferencesStore.Listener listener = keys -> {
+            if (isLastRecipeChange(keys)) {
+                onChange.run();
+            }
+        };
+        preferences.addListener(listener);
+        return listener;
+    }
+    
+    /**
+     * Deja de observar (llamar en onCleared)
+     */
+    public void stopObserving(PreferencesStore.Listener listener) {
+        preferences.removeListener(listener);
+    }
+    
+    private static boolean isLastRecipeChange(Set<String> keys) {
+        return keys.contains(KEY_LAST_RECIPE_ID) || keys.contains(KEY_LAST_RECIPE_NAME)
+                || keys.contains(KEY_LAST_RECIPE_TIME);
+    }
+    
     /**
      * Limpia la información de la última receta
      * Útil cuando se elimina la receta que era la última modificada
      */
     public void clearLastRecipe() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.remove(KEY_LAST_RECIPE_ID);
-        editor.remove(KEY_LAST_RECIPE_NAME);
-        editor.remove(KEY_LAST_RECIPE_TIME);
-        editor.apply();
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(KEY_LAST_RECIPE_ID, null);
+        changes.put(KEY_LAST_RECIPE_NAME, null);
+        changes.put(KEY_LAST_RECIPE_TIME, null);
+        preferences.update(changes);
+    }
+    
+    /**
+     * Limpia la última receta si es la indicada (ej: al eliminarla de la colección)
+     * La comparación se hace en el thread del almacén: el que llama no espera la carga
+     * @param recipeId ID de la receta eliminada
+     */
+    public void clearLastRecipeIf(String recipeId) {
+        preferences.runAfterLoad(() -> {
+            String[] lastRecipe = getLastRecipe();
+            if (lastRecipe != null && lastRecipe[0].equals(recipeId)) {
+                clearLastRecipe();
+            }
+        });
+    }
+    
+    /**
+     * Ejecuta una tarea en el thread del almacén, cuando ya se cargó
+     * Las lecturas hechas dentro de la tarea no esperan (para mostrar datos al arrancar
+     * sin bloquear el main thread; el resultado se publica con post/runOnUiThread)
+     * @param task Tarea a ejecutar
+     */
+    public void runWhenLoaded(Runnable task) {
+        preferences.runAfterLoad(task);
     }
     
     // ==================== INFORMACIÓN DE USUARIO ====================
@@ -95,9 +161,7 @@ public class PreferencesManager {
      * @param email Email del usuario
      */
     public void saveUserEmail(String email) {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putString(KEY_USER_EMAIL, email);
-        editor.apply();
+        preferences.put(KEY_USER_EMAIL, email);
     }
     
     /**
@@ -112,9 +176,7 @@ public class PreferencesManager {
      * Limpia el email del usuario (al hacer logout)
      */
     public void clearUserEmail() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.remove(KEY_USER_EMAIL);
-        editor.apply();
+        preferences.remove(KEY_USER_EMAIL);
     }
     
     // ==================== CONFIGURACIONES DE APP ====================
@@ -124,9 +186,7 @@ public class PreferencesManager {
      * Útil para mostrar tutoriales o configuraciones iniciales
      */
     public void setFirstLaunchCompleted() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putBoolean(KEY_FIRST_LAUNCH, false);
-        editor.apply();
+        preferences.put(KEY_FIRST_LAUNCH, false);
     }
     
     /**
@@ -143,14 +203,12 @@ public class PreferencesManager {
      * Marca al usuario como logueado
      */
     public void setUserLoggedIn(boolean loggedIn) {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putBoolean(KEY_USER_LOGGED_IN, loggedIn);
-        if (loggedIn) {
-            editor.putLong(KEY_SESSION_START_TIME, System.currentTimeMillis());
-        } else {
-            editor.remove(KEY_SESSION_START_TIME);
-        }
-        editor.apply();
+        Map<String, Object> changes = new HashMap<>();
+        changes.put(KEY_USER_LOGGED_IN, loggedIn);
+        changes.put(KEY_SESSION_START_TIME, loggedIn ? System.currentTimeMillis() : null);
+        preferences.update(changes);
+        // Cambio de sesión: no esperar el intervalo
+        preferences.flushAsync();
     }
     
     /**
@@ -162,11 +220,11 @@ public class PreferencesManager {
     
     /**
      * Actualiza el tiempo de última actividad
+     * Se llama en cada validación de sesión: las llamadas seguidas se combinan en memoria
+     * y llegan a disco como una sola escritura
      */
     public void updateLastActivityTime() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.putLong(KEY_LAST_ACTIVITY_TIME, System.currentTimeMillis());
-        editor.apply();
+        preferences.put(KEY_LAST_ACTIVITY_TIME, System.currentTimeMillis());
     }
     
     /**
@@ -180,9 +238,7 @@ public class PreferencesManager {
      * Limpia el tiempo de última actividad
      */
     public void clearLastActivityTime() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.remove(KEY_LAST_ACTIVITY_TIME);
-        editor.apply();
+        preferences.remove(KEY_LAST_ACTIVITY_TIME);
     }
     
     /**
@@ -210,9 +266,16 @@ public class PreferencesManager {
      * Útil para logout completo o reset de la app
      */
     public void clearAllPreferences() {
-        SharedPreferences.Editor editor = preferences.edit();
-        editor.clear();
-        editor.apply();
+        preferences.clear();
+        preferences.flushAsync();
+    }
+    
+    /**
+     * Escribe ya en disco (en background) los cambios que esperan en memoria
+     * Llamar en los límites del ciclo de vida (onStop)
+     */
+    public void flush() {
+        preferences.flushAsync();
     }
     
     /**
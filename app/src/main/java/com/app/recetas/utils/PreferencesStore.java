@@ -0,0 +1,573 @@
+package com.app.recetas.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.app.recetas.metrics.Metrics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Almacén de preferencias tipado en un archivo binario (al estilo DataStore)
+ * Reemplaza al XML de SharedPreferences, que se parsea entero en el primer acceso
+ * y muchas veces desde el main thread (SplashActivity / SessionValidator)
+ *
+ * - El archivo se carga en background apenas se crea la instancia; las lecturas
+ *   solo esperan si llegan antes de que termine (archivo chico, sin parseo de XML)
+ * - Los cambios se aplican en memoria y se combinan: el archivo se reescribe como
+ *   mucho una vez por intervalo, desde el thread del almacén (escritura atómica)
+ * - La primera vez se migra el contenido del SharedPreferences viejo y se borra
+ * - Los Listener reciben las claves que cambiaron (y todas al terminar la carga)
+ */
+public class PreferencesStore {
+    
+    // Tiempo máximo que un cambio espera en memoria antes de ir a disco
+    public static final long DEFAULT_FLUSH_DELAY_MS = 2_000;
+    
+    // Formato del archivo: cabecera + cantidad + (tipo, clave, valor) por entrada
+    // Versión 2: claves y textos como largo (int) + bytes UTF-8, sin el límite de 64 KB
+    // de writeUTF; la versión 1 (writeUTF) se sigue leyendo
+    private static final int MAGIC = 0x52435046; // "RCPF"
+    private static final int VERSION_UTF = 1;
+    private static final int VERSION = 2;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_BOOLEAN = 3;
+    private static final byte TYPE_INT = 4;
+    private static final byte TYPE_FLOAT = 5;
+    
+    // Marca de clave eliminada en los cambios hechos antes de terminar la carga
+    private static final Object REMOVED = new Object();
+    
+    /**
+     * Recibe las claves que cambiaron
+     * Se invoca desde el thread que hizo el cambio o desde el del almacén (usar postValue)
+     */
+    public interface Listener {
+        void onChanged(Set<String> keys);
+    }
+    
+    /**
+     * Origen de los datos a migrar cuando todavía no existe el archivo binario
+     */
+    public interface Migration {
+        
+        /**
+         * @return Valores a copiar (vacío si no hay nada que migrar)
+         */
+        Map<String, ?> read();
+        
+        /**
+         * Borra el origen una vez que el archivo binario quedó escrito
+         */
+        void cleanUp();
+    }
+    
+    // Una instancia por archivo: todos los PreferencesManager comparten los datos
+    private static final Map<String, PreferencesStore> INSTANCES = new HashMap<>();
+    
+    // Thread compartido de carga y escritura (daemon: no impide que termine el proceso)
+    private static ScheduledExecutorService sharedExecutor;
+    
+    private final File file;
+    private final Migration migration;
+    private final ScheduledExecutorService executor;
+    private final long flushDelayMs;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    
+    // Datos en memoria (protegidos por this)
+    private Map<String, Object> data = new HashMap<>();
+    
+    // Cambios hechos antes de terminar la carga, en orden (protegidos por this)
+    private final List<Object[]> beforeLoad = new ArrayList<>();
+    private boolean clearBeforeLoad = false;
+    private boolean isLoaded = false;
+    
+    private boolean dirty = false;
+    private ScheduledFuture<?> scheduledFlush;
+    
+    // Escrituras del archivo (para medir cuánto se combinó)
+    private int fileWrites = 0;
+    
+    /**
+     * Obtiene el almacén de un archivo, migrando el SharedPreferences del mismo nombre
+     * @param context Contexto (se usa el de la aplicación)
+     * @param name Nombre del archivo de preferencias
+     * @return Instancia compartida (la carga ya está en curso)
+     */
+    public static synchronized PreferencesStore forFile(Context context, String name) {
+        PreferencesStore instance = INSTANCES.get(name);
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            File file = new File(new File(appContext.getFilesDir(), "prefs"), name + ".bin");
+            instance = new PreferencesStore(file, sharedPreferencesMigration(appContext, name),
+                    getSharedExecutor(), DEFAULT_FLUSH_DELAY_MS);
+            INSTANCES.put(name, instance);
+        }
+        return instance;
+    }
+    
+    /**
+     * Migración desde un archivo XML de SharedPreferences
+     */
+    static Migration sharedPreferencesMigration(Context context, String name) {
+        return new Migration() {
+            @Override
+            public Map<String, ?> read() {
+                SharedPreferences legacy = context.getSharedPreferences(name, Context.MODE_PRIVATE);
+                return legacy.getAll();
+            }
+            
+            @Override
+            public void cleanUp() {
+                context.deleteSharedPreferences(name);
+            }
+        };
+    }
+    
+    /**
+     * @param file Archivo binario
+     * @param migration Datos a copiar si el archivo no existe (puede ser null)
+     * @param executor Thread de carga y escritura
+     * @param flushDelayMs Espera máxima de un cambio antes de ir a disco
+     */
+    PreferencesStore(File file, Migration migration, ScheduledExecutorService executor, long flushDelayMs) {
+        this.file = file;
+        this.migration = migration;
+        this.executor = executor;
+        this.flushDelayMs = flushDelayMs;
+        executor.execute(this::load);
+    }
+    
+    // ==================== LECTURA ====================
+    
+    public String getString(String key, String defValue) {
+        Object value = get(key);
+        return value instanceof String ? (String) value : defValue;
+    }
+    
+    public long getLong(String key, long defValue) {
+        Object value = get(key);
+        return value instanceof Long ? (Long) value : defValue;
+    }
+    
+    public boolean getBoolean(String key, boolean defValue) {
+        Object value = get(key);
+        return value instanceof Boolean ? (Boolean) value : defValue;
+    }
+    
+    /**
+     * @return true si el archivo ya se cargó (las lecturas no van a esperar)
+     */
+    public synchronized boolean isLoaded() {
+        return isLoaded;
+    }
+    
+    // ==================== ESCRITURA ====================
+    
+    /**
+     * Cambia un valor (String, Long, Boolean, Integer o Float)
+     * @param key Clave
+     * @param value Valor nuevo (null equivale a remove)
+     */
+    public void put(String key, Object value) {
+        update(Collections.singletonMap(key, value));
+    }
+    
+    /**
+     * Cambia varios valores de una vez: los Listener los ven juntos, nunca a medias
+     * @param changes Clave -> valor nuevo (null equivale a remove)
+     */
+    public void update(Map<String, ?> changes) {
+        for (Map.Entry<String, ?> change : changes.entrySet()) {
+            if (change.getValue() != null) {
+                checkType(change.getKey(), change.getValue());
+            }
+        }
+        synchronized (this) {
+            for (Map.Entry<String, ?> change : changes.entrySet()) {
+                Object stored = change.getValue() != null ? change.getValue() : REMOVED;
+                if (isLoaded) {
+                    apply(change.getKey(), stored);
+                } else {
+                    beforeLoad.add(new Object[]{change.getKey(), stored});
+                }
+            }
+            if (!isLoaded) {
+                return; // Se escribe y se notifica al terminar la carga
+            }
+            scheduleFlush();
+        }
+        notifyListeners(new HashSet<>(changes.keySet()));
+    }
+    
+    /**
+     * Elimina un valor
+     */
+    public void remove(String key) {
+        put(key, null);
+    }
+    
+    /**
+     * Borra todos los valores
+     */
+    public void clear() {
+        Set<String> keys;
+        synchronized (this) {
+            if (!isLoaded) {
+                beforeLoad.clear();
+                clearBeforeLoad = true;
+                return;
+            }
+            keys = new HashSet<>(data.keySet());
+            data = new HashMap<>();
+            scheduleFlush();
+        }
+        notifyListeners(keys);
+    }
+    
+    /**
+     * Pide escribir el archivo sin esperar el intervalo
+     * Se hace en background: el thread que llama no se bloquea
+     */
+    public void flushAsync() {
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+            }
+            scheduledFlush = executor.schedule(this::flush, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    /**
+     * Escribe el archivo si hay cambios, en el thread que llama
+     * No llamar desde el main thread
+     */
+    public void flush() {
+        MainThreadIoGuard.check("prefs.flush");
+        Map<String, Object> snapshot;
+        synchronized (this) {
+            scheduledFlush = null;
+            if (!dirty) {
+                return;
+            }
+            snapshot = new HashMap<>(data);
+            dirty = false;
+        }
+        try {
+            write(snapshot);
+        } catch (IOException e) {
+            // Queda en memoria y se reintenta después del intervalo, aunque no haya más cambios
+            Metrics.count("prefs.flush_failed");
+            synchronized (this) {
+                dirty = true;
+                scheduleFlush();
+            }
+        }
+    }
+    
+    /**
+     * Cantidad de veces que se escribió el archivo desde que se creó la instancia
+     */
+    public synchronized int getFileWrites() {
+        return fileWrites;
+    }
+    
+    /**
+     * Ejecuta una tarea en el thread del almacén, después de la carga
+     * Para lecturas que deciden una escritura (ej: limpiar un valor si coincide)
+     * sin esperar la carga en el thread que llama
+     */
+    public void runAfterLoad(Runnable task) {
+        executor.execute(task);
+    }
+    
+    // ==================== OBSERVADORES ====================
+    
+    /**
+     * Registra un Listener; si los datos ya están cargados recibe enseguida todas las
+     * claves (desde el thread del almacén), si no, al terminar la carga
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+        if (isLoaded()) {
+            executor.execute(() -> {
+                Set<String> keys;
+                synchronized (this) {
+                    keys = new HashSet<>(data.keySet());
+                }
+                listener.onChanged(keys);
+            });
+        }
+    }
+    
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+    
+    // ==================== CARGA ====================
+    
+    /**
+     * Carga el archivo (o migra el XML viejo) y aplica los cambios hechos mientras tanto
+     */
+    private void load() {
+        Map<String, Object> loadedData;
+        boolean migrated = false;
+        if (file.exists()) {
+            try {
+                loadedData = read();
+            } catch (IOException e) {
+                // Archivo dañado: se empieza de cero antes que bloquear la app
+                loadedData = new HashMap<>();
+            }
+        } else {
+            loadedData = migrate();
+            migrated = !loadedData.isEmpty();
+        }
+        
+        // Avisar por todo lo cargado y por lo que se cambió mientras tanto
+        Set<String> keys = new HashSet<>(loadedData.keySet());
+        synchronized (this) {
+            data = clearBeforeLoad ? new HashMap<>() : loadedData;
+            dirty = migrated || clearBeforeLoad;
+            for (Object[] change : beforeLoad) {
+                apply((String) change[0], change[1]);
+                keys.add((String) change[0]);
+            }
+            beforeLoad.clear();
+            isLoaded = true;
+            if (!migrated && dirty) {
+                scheduleFlush();
+            }
+        }
+        loaded.countDown();
+        notifyListeners(keys);
+        
+        if (migrated) {
+            flush();
+            // Solo se borra el XML si el binario quedó escrito
+            if (file.exists() && migration != null) {
+                migration.cleanUp();
+            }
+        }
+    }
+    
+    private Map<String, Object> migrate() {
+        Map<String, Object> result = new HashMap<>();
+        if (migration == null) {
+            return result;
+        }
+        Map<String, ?> legacy = migration.read();
+        if (legacy == null) {
+            return result;
+        }
+        for (Map.Entry<String, ?> entry : legacy.entrySet()) {
+            if (isSupported(entry.getValue())) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result;
+    }
+    
+    private Map<String, Object> read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Formato de preferencias desconocido");
+            }
+            byte version = in.readByte();
+            if (version != VERSION && version != VERSION_UTF) {
+                throw new IOException("Versión de preferencias desconocida: " + version);
+            }
+            int count = in.readInt();
+            Map<String, Object> result = new HashMap<>(Math.max(16, count * 2));
+            for (int i = 0; i < count; i++) {
+                byte type = in.readByte();
+                String key = readText(in, version);
+                switch (type) {
+                    case TYPE_STRING: result.put(key, readText(in, version)); break;
+                    case TYPE_LONG: result.put(key, in.readLong()); break;
+                    case TYPE_BOOLEAN: result.put(key, in.readBoolean()); break;
+                    case TYPE_INT: result.put(key, in.readInt()); break;
+                    case TYPE_FLOAT: result.put(key, in.readFloat()); break;
+                    default: throw new IOException("Tipo desconocido: " + type);
+                }
+            }
+            return result;
+        }
+    }
+    
+    /**
+     * Escribe a un temporal y lo renombra: un corte a mitad nunca deja el archivo a medias
+     */
+    private void write(Map<String, Object> snapshot) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("No se pudo crear " + dir);
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Object> entry : snapshot.entrySet()) {
+                writeEntry(out, entry.getKey(), entry.getValue());
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("No se pudo reemplazar " + file);
+        }
+        synchronized (this) {
+            fileWrites++;
+        }
+    }
+    
+    private static void writeEntry(DataOutputStream out, String key, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(TYPE_STRING);
+            writeText(out, key);
+            writeText(out, (String) value);
+        } else if (value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            writeText(out, key);
+            out.writeLong((Long) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            writeText(out, key);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TYPE_INT);
+            writeText(out, key);
+            out.writeInt((Integer) value);
+        } else {
+            out.writeByte(TYPE_FLOAT);
+            writeText(out, key);
+            out.writeFloat((Float) value);
+        }
+    }
+    
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private String readText(DataInputStream in, byte version) throws IOException {
+        if (version == VERSION_UTF) {
+            return in.readUTF();
+        }
+        int length = in.readInt();
+        // Un largo imposible es un archivo dañado: no intentar reservar esa memoria
+        if (length < 0 || length > file.length()) {
+            throw new IOException("Largo de texto inválido: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    // ==================== AUXILIARES ====================
+    
+    /**
+     * Lee un valor esperando la carga si todavía no terminó
+     */
+    private Object get(String key) {
+        if (loaded.getCount() > 0 && MainThreadIoGuard.isMainThread()) {
+            // El main thread va a esperar la lectura del archivo
+            Metrics.count("prefs.main_thread_wait");
+            MainThreadIoGuard.check("prefs.awaitLoad");
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                loaded.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            return data.get(key);
+        }
+    }
+    
+    private void apply(String key, Object value) {
+        if (value == REMOVED) {
+            data.remove(key);
+        } else {
+            data.put(key, value);
+        }
+        dirty = true;
+    }
+    
+    /**
+     * Programa la escritura si no hay una ya programada: nuevos cambios se suman a ella
+     * (como mucho una escritura por intervalo, aunque los cambios no paren nunca)
+     */
+    private void scheduleFlush() {
+        if (scheduledFlush == null) {
+            scheduledFlush = executor.schedule(this::flush, flushDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void notifyListeners(Set<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        for (Listener listener : listeners) {
+            listener.onChanged(keys);
+        }
+    }
+    
+    private static boolean isSupported(Object value) {
+        return value instanceof String || value instanceof Long || value instanceof Boolean
+                || value instanceof Integer || value instanceof Float;
+    }
+    
+    private static void checkType(String key, Object value) {
+        if (!isSupported(value)) {
+            throw new IllegalArgumentException("Tipo no soportado para " + key + ": " + value.getClass());
+        }
+    }
+    
+    private static synchronized ScheduledExecutorService getSharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "prefs-store");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return sharedExecutor;
+    }
+}
@@ -0,0 +1,220 @@
+package com.app.recetas.utils;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.app.recetas.data.remote.auth.FirebaseAuthProvider;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.util.function.Supplier;
+
+/**
+ * Estado de la sesión en memoria
+ * SessionValidator consultaba FirebaseAuth y las preferencias en cada validación;
+ * ahora valida leyendo una foto inmutable que se mantiene al día sola:
+ *
+ * - Usuario y verificación de email: AuthStateListener de Firebase (login/logout)
+ *   y refreshAsync() al volver la app a primer plano (user.reload() en background)
+ * - Última actividad: en memoria; se persiste con la escritura diferida de PreferencesManager
+ *
+ * SessionInitializer crea la instancia al arrancar: la lectura de la última actividad
+ * y la conexión a FirebaseAuth terminan en background antes de la primera validación
+ *
+ * Singleton: todas las pantallas comparten la misma foto
+ */
+public class SessionStateCache {
+    
+    private static final String TAG = "SessionStateCache";
+    
+    /**
+     * Foto inmutable de la sesión
+     */
+    public static final class SessionState {
+        private final boolean hasUser;
+        private final String email;
+        private final boolean emailVerified;
+        
+        SessionState(boolean hasUser, String email, boolean emailVerified) {
+            this.hasUser = hasUser;
+            this.email = email;
+            this.emailVerified = emailVerified;
+        }
+        
+        public boolean hasUser() { return hasUser; }
+        
+        public String getEmail() { return email; }
+        
+        public boolean isEmailVerified() { return emailVerified; }
+    }
+    
+    // Sin usuario: estado inicial y después del logout
+    private static final SessionState NO_USER = new SessionState(false, null, false);
+    
+    // Última actividad todavía no leída de las preferencias
+    private static final long UNKNOWN = -1;
+    
+    private static SessionStateCache instance;
+    
+    private final PreferencesManager preferencesManager;
+    private final Supplier<FirebaseAuth> authProvider;
+    private volatile FirebaseAuth firebaseAuth;
+    
+    // Se reemplazan enteros: las lecturas nunca ven un estado a medias
+    private volatile SessionState state = NO_USER;
+    private volatile long lastActivityTime = UNKNOWN;
+    
+    /**
+     * Obtiene la instancia única, conectada a Firebase
+     * @param context Contexto (se usa el de la aplicación)
+     */
+    public static synchronized SessionStateCache getInstance(Context context) {
+        if (instance == null) {
+            SessionStateCache cache = new SessionStateCache(
+                    new PreferencesManager(context.getApplicationContext()), FirebaseAuthProvider.getInstance());
+            // Se conecta cuando FirebaseAuth termina de inicializarse en background
+            FirebaseAuthProvider.getInstance().whenReady(auth -> {
+                if (auth != null) cache.attach(auth);
+            });
+            cache.warmUp();
+            instance = cache;
+        }
+        return instance;
+    }
+    
+    /**
+     * @param preferencesManager Preferencias donde se persiste la última actividad
+     * @param authProvider Provee FirebaseAuth si se valida antes de que termine su
+     *                     inicialización (null: solo se actualiza con onUserChanged)
+     */
+    SessionStateCache(PreferencesManager preferencesManager, Supplier<FirebaseAuth> authProvider) {
+        this.preferencesManager = preferencesManager;
+        this.authProvider = authProvider;
+    }
+    
+    /**
+     * Lee la última actividad en el thread de las preferencias, cuando terminan de cargarse
+     * Así la primera validación (desde el ciclo de vida de una Activity) no espera el disco
+     */
+    void warmUp() {
+        preferencesManager.runWhenLoaded(this::getLastActivityTime);
+    }
+    
+    // ==================== LECTURA ====================
+    
+    /**
+     * Estado actual de la sesión (lectura en memoria)
+     * Solo si se valida antes de que FirebaseAuth termine de inicializarse se espera a él
+     */
+    public SessionState getState() {
+        if (firebaseAuth == null && authProvider != null) {
+            try {
+                attach(authProvider.get());
+            } catch (RuntimeException e) {
+                // Firebase no se pudo inicializar: se valida como sesión sin usuario
+                Log.w(TAG, "FirebaseAuth no disponible: " + e.getMessage());
+            }
+        }
+        return state;
+    }
+    
+    /**
+     * Última actividad del usuario
+     * Solo la primera llamada lee las preferencias (normalmente la de warmUp, en background);
+     * después es una lectura en memoria
+     * @return Timestamp en milisegundos o 0 si no hay actividad registrada
+     */
+    public long getLastActivityTime() {
+        long time = lastActivityTime;
+        if (time == UNKNOWN) {
+            time = preferencesManager.getLastActivityTime();
+            synchronized (this) {
+                // Una actividad registrada mientras tanto es más nueva
+                if (lastActivityTime == UNKNOWN) {
+                    lastActivityTime = time;
+                } else {
+                    time = lastActivityTime;
+                }
+            }
+        }
+        return time;
+    }
+    
+    /**
+     * @param now Momento actual en milisegundos
+     * @param timeout Inactividad máxima permitida
+     * @return true si pasó más del timeout desde la última actividad registrada
+     */
+    public boolean isInactiveFor(long now, long timeout) {
+        long lastActivity = getLastActivityTime();
+        return lastActivity > 0 && (now - lastActivity) > timeout;
+    }
+    
+    // ==================== ACTUALIZACIÓN ====================
+    
+    /**
+     * Registra actividad del usuario (memoria + escritura diferida a disco)
+     */
+    public void recordActivity() {
+        synchronized (this) {
+            lastActivityTime = System.currentTimeMillis();
+        }
+        preferencesManager.updateLastActivityTime();
+    }
+    
+    /**
+     * Olvida la última actividad (al cerrar sesión)
+     */
+    public void clearActivity() {
+        synchronized (this) {
+            lastActivityTime = 0;
+        }
+        preferencesManager.clearLastActivityTime();
+    }
+    
+    /**
+     * Vuelve a pedir el usuario a Firebase en background (p. ej. para enterarse de que
+     * verificó el email); la foto se actualiza cuando responde
+     */
+    public void refreshAsync() {
+        FirebaseAuth auth = firebaseAuth;
+        FirebaseUser user = auth != null ? auth.getCurrentUser() : null;
+        if (user == null) {
+            return;
+        }
+        user.reload().addOnCompleteListener(task -> onUserChanged(auth.getCurrentUser()));
+    }
+    
+    /**
+     * Reemplaza la foto del usuario
+     * Lo llama el AuthStateListener; login/logout también lo llaman directamente para
+     * no depender del orden en que Firebase avisa
+     * @param user Usuario actual de Firebase (null si no hay sesión)
+     */
+    public void onUserChanged(FirebaseUser user) {
+        if (user != null) {
+            setUser(user.getEmail(), user.isEmailVerified());
+        } else {
+            state = NO_USER;
+        }
+    }
+    
+    /**
+     * Foto con un usuario autenticado
+     */
+    void setUser(String email, boolean emailVerified) {
+        state = new SessionState(true, email, emailVerified);
+    }
+    
+    /**
+     * Escucha login/logout de Firebase y toma la foto inicial
+     */
+    private synchronized void attach(FirebaseAuth auth) {
+        if (firebaseAuth != null) {
+            return;
+        }
+        onUserChanged(auth.getCurrentUser());
+        auth.addAuthStateListener(changed -> onUserChanged(changed.getCurrentUser()));
+        firebaseAuth = auth;
+    }
+}
@@ -6,10 +6,10 @@ import android.util.Log;
 import androidx.appcompat.app.AppCompatActivity;
 import com.app.recetas.data.repository.AuthRepository;
 import com.app.recetas.presentation.ui.auth.LoginActivity;
-import com.google.firebase.auth.FirebaseUser;
 
 /**
  * Utilidad para validar sesiones de usuario
+ * Las validaciones leen la foto en memoria de SessionStateCache: no hacen I/O
  */
 public class SessionValidator {
     
@@ -18,45 +18,40 @@ public class SessionValidator {
     
     private final AuthRepository authRepository;
     private final PreferencesManager preferencesManager;
+    private final SessionStateCache sessionCache;
     
     public SessionValidator(Context context) {
         this.authRepository = new AuthRepository();
         this.preferencesManager = new PreferencesManager(context);
+        this.sessionCache = SessionStateCache.getInstance(context);
     }
     
     /**
      * Valida si la sesión actual es válida
      */
     public SessionValidationResult validateCurrentSession() {
-        Log.d(TAG, "Validando sesión actual...");
+        SessionStateCache.SessionState state = sessionCache.getState();
         
         // 1. Verificar si hay usuario en Firebase
-        FirebaseUser firebaseUser = authRepository.getCurrentUser();
-        if (firebaseUser == null) {
+        if (!state.hasUser()) {
             Log.w(TAG, "No hay usuario autenticado en Firebase");
             return new SessionValidationResult(false, "No hay usuario autenticado", SessionValidationResult.Reason.NO_USER);
         }
         
         // 2. Verificar si el email está verificado (opcional, según tus requerimientos)
-        if (!authRepository.isEmailVerified()) {
+        if (!state.isEmailVerified()) {
             Log.w(TAG, "Email no verificado");
-            // Puedes decidir si esto invalida la sesión o no
-            // return new SessionValidationResult(false, "Email no verificado", SessionValidationResult.Reason.EMAIL_NOT_VERIFIED);
         }
         
         // 3. Verificar timeout de sesión
-        long lastActivity = preferencesManager.getLastActivityTime();
-        long currentTime = System.currentTimeMillis();
-        
-        if (lastActivity > 0 && (currentTime - lastActivity) > SESSION_TIMEOUT) {
+        if (sessionCache.isInactiveFor(System.currentTimeMillis(), SESSION_TIMEOUT)) {
             Log.w(TAG, "Sesión expirada por timeout");
             return new SessionValidationResult(false, "Sesión expirada", SessionValidationResult.Reason.SESSION_EXPIRED);
         }
         
         // 4. Actualizar última actividad
-        preferencesManager.updateLastActivityTime();
+        sessionCache.recordActivity();
         
-        Log.d(TAG, "Sesión válida para usuario: " + firebaseUser.getEmail());
         return new SessionValidationResult(true, "Sesión válida", SessionValidationResult.Reason.VALID);
     }
     
@@ -80,7 +75,8 @@ public class SessionValidator {
      */
     public void startSession(String userEmail) {
         Log.d(TAG, "Iniciando nueva sesión para: " + userEmail);
-        preferencesManager.updateLastActivityTime();
+        sessionCache.onUserChanged(authRepository.getCurrentUser());
+        sessionCache.recordActivity();
         preferencesManager.setUserLoggedIn(true);
     }
     
@@ -90,8 +86,9 @@ public class SessionValidator {
     public void endSession() {
         Log.d(TAG, "Terminando sesión");
         authRepository.logout();
+        sessionCache.onUserChanged(null);
         preferencesManager.setUserLoggedIn(false);
-        preferencesManager.clearLastActivityTime();
+        sessionCache.clearActivity();
     }
     
     /**
@@ -108,21 +105,24 @@ public class SessionValidator {
      * Actualiza la actividad del usuario (llamar en acciones importantes)
      */
     public void updateUserActivity() {
-        preferencesManager.updateLastActivityTime();
+        sessionCache.recordActivity();
+    }
+    
+    /**
+     * Actualiza en background los datos del usuario (llamar al volver a primer plano)
+     */
+    public void refreshSessionState() {
+        sessionCache.refreshAsync();
     }
     
     /**
      * Verifica si el usuario necesita reautenticación
      */
     public boolean needsReauthentication() {
-        long lastActivity = preferencesManager.getLastActivityTime();
-        long currentTime = System.currentTimeMillis();
-        long timeSinceLastActivity = currentTime - lastActivity;
+        long timeSinceLastActivity = System.currentTimeMillis() - sessionCache.getLastActivityTime();
         
         // Requiere reautenticación después de 1 hora de inactividad
-        boolean needsReauth = timeSinceLastActivity > (60 * 60 * 1000);
-        Log.d(TAG, "Necesita reautenticación: " + needsReauth);
-        return needsReauth;
+        return timeSinceLastActivity > (60 * 60 * 1000);
     }
     
     /**
@@ -0,0 +1,75 @@
+package com.app.recetas.utils;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Traza de arranque en frío
+ * Guarda hitos (ms desde que arrancó el proceso) y, al terminar, deja en el log cuánto
+ * tardó cada componente perezoso y en qué thread: lo que se creó fuera del main thread
+ * es tiempo que el primer frame ya no espera
+ *
+ * Filtrar el logcat por "StartupTrace"; las secciones también aparecen en Perfetto
+ */
+public final class StartupTrace {
+    
+    private static final String TAG = "StartupTrace";
+    
+    // Hito -> ms desde el inicio del proceso (en orden de llegada)
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+    private static boolean reported = false;
+    
+    private StartupTrace() {
+    }
+    
+    /**
+     * Registra un hito (solo la primera vez que ocurre)
+     * @param milestone Nombre del hito
+     */
+    public static synchronized void mark(String milestone) {
+        if (!marks.containsKey(milestone)) {
+            marks.put(milestone, SystemClock.elapsedRealtime() - Process.getStartElapsedRealtime());
+        }
+    }
+    
+    /**
+     * Hitos registrados hasta ahora
+     */
+    public static synchronized Map<String, Long> getMarks() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(marks));
+    }
+    
+    /**
+     * Deja en el log el resumen del arranque (una sola vez por proceso)
+     * @param components Componentes inicializados de forma perezosa
+     */
+    public static synchronized void report(LazyInitializer<?>... components) {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        
+        StringBuilder summary = new StringBuilder("Arranque en frío:");
+        for (Map.Entry<String, Long> mark : marks.entrySet()) {
+            summary.append("\n  ").append(mark.getKey()).append(": ").append(mark.getValue()).append(" ms");
+        }
+        long saved = 0;
+        for (LazyInitializer<?> component : components) {
+            long duration = component.getInitDurationMs();
+            String thread = component.getInitThreadName();
+            boolean offMain = thread != null && !"main".equals(thread);
+            summary.append("\n  ").append(component.getName()).append(": ").append(duration)
+                    .append(" ms en '").append(thread).append("'");
+            if (offMain && duration > 0) {
+                saved += duration;
+            }
+        }
+        summary.append("\n  Ahorrado en el main thread: ").append(saved).append(" ms");
+        Log.i(TAG, summary.toString());
+    }
+}
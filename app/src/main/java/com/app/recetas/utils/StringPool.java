@@ -0,0 +1,80 @@
+package com.app.recetas.utils;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instancias compartidas de textos con pocos valores distintos (categorías y áreas)
+ * Cada Recipe y cada MealDto traían su propia copia de "Chicken" o "Italian": con miles de
+ * recetas en memoria eran miles de Strings iguales. Los textos se canonicalizan donde
+ * entran a la app (lectura de Room y JSON de la API) y quedan una sola vez en memoria
+ *
+ * Thread-safe. El pool tiene un tope: si se llena (datos inesperados) devuelve los textos
+ * sin canonicalizar en vez de crecer sin límite
+ */
+public final class StringPool {
+
+    // Valores distintos como máximo (TheMealDB tiene ~15 categorías y ~30 áreas)
+    static final int MAX_ENTRIES = 1024;
+
+    // Textos más largos no son categorías/áreas: no se guardan
+    static final int MAX_LENGTH = 64;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private StringPool() {
+    }
+
+    /**
+     * Devuelve la instancia compartida de un texto
+     * @param value Texto leído (puede ser null)
+     * @return Instancia canónica igual a value (o value si no entra en el pool)
+     */
+    public static String canonical(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        String shared = POOL.get(value);
+        if (shared != null) {
+            return shared;
+        }
+        if (POOL.size() >= MAX_ENTRIES) {
+            return value;
+        }
+        shared = POOL.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    /**
+     * @return Cantidad de textos distintos en el pool
+     */
+    public static int size() {
+        return POOL.size();
+    }
+
+    /**
+     * Adaptador de Gson para campos de texto canonicalizados
+     * Uso: @JsonAdapter(StringPool.GsonAdapter.class) sobre el campo
+     */
+    public static final class GsonAdapter extends TypeAdapter<String> {
+
+        @Override
+        public void write(JsonWriter out, String value) throws IOException {
+            out.value(value);
+        }
+
+        @Override
+        public String read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return canonical(in.nextString());
+        }
+    }
+}
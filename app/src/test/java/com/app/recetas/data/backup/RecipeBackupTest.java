@@ -0,0 +1,215 @@
+package com.app.recetas.data.backup;
+
+import com.app.recetas.data.local.dao.FakeRecipeDao;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la exportación e importación de la colección (JSON en streaming)
+ */
+public class RecipeBackupTest {
+
+    private FakeRecipeDao source;
+    private FakeRecipeDao target;
+    private List<Integer> progress;
+
+    @Before
+    public void setUp() {
+        source = new FakeRecipeDao();
+        target = new FakeRecipeDao();
+        progress = new ArrayList<>();
+    }
+
+    @Test
+    public void exportThenImportKeepsEveryField() throws IOException {
+        for (int i = 0; i < 450; i++) {
+            source.insertRecipe(recipe("id-" + i, "Receta " + i, "Notas " + i));
+        }
+        Recipe personal = recipe("personal-1", "Tortilla de papas", "Con cebolla 🧅\n\"siempre\"");
+        personal.setPersonal(true);
+        personal.setInstructions(null);
+        personal.setIngredients(null);
+        personal.setDateModified(5_000L);
+        source.insertRecipe(personal);
+
+        byte[] file = export(source);
+        RecipeBackup.ImportResult result = backup(target).importFrom(
+                new ByteArrayInputStream(file), RecipeBackup.ConflictPolicy.SKIP, (done, total) -> progress.add(done));
+
+        assertEquals(451, result.getAdded());
+        assertEquals(451, target.recipes.size());
+        for (Recipe expected : source.recipes.values()) {
+            assertSameRecipe(expected, target.recipes.get(expected.getId()));
+        }
+        assertNull(target.recipes.get("personal-1").getInstructions());
+        assertNull(target.recipes.get("personal-1").getIngredients());
+        // 3 lotes de BATCH_SIZE, cada uno en su transacción
+        assertEquals(3, target.transactions);
+        assertEquals(Integer.valueOf(451), progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void conflictPoliciesDecideWhatHappensToSavedRecipes() throws IOException {
+        Recipe saved = recipe("52772", "Teriyaki (mía)", "Menos sal");
+        Recipe incoming = recipe("52772", "Teriyaki Chicken Casserole", "Con arroz");
+        source.insertRecipe(incoming);
+        byte[] file = export(source);
+
+        target.insertRecipe(FakeRecipeDao.copy(saved));
+        RecipeBackup.ImportResult skip = importInto(file, RecipeBackup.ConflictPolicy.SKIP);
+        assertEquals(1, skip.getSkipped());
+        assertSameRecipe(saved, target.recipes.get("52772"));
+
+        RecipeBackup.ImportResult merge = importInto(file, RecipeBackup.ConflictPolicy.MERGE_NOTES);
+        assertEquals(1, merge.getMerged());
+        assertEquals("Teriyaki (mía)", target.recipes.get("52772").getName());
+        assertEquals("Menos sal\n\nCon arroz", target.recipes.get("52772").getPersonalNotes());
+        // Las recetas guardadas se leen sin instrucciones: combinar no las borra
+        assertEquals(saved.getInstructions(), target.recipes.get("52772").getInstructions());
+        // Las notas ya combinadas no se repiten
+        assertEquals(1, importInto(file, RecipeBackup.ConflictPolicy.MERGE_NOTES).getSkipped());
+
+        RecipeBackup.ImportResult replace = importInto(file, RecipeBackup.ConflictPolicy.REPLACE);
+        assertEquals(1, replace.getReplaced());
+        assertSameRecipe(incoming, target.recipes.get("52772"));
+    }
+
+    @Test
+    public void mergeNotesKeepsLocalTextWhenThereIsNothingNew() {
+        assertEquals("Mía", RecipeBackup.mergeNotes("Mía", ""));
+        assertEquals("Mía", RecipeBackup.mergeNotes("Mía", null));
+        assertNull(RecipeBackup.mergeNotes(null, "  "));
+        assertEquals("Del archivo", RecipeBackup.mergeNotes("", " Del archivo "));
+        assertEquals("Mía y más", RecipeBackup.mergeNotes("Mía y más", "y más"));
+    }
+
+    @Test
+    public void entriesWithoutIdAndUnknownFieldsAreIgnored() throws IOException {
+        String json = "{\"format\":\"recetas-backup\",\"version\":1,\"futuro\":{\"a\":[1,2]},\"recipes\":["
+                + "{\"name\":\"Sin ID\"},"
+                + "{\"id\":\"1\",\"name\":\"Arroz\",\"rating\":5,\"ingredients\":[{\"ingredient\":\"Rice\",\"measure\":null},"
+                + "{\"ingredient\":\"\",\"measure\":\"1\"}],\"personalNotes\":null}]}";
+
+        RecipeBackup.ImportResult result = importInto(json.getBytes(StandardCharsets.UTF_8),
+                RecipeBackup.ConflictPolicy.SKIP);
+
+        assertEquals(1, result.getAdded());
+        assertEquals(1, result.getInvalid());
+        Recipe rice = target.recipes.get("1");
+        assertEquals("Arroz", rice.getName());
+        assertEquals(1, rice.getIngredients().size());
+        assertEquals("", rice.getIngredients().getMeasure(0));
+        // La entrada sin ID también cuenta en el avance
+        assertEquals(Integer.valueOf(2), progress.get(progress.size() - 1));
+    }
+
+    @Test
+    public void foreignNewerOrDamagedFilesAreRejected() throws IOException {
+        source.insertRecipe(recipe("1", "Arroz", ""));
+        byte[] file = export(source);
+
+        assertRejected("{\"meals\":[{\"idMeal\":\"1\"}]}");
+        assertRejected("{\"format\":\"recetas-backup\",\"version\":99,\"recipes\":[]}");
+        assertRejected("{\"recipes\":[],\"format\":\"recetas-backup\"}");
+        assertRejected("{\"format\":\"recetas-backup\",\"recipes\":{}}");
+        assertRejected("{\"format\":\"recetas-backup\",\"recipes\":[{\"id\":\"2\",\"dateAdded\":\"ayer\"}]}");
+        assertRejected(new String(file, 0, file.length - 20, StandardCharsets.UTF_8));
+        assertTrue(target.recipes.isEmpty());
+    }
+
+    @Test
+    public void largeCollectionStreamsInFixedBatches() throws IOException {
+        int recipes = 20_000;
+        for (int i = 0; i < recipes; i++) {
+            source.insertRecipe(recipe(String.format("%06d", i), "Receta " + i, i % 3 == 0 ? "Notas " + i : ""));
+        }
+        CountingOutputStream counter = new CountingOutputStream();
+
+        int exported = backup(source).exportTo(counter, (done, total) -> { });
+        byte[] file = export(source);
+        RecipeBackup.ImportResult result = importInto(file, RecipeBackup.ConflictPolicy.REPLACE);
+
+        assertEquals(recipes, exported);
+        assertEquals(recipes, result.getAdded());
+        assertEquals(recipes, target.recipes.size());
+        assertEquals("Notas 19998", target.recipes.get("019998").getPersonalNotes());
+        assertEquals(file.length, counter.bytes);
+        // Ni la lectura de la tabla ni los lotes guardados pasan de BATCH_SIZE recetas
+        assertEquals(RecipeBackup.BATCH_SIZE, source.largestPage);
+        assertEquals(RecipeBackup.BATCH_SIZE, target.largestInsert);
+        assertEquals(recipes / RecipeBackup.BATCH_SIZE, target.transactions);
+    }
+
+    private RecipeBackup.ImportResult importInto(byte[] file, RecipeBackup.ConflictPolicy policy) throws IOException {
+        return backup(target).importFrom(new ByteArrayInputStream(file), policy, (done, total) -> progress.add(done));
+    }
+
+    private void assertRejected(String json) {
+        assertThrows(IOException.class, () -> importInto(json.getBytes(StandardCharsets.UTF_8),
+                RecipeBackup.ConflictPolicy.REPLACE));
+    }
+
+    private static byte[] export(FakeRecipeDao dao) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        backup(dao).exportTo(out, (done, total) -> { });
+        return out.toByteArray();
+    }
+
+    private static RecipeBackup backup(FakeRecipeDao dao) {
+        return new RecipeBackup(dao, body -> {
+            dao.transactions++;
+            body.run();
+        });
+    }
+
+    private static Recipe recipe(String id, String name, String notes) {
+        IngredientList ingredients = new IngredientList();
+        ingredients.add("Chicken", "1 whole");
+        ingredients.add("Azúcar", "");
+        Recipe recipe = new Recipe(id, name, "Chicken", "Japanese", "Paso 1\r\nPaso 2", "https://img/" + id, ingredients);
+        recipe.setPersonalNotes(notes);
+        recipe.setDateAdded(1_000L);
+        recipe.setDateModified(2_000L);
+        return recipe;
+    }
+
+    private static void assertSameRecipe(Recipe expected, Recipe actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCategory(), actual.getCategory());
+        assertEquals(expected.getArea(), actual.getArea());
+        assertEquals(expected.getInstructions(), actual.getInstructions());
+        assertEquals(expected.getImageUrl(), actual.getImageUrl());
+        assertEquals(expected.getIngredients(), actual.getIngredients());
+        assertEquals(expected.getPersonalNotes(), actual.getPersonalNotes());
+        assertEquals(expected.isPersonal(), actual.isPersonal());
+        assertEquals(expected.getDateAdded(), actual.getDateAdded());
+        assertEquals(expected.getDateModified(), actual.getDateModified());
+    }
+
+    /**
+     * Destino que solo cuenta bytes (la exportación no necesita guardar el archivo en memoria)
+     */
+    private static class CountingOutputStream extends OutputStream {
+        long bytes;
+
+        @Override public void write(int b) { bytes++; }
+        @Override public void write(byte[] b, int off, int len) { bytes += len; }
+    }
+}
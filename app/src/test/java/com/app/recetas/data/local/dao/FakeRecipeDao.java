@@ -0,0 +1,231 @@
+package com.app.recetas.data.local.dao;
+
+import androidx.lifecycle.LiveData;
+
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.local.entities.RecipeIngredientsRow;
+import com.app.recetas.data.local.entities.RecipeSearchRow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * RecipeDao en memoria compartido por los tests locales
+ * Las recetas se guardan por ID (en orden, como las consultas con cursor) y cada lectura
+ * devuelve copias, igual que Room; las proyecciones livianas se arman a partir de ellas
+ * Las consultas de listas (Recipe.LIST_COLUMNS) devuelven las copias sin instrucciones
+ * Las consultas LiveData no se usan en tests locales y devuelven null
+ */
+public class FakeRecipeDao implements RecipeDao {
+
+    public final TreeMap<String, Recipe> recipes = new TreeMap<>();
+
+    // Llamadas a updateRecipe y updateApiFields
+    public int updates;
+
+    // Página más grande leída con getRecipesAfter y lote más grande guardado con insertRecipes
+    public int largestPage;
+    public int largestInsert;
+
+    // Transacciones abiertas por los tests que simulan runInTransaction
+    public int transactions;
+
+    // Si no es null, las proyecciones de los buscadores fallan con esta excepción
+    public RuntimeException failure;
+
+    // ==================== ESCRITURA ====================
+
+    @Override
+    public void insertRecipe(Recipe recipe) {
+        recipes.put(recipe.getId(), recipe);
+    }
+
+    @Override
+    public void insertRecipes(List<Recipe> list) {
+        largestInsert = Math.max(largestInsert, list.size());
+        for (Recipe recipe : list) {
+            insertRecipe(recipe);
+        }
+    }
+
+    @Override
+    public void deleteRecipe(Recipe recipe) {
+        recipes.remove(recipe.getId());
+    }
+
+    @Override
+    public void updateRecipe(Recipe recipe) {
+        recipes.put(recipe.getId(), recipe);
+        updates++;
+    }
+
+    @Override
+    public void updatePersonalNotes(String id, CompressedText notes, long dateModified) {
+        Recipe recipe = recipes.get(id);
+        if (recipe != null) {
+            recipe.setPersonalNotes(CompressedText.textOf(notes));
+            recipe.setDateModified(dateModified);
+        }
+    }
+
+    @Override
+    public void updateApiFields(String id, String name, String category, String area,
+                                CompressedText instructions, String imageUrl, IngredientList ingredients) {
+        Recipe recipe = recipes.get(id);
+        if (recipe != null) {
+            recipe.setName(name);
+            recipe.setCategory(category);
+            recipe.setArea(area);
+            recipe.setInstructions(CompressedText.textOf(instructions));
+            recipe.setImageUrl(imageUrl);
+            recipe.setIngredients(ingredients);
+        }
+        updates++;
+    }
+    
+    // ==================== LECTURA ====================
+
+    @Override
+    public Recipe getRecipeById(String id) {
+        Recipe recipe = recipes.get(id);
+        return recipe != null ? copy(recipe) : null;
+    }
+
+    @Override
+    public Recipe getLastModifiedRecipe() {
+        Recipe last = null;
+        for (Recipe recipe : recipes.values()) {
+            if (last == null || recipe.getDateModified() > last.getDateModified()) {
+                last = recipe;
+            }
+        }
+        return last != null ? copy(last) : null;
+    }
+
+    @Override
+    public int getRecipeCount() {
+        return recipes.size();
+    }
+
+    @Override
+    public List<RecipeIngredientsRow> getIngredientRows() {
+        throwIfFailing();
+        List<RecipeIngredientsRow> rows = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            RecipeIngredientsRow row = new RecipeIngredientsRow();
+            row.id = recipe.getId();
+            row.ingredients = recipe.getIngredients();
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<String> getRecipeNames() {
+        throwIfFailing();
+        List<String> names = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            names.add(recipe.getName());
+        }
+        return names;
+    }
+
+    @Override
+    public List<RecipeSearchRow> getSearchRows() {
+        throwIfFailing();
+        List<RecipeSearchRow> rows = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            RecipeSearchRow row = new RecipeSearchRow();
+            row.id = recipe.getId();
+            row.name = recipe.getName();
+            row.ingredients = recipe.getIngredients();
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Recipe> getRecipesByIds(List<String> ids) {
+        List<Recipe> result = new ArrayList<>();
+        for (String id : ids) {
+            Recipe recipe = recipes.get(id);
+            if (recipe != null) result.add(listCopy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Recipe> getRecipesByCategorySync(String category) {
+        List<Recipe> result = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            if (category.equalsIgnoreCase(recipe.getCategory())) result.add(listCopy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Recipe> getRecipesByAreaSync(String area) {
+        List<Recipe> result = new ArrayList<>();
+        for (Recipe recipe : recipes.values()) {
+            if (area.equalsIgnoreCase(recipe.getArea())) result.add(listCopy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Recipe> getApiRecipesAfter(String afterId, int limit) {
+        List<Recipe> result = new ArrayList<>();
+        for (Recipe recipe : recipes.tailMap(afterId, false).values()) {
+            if (result.size() == limit) break;
+            if (!recipe.isPersonal()) result.add(copy(recipe));
+        }
+        return result;
+    }
+
+    @Override
+    public List<Recipe> getRecipesAfter(String afterId, int limit) {
+        List<Recipe> page = new ArrayList<>();
+        for (Recipe recipe : recipes.tailMap(afterId, false).values()) {
+            if (page.size() == limit) break;
+            page.add(copy(recipe));
+        }
+        largestPage = Math.max(largestPage, page.size());
+        return page;
+    }
+
+    @Override public LiveData<List<Recipe>> getAllRecipes() { return null; }
+    @Override public LiveData<List<Recipe>> searchRecipesByName(String name) { return null; }
+    @Override public LiveData<List<Recipe>> getRecipesByCategory(String category) { return null; }
+    @Override public LiveData<List<Recipe>> getPersonalRecipes() { return null; }
+
+    /**
+     * Copia como la que devuelve Room (un objeto nuevo por consulta)
+     */
+    public static Recipe copy(Recipe recipe) {
+        Recipe copy = new Recipe(recipe.getId(), recipe.getName(), recipe.getCategory(), recipe.getArea(),
+                recipe.getInstructions(), recipe.getImageUrl(), recipe.getIngredients());
+        copy.setPersonalNotes(recipe.getPersonalNotes());
+        copy.setPersonal(recipe.isPersonal());
+        copy.setDateAdded(recipe.getDateAdded());
+        copy.setDateModified(recipe.getDateModified());
+        return copy;
+    }
+
+    /**
+     * Copia como la de una consulta con Recipe.LIST_COLUMNS (sin instrucciones)
+     */
+    public static Recipe listCopy(Recipe recipe) {
+        Recipe copy = copy(recipe);
+        copy.setInstructions(null);
+        return copy;
+    }
+
+    private void throwIfFailing() {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
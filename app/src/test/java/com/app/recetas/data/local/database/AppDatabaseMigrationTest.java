@@ -0,0 +1,213 @@
+package com.app.recetas.data.local.database;
+
+import android.app.Application;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de las migraciones 1 -> 2 (ingredientes de JSON en texto a BLOB) y 2 -> 3
+ * (instrucciones y notas de TEXT a BLOB comprimido)
+ * Se arma un archivo con el esquema de la versión anterior y se abre con Room; las consultas
+ * corren en otro thread porque Room no permite I/O en el main thread de Robolectric
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class AppDatabaseMigrationTest {
+
+    private static final int RECIPES = 2_000;
+
+    private static final String CREATE_VERSION_1 = "CREATE TABLE IF NOT EXISTS `recipes` ("
+            + "`id` TEXT NOT NULL, `name` TEXT, `category` TEXT, `area` TEXT, `instructions` TEXT, "
+            + "`imageUrl` TEXT, `ingredients` TEXT, `personalNotes` TEXT, `isPersonal` INTEGER NOT NULL, "
+            + "`dateAdded` INTEGER NOT NULL, `dateModified` INTEGER NOT NULL, PRIMARY KEY(`id`))";
+
+    private static final String CREATE_VERSION_2 = "CREATE TABLE IF NOT EXISTS `recipes` ("
+            + "`id` TEXT NOT NULL, `name` TEXT, `category` TEXT, `area` TEXT, `instructions` TEXT, "
+            + "`imageUrl` TEXT, `ingredients` BLOB, `personalNotes` TEXT, `isPersonal` INTEGER NOT NULL, "
+            + "`dateAdded` INTEGER NOT NULL, `dateModified` INTEGER NOT NULL, PRIMARY KEY(`id`))";
+
+    private static final String TERIYAKI_JSON = "[{\"ingredient\":\"soy sauce\",\"measure\":\"3/4 cup\"},"
+            + "{\"ingredient\":\"Water\",\"measure\":\"1/2 cup\"},{\"ingredient\":\"Chicken Breasts\",\"measure\":\"2\"}]";
+
+    private Application application;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        application = ApplicationProvider.getApplicationContext();
+        executor = Executors.newSingleThreadExecutor();
+        AppDatabase.closeDatabase();
+        application.deleteDatabase(AppDatabase.DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        AppDatabase.closeDatabase();
+        application.deleteDatabase(AppDatabase.DATABASE_NAME);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void migrationConvertsJsonAndFreeTextIngredients() throws Exception {
+        SQLiteDatabase v1 = createVersion1();
+        insert(v1, "52772", "Teriyaki Chicken Casserole", TERIYAKI_JSON, "Con arroz", 0);
+        insert(v1, "personal-1", "Tortilla", "4 huevos\n2 papas\n", "", 1);
+        insert(v1, "sin-ingredientes", "Sin datos", null, "", 0);
+        v1.close();
+
+        List<Recipe> recipes = inBackground(() -> AppDatabase.getDatabase(application).recipeDao()
+                .getRecipesByIds(Arrays.asList("52772", "personal-1", "sin-ingredientes")));
+
+        assertEquals(3, recipes.size());
+        for (Recipe recipe : recipes) {
+            switch (recipe.getId()) {
+                case "52772":
+                    IngredientList teriyaki = recipe.getIngredients();
+                    assertEquals(3, teriyaki.size());
+                    assertEquals("soy sauce", teriyaki.getName(0));
+                    assertEquals("3/4 cup", teriyaki.getMeasure(0));
+                    assertEquals("Chicken Breasts", teriyaki.getName(2));
+                    // Las demás columnas se copian sin cambios
+                    assertEquals("Teriyaki Chicken Casserole", recipe.getName());
+                    assertEquals("Con arroz", recipe.getPersonalNotes());
+                    assertEquals(1_000L, recipe.getDateAdded());
+                    break;
+                case "personal-1":
+                    assertEquals(IngredientList.fromText("4 huevos\n2 papas"), recipe.getIngredients());
+                    assertTrue(recipe.isPersonal());
+                    break;
+                default:
+                    assertNull(recipe.getIngredients());
+            }
+        }
+    }
+
+    @Test
+    public void migrationShrinksTheDatabaseFile() throws Exception {
+        SQLiteDatabase v1 = createVersion1();
+        v1.beginTransaction();
+        for (int i = 0; i < RECIPES; i++) {
+            insert(v1, String.valueOf(i), "Receta " + i, TERIYAKI_JSON, "", 0);
+        }
+        v1.setTransactionSuccessful();
+        v1.endTransaction();
+        v1.execSQL("VACUUM");
+        long before = fileSize(v1);
+        v1.close();
+
+        long after = inBackground(() -> {
+            SupportSQLiteDatabase db = AppDatabase.getDatabase(application).getOpenHelper().getWritableDatabase();
+            db.execSQL("VACUUM");
+            return readLong(db.query("PRAGMA page_count")) * readLong(db.query("PRAGMA page_size"));
+        });
+        int count = inBackground(() -> AppDatabase.getDatabase(application).recipeDao().getRecipeCount());
+        Recipe last = inBackground(() -> AppDatabase.getDatabase(application).recipeDao()
+                .getRecipeById(String.valueOf(RECIPES - 1)));
+
+        assertEquals(RECIPES, count);
+        assertEquals("Receta " + (RECIPES - 1), last.getName());
+        assertEquals(IngredientList.fromText(TERIYAKI_JSON), last.getIngredients());
+        assertTrue("antes=" + before + " después=" + after, after < before);
+    }
+
+    @Test
+    public void migrationCompressesLongInstructionsAndKeepsNotes() throws Exception {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 1; i <= 40; i++) {
+            longText.append("Paso ").append(i).append(": revolver la salsa a fuego bajo.\r\n");
+        }
+        IngredientList ingredients = new IngredientList();
+        ingredients.add("Rice", "200g");
+
+        SQLiteDatabase v2 = SQLiteDatabase.openOrCreateDatabase(
+                application.getDatabasePath(AppDatabase.DATABASE_NAME), null);
+        v2.execSQL(CREATE_VERSION_2);
+        v2.setVersion(2);
+        v2.execSQL("INSERT INTO recipes (id, name, instructions, ingredients, personalNotes, isPersonal, "
+                        + "dateAdded, dateModified) VALUES (?, 'Larga', ?, ?, 'Menos sal', 0, 1000, 2000)",
+                new Object[]{"larga", longText.toString(), IngredientListConverter.encode(ingredients)});
+        v2.execSQL("INSERT INTO recipes (id, name, instructions, isPersonal, dateAdded, dateModified) "
+                + "VALUES ('corta', 'Corta', 'Hervir', 1, 1000, 2000)");
+        v2.close();
+
+        // getRecipeById: las consultas por lote no traen las instrucciones
+        List<Recipe> recipes = inBackground(() -> {
+            RecipeDao dao = AppDatabase.getDatabase(application).recipeDao();
+            return Arrays.asList(dao.getRecipeById("larga"), dao.getRecipeById("corta"));
+        });
+        long storedBytes = inBackground(() -> readLong(AppDatabase.getDatabase(application).getOpenHelper()
+                .getReadableDatabase().query("SELECT length(instructions) FROM recipes WHERE id = 'larga'")));
+
+        assertEquals(2, recipes.size());
+        for (Recipe recipe : recipes) {
+            if (recipe.getId().equals("larga")) {
+                assertEquals(longText.toString(), recipe.getInstructions());
+                assertEquals("Menos sal", recipe.getPersonalNotes());
+                assertEquals(ingredients, recipe.getIngredients());
+                assertEquals(2_000L, recipe.getDateModified());
+            } else {
+                assertEquals("Hervir", recipe.getInstructions());
+                assertNull(recipe.getPersonalNotes());
+                assertTrue(recipe.isPersonal());
+            }
+        }
+        assertTrue(storedBytes < longText.length() / 2);
+    }
+
+    private SQLiteDatabase createVersion1() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(
+                application.getDatabasePath(AppDatabase.DATABASE_NAME), null);
+        db.execSQL(CREATE_VERSION_1);
+        db.setVersion(1);
+        return db;
+    }
+
+    private static void insert(SQLiteDatabase db, String id, String name, String ingredients,
+                               String notes, int personal) {
+        db.execSQL("INSERT INTO recipes (id, name, category, area, instructions, imageUrl, ingredients, "
+                        + "personalNotes, isPersonal, dateAdded, dateModified) VALUES (?, ?, 'Chicken', 'Japanese', "
+                        + "'Paso 1', '', ?, ?, ?, 1000, 2000)",
+                new Object[]{id, name, ingredients, notes, personal});
+    }
+
+    private static long fileSize(SQLiteDatabase db) {
+        return readLong(db.rawQuery("PRAGMA page_count", null)) * readLong(db.rawQuery("PRAGMA page_size", null));
+    }
+
+    private static long readLong(Cursor cursor) {
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private <T> T inBackground(Callable<T> task) throws Exception {
+        return executor.submit(task).get();
+    }
+}
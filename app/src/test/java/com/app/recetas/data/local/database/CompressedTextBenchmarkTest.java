@@ -0,0 +1,178 @@
+package com.app.recetas.data.local.database;
+
+import android.app.Application;
+import android.database.Cursor;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark de las instrucciones comprimidas con Room: misma colección de recetas
+ * sintéticas guardada sin comprimir (CompressedTextConverter.DISABLED) y con el umbral
+ * por defecto. Imprime el tamaño del archivo, el costo de insertar y el de abrir el
+ * detalle (getRecipeById); solo verifica que la base comprimida sea más chica
+ * Fuera de la suite por defecto: correr con -Pbenchmarks (ver app/build.gradle)
+ * Las consultas corren en otro thread porque Room no permite I/O en el main thread de Robolectric
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class CompressedTextBenchmarkTest {
+
+    private static final int RECIPES = 2_000;
+    private static final int DETAIL_OPENS = 500;
+
+    private Application application;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        application = ApplicationProvider.getApplicationContext();
+        executor = Executors.newSingleThreadExecutor();
+        resetDatabase();
+    }
+
+    @After
+    public void tearDown() {
+        CompressedTextConverter.setThreshold(CompressedTextConverter.DEFAULT_THRESHOLD);
+        resetDatabase();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void benchmarkSizeInsertAndDetailOpen() throws Exception {
+        List<Recipe> recipes = randomRecipes(new Random(21));
+
+        Result raw = run(CompressedTextConverter.DISABLED, recipes);
+        resetDatabase();
+        Result compressed = run(CompressedTextConverter.DEFAULT_THRESHOLD, recipes);
+
+        System.out.println(String.format(
+                "Base de %d recetas: sin comprimir %d KB, insertar %.0f us/receta, abrir detalle %.0f us; "
+                        + "comprimida %d KB (%.0f%%), insertar %.0f us/receta, abrir detalle %.0f us",
+                RECIPES, raw.fileBytes / 1024, raw.insertMicros, raw.detailMicros,
+                compressed.fileBytes / 1024, 100.0 * compressed.fileBytes / raw.fileBytes,
+                compressed.insertMicros, compressed.detailMicros));
+
+        assertTrue(compressed.fileBytes < raw.fileBytes);
+    }
+
+    @Test
+    public void listQueriesSkipInstructions() throws Exception {
+        List<Recipe> recipes = randomRecipes(new Random(4)).subList(0, 10);
+        RecipeDao dao = AppDatabase.getDatabase(application).recipeDao();
+        inBackground(() -> {
+            for (Recipe recipe : recipes) {
+                dao.insertRecipe(recipe);
+            }
+            return null;
+        });
+
+        String listedId = inBackground(() -> {
+            try (Cursor cursor = AppDatabase.getDatabase(application).getOpenHelper().getReadableDatabase()
+                    .query("SELECT " + Recipe.LIST_COLUMNS + " FROM recipes LIMIT 1")) {
+                assertEquals(-1, cursor.getColumnIndex("instructions"));
+                cursor.moveToFirst();
+                return cursor.getString(cursor.getColumnIndexOrThrow("id"));
+            }
+        });
+        Recipe detail = inBackground(() -> dao.getRecipeById(listedId));
+
+        assertNotNull(detail);
+        assertEquals(recipes.get(Integer.parseInt(listedId)).getInstructions(), detail.getInstructions());
+    }
+
+    /**
+     * Inserta las recetas con el umbral indicado y mide archivo, inserción y detalle
+     */
+    private Result run(int threshold, List<Recipe> recipes) throws Exception {
+        CompressedTextConverter.setThreshold(threshold);
+        AppDatabase database = AppDatabase.getDatabase(application);
+        RecipeDao dao = database.recipeDao();
+        Result result = new Result();
+
+        result.insertMicros = inBackground(() -> {
+            long start = System.nanoTime();
+            database.runInTransaction(() -> {
+                for (Recipe recipe : recipes) {
+                    dao.insertRecipe(recipe);
+                }
+            });
+            return (System.nanoTime() - start) / 1e3 / recipes.size();
+        });
+
+        result.fileBytes = inBackground(() -> {
+            SupportSQLiteDatabase db = database.getOpenHelper().getWritableDatabase();
+            db.execSQL("VACUUM");
+            return readLong(db.query("PRAGMA page_count")) * readLong(db.query("PRAGMA page_size"));
+        });
+
+        result.detailMicros = inBackground(() -> {
+            Random random = new Random(8);
+            long start = System.nanoTime();
+            for (int i = 0; i < DETAIL_OPENS; i++) {
+                Recipe recipe = dao.getRecipeById(String.valueOf(random.nextInt(RECIPES)));
+                assertNotNull(recipe.getInstructions());
+            }
+            return (System.nanoTime() - start) / 1e3 / DETAIL_OPENS;
+        });
+        return result;
+    }
+
+    private static List<Recipe> randomRecipes(Random random) {
+        List<Recipe> recipes = new ArrayList<>(RECIPES);
+        for (int i = 0; i < RECIPES; i++) {
+            IngredientList ingredients = new IngredientList();
+            ingredients.add("Chicken", "1 whole");
+            ingredients.add("Salt", "pinch");
+            recipes.add(new Recipe(String.valueOf(i), "Receta " + i, "Chicken", "British",
+                    CompressedTextConverterTest.randomInstructions(random), "", ingredients));
+        }
+        return recipes;
+    }
+
+    private void resetDatabase() {
+        AppDatabase.closeDatabase();
+        application.deleteDatabase(AppDatabase.DATABASE_NAME);
+    }
+
+    private static long readLong(Cursor cursor) {
+        try {
+            cursor.moveToFirst();
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    private <T> T inBackground(Callable<T> task) throws Exception {
+        return executor.submit(task).get();
+    }
+
+    private static final class Result {
+        long fileBytes;
+        double insertMicros;
+        double detailMicros;
+    }
+}
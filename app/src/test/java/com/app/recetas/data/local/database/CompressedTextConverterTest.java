@@ -0,0 +1,162 @@
+package com.app.recetas.data.local.database;
+
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del formato de instrucciones y notas (texto o Deflater según el largo)
+ */
+public class CompressedTextConverterTest {
+
+    private static final int RECIPES = 2_000;
+
+    // Frases al estilo de las instrucciones de TheMealDB
+    private static final String[] STEPS = {
+            "Preheat the oven to 180C/350F/Gas 4.",
+            "Heat the oil in a large frying pan over a medium heat.",
+            "Add the onion and garlic and cook for 5 minutes until softened.",
+            "Stir in the spices and cook for a further minute.",
+            "Season well with salt and pepper.",
+            "Bring to the boil, then reduce the heat and simmer for 20 minutes.",
+            "Meanwhile, cook the rice according to the packet instructions.",
+            "Pour the mixture into the prepared dish and bake for 25-30 minutes until golden.",
+            "Remove from the heat and leave to cool slightly before serving.",
+            "Whisk the eggs, sugar and butter together in a large bowl until light and fluffy.",
+            "Fold in the flour and baking powder, then add the milk a little at a time.",
+            "Add the chicken and cook, stirring, until browned on all sides.",
+            "Pour in the stock and tomatoes and stir well.",
+            "Garnish with chopped parsley and serve with crusty bread.",
+            "Cover and chill in the fridge for at least 2 hours, or overnight.",
+            "Drain the pasta, reserving a cup of the cooking water.",
+    };
+
+    @After
+    public void tearDown() {
+        CompressedTextConverter.setThreshold(CompressedTextConverter.DEFAULT_THRESHOLD);
+    }
+
+    @Test
+    public void shortTextsAreStoredAsRawUtf8() {
+        byte[] blob = CompressedTextConverter.encode("Agregar sal a gusto 🧂");
+
+        assertEquals(CompressedTextConverter.RAW, blob[0]);
+        assertEquals(1 + "Agregar sal a gusto 🧂".getBytes(StandardCharsets.UTF_8).length, blob.length);
+        assertEquals("Agregar sal a gusto 🧂", CompressedTextConverter.decode(blob));
+        assertEquals("", CompressedTextConverter.decode(CompressedTextConverter.encode("")));
+    }
+
+    @Test
+    public void longTextsAreDeflatedAndRoundTrip() {
+        String instructions = longInstructions(5) + " Ñandú, crème brûlée.";
+
+        byte[] blob = CompressedTextConverter.encode(instructions);
+
+        assertEquals(CompressedTextConverter.DEFLATE, blob[0]);
+        assertTrue(blob.length < instructions.length() / 2);
+        assertEquals(instructions, CompressedTextConverter.decode(blob));
+    }
+
+    @Test
+    public void thresholdControlsCompressionAndOldRowsStayReadable() {
+        String instructions = longInstructions(7);
+        byte[] deflated = CompressedTextConverter.encode(instructions);
+
+        CompressedTextConverter.setThreshold(CompressedTextConverter.DISABLED);
+        byte[] raw = CompressedTextConverter.encode(instructions);
+
+        assertEquals(CompressedTextConverter.DEFLATE, deflated[0]);
+        assertEquals(CompressedTextConverter.RAW, raw[0]);
+        assertEquals(instructions, CompressedTextConverter.decode(deflated));
+        assertEquals(instructions, CompressedTextConverter.decode(raw));
+    }
+
+    @Test
+    public void incompressibleTextsAreNotDeflated() {
+        Random random = new Random(1);
+        StringBuilder noise = new StringBuilder();
+        for (int i = 0; i < 2_000; i++) {
+            noise.append((char) ('!' + random.nextInt(90)));
+        }
+
+        byte[] blob = CompressedTextConverter.encode(noise.toString());
+
+        assertTrue(blob.length <= noise.length() + 1);
+        assertEquals(noise.toString(), CompressedTextConverter.decode(blob));
+    }
+
+    @Test
+    public void corruptedBlobsAreRejected() {
+        byte[] blob = CompressedTextConverter.encode(longInstructions(9));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> CompressedTextConverter.decode(Arrays.copyOf(blob, blob.length / 2)));
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(new byte[0]));
+        assertThrows(IllegalArgumentException.class, () -> CompressedTextConverter.decode(new byte[]{7, 1}));
+    }
+
+    @Test
+    public void recipeKeepsStringAccessors() {
+        Recipe recipe = new Recipe("1", "Tortilla", "Miscellaneous", "Spanish", "Batir", "", null);
+        assertEquals("Batir", recipe.getInstructions());
+        assertEquals("", recipe.getPersonalNotes());
+
+        recipe.setInstructions(null);
+        assertNull(recipe.getInstructions());
+        assertNull(CompressedTextConverter.toBlob(recipe.instructions));
+        assertNull(CompressedTextConverter.fromBlob(null));
+        assertEquals(CompressedText.of("Con cebolla"),
+                CompressedTextConverter.fromBlob(CompressedTextConverter.toBlob(CompressedText.of("Con cebolla"))));
+    }
+
+    @Test
+    public void typicalInstructionsShrinkAndRoundTrip() {
+        Random random = new Random(3);
+        long rawBytes = 0;
+        long blobBytes = 0;
+        for (int i = 0; i < RECIPES; i++) {
+            String text = randomInstructions(random);
+            byte[] blob = CompressedTextConverter.encode(text);
+            rawBytes += text.getBytes(StandardCharsets.UTF_8).length;
+            blobBytes += blob.length;
+            assertEquals(text, CompressedTextConverter.decode(blob));
+        }
+
+        assertTrue("comprimido=" + blobBytes + " texto=" + rawBytes, blobBytes < rawBytes);
+    }
+
+    /**
+     * Instrucciones sintéticas de 8 a 20 pasos (aprox. 0,5 a 1,5 KB, como las de TheMealDB)
+     */
+    static String randomInstructions(Random random) {
+        int steps = 8 + random.nextInt(13);
+        StringBuilder text = new StringBuilder(steps * 60);
+        for (int i = 0; i < steps; i++) {
+            if (i > 0) {
+                text.append(random.nextInt(3) == 0 ? "\r\n" : " ");
+            }
+            text.append(STEPS[random.nextInt(STEPS.length)]);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Instrucciones siempre por encima del umbral por defecto (al menos 16 pasos)
+     */
+    private static String longInstructions(long seed) {
+        Random random = new Random(seed);
+        return randomInstructions(random) + "\r\n"
+                + randomInstructions(random);
+    }
+}
@@ -0,0 +1,134 @@
+package com.app.recetas.data.local.database;
+
+import com.app.recetas.data.local.entities.IngredientList;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Benchmark de la columna de ingredientes con 20.000 recetas sintéticas
+ * Compara el JSON en texto (org.json, como lo leía RecipeDetailActivity) contra el BLOB
+ * binario: tiempo de decodificación y bytes guardados por receta
+ * Los tiempos se imprimen; solo se verifica que ambos formatos den los mismos datos
+ * Fuera de la suite por defecto: correr con -Pbenchmarks (ver app/build.gradle)
+ * Que la migración achica el archivo SQLite lo verifica AppDatabaseMigrationTest
+ */
+public class IngredientListBenchmarkTest {
+
+    private static final int RECIPES = 20_000;
+    private static final int ROUNDS = 3;
+
+    private static final String[] MEASURES = {
+            "1 tsp", "2 tbsp", "100g", "1 cup", "to taste", "2", "1/2 cup", "3 cloves", "pinch", "",
+    };
+
+    @Test
+    public void benchmarkDecodeAndSize() throws JSONException {
+        Random random = new Random(11);
+        List<IngredientList> recipes = new ArrayList<>(RECIPES);
+        List<String> jsonRows = new ArrayList<>(RECIPES);
+        List<byte[]> blobRows = new ArrayList<>(RECIPES);
+        long jsonBytes = 0;
+        long blobBytes = 0;
+        for (int i = 0; i < RECIPES; i++) {
+            IngredientList recipe = randomRecipe(random);
+            String json = toJson(recipe);
+            byte[] blob = IngredientListConverter.encode(recipe);
+            recipes.add(recipe);
+            jsonRows.add(json);
+            blobRows.add(blob);
+            jsonBytes += json.getBytes(StandardCharsets.UTF_8).length;
+            blobBytes += blob.length;
+        }
+
+        // Calentar el JIT con una pasada de cada formato
+        decodeJson(jsonRows);
+        decodeBlobs(blobRows, new IngredientList());
+
+        long jsonNanos = Long.MAX_VALUE;
+        long blobNanos = Long.MAX_VALUE;
+        int checksum = 0;
+        IngredientList reused = new IngredientList(20);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            checksum += decodeJson(jsonRows);
+            jsonNanos = Math.min(jsonNanos, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            checksum -= decodeBlobs(blobRows, reused);
+            blobNanos = Math.min(blobNanos, System.nanoTime() - start);
+        }
+
+        System.out.println(String.format(
+                "Ingredientes %d recetas: JSON=%.1fB/receta %.2fus, binario=%.1fB/receta %.2fus (%.0f%% del tamaño, x%.1f)",
+                RECIPES, (double) jsonBytes / RECIPES, jsonNanos / 1e3 / RECIPES,
+                (double) blobBytes / RECIPES, blobNanos / 1e3 / RECIPES,
+                100.0 * blobBytes / jsonBytes, (double) jsonNanos / Math.max(1, blobNanos)));
+
+        assertEquals(0, checksum);
+        assertTrue(blobBytes < jsonBytes);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(recipes.get(i), IngredientList.fromText(jsonRows.get(i)));
+            assertEquals(recipes.get(i), IngredientListConverter.fromBlob(blobRows.get(i)));
+        }
+    }
+
+    /**
+     * Mayoría de ingredientes comunes (diccionario) y algunos poco frecuentes
+     */
+    private static IngredientList randomRecipe(Random random) {
+        int size = 5 + random.nextInt(11);
+        IngredientList recipe = new IngredientList(size);
+        for (int j = 0; j < size; j++) {
+            String name = random.nextInt(5) == 0
+                    ? "Ingrediente poco común " + random.nextInt(2_000)
+                    : IngredientListConverter.DICTIONARY[random.nextInt(IngredientListConverter.DICTIONARY.length)];
+            recipe.add(name, MEASURES[random.nextInt(MEASURES.length)]);
+        }
+        return recipe;
+    }
+
+    private static String toJson(IngredientList recipe) throws JSONException {
+        JSONArray array = new JSONArray();
+        for (int i = 0; i < recipe.size(); i++) {
+            JSONObject item = new JSONObject();
+            item.put("ingredient", recipe.getName(i));
+            item.put("measure", recipe.getMeasure(i));
+            array.put(item);
+        }
+        return array.toString();
+    }
+
+    private static int decodeJson(List<String> rows) throws JSONException {
+        int count = 0;
+        for (String row : rows) {
+            JSONArray array = new JSONArray(row);
+            for (int i = 0; i < array.length(); i++) {
+                JSONObject item = array.getJSONObject(i);
+                count += item.optString("ingredient", "").length() + item.optString("measure", "").length();
+            }
+        }
+        return count;
+    }
+
+    private static int decodeBlobs(List<byte[]> rows, IngredientList reused) {
+        int count = 0;
+        for (byte[] row : rows) {
+            IngredientListConverter.decode(row, reused);
+            for (int i = 0; i < reused.size(); i++) {
+                count += reused.getName(i).length() + reused.getMeasure(i).length();
+            }
+        }
+        return count;
+    }
+}
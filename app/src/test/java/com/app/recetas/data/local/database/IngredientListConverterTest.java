@@ -0,0 +1,102 @@
+package com.app.recetas.data.local.database;
+
+import com.app.recetas.data.local.entities.IngredientList;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del formato binario de ingredientes y de la lectura del formato anterior
+ */
+public class IngredientListConverterTest {
+
+    @Test
+    public void roundTripKeepsNamesMeasuresAndOrder() {
+        IngredientList list = new IngredientList();
+        list.add("Chicken", "1 whole");
+        list.add("Azúcar mascabo", "");
+        list.add("Salt", "a pinch");
+
+        IngredientList decoded = IngredientListConverter.fromBlob(IngredientListConverter.toBlob(list));
+
+        assertEquals(list, decoded);
+        assertEquals("Azúcar mascabo", decoded.getName(1));
+        assertEquals("", decoded.getMeasure(1));
+        assertNull(IngredientListConverter.toBlob(null));
+        assertNull(IngredientListConverter.fromBlob(null));
+    }
+
+    @Test
+    public void dictionaryNamesTakeOneByteAndAreShared() {
+        IngredientList common = new IngredientList();
+        common.add(new String("Olive Oil"), "");
+        IngredientList rare = new IngredientList();
+        rare.add("Olive Oyl", "");
+
+        byte[] commonBlob = IngredientListConverter.encode(common);
+        byte[] rareBlob = IngredientListConverter.encode(rare);
+
+        // versión + cantidad + código + medida vacía
+        assertEquals(4, commonBlob.length);
+        assertEquals(4 + 1 + "Olive Oyl".length(), rareBlob.length);
+        assertSame(IngredientListConverter.DICTIONARY[1],
+                IngredientListConverter.fromBlob(commonBlob).getName(0));
+        assertTrue(IngredientListConverter.DICTIONARY.length <= 127);
+        assertEquals(IngredientListConverter.DICTIONARY.length,
+                new HashSet<>(Arrays.asList(IngredientListConverter.DICTIONARY)).size());
+    }
+
+    @Test
+    public void decodeReusesTheTargetList() {
+        IngredientList first = new IngredientList();
+        first.add("Rice", "200g");
+        first.add("Beans", "1 can");
+        IngredientList second = new IngredientList();
+        second.add("Eggs", "2");
+
+        IngredientList reused = new IngredientList(1);
+        IngredientListConverter.decode(IngredientListConverter.encode(first), reused);
+        assertEquals(first, reused);
+        IngredientListConverter.decode(IngredientListConverter.encode(second), reused);
+        assertEquals(second, reused);
+    }
+
+    @Test
+    public void corruptedBlobsAreRejected() {
+        IngredientList list = new IngredientList();
+        list.add("Saffron", "1 pinch");
+        byte[] blob = IngredientListConverter.encode(list);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> IngredientListConverter.fromBlob(Arrays.copyOf(blob, blob.length - 2)));
+        assertThrows(IllegalArgumentException.class,
+                () -> IngredientListConverter.fromBlob("[{}]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void fromTextReadsTheJsonAndFreeTextFormats() {
+        IngredientList json = IngredientList.fromText(
+                "[{\"ingredient\":\"Chicken\",\"measure\":\"1 whole\"},{\"ingredient\":\"\"},\"Salt\"]");
+        assertEquals(2, json.size());
+        assertEquals("Chicken", json.getName(0));
+        assertEquals("1 whole", json.getMeasure(0));
+        assertEquals("Salt", json.getName(1));
+
+        IngredientList text = IngredientList.fromText("200 g de harina\n\n  2 huevos  \n[leche");
+        assertEquals(3, text.size());
+        assertEquals("2 huevos", text.getName(1));
+        assertEquals("[leche", text.getName(2));
+
+        assertTrue(IngredientList.fromText(null).isEmpty());
+        assertTrue(IngredientList.fromText("[]").isEmpty());
+    }
+}
@@ -0,0 +1,91 @@
+package com.app.recetas.data.remote.api;
+
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+import com.app.recetas.fixtures.MealDbDispatcher;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de ApiClient contra el servidor local de TheMealDB (sin red)
+ */
+public class ApiClientTest {
+
+    private MealDbServer server;
+    private MealApiService api;
+
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        api = ApiClient.getApiService();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.clearInstances();
+        server.close();
+    }
+
+    @Test
+    public void configureReplacesBaseUrl() {
+        assertEquals(server.getBaseUrl(), ApiClient.getBaseUrl());
+        ApiClient.clearInstances();
+        assertEquals(ApiClient.DEFAULT_BASE_URL, ApiClient.getBaseUrl());
+    }
+
+    @Test
+    public void searchByNameReturnsMatchingMeals() throws IOException {
+        Response<MealResponse> response = api.searchByName("chicken").execute();
+
+        assertTrue(response.isSuccessful());
+        assertNotNull(response.body().meals);
+        for (MealDto meal : response.body().meals) {
+            assertTrue(meal.strMeal.toLowerCase().contains("chicken"));
+        }
+        assertEquals(3, response.body().meals.size());
+    }
+
+    @Test
+    public void searchWithoutMatchesReturnsNullMeals() throws IOException {
+        Response<MealResponse> response = api.searchByName("zzz").execute();
+
+        assertTrue(response.isSuccessful());
+        assertNull(response.body().meals);
+    }
+
+    @Test
+    public void filterReturnsSummaryAndLookupReturnsDetail() throws IOException {
+        MealResponse filtered = api.searchByArea("Italian").execute().body();
+        assertEquals(2, filtered.meals.size());
+        assertNull(filtered.meals.get(0).strInstructions);
+
+        MealResponse detail = api.getRecipeById(filtered.meals.get(0).idMeal).execute().body();
+        assertEquals(1, detail.meals.size());
+        assertNotNull(detail.meals.get(0).strInstructions);
+        assertEquals("Italian", detail.meals.get(0).strArea);
+    }
+
+    @Test
+    public void injectedFaultsAreRetriedByDefaultClient() throws IOException {
+        server.getDispatcher().failNext("lookup.php", 2, MealDbDispatcher.Fault.UNAVAILABLE);
+
+        Response<MealResponse> response = api.getRecipeById("52772").execute();
+
+        assertTrue(response.isSuccessful());
+        assertEquals("Teriyaki Chicken Casserole", response.body().meals.get(0).strMeal);
+        assertEquals(3, server.getDispatcher().getRequestCount("lookup.php"));
+    }
+}
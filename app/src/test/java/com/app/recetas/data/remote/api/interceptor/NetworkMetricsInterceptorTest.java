@@ -0,0 +1,112 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests de NetworkMetricsInterceptor: las métricas se consultan a través de NetworkMetrics
+ */
+public class NetworkMetricsInterceptorTest {
+
+    private MockWebServer server;
+    private NetworkMetrics metrics;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        metrics = new NetworkMetrics();
+        client = new OkHttpClient.Builder()
+                .addInterceptor(new NetworkMetricsInterceptor(metrics))
+                .retryOnConnectionFailure(false) // Que la desconexión llegue como IOException
+                .readTimeout(2, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private void get(String path) throws IOException {
+        try (Response response = client.newCall(new Request.Builder().url(server.url(path)).build()).execute()) {
+            response.body().string();
+        }
+    }
+
+    @Test
+    public void recordsCallsBytesAndCacheStatusPerEndpoint() throws IOException {
+        server.enqueue(new MockResponse().setBody("{\"meals\":[]}"));
+        server.enqueue(new MockResponse().setBody("{\"meals\":null}"));
+        server.enqueue(new MockResponse().setBody("{}"));
+
+        get("/api/json/v1/1/search.php?s=pasta");
+        get("/api/json/v1/1/search.php?s=pizza");
+        get("/api/json/v1/1/categories.php");
+
+        NetworkMetrics.Snapshot search = metrics.getSnapshot("search.php");
+        assertNotNull(search);
+        assertEquals(2, search.getCalls());
+        assertEquals(0, search.getErrors());
+        assertEquals("{\"meals\":[]}".length() + "{\"meals\":null}".length(), search.getBytesReceived());
+        assertEquals(2, search.getCacheCount(NetworkMetrics.CacheStatus.NETWORK));
+        assertEquals(1, metrics.getSnapshot("categories.php").getCalls());
+        assertNull(metrics.getSnapshot("lookup.php"));
+        assertEquals(2, metrics.getSnapshots().size());
+    }
+
+    @Test
+    public void countsHttpErrorsAndNetworkFailures() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST));
+
+        get("/lookup.php?i=1");
+        try {
+            get("/lookup.php?i=2");
+            fail("Se esperaba IOException");
+        } catch (IOException expected) {
+            // La falla de red también se registra
+        }
+
+        NetworkMetrics.Snapshot lookup = metrics.getSnapshot("lookup.php");
+        assertEquals(2, lookup.getCalls());
+        assertEquals(2, lookup.getErrors());
+        assertEquals(1, lookup.getCacheCount(NetworkMetrics.CacheStatus.NONE));
+    }
+
+    @Test
+    public void latencyHistogramReflectsInjectedDelay() throws IOException {
+        server.enqueue(new MockResponse().setBody("ok"));
+        server.enqueue(new MockResponse().setBody("ok").setHeadersDelay(300, TimeUnit.MILLISECONDS));
+
+        get("/random.php");
+        get("/random.php");
+
+        NetworkMetrics.Snapshot random = metrics.getSnapshot("random.php");
+        long[] buckets = random.getLatencyBuckets();
+        long total = 0;
+        for (long count : buckets) total += count;
+        assertEquals(2, total);
+        // La llamada demorada cae en el bucket de 500 ms o más
+        assertTrue(random.getLatencyPercentileMs(100) >= 500);
+        assertTrue(random.getAverageLatencyMs() >= 150);
+    }
+}
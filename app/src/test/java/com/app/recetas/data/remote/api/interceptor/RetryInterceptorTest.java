@@ -0,0 +1,287 @@
+package com.app.recetas.data.remote.api.interceptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests de RetryInterceptor y CircuitBreakerInterceptor contra un MockWebServer
+ * que inyecta fallas y latencia
+ */
+public class RetryInterceptorTest {
+
+    private MockWebServer server;
+    private long now;
+    private CircuitBreakerInterceptor breaker;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        now = 0;
+        breaker = new CircuitBreakerInterceptor(3, 30000, () -> now);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private OkHttpClient client(int maxRetries, long budgetMs) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor(maxRetries, 10, 50, budgetMs, new Random(42)))
+                .addInterceptor(breaker)
+                .readTimeout(200, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    private Response get(OkHttpClient client, String path) throws IOException {
+        return client.newCall(new Request.Builder().url(server.url(path)).build()).execute();
+    }
+
+    @Test
+    public void retriesGetOnServerErrorUntilSuccess() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(500));
+        server.enqueue(new MockResponse().setBody("{\"meals\":null}"));
+
+        try (Response response = get(client(2, 5000), "/search.php?s=pasta")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void returnsLastErrorAfterMaxRetries() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        try (Response response = get(client(2, 5000), "/lookup.php?i=1")) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        try (Response response = get(client(2, 5000), "/lookup.php?i=1")) {
+            assertEquals(404, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void doesNotRetryNonIdempotentRequests() throws IOException {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        Request post = new Request.Builder()
+                .url(server.url("/search.php"))
+                .post(RequestBody.create("{}", MediaType.get("application/json")))
+                .build();
+        try (Response response = client(2, 5000).newCall(post).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesAfterReadTimeoutFromSlowServer() throws IOException {
+        // Primer intento: el servidor tarda más que el read timeout
+        server.enqueue(new MockResponse().setBody("lento").setHeadersDelay(1, TimeUnit.SECONDS));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = get(client(2, 5000), "/categories.php")) {
+            assertEquals("ok", response.body().string());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesAfterDroppedConnection() throws IOException {
+        server.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        try (Response response = get(client(2, 5000), "/random.php")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void stopsWhenCallBudgetIsExhausted() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            server.enqueue(new MockResponse().setBody("lento").setHeadersDelay(1, TimeUnit.SECONDS));
+        }
+
+        long start = System.nanoTime();
+        try {
+            get(client(5, 300), "/search.php?s=pasta").close();
+            fail("Se esperaba timeout por presupuesto agotado");
+        } catch (InterruptedIOException expected) {
+            // El presupuesto de 300 ms corta la llamada aunque queden reintentos
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("La llamada debió cortarse cerca del presupuesto: " + elapsedMs + " ms", elapsedMs < 1000);
+    }
+
+    @Test
+    public void perCallBudgetHeaderIsHonoredAndStripped() throws Exception {
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        Request request = new Request.Builder()
+                .url(server.url("/lookup.php?i=1"))
+                .header(RetryInterceptor.HEADER_CALL_BUDGET, "2000")
+                .build();
+        try (Response response = client(2, 10).newCall(request).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(null, server.takeRequest().getHeader(RetryInterceptor.HEADER_CALL_BUDGET));
+    }
+
+    @Test
+    public void circuitOpensAfterConsecutiveFailuresAndFailsFast() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        OkHttpClient client = client(0, 5000);
+        for (int i = 0; i < 3; i++) {
+            get(client, "/lookup.php?i=" + i).close();
+        }
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("lookup.php"));
+
+        try {
+            get(client, "/lookup.php?i=99").close();
+            fail("Se esperaba CircuitOpenException");
+        } catch (CircuitOpenException expected) {
+            assertEquals("lookup.php", expected.getEndpoint());
+        }
+        // La llamada rechazada no llegó al servidor
+        assertEquals(3, server.getRequestCount());
+
+        // Otros endpoints no se ven afectados
+        server.enqueue(new MockResponse().setBody("ok"));
+        try (Response response = get(client, "/search.php?s=pasta")) {
+            assertEquals(200, response.code());
+        }
+    }
+
+    @Test
+    public void retryDoesNotHammerOpenCircuit() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        // Con 5 reintentos, el circuito se abre al tercer intento y corta el resto
+        try {
+            get(client(5, 5000), "/filter.php?c=Seafood").close();
+            fail("Se esperaba CircuitOpenException");
+        } catch (CircuitOpenException expected) {
+            // esperado
+        }
+        assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void halfOpenTrialClosesCircuitOnSuccess() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        OkHttpClient client = client(0, 5000);
+        for (int i = 0; i < 3; i++) {
+            get(client, "/lookup.php?i=" + i).close();
+        }
+
+        // Pasado el tiempo de apertura se permite un pedido de prueba
+        now += 30001;
+        server.enqueue(new MockResponse().setBody("ok"));
+        try (Response response = get(client, "/lookup.php?i=1")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState("lookup.php"));
+    }
+
+    @Test
+    public void halfOpenTrialFailureReopensCircuit() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        OkHttpClient client = client(0, 5000);
+        for (int i = 0; i < 3; i++) {
+            get(client, "/lookup.php?i=" + i).close();
+        }
+
+        now += 30001;
+        get(client, "/lookup.php?i=1").close();
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("lookup.php"));
+    }
+
+    @Test
+    public void uncheckedExceptionInTrialDoesNotLeaveCircuitStuck() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        boolean[] throwOnce = {false};
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(breaker)
+                .addInterceptor(chain -> {
+                    if (throwOnce[0]) {
+                        throwOnce[0] = false;
+                        throw new IllegalStateException("interceptor roto");
+                    }
+                    return chain.proceed(chain.request());
+                })
+                .build();
+        for (int i = 0; i < 3; i++) {
+            get(client, "/lookup.php?i=" + i).close();
+        }
+
+        // El pedido de prueba falla con una excepción no chequeada: el circuito vuelve a abrirse
+        now += 30001;
+        throwOnce[0] = true;
+        try {
+            get(client, "/lookup.php?i=1").close();
+            fail("Se esperaba IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // esperado
+        }
+        assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState("lookup.php"));
+
+        // Y el siguiente período semi-abierto deja pasar un nuevo pedido de prueba
+        now += 30001;
+        server.enqueue(new MockResponse().setBody("ok"));
+        try (Response response = get(client, "/lookup.php?i=1")) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState("lookup.php"));
+    }
+
+    @Test
+    public void backoffDelayIsBoundedByCap() {
+        RetryInterceptor interceptor = new RetryInterceptor(5, 100, 400, 5000, new Random(7));
+        for (int attempt = 0; attempt < 10; attempt++) {
+            long delay = interceptor.computeDelayMs(attempt);
+            assertTrue(delay >= 0);
+            assertTrue(delay <= Math.min(400, 100L << attempt));
+        }
+    }
+}
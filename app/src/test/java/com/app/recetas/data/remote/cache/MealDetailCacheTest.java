@@ -0,0 +1,133 @@
+package com.app.recetas.data.remote.cache;
+
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.api.MealApiService;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la caché de detalles contra el servidor local de TheMealDB:
+ * pedidos agrupados por ID, lecturas desde memoria y cancelación de precargas
+ */
+public class MealDetailCacheTest {
+
+    private static final String TERIYAKI_ID = "52772";
+
+    private MealDbServer server;
+    private MealApiService apiService;
+    private MealDetailCache cache;
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+
+    private final MealDetailCache.DetailCallback callback = new MealDetailCache.DetailCallback() {
+        @Override
+        public void onDetailLoaded(MealDto meal) {
+            events.add(meal);
+        }
+
+        @Override
+        public void onDetailError(String message) {
+            events.add(message);
+        }
+    };
+
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        apiService = ApiClient.getApiService();
+        cache = new MealDetailCache();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.clearInstances();
+        server.close();
+    }
+
+    @Test
+    public void concurrentFetchesShareOneLookup() throws Exception {
+        server.getDispatcher().setLatency(200);
+
+        // Precarga (sin callback) y dos pantallas que piden la misma receta
+        cache.fetch(apiService, TERIYAKI_ID, null);
+        cache.fetch(apiService, TERIYAKI_ID, callback);
+        cache.fetch(apiService, TERIYAKI_ID, callback);
+        assertTrue(cache.isLoading(TERIYAKI_ID));
+
+        assertEquals("Teriyaki Chicken Casserole", next(MealDto.class).strMeal);
+        assertEquals("Teriyaki Chicken Casserole", next(MealDto.class).strMeal);
+        assertEquals(1, server.getDispatcher().getRequestCount("lookup.php"));
+        assertFalse(cache.isLoading(TERIYAKI_ID));
+
+        // Ya en caché: responde en el mismo thread, sin otra llamada
+        cache.fetch(apiService, TERIYAKI_ID, callback);
+        assertNotNull(events.poll());
+        assertEquals(1, server.getDispatcher().getRequestCount("lookup.php"));
+    }
+
+    @Test
+    public void cancelledPrefetchReportsNothing() throws Exception {
+        server.getDispatcher().setLatency(300);
+
+        cache.fetch(apiService, TERIYAKI_ID, callback);
+        assertTrue(cache.cancel(TERIYAKI_ID, callback));
+
+        assertFalse(cache.isLoading(TERIYAKI_ID));
+        assertNull(events.poll(600, TimeUnit.MILLISECONDS));
+        assertFalse(cache.contains(TERIYAKI_ID));
+    }
+
+    @Test
+    public void cancelKeepsCallForOtherWaiters() throws Exception {
+        MealDetailCache.DetailCallback other = new MealDetailCache.DetailCallback() {
+            @Override
+            public void onDetailLoaded(MealDto meal) {
+            }
+
+            @Override
+            public void onDetailError(String message) {
+            }
+        };
+        server.getDispatcher().setLatency(200);
+
+        cache.fetch(apiService, TERIYAKI_ID, other);
+        cache.fetch(apiService, TERIYAKI_ID, callback);
+
+        assertFalse(cache.cancel(TERIYAKI_ID, other));
+        assertEquals("Teriyaki Chicken Casserole", next(MealDto.class).strMeal);
+    }
+
+    @Test
+    public void summariesWithoutInstructionsAreNotCached() {
+        MealDto summary = new MealDto();
+        summary.idMeal = TERIYAKI_ID;
+        summary.strMeal = "Teriyaki Chicken Casserole";
+
+        cache.put(summary);
+
+        assertFalse(cache.contains(TERIYAKI_ID));
+        assertEquals(0, cache.size());
+    }
+
+    private <T> T next(Class<T> type) throws InterruptedException {
+        Object event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No llegó ningún resultado", event);
+        assertTrue("Se esperaba " + type.getSimpleName() + " y llegó " + event, type.isInstance(event));
+        return type.cast(event);
+    }
+}
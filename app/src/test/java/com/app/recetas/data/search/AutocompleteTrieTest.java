@@ -0,0 +1,75 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.utils.SearchType;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del trie de autocompletado: prefijos, ranking por frecuencia/recencia y bajas
+ */
+public class AutocompleteTrieTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long NOW = 1760000000000L;
+
+    private AutocompleteTrie trie;
+
+    @Before
+    public void setUp() {
+        trie = new AutocompleteTrie(8);
+        trie.add("Spaghetti Carbonara", SearchType.NAME, 1, 1, NOW);
+        trie.add("Spicy Arrabiata Penne", SearchType.NAME, 1, 1, NOW);
+        trie.add("Seafood", SearchType.CATEGORY, 2, 2, NOW);
+        trie.add("Spanish", SearchType.AREA, 4, 2, NOW);
+        trie.add("Italian", SearchType.AREA, 4, 2, NOW);
+    }
+
+    @Test
+    public void suggestsByPrefixIgnoringCaseAndAccents() {
+        List<Suggestion> result = trie.suggest("SP", 8);
+
+        assertEquals(3, result.size());
+        // Los filtros pesan más que los nombres del catálogo
+        assertEquals("Spanish", result.get(0).getText());
+        assertEquals(SearchType.AREA, result.get(0).getType());
+        assertEquals("Italian", trie.suggest("itál", 8).get(0).getText());
+        assertTrue(trie.suggest("x", 8).isEmpty());
+    }
+
+    @Test
+    public void matchesFromTheStartOfAnyWord() {
+        List<Suggestion> result = trie.suggest("carbo", 8);
+
+        assertEquals(1, result.size());
+        assertEquals("Spaghetti Carbonara", result.get(0).getText());
+    }
+
+    @Test
+    public void frequentAndRecentTermsRankFirst() {
+        trie.recordUse("Spicy Arrabiata Penne", SearchType.NAME, 1, NOW);
+        trie.recordUse("Spicy Arrabiata Penne", SearchType.NAME, 1, NOW);
+        assertEquals("Spicy Arrabiata Penne", trie.suggest("sp", 8).get(0).getText());
+
+        // Un uso de dentro de 60 días supera a dos usos de hoy
+        trie.recordUse("Spaghetti Carbonara", SearchType.NAME, 1, NOW + 60 * DAY);
+        assertEquals("Spaghetti Carbonara", trie.suggest("sp", 8).get(0).getText());
+    }
+
+    @Test
+    public void removeDropsTermOnlyWhenNoSourceIsLeft() {
+        trie.add("Seafood", SearchType.CATEGORY, 16, 0, NOW);
+
+        assertEquals(false, trie.remove("Seafood", SearchType.CATEGORY, 2));
+        assertEquals("Seafood", trie.suggest("sea", 8).get(0).getText());
+
+        assertEquals(true, trie.remove("Seafood", SearchType.CATEGORY, 16));
+        assertTrue(trie.suggest("sea", 8).isEmpty());
+        assertEquals(4, trie.size());
+    }
+}
@@ -0,0 +1,150 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.fixtures.MealDbServer;
+import com.app.recetas.utils.SearchType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la búsqueda unificada contra el servidor local de TheMealDB
+ */
+public class FederatedSearchTest {
+    
+    private MealDbServer server;
+    private FederatedSearch federatedSearch;
+    private final BlockingQueue<FederatedSearch.Snapshot> snapshots = new LinkedBlockingQueue<>();
+    
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        if (federatedSearch != null) {
+            federatedSearch.shutdown();
+        }
+        ApiClient.clearInstances();
+        server.close();
+    }
+    
+    @Test
+    public void localResultsArriveFirstAndRemoteOnesAreMergedWithoutDuplicates() throws Exception {
+        server.getDispatcher().setLatency(300);
+        federatedSearch = new FederatedSearch((query, type) -> Arrays.asList(
+                FederatedResult.local(meal("52795", "Chicken Handi"), 0.9, System.currentTimeMillis()),
+                FederatedResult.local(meal("p1", "Pollo con chicken rub"), 0.6, System.currentTimeMillis())),
+                ApiClient.getApiService(), 1_000, 5_000);
+        
+        federatedSearch.search("chicken", SearchType.NAME, snapshots::add);
+        
+        FederatedSearch.Snapshot first = next();
+        assertEquals(FederatedSearch.SourceStatus.DONE, first.getLocalStatus());
+        assertEquals(FederatedSearch.SourceStatus.PENDING, first.getRemoteStatus());
+        assertEquals(2, first.getResults().size());
+        
+        FederatedSearch.Snapshot last = next();
+        assertTrue(last.isComplete());
+        // 2 locales + 3 de la API, con Chicken Handi en ambas fuentes
+        assertEquals(4, last.getResults().size());
+        FederatedResult top = last.getResults().get(0);
+        assertEquals("52795", top.getId());
+        assertTrue(top.isSaved());
+        assertTrue(top.isRemote());
+        assertEquals(1, countId(last.getResults(), "52795"));
+    }
+    
+    @Test
+    public void slowApiDoesNotHideLocalResults() throws Exception {
+        server.getDispatcher().setLatency(3_000);
+        federatedSearch = new FederatedSearch(
+                (query, type) -> Arrays.asList(FederatedResult.local(meal("p1", "Lasaña de la abuela"), 0.8, 0)),
+                ApiClient.getApiService(), 1_000, 200);
+        
+        long start = System.nanoTime();
+        federatedSearch.search("lasagne", SearchType.NAME, snapshots::add);
+        FederatedSearch.Snapshot local = next();
+        FederatedSearch.Snapshot last = next();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertEquals(1, local.getResults().size());
+        assertTrue(last.isComplete());
+        assertEquals(FederatedSearch.SourceStatus.TIMED_OUT, last.getRemoteStatus());
+        assertNotNull(last.getRemoteError());
+        assertEquals("p1", last.getResults().get(0).getId());
+        assertTrue("Tardó " + elapsedMs + "ms", elapsedMs < 2_000);
+    }
+    
+    @Test
+    public void slowLocalSourceDoesNotHideRemoteResults() throws Exception {
+        federatedSearch = new FederatedSearch((query, type) -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ArrayList<>();
+        }, ApiClient.getApiService(), 100, 5_000);
+        
+        federatedSearch.search("Seafood", SearchType.CATEGORY, snapshots::add);
+        FederatedSearch.Snapshot last = next();
+        while (!last.isComplete()) {
+            last = next();
+        }
+        
+        assertEquals(FederatedSearch.SourceStatus.TIMED_OUT, last.getLocalStatus());
+        assertEquals(FederatedSearch.SourceStatus.DONE, last.getRemoteStatus());
+        assertNull(last.getRemoteError());
+        assertEquals(3, last.getResults().size());
+    }
+    
+    @Test
+    public void cancelledSearchPublishesNothing() throws Exception {
+        server.getDispatcher().setLatency(300);
+        federatedSearch = new FederatedSearch((query, type) -> new ArrayList<>(),
+                ApiClient.getApiService(), 1_000, 5_000);
+        
+        federatedSearch.search("chicken", SearchType.NAME, snapshots::add).cancel();
+        
+        assertNull(snapshots.poll(800, TimeUnit.MILLISECONDS));
+    }
+    
+    private FederatedSearch.Snapshot next() throws InterruptedException {
+        FederatedSearch.Snapshot snapshot = snapshots.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No llegó ninguna actualización", snapshot);
+        return snapshot;
+    }
+    
+    private static int countId(List<FederatedResult> results, String id) {
+        int count = 0;
+        for (FederatedResult result : results) {
+            if (id.equals(result.getId())) count++;
+        }
+        return count;
+    }
+    
+    private static MealDto meal(String id, String name) {
+        MealDto meal = new MealDto();
+        meal.idMeal = id;
+        meal.strMeal = name;
+        return meal;
+    }
+}
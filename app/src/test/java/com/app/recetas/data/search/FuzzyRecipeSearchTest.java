@@ -0,0 +1,68 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.local.dao.FakeRecipeDao;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la sincronización del índice de trigramas con la colección
+ * Corre con Robolectric porque el buscador registra con Log los errores de carga
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class FuzzyRecipeSearchTest {
+    
+    @Test
+    public void refreshPicksUpChangedAndRemovedRecipes() {
+        FakeRecipeDao dao = new FakeRecipeDao();
+        dao.insertRecipe(recipe("1", "Spaghetti Carbonara"));
+        FuzzyRecipeSearch search = new FuzzyRecipeSearch(dao, Runnable::run);
+        search.scheduleRefresh();
+        
+        assertEquals("1", first(search.search("carbonra", 10)));
+        
+        dao.recipes.clear();
+        dao.insertRecipe(recipe("2", "Chicken Curry"));
+        search.scheduleRefresh();
+        
+        assertTrue(search.search("carbonra", 10).isEmpty());
+        assertEquals("2", first(search.search("chiken", 10)));
+    }
+    
+    @Test
+    public void failedLoadDoesNotBlockSearches() {
+        FakeRecipeDao dao = new FakeRecipeDao();
+        dao.failure = new IllegalStateException("Base cerrada");
+        // Executor directo: si la excepción escapara de la tarea, llegaría a este thread
+        FuzzyRecipeSearch search = new FuzzyRecipeSearch(dao, Runnable::run);
+        search.scheduleRefresh();
+        
+        // Sin la carga inicial las búsquedas responden vacío en lugar de esperar para siempre
+        assertTrue(search.isLoaded());
+        assertTrue(search.search("carbonara", 10).isEmpty());
+        
+        // La siguiente recarga (próxima invalidación) completa el índice
+        dao.failure = null;
+        dao.insertRecipe(recipe("1", "Spaghetti Carbonara"));
+        search.scheduleRefresh();
+        assertEquals("1", first(search.search("carbonara", 10)));
+    }
+    
+    private static String first(List<TrigramIndex.Hit> hits) {
+        return hits.isEmpty() ? null : hits.get(0).getRecipeId();
+    }
+    
+    private static Recipe recipe(String id, String name) {
+        return new Recipe(id, name, "", "", "", "", new IngredientList());
+    }
+}
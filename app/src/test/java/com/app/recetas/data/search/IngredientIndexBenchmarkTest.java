@@ -0,0 +1,98 @@
+package com.app.recetas.data.search;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Benchmark del índice de ingredientes con 50.000 recetas sintéticas
+ * Compara contra un recorrido lineal para validar los resultados y medir la ganancia
+ * Los tiempos se imprimen; solo se verifica que los resultados coincidan
+ * Fuera de la suite por defecto: correr con -Pbenchmarks (ver app/build.gradle);
+ * IngredientIndexTest compara índice y recorrido con una colección chica
+ */
+public class IngredientIndexBenchmarkTest {
+
+    private static final int RECIPES = 50_000;
+    private static final int VOCABULARY = 1_500;
+    private static final int QUERIES = 200;
+
+    @Test
+    public void benchmark50kRecipes() {
+        Random random = new Random(7);
+        List<List<String>> recipes = new ArrayList<>(RECIPES);
+        for (int i = 0; i < RECIPES; i++) {
+            int size = 5 + random.nextInt(11);
+            List<String> ingredients = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                ingredients.add(ingredientName(random));
+            }
+            recipes.add(ingredients);
+        }
+
+        IngredientIndex index = new IngredientIndex();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < RECIPES; i++) {
+            index.put(String.valueOf(i), recipes.get(i));
+        }
+        long buildMs = (System.nanoTime() - buildStart) / 1_000_000;
+
+        List<List<String>> pantries = new ArrayList<>(QUERIES);
+        for (int q = 0; q < QUERIES; q++) {
+            List<String> pantry = new ArrayList<>();
+            for (int j = 0; j < 40; j++) {
+                pantry.add(ingredientName(random));
+            }
+            pantries.add(pantry);
+        }
+
+        // Índice: todos los ingredientes + faltan como máximo 2
+        long indexStart = System.nanoTime();
+        int indexHits = 0;
+        for (List<String> pantry : pantries) {
+            indexHits += index.findWithAll(pantry.subList(0, 2)).size();
+            indexHits += index.findMissingAtMost(pantry, 2).size();
+        }
+        long indexNanos = System.nanoTime() - indexStart;
+
+        // Recorrido lineal equivalente
+        long scanStart = System.nanoTime();
+        int scanHits = 0;
+        for (List<String> pantry : pantries) {
+            Set<String> required = new HashSet<>(pantry.subList(0, 2));
+            Set<String> available = new HashSet<>(pantry);
+            for (List<String> recipe : recipes) {
+                Set<String> unique = new HashSet<>(recipe);
+                if (unique.containsAll(required)) scanHits++;
+                int missing = 0;
+                for (String ingredient : unique) {
+                    if (!available.contains(ingredient)) missing++;
+                }
+                if (missing <= 2) scanHits++;
+            }
+        }
+        long scanNanos = System.nanoTime() - scanStart;
+
+        System.out.println(String.format(
+                "IngredientIndex %d recetas, %d ingredientes: alta=%dms, consulta=%.3fms, recorrido=%.3fms (x%.1f)",
+                RECIPES, index.getIngredientCount(), buildMs,
+                indexNanos / 1e6 / QUERIES, scanNanos / 1e6 / QUERIES, (double) scanNanos / Math.max(1, indexNanos)));
+
+        assertEquals(RECIPES, index.getRecipeCount());
+        assertEquals(scanHits, indexHits);
+    }
+
+    /**
+     * Distribución sesgada: unos pocos ingredientes (sal, aceite...) aparecen en muchas recetas
+     */
+    private static String ingredientName(Random random) {
+        double u = random.nextDouble();
+        return "ingrediente " + (int) (VOCABULARY * u * u * u);
+    }
+}
@@ -0,0 +1,186 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.local.dao.FakeRecipeDao;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del índice de ingredientes, del parser y de la actualización incremental
+ */
+public class IngredientIndexTest {
+
+    private IngredientIndex index;
+
+    @Before
+    public void setUp() {
+        index = new IngredientIndex();
+        index.put("carbonara", Arrays.asList("Spaghetti", "Eggs", "Bacon", "Parmesan"));
+        index.put("omelette", Arrays.asList("Eggs", "Butter", "Salt"));
+        index.put("pancakes", Arrays.asList("Flour", "Eggs", "Milk", "Butter"));
+        index.put("toast", Arrays.asList("Bread", "Butter"));
+    }
+
+    @Test
+    public void findWithAllIntersectsPostings() {
+        assertEquals(set("omelette", "pancakes"), new HashSet<>(index.findWithAll(Arrays.asList("eggs", "BUTTER"))));
+        assertEquals(Collections.emptyList(), index.findWithAll(Arrays.asList("eggs", "caviar")));
+    }
+
+    @Test
+    public void findWithAnyUnitesPostings() {
+        assertEquals(set("carbonara", "toast"), new HashSet<>(index.findWithAny(Arrays.asList("bacon", "bread"))));
+    }
+
+    @Test
+    public void findMissingAtMostRanksByMissingIngredients() {
+        List<IngredientIndex.Match> matches = index.findMissingAtMost(Arrays.asList("eggs", "butter", "salt", "milk"), 1);
+
+        assertEquals(3, matches.size());
+        assertEquals("omelette", matches.get(0).getRecipeId());
+        assertEquals(0, matches.get(0).getMissingCount());
+        assertEquals(Collections.singletonList("bread"), matches.get(2).getMissing());
+        assertEquals(Collections.singletonList("flour"), matches.get(1).getMissing());
+    }
+
+    @Test
+    public void findMissingAtMostIncludesSmallRecipesWithoutOverlap() {
+        List<IngredientIndex.Match> matches = index.findMissingAtMost(Collections.<String>emptyList(), 2);
+
+        assertEquals(1, matches.size());
+        assertEquals("toast", matches.get(0).getRecipeId());
+    }
+
+    @Test
+    public void putReplacesAndRemoveReusesSlots() {
+        index.put("toast", Arrays.asList("Bread", "Jam"));
+        assertFalse(index.findWithAny(Collections.singletonList("butter")).contains("toast"));
+
+        assertTrue(index.remove("carbonara"));
+        assertFalse(index.remove("carbonara"));
+        index.put("salad", Arrays.asList("Lettuce", "Tomato"));
+
+        assertEquals(4, index.getRecipeCount());
+        assertEquals(Collections.emptyList(), index.findWithAll(Collections.singletonList("bacon")));
+        assertEquals(Collections.singletonList("salad"), index.findWithAll(Collections.singletonList("tomato")));
+    }
+
+    @Test
+    public void parserReadsJsonAndFreeText() {
+        String json = "[{\"ingredient\":\"Chicken\",\"measure\":\"1 whole\"},{\"ingredient\":\" Azúcar \",\"measure\":\"\"}]";
+        assertEquals(Arrays.asList("chicken", "azucar"), IngredientParser.parse(json));
+
+        String text = "• 200 g de harina\n2 huevos, leche\n- 1 cucharada azúcar";
+        assertEquals(Arrays.asList("harina", "huevos", "leche", "azucar"), IngredientParser.parse(text));
+
+        String placeholder = "[{\"ingredient\":\"Ingredientes no disponibles\",\"measure\":\"Busca por nombre\"}]";
+        assertEquals(Collections.emptyList(), IngredientParser.parse(placeholder));
+    }
+
+    @Test
+    public void engineRefreshOnlyReindexesChangedRows() {
+        FakeRecipeDao dao = new FakeRecipeDao();
+        dao.insertRecipe(recipe("1", "[{\"ingredient\":\"Rice\"},{\"ingredient\":\"Beans\"}]"));
+        dao.insertRecipe(recipe("2", "pasta, tomato"));
+        IngredientSearchEngine engine = new IngredientSearchEngine(dao);
+        engine.refresh();
+
+        assertEquals(Collections.singletonList("1"), engine.findWithAll(Collections.singletonList("rice")));
+
+        // Simular invalidación de Room: la receta 2 cambia y la 1 se elimina
+        dao.recipes.clear();
+        dao.insertRecipe(recipe("2", "pasta, rice"));
+        engine.refresh();
+
+        assertEquals(Collections.singletonList("2"), engine.findWithAll(Collections.singletonList("rice")));
+        assertEquals(Collections.emptyList(), engine.findWithAny(Arrays.asList("beans", "tomato")));
+    }
+
+    @Test
+    public void failedLoadDoesNotBlockQueries() {
+        FakeRecipeDao dao = new FakeRecipeDao();
+        dao.failure = new IllegalStateException("Base cerrada");
+        // Executor directo: si la excepción escapara de la tarea, llegaría a este thread
+        List<RuntimeException> failures = new ArrayList<>();
+        IngredientSearchEngine engine = new IngredientSearchEngine(dao, Runnable::run, failures::add);
+        engine.scheduleRefresh();
+        assertEquals(Collections.singletonList(dao.failure), failures);
+
+        // Sin la carga inicial las consultas responden vacío en lugar de esperar para siempre
+        assertTrue(engine.isLoaded());
+        assertEquals(Collections.emptyList(), engine.findWithAll(Collections.singletonList("rice")));
+
+        // La siguiente recarga (próxima invalidación) completa el índice
+        dao.failure = null;
+        dao.insertRecipe(recipe("1", "rice, beans"));
+        engine.scheduleRefresh();
+        assertEquals(Collections.singletonList("1"), engine.findWithAll(Collections.singletonList("rice")));
+    }
+
+    @Test
+    public void indexMatchesLinearScan() {
+        // Recetas sintéticas con pocos ingredientes muy repetidos (sal, aceite...)
+        Random random = new Random(7);
+        IngredientIndex large = new IngredientIndex();
+        List<List<String>> recipes = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            List<String> ingredients = new ArrayList<>();
+            for (int j = 5 + random.nextInt(6); j > 0; j--) {
+                ingredients.add(ingredientName(random));
+            }
+            recipes.add(ingredients);
+            large.put(String.valueOf(i), ingredients);
+        }
+
+        for (int q = 0; q < 20; q++) {
+            List<String> pantry = new ArrayList<>();
+            for (int j = 0; j < 15; j++) {
+                pantry.add(ingredientName(random));
+            }
+            Set<String> required = new HashSet<>(pantry.subList(0, 2));
+            Set<String> available = new HashSet<>(pantry);
+            Set<String> withAll = new HashSet<>();
+            Set<String> missingAtMost2 = new HashSet<>();
+            for (int i = 0; i < recipes.size(); i++) {
+                Set<String> unique = new HashSet<>(recipes.get(i));
+                if (unique.containsAll(required)) withAll.add(String.valueOf(i));
+                unique.removeAll(available);
+                if (unique.size() <= 2) missingAtMost2.add(String.valueOf(i));
+            }
+
+            assertEquals(withAll, new HashSet<>(large.findWithAll(required)));
+            Set<String> found = new HashSet<>();
+            for (IngredientIndex.Match match : large.findMissingAtMost(pantry, 2)) {
+                found.add(match.getRecipeId());
+            }
+            assertEquals(missingAtMost2, found);
+        }
+    }
+
+    private static String ingredientName(Random random) {
+        double u = random.nextDouble();
+        return "ingrediente " + (int) (40 * u * u);
+    }
+
+    private static Recipe recipe(String id, String ingredients) {
+        return new Recipe(id, "Receta " + id, "", "", "", "", IngredientList.fromText(ingredients));
+    }
+
+    private static HashSet<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,196 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.cache.MealDetailCache;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.fixtures.MealDbDispatcher;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests del listado con carga perezosa de detalles contra el servidor local de TheMealDB
+ */
+public class LazyResultListTest {
+    
+    private static final String[] IDS = {
+            "52771", "52772", "52795", "52874", "52802", "52945",
+            "52844", "52854", "52852", "52977", "52959", "53013"
+    };
+    
+    private MealDbServer server;
+    private LazyResultList list;
+    private final BlockingQueue<List<MealDto>> updates = new LinkedBlockingQueue<>();
+    
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        MealDetailCache.getInstance().clear();
+        list = new LazyResultList(ApiClient.getApiService(), MealDetailCache.getInstance(), 3, updates::add);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        list.clear();
+        MealDetailCache.getInstance().clear();
+        ApiClient.clearInstances();
+        server.close();
+    }
+    
+    @Test
+    public void showsEveryRowAndLoadsOnlyVisibleBatches() throws Exception {
+        List<MealDto> rows = list.setResults(basicRows());
+        assertEquals(IDS.length, rows.size());
+        
+        // Filas 0-1 visibles: se carga su lote (0-2) y el siguiente (3-5)
+        list.onVisibleRange(0, 1);
+        awaitRows(6);
+        
+        assertEquals(6, server.getDispatcher().getRequestCount("lookup.php"));
+        assertEquals(LazyResultList.RowState.COMPLETE, list.getState(IDS[5]));
+        assertEquals(LazyResultList.RowState.BASIC, list.getState(IDS[6]));
+        assertNotNull(list.getRows().get(0).strInstructions);
+        assertNull(list.getRows().get(6).strInstructions);
+    }
+    
+    @Test
+    public void scrollingBackNeverRefetches() throws Exception {
+        list.setResults(basicRows());
+        list.onVisibleRange(0, 1);
+        awaitRows(6);
+        
+        // Aunque la caché compartida descarte los detalles, la fila recuerda su estado
+        MealDetailCache.getInstance().clear();
+        list.onVisibleRange(9, 11);
+        awaitRows(9);
+        list.onVisibleRange(0, 1);
+        
+        assertEquals(9, server.getDispatcher().getRequestCount("lookup.php"));
+        assertNotNull(list.getRows().get(0).strInstructions);
+    }
+    
+    @Test
+    public void newSnapshotKeepsLoadedDetails() throws Exception {
+        list.setResults(basicRows());
+        list.onVisibleRange(0, 0);
+        awaitRows(6);
+        
+        // La búsqueda unificada vuelve a publicar las mismas filas básicas
+        List<MealDto> rows = list.setResults(basicRows());
+        
+        assertNotNull(rows.get(0).strInstructions);
+        assertEquals(LazyResultList.RowState.COMPLETE, list.getState(IDS[0]));
+    }
+    
+    @Test
+    public void rowsLeavingTheWindowAreCancelled() throws Exception {
+        server.getDispatcher().setLatency(1_000);
+        list.setResults(basicRows());
+        
+        list.onVisibleRange(0, 0);
+        assertEquals(LazyResultList.RowState.LOADING, list.getState(IDS[0]));
+        
+        list.onVisibleRange(9, 11);
+        assertEquals(LazyResultList.RowState.BASIC, list.getState(IDS[0]));
+        assertEquals(LazyResultList.RowState.LOADING, list.getState(IDS[9]));
+    }
+    
+    @Test
+    public void failedRowsAreNotRetriedOnEveryScroll() throws Exception {
+        // Más fallos que reintentos del cliente: el lote entero falla
+        server.getDispatcher().failNext("lookup.php", 100, MealDbDispatcher.Fault.SERVER_ERROR);
+        list.setResults(basicRows().subList(0, 3));
+        
+        list.onVisibleRange(0, 2);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (countState(LazyResultList.RowState.FAILED, 3) < 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(3, countState(LazyResultList.RowState.FAILED, 3));
+        int requests = server.getDispatcher().getRequestCount("lookup.php");
+        
+        list.onVisibleRange(0, 2);
+        
+        assertEquals(requests, server.getDispatcher().getRequestCount("lookup.php"));
+        assertNull(list.getRows().get(0).strInstructions);
+    }
+    
+    @Test
+    public void failedRowsAreRetriedAfterTheDelay() throws Exception {
+        LazyResultList retrying = new LazyResultList(ApiClient.getApiService(), MealDetailCache.getInstance(),
+                3, 0, updates::add);
+        // Tantos fallos como intentos del cliente: la primera carga falla y la siguiente no
+        server.getDispatcher().failNext("lookup.php", 3, MealDbDispatcher.Fault.SERVER_ERROR);
+        retrying.setResults(basicRows().subList(0, 1));
+        
+        retrying.onVisibleRange(0, 0);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (retrying.getState(IDS[0]) != LazyResultList.RowState.FAILED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(LazyResultList.RowState.FAILED, retrying.getState(IDS[0]));
+        
+        retrying.onVisibleRange(0, 0);
+        awaitRows(1);
+        assertEquals(LazyResultList.RowState.COMPLETE, retrying.getState(IDS[0]));
+        retrying.clear();
+    }
+    
+    private int countState(LazyResultList.RowState state, int rows) {
+        int count = 0;
+        for (int i = 0; i < rows; i++) {
+            if (list.getState(IDS[i]) == state) count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Espera publicaciones hasta que haya al menos la cantidad indicada de filas completas
+     */
+    private List<MealDto> awaitRows(int complete) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            List<MealDto> rows = updates.poll(100, TimeUnit.MILLISECONDS);
+            if (rows != null && countComplete(rows) >= complete) {
+                return rows;
+            }
+        }
+        throw new AssertionError("No se completaron " + complete + " filas");
+    }
+    
+    private static int countComplete(List<MealDto> rows) {
+        int count = 0;
+        for (MealDto meal : rows) {
+            if (meal.strInstructions != null) count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Filas como las devuelve filter.php: solo ID y nombre
+     */
+    private static List<MealDto> basicRows() {
+        List<MealDto> rows = new ArrayList<>();
+        for (String id : IDS) {
+            MealDto meal = new MealDto();
+            meal.idMeal = id;
+            meal.strMeal = "Receta " + id;
+            rows.add(meal);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,147 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.fixtures.MealDbDispatcher;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la búsqueda combinada contra el servidor local de TheMealDB
+ */
+public class MultiFacetSearchTest {
+    
+    private MealDbServer server;
+    private MultiFacetSearch search;
+    private final BlockingQueue<Object> events = new LinkedBlockingQueue<>();
+    
+    private final MultiFacetSearch.Listener listener = new MultiFacetSearch.Listener() {
+        @Override
+        public void onIntersection(List<MealDto> summaries) {
+            events.add(new Intersection(summaries));
+        }
+        
+        @Override
+        public void onError(String message) {
+            events.add(message);
+        }
+    };
+    
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        search = new MultiFacetSearch(ApiClient.getApiService());
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.clearInstances();
+        server.close();
+    }
+    
+    @Test
+    public void intersectsFacetsWithoutFetchingDetails() throws Exception {
+        search.search(new FacetFilter("Chicken", "Chinese", Collections.<String>emptyList()), listener);
+        
+        Intersection intersection = next(Intersection.class);
+        assertEquals(1, intersection.meals.size());
+        assertEquals("Kung Pao Chicken", intersection.meals.get(0).strMeal);
+        
+        // Una llamada a filter.php por faceta; los detalles quedan para LazyResultList
+        assertEquals(2, server.getDispatcher().getRequestCount("filter.php"));
+        assertEquals(0, server.getDispatcher().getRequestCount("lookup.php"));
+    }
+    
+    @Test
+    public void cancelledSearchDeliversNothing() throws Exception {
+        MultiFacetSearch.Search running = search.search(
+                new FacetFilter("Chicken", "Chinese", Collections.<String>emptyList()), listener);
+        running.cancel();
+        
+        assertNull(events.poll(500, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void ingredientFacetUsesApiFormat() throws Exception {
+        FacetFilter filter = new FacetFilter(null, null, Arrays.asList(" Olive  Oil ", "olive oil"));
+        assertEquals(Collections.singletonList("olive_oil"), filter.getIngredients());
+        
+        search.search(filter, listener);
+        
+        Intersection intersection = next(Intersection.class);
+        assertTrue(intersection.meals.size() > 0);
+    }
+    
+    @Test
+    public void emptyFacetShortCircuits() throws Exception {
+        search.search(new FacetFilter("Dessert", "Japanese", Collections.singletonList("garlic")), listener);
+        
+        assertTrue(next(Intersection.class).meals.isEmpty());
+        assertEquals(0, server.getDispatcher().getRequestCount("lookup.php"));
+    }
+    
+    @Test
+    public void facetErrorIsReported() throws Exception {
+        server.getDispatcher().failNext("filter.php", 10, MealDbDispatcher.Fault.SERVER_ERROR);
+        
+        search.search(new FacetFilter("Chicken", "Chinese", null), listener);
+        
+        assertTrue(next(String.class).contains("500"));
+    }
+    
+    @Test
+    public void intersectKeepsOrderOfSmallestSet() {
+        Map<String, MealDto> big = new LinkedHashMap<>();
+        for (String id : new String[]{"1", "2", "3", "4", "5"}) big.put(id, meal(id));
+        Map<String, MealDto> small = new LinkedHashMap<>();
+        for (String id : new String[]{"4", "9", "2"}) small.put(id, meal(id));
+        Map<String, MealDto> other = new HashMap<>(big);
+        
+        List<MealDto> result = MultiFacetSearch.intersect(Arrays.asList(big, small, other));
+        
+        assertEquals(2, result.size());
+        assertEquals("4", result.get(0).idMeal);
+        assertEquals("2", result.get(1).idMeal);
+    }
+    
+    private <T> T next(Class<T> type) throws InterruptedException {
+        Object event = events.poll(5, TimeUnit.SECONDS);
+        assertNotNull("No llegó ningún resultado", event);
+        assertTrue("Se esperaba " + type.getSimpleName() + " y llegó " + event, type.isInstance(event));
+        return type.cast(event);
+    }
+    
+    private static MealDto meal(String id) {
+        MealDto meal = new MealDto();
+        meal.idMeal = id;
+        return meal;
+    }
+    
+    private static final class Intersection {
+        final List<MealDto> meals;
+        
+        Intersection(List<MealDto> meals) {
+            this.meals = meals;
+        }
+    }
+}
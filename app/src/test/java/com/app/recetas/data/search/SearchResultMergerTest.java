@@ -0,0 +1,104 @@
+package com.app.recetas.data.search;
+
+import com.app.recetas.data.remote.dto.MealDto;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la unión de resultados: repetidos, ranking y calidad de coincidencia
+ */
+public class SearchResultMergerTest {
+    
+    private static final long NOW = 1760000000000L;
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    
+    @Test
+    public void laterResultsDoNotChangePublishedRanking() {
+        SearchResultMerger merger = new SearchResultMerger(NOW);
+        merger.addAll(Arrays.asList(FederatedResult.remote(meal("1", "Lasagne"), 0.5)));
+        List<FederatedResult> published = merger.ranked();
+        double publishedScore = published.get(0).getScore();
+        
+        merger.addAll(Arrays.asList(FederatedResult.local(meal("1", "Lasagne casera"), 1.0, NOW)));
+        
+        FederatedResult first = published.get(0);
+        assertEquals("Lasagne", first.getMeal().strMeal);
+        assertFalse(first.isSaved());
+        assertEquals(publishedScore, first.getScore(), 0.0);
+        assertEquals("Lasagne casera", merger.ranked().get(0).getMeal().strMeal);
+    }
+    
+    @Test
+    public void mergesSameRecipeFromBothSources() {
+        SearchResultMerger merger = new SearchResultMerger(NOW);
+        merger.addAll(Arrays.asList(FederatedResult.local(meal("1", "Lasagne casera"), 0.8, NOW)));
+        merger.addAll(Arrays.asList(FederatedResult.remote(meal("1", "Lasagne"), 1.0),
+                FederatedResult.remote(meal("2", "Lasagne Bolognese"), 0.9)));
+        
+        List<FederatedResult> ranked = merger.ranked();
+        
+        assertEquals(2, ranked.size());
+        FederatedResult merged = ranked.get(0);
+        assertEquals("1", merged.getId());
+        assertTrue(merged.isSaved());
+        assertTrue(merged.isRemote());
+        // Se conservan los datos de la colección y la mejor coincidencia
+        assertEquals("Lasagne casera", merged.getMeal().strMeal);
+        assertEquals(1.0, merged.getMatchQuality(), 0.0001);
+    }
+    
+    @Test
+    public void savedAndRecentRecipesRankHigherOnEqualMatch() {
+        SearchResultMerger merger = new SearchResultMerger(NOW);
+        merger.addAll(Arrays.asList(
+                FederatedResult.remote(meal("r", "Chicken Curry"), 0.9),
+                FederatedResult.local(meal("old", "Chicken Pie"), 0.9, NOW - 365 * DAY),
+                FederatedResult.local(meal("new", "Chicken Soup"), 0.9, NOW - DAY)));
+        
+        List<FederatedResult> ranked = merger.ranked();
+        
+        assertEquals("new", ranked.get(0).getId());
+        assertEquals("old", ranked.get(1).getId());
+        assertEquals("r", ranked.get(2).getId());
+    }
+    
+    @Test
+    public void betterMatchBeatsSavedStatus() {
+        SearchResultMerger merger = new SearchResultMerger(NOW);
+        merger.addAll(Arrays.asList(
+                FederatedResult.remote(meal("exact", "Corba"), SearchResultMerger.nameMatchQuality("corba", "Corba")),
+                FederatedResult.local(meal("weak", "Sopa"), 0.3, NOW)));
+        
+        assertEquals("exact", merger.ranked().get(0).getId());
+    }
+    
+    @Test
+    public void nameMatchQualityOrdersKindsOfMatch() {
+        double exact = SearchResultMerger.nameMatchQuality("lasagne", "Lasagne");
+        double prefix = SearchResultMerger.nameMatchQuality("chicken", "Chicken Handi");
+        double wordStart = SearchResultMerger.nameMatchQuality("chicken", "Kung Pao Chicken");
+        double inside = SearchResultMerger.nameMatchQuality("cake", "Pancakes");
+        double typo = SearchResultMerger.nameMatchQuality("lasgne", "Lasagne");
+        double unrelated = SearchResultMerger.nameMatchQuality("sushi", "Big Mac");
+        
+        assertTrue(exact > prefix);
+        assertTrue(prefix > wordStart);
+        assertTrue(wordStart > inside);
+        assertTrue(inside > typo);
+        assertTrue(typo > unrelated);
+    }
+    
+    private static MealDto meal(String id, String name) {
+        MealDto meal = new MealDto();
+        meal.idMeal = id;
+        meal.strMeal = name;
+        return meal;
+    }
+}
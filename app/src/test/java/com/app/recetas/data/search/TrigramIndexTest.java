@@ -0,0 +1,135 @@
+package com.app.recetas.data.search;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del índice de trigramas: errores de tipeo, ingredientes, ranking y bajas
+ */
+public class TrigramIndexTest {
+    
+    private TrigramIndex index;
+    
+    @Before
+    public void setUp() {
+        index = new TrigramIndex();
+        index.put("1", "Spaghetti Carbonara", Arrays.asList("spaghetti", "egg", "pancetta", "parmesan"));
+        index.put("2", "Chicken Curry", Arrays.asList("chicken", "curry powder", "coconut milk"));
+        index.put("3", "Tarta de Espinaca", Arrays.asList("espinaca", "huevo", "masa"));
+        index.put("4", "Carrot Cake", Arrays.asList("carrot", "flour", "sugar"));
+    }
+    
+    @Test
+    public void findsNamesWithTypos() {
+        assertEquals("1", first("carbonra"));
+        assertEquals("1", first("cabronara"));
+        assertEquals("1", first("Carbonara"));
+        assertEquals("2", first("chiken curyr"));
+        assertEquals("3", first("espinaka"));
+    }
+    
+    @Test
+    public void findsByIngredientsWithTypos() {
+        assertEquals("1", first("panceta"));
+        assertEquals("2", first("cocunut"));
+    }
+    
+    @Test
+    public void exactMatchRanksAboveSimilarOne() {
+        index.put("5", "Carbonade", Collections.singletonList("beef"));
+        
+        List<TrigramIndex.Hit> hits = index.search("carbonara", 10, 50);
+        
+        assertEquals("1", hits.get(0).getRecipeId());
+        assertTrue(hits.get(0).getScore() > 0.99);
+    }
+    
+    @Test
+    public void unrelatedQueryFindsNothing() {
+        assertTrue(index.search("zzqx", 10, 50).isEmpty());
+        assertTrue(index.search("", 10, 50).isEmpty());
+    }
+    
+    @Test
+    public void removeAndReplaceUpdateResults() {
+        assertTrue(index.remove("1"));
+        assertFalse(index.remove("1"));
+        assertTrue(index.search("carbonra", 10, 50).isEmpty());
+        
+        index.put("2", "Pollo al Curry", Collections.singletonList("pollo"));
+        assertEquals("2", first("polo curry"));
+        assertEquals(3, index.getRecipeCount());
+    }
+    
+    @Test
+    public void compactionKeepsLiveRecipes() {
+        for (int i = 0; i < 200; i++) {
+            index.put("tmp" + i, "Receta temporal " + i, Collections.singletonList("sal"));
+        }
+        for (int i = 0; i < 200; i++) {
+            index.remove("tmp" + i);
+        }
+        
+        assertEquals(4, index.getRecipeCount());
+        assertEquals("1", first("carbonra"));
+        assertEquals("4", first("carot cake"));
+    }
+    
+    @Test
+    public void damerauLevenshteinCountsTranspositionsAsOneEdit() {
+        assertEquals(0, TrigramIndex.damerauLevenshtein("carbonara", "carbonara"));
+        assertEquals(1, TrigramIndex.damerauLevenshtein("carbonra", "carbonara"));
+        assertEquals(1, TrigramIndex.damerauLevenshtein("cabronara", "carbonara"));
+        assertEquals(3, TrigramIndex.damerauLevenshtein("", "abc"));
+    }
+    
+    @Test
+    public void typoQueriesFindRecipeInLargeCollection() {
+        // Nombres sintéticos "plato modificador N": muchos comparten trigramas
+        String[] dishes = {"carbonara", "lasagna", "risotto", "empanada", "milanesa", "paella",
+                "souvlaki", "moussaka", "goulash", "shakshuka", "ratatouille", "bibimbap"};
+        String[] modifiers = {"de pollo", "vegana", "de la abuela", "picante", "con queso", "al horno"};
+        Random random = new Random(11);
+        TrigramIndex large = new TrigramIndex();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            String name = dishes[random.nextInt(dishes.length)] + " " + modifiers[random.nextInt(modifiers.length)] + " " + i;
+            names.add(name);
+            large.put(String.valueOf(i), name, Collections.singletonList("sal"));
+        }
+        
+        // Se borra una letra del plato y se busca el nombre completo
+        int found = 0;
+        for (int q = 0; q < 100; q++) {
+            int target = random.nextInt(names.size());
+            String name = names.get(target);
+            String dish = name.substring(0, name.indexOf(' '));
+            int drop = 1 + random.nextInt(dish.length() - 2);
+            String query = dish.substring(0, drop) + dish.substring(drop + 1) + name.substring(dish.length());
+            for (TrigramIndex.Hit hit : large.search(query, 20, 50)) {
+                if (hit.getRecipeId().equals(String.valueOf(target))) {
+                    found++;
+                    break;
+                }
+            }
+        }
+        
+        assertEquals(2_000, large.getRecipeCount());
+        assertTrue("encontradas " + found + "/100", found >= 90);
+    }
+    
+    private String first(String query) {
+        List<TrigramIndex.Hit> hits = index.search(query, 5, 50);
+        return hits.isEmpty() ? null : hits.get(0).getRecipeId();
+    }
+}
@@ -0,0 +1,149 @@
+package com.app.recetas.data.sync;
+
+import com.app.recetas.data.local.dao.FakeRecipeDao;
+import com.app.recetas.data.local.entities.CompressedText;
+import com.app.recetas.data.local.entities.IngredientList;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.fixtures.MealDbDispatcher;
+import com.app.recetas.fixtures.MealDbServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests de la revalidación por lotes contra el servidor local de TheMealDB
+ */
+public class RecipeRefresherTest {
+    
+    private MealDbServer server;
+    private FakeRecipeDao dao;
+    private RecipeRefresher refresher;
+    
+    @Before
+    public void setUp() throws IOException {
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        dao = new FakeRecipeDao();
+        refresher = new RecipeRefresher(dao, ApiClient.getApiService());
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.clearInstances();
+        server.close();
+    }
+    
+    @Test
+    public void staleRecipeIsUpdatedAndKeepsPersonalNotes() {
+        Recipe stale = recipe("52772", "Teriyaki viejo");
+        stale.setInstructions("Instrucciones viejas");
+        stale.setPersonalNotes("Menos azúcar");
+        dao.insertRecipe(stale);
+        
+        RecipeRefresher.BatchResult result = refresher.refreshBatch("", 10);
+        
+        Recipe saved = dao.recipes.get("52772");
+        assertEquals(1, result.getUpdated());
+        assertEquals("Teriyaki Chicken Casserole", saved.getName());
+        assertFalse(saved.getInstructions().equals("Instrucciones viejas"));
+        assertEquals("Menos azúcar", saved.getPersonalNotes());
+        assertEquals(1, dao.updates);
+    }
+    
+    @Test
+    public void notesEditedDuringRefreshAreKept() {
+        // El usuario edita las notas después de que el lote leyó la receta
+        dao = new FakeRecipeDao() {
+            @Override
+            public List<Recipe> getApiRecipesAfter(String afterId, int limit) {
+                List<Recipe> page = super.getApiRecipesAfter(afterId, limit);
+                updatePersonalNotes("52772", CompressedText.of("Editado mientras tanto"), 1L);
+                return page;
+            }
+        };
+        refresher = new RecipeRefresher(dao, ApiClient.getApiService());
+        dao.insertRecipe(recipe("52772", "Teriyaki viejo"));
+        
+        refresher.refreshBatch("", 10);
+        
+        Recipe saved = dao.recipes.get("52772");
+        assertEquals("Teriyaki Chicken Casserole", saved.getName());
+        assertEquals("Editado mientras tanto", saved.getPersonalNotes());
+    }
+    
+    @Test
+    public void upToDateRecipeIsNotRewritten() {
+        dao.insertRecipe(recipe("52772", "Teriyaki viejo"));
+        refresher.refreshBatch("", 10);
+        dao.updates = 0;
+        
+        RecipeRefresher.BatchResult result = refresher.refreshBatch("", 10);
+        
+        assertEquals(1, result.getChecked());
+        assertEquals(0, result.getUpdated());
+        assertEquals(0, dao.updates);
+    }
+    
+    @Test
+    public void walksCollectionInBoundedBatchesSkippingPersonalRecipes() {
+        for (String id : new String[]{"52771", "52772", "52795", "52874", "52802"}) {
+            dao.insertRecipe(recipe(id, "Receta " + id));
+        }
+        Recipe personal = recipe("00001", "Guiso de la abuela");
+        personal.setPersonal(true);
+        dao.insertRecipe(personal);
+        
+        RecipeRefresher.BatchResult first = refresher.refreshBatch("", 2);
+        assertEquals(2, first.getChecked());
+        assertEquals("52772", first.getCursor());
+        assertFalse(first.isEndOfCollection());
+        
+        RecipeRefresher.BatchResult second = refresher.refreshBatch(first.getCursor(), 2);
+        RecipeRefresher.BatchResult third = refresher.refreshBatch(second.getCursor(), 2);
+        assertEquals(1, third.getChecked());
+        assertTrue(third.isEndOfCollection());
+        
+        assertEquals(5, server.getDispatcher().getRequestCount("lookup.php"));
+        assertEquals("Guiso de la abuela", dao.recipes.get("00001").getName());
+    }
+    
+    @Test
+    public void recipeRemovedFromApiIsKept() {
+        dao.insertRecipe(recipe("99999", "Receta que ya no existe"));
+        
+        RecipeRefresher.BatchResult result = refresher.refreshBatch("", 10);
+        
+        assertEquals(1, result.getChecked());
+        assertEquals("Receta que ya no existe", dao.recipes.get("99999").getName());
+    }
+    
+    @Test
+    public void failureStopsBatchAtLastProcessedRecipe() {
+        dao.insertRecipe(recipe("52771", "Arrabiata"));
+        dao.insertRecipe(recipe("52772", "Teriyaki"));
+        refresher.refreshBatch("", 1);
+        
+        // Más fallos que reintentos del cliente: el segundo lote se corta
+        server.getDispatcher().failNext("lookup.php", 10, MealDbDispatcher.Fault.SERVER_ERROR);
+        RecipeRefresher.BatchResult result = refresher.refreshBatch("52771", 10);
+        
+        assertTrue(result.isFailed());
+        assertEquals("52771", result.getCursor());
+        assertEquals(0, result.getChecked());
+    }
+    
+    private static Recipe recipe(String id, String name) {
+        Recipe recipe = new Recipe(id, name, "Chicken", "Japanese", "Paso 1", "", new IngredientList());
+        recipe.setPersonalNotes("");
+        return recipe;
+    }
+}
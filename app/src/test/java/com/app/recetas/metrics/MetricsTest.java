@@ -0,0 +1,170 @@
+package com.app.recetas.metrics;
+
+import com.app.recetas.data.local.dao.RecipeDao;
+import com.app.recetas.data.local.dao.TracedRecipeDao;
+import com.app.recetas.data.remote.api.interceptor.NetworkMetrics;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del registro de métricas: los valores se leen a través del volcado JSON,
+ * igual que lo haría un test de rendimiento
+ */
+public class MetricsTest {
+    
+    private Metrics metrics;
+    
+    @Before
+    public void setUp() {
+        metrics = new Metrics();
+        Metrics.getInstance().reset();
+    }
+    
+    @After
+    public void tearDown() {
+        Metrics.getInstance().reset();
+    }
+    
+    @Test
+    public void spansRecordOnceAndCountFailures() {
+        Metrics.Span ok = metrics.startSpan("repo.searchCollection");
+        ok.close();
+        ok.close(); // Cerrar dos veces no cuenta doble
+        
+        Metrics.Span failed = metrics.startAsyncSpan("search.federated");
+        failed.markFailed();
+        failed.close();
+        
+        Metrics.Span cancelled = metrics.startAsyncSpan("search.federated");
+        cancelled.cancel();
+        cancelled.close();
+        
+        assertEquals(1, metrics.getTimer("repo.searchCollection").getCount());
+        assertEquals(1, metrics.getTimer("search.federated").getCount());
+        assertEquals(1, metrics.getCount("search.federated.errors"));
+        assertEquals(1, metrics.getCount("search.federated.cancelled"));
+    }
+    
+    @Test
+    public void histogramPercentilesFollowBuckets() {
+        for (int i = 0; i < 90; i++) {
+            metrics.recordNanos("bind.search_result", 200_000); // 0,2 ms
+        }
+        for (int i = 0; i < 10; i++) {
+            metrics.recordNanos("bind.search_result", 30_000_000); // 30 ms: frame perdido
+        }
+        
+        LatencyHistogram.Snapshot snapshot = metrics.getTimer("bind.search_result");
+        assertEquals(100, snapshot.getCount());
+        assertEquals(0.25, snapshot.getPercentileMs(50), 0.0001);
+        assertEquals(50.0, snapshot.getPercentileMs(95), 0.0001);
+        assertEquals(30.0, snapshot.getMaxMs(), 0.0001);
+        assertEquals(3.18, snapshot.getAverageMs(), 0.0001);
+        assertNull(metrics.getTimer("nunca.registrado"));
+    }
+    
+    @Test
+    public void jsonDumpContainsCountersTimersAndNetwork() throws Exception {
+        metrics.increment("dao.getAllRecipes", 3);
+        metrics.recordNanos("dao.getRecipesByIds", 1_500_000);
+        NetworkMetrics network = new NetworkMetrics();
+        network.record("search.php", 120, 0, 2048, NetworkMetrics.CacheStatus.NETWORK, false);
+        
+        JSONObject dump = new JSONObject(MetricsDump.toJson(metrics, network));
+        
+        assertEquals(3, dump.getJSONObject("counters").getLong("dao.getAllRecipes"));
+        
+        JSONObject timer = dump.getJSONObject("timers").getJSONObject("dao.getRecipesByIds");
+        assertEquals(1, timer.getLong("count"));
+        assertEquals(1.5, timer.getDouble("maxMs"), 0.0001);
+        assertEquals(2.5, timer.getDouble("p95Ms"), 0.0001);
+        JSONArray buckets = timer.getJSONArray("buckets");
+        assertEquals(LatencyHistogram.BUCKET_BOUNDS_US.length + 1, buckets.length());
+        assertTrue(buckets.getJSONObject(buckets.length() - 1).isNull("leMs"));
+        
+        JSONObject endpoint = dump.getJSONObject("network").getJSONObject("search.php");
+        assertEquals(1, endpoint.getLong("calls"));
+        assertEquals(2048, endpoint.getLong("bytesReceived"));
+    }
+    
+    @Test
+    public void framesAreAggregatedPerScreenAndListState() throws Exception {
+        for (int i = 0; i < 16; i++) {
+            metrics.recordFrame("search", "idle", 8_000_000, false);
+        }
+        metrics.recordFrame("search", "dragging", 40_000_000, true);
+        metrics.recordFrame("search", "dragging", 10_000_000, false);
+        metrics.recordFrame("search", "update", 900_000_000, true); // Congelado
+        metrics.recordFrame("search", "update", 750_000_000, false); // Congelado aunque no venga marcado
+        metrics.recordFrame("collection", null, 8_000_000, false);
+        
+        FrameStats.Snapshot search = metrics.getFrameStats().get("search");
+        assertEquals(20, search.getFrames());
+        assertEquals(3, search.getSlowFrames());
+        assertEquals(2, search.getFrozenFrames());
+        assertEquals(15.0, search.getSlowPercent(), 0.0001);
+        assertEquals(10.0, search.getFrozenPercent(), 0.0001);
+        assertEquals(50.0, search.getStates().get("dragging").getSlowPercent(), 0.0001);
+        assertEquals(100.0, search.getStates().get("update").getFrozenPercent(), 0.0001);
+        assertTrue(metrics.getFrameStats().get("collection").getStates().isEmpty());
+        
+        JSONObject dump = new JSONObject(MetricsDump.toJson(metrics, null));
+        JSONObject frames = dump.getJSONObject("frames").getJSONObject("search");
+        assertEquals(20, frames.getLong("frames"));
+        assertEquals(15.0, frames.getDouble("slowPct"), 0.0001);
+        assertEquals(2, frames.getJSONObject("states").getJSONObject("update").getLong("frozen"));
+        assertEquals(20, dump.getJSONObject("timers").getJSONObject("frame.search").getLong("count"));
+        
+        metrics.reset();
+        assertTrue(metrics.getFrameStats().isEmpty());
+    }
+    
+    @Test
+    public void violationsAreGroupedByStackAndCounted() throws Exception {
+        ViolationLog violations = new ViolationLog(metrics);
+        for (int i = 0; i < 3; i++) {
+            // Mismo lugar del código: un solo grupo
+            violations.record("main_thread_io", "dao.getRecipeCount", new IllegalStateException());
+        }
+        violations.record("main_thread_io", "api.search.php", new IllegalStateException());
+        
+        JSONObject dump = new JSONObject(MetricsDump.toJson(metrics, null, violations));
+        
+        assertEquals(4, dump.getJSONObject("counters").getLong("violation.main_thread_io"));
+        JSONArray list = dump.getJSONArray("violations");
+        assertEquals(2, list.length());
+        assertEquals("dao.getRecipeCount", list.getJSONObject(0).getString("detail"));
+        assertEquals(3, list.getJSONObject(0).getLong("count"));
+        assertTrue(list.getJSONObject(0).getString("stack").contains("MetricsTest"));
+        assertEquals(0, new JSONObject(MetricsDump.toJson(metrics, null)).getJSONArray("violations").length());
+    }
+    
+    @Test
+    public void tracedDaoTimesSyncQueries() throws Exception {
+        RecipeDao room = (RecipeDao) Proxy.newProxyInstance(RecipeDao.class.getClassLoader(),
+                new Class<?>[]{RecipeDao.class}, (proxy, method, args) ->
+                        method.getReturnType() == int.class ? 7 : Collections.emptyList());
+        RecipeDao dao = new TracedRecipeDao(room);
+        
+        dao.getRecipesByIds(Arrays.asList("1", "2"));
+        dao.getRecipesByIds(Collections.singletonList("3"));
+        assertEquals(7, dao.getRecipeCount());
+        
+        JSONObject timers = new JSONObject(MetricsDump.toJson()).getJSONObject("timers");
+        assertEquals(2, timers.getJSONObject("dao.getRecipesByIds").getLong("count"));
+        assertNotNull(timers.optJSONObject("dao.getRecipeCount"));
+    }
+}
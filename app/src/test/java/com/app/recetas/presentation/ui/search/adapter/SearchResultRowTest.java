@@ -0,0 +1,58 @@
+package com.app.recetas.presentation.ui.search.adapter;
+
+import com.app.recetas.data.remote.dto.MealDto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests de los textos de cada fila de resultados (se arman fuera del main thread)
+ */
+public class SearchResultRowTest {
+    
+    @Test
+    public void rowTextsMatchWhatBindUsedToBuild() {
+        MealDto meal = meal("Teriyaki Chicken Casserole", "Chicken", "Japanese", repeat('a', 100));
+        
+        SearchResultRow row = SearchResultRow.build(meal, null);
+        
+        assertSame(meal, row.meal);
+        assertNull(row.params);
+        assertEquals("Teriyaki Chicken Casserole", row.name);
+        assertEquals("📂 Chicken • 🌍 Japanese", row.details);
+        assertEquals("📝 " + repeat('a', SearchResultRow.PREVIEW_LENGTH) + "...", row.preview);
+    }
+    
+    @Test
+    public void missingFieldsUseThePlaceholders() {
+        MealDto onlyArea = meal(null, "", "Italian", "Hervir la pasta.");
+        MealDto empty = meal(null, null, null, null);
+        
+        assertEquals("Sin nombre", SearchResultRow.formatName(onlyArea));
+        assertEquals("🌍 Italian", SearchResultRow.formatDetails(onlyArea));
+        assertEquals("📝 Hervir la pasta.", SearchResultRow.formatPreview(onlyArea));
+        assertEquals("Sin categoría", SearchResultRow.formatDetails(empty));
+        assertEquals("📝 Sin instrucciones disponibles", SearchResultRow.formatPreview(empty));
+    }
+    
+    private static MealDto meal(String name, String category, String area, String instructions) {
+        MealDto meal = new MealDto();
+        meal.idMeal = "52772";
+        meal.strMeal = name;
+        meal.strCategory = category;
+        meal.strArea = area;
+        meal.strInstructions = instructions;
+        return meal;
+    }
+    
+    private static String repeat(char c, int times) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            text.append(c);
+        }
+        return text.toString();
+    }
+}
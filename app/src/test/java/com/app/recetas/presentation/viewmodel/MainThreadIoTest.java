@@ -0,0 +1,143 @@
+package com.app.recetas.presentation.viewmodel;
+
+import android.app.Application;
+import android.os.Looper;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.app.recetas.data.local.database.AppDatabase;
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.remote.api.ApiClient;
+import com.app.recetas.data.remote.cache.CatalogCache;
+import com.app.recetas.data.repository.RecipeRepository;
+import com.app.recetas.fixtures.MealDbServer;
+import com.app.recetas.metrics.ViolationLog;
+import com.app.recetas.utils.MainThreadIoGuard;
+import com.app.recetas.utils.SearchType;
+import com.app.recetas.utils.SessionValidator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Tests de las acciones que corren en el main thread: ninguna debe hacer I/O
+ * (Room, red, preferencias o caché de catálogos) en él
+ *
+ * Robolectric da un main thread real; MainThreadIoGuard hace fallar el test
+ * si una consulta o llamada HTTP se ejecuta desde ese thread
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 33)
+public class MainThreadIoTest {
+    
+    private static final long TIMEOUT_MS = 5_000;
+    
+    private Application application;
+    private MealDbServer server;
+    
+    @Before
+    public void setUp() throws IOException {
+        application = ApplicationProvider.getApplicationContext();
+        server = MealDbServer.start();
+        ApiClient.configure(server.getBaseUrl(), null);
+        ViolationLog.getInstance().reset();
+        MainThreadIoGuard.setThrowOnViolation(true);
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        MainThreadIoGuard.setThrowOnViolation(false);
+        ViolationLog.getInstance().reset();
+        ApiClient.clearInstances();
+        AppDatabase.closeDatabase();
+        server.close();
+    }
+    
+    @Test
+    public void guardFailsOnQueriesFromTheMainThread() {
+        RecipeRepository repository = new RecipeRepository(application);
+        
+        assertTrue(MainThreadIoGuard.isMainThread());
+        assertThrows(IllegalStateException.class, repository::getLastModifiedRecipe);
+        
+        ViolationLog.Entry entry = ViolationLog.getInstance().getEntries().get(0);
+        assertEquals("main_thread_io", entry.getType());
+        assertEquals("dao.getLastModifiedRecipe", entry.getDetail());
+        assertTrue(entry.getStackTrace().contains("MainThreadIoTest"));
+    }
+    
+    @Test
+    public void guardFailsOnCatalogCacheReadsFromTheMainThread() {
+        CatalogCache cache = new CatalogCache(application);
+        
+        assertThrows(IllegalStateException.class, cache::getCategories);
+        assertEquals("catalogCache.getCategories", ViolationLog.getInstance().getEntries().get(0).getDetail());
+    }
+    
+    @Test
+    public void sessionValidationDoesNoIo() {
+        SessionValidator validator = new SessionValidator(application);
+        
+        validator.validateCurrentSession();
+        validator.updateUserActivity();
+        idleMainLooper();
+        
+        assertNoViolations();
+    }
+    
+    @Test
+    public void deletingARecipeDoesNoIo() {
+        HomeViewModel viewModel = new HomeViewModel(application);
+        Recipe recipe = new Recipe();
+        recipe.setId("52772");
+        recipe.setName("Teriyaki Chicken Casserole");
+        
+        viewModel.deleteRecipe(recipe);
+        idleMainLooper();
+        
+        assertNoViolations();
+    }
+    
+    @Test
+    public void searchingDoesNoIo() throws InterruptedException {
+        // Incluye la carga de categorías y áreas guardadas del constructor
+        SearchViewModel viewModel = new SearchViewModel(application);
+        
+        viewModel.searchRecipes("chicken", SearchType.NAME);
+        
+        // Los resultados llegan por postValue: procesar el main looper hasta que termine
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (Boolean.TRUE.equals(viewModel.getIsLoading().getValue())
+                && System.currentTimeMillis() < deadline) {
+            idleMainLooper();
+            Thread.sleep(20);
+        }
+        
+        assertFalse(Boolean.TRUE.equals(viewModel.getIsLoading().getValue()));
+        assertNoViolations();
+    }
+    
+    private void idleMainLooper() {
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+    
+    private void assertNoViolations() {
+        StringBuilder found = new StringBuilder();
+        for (ViolationLog.Entry entry : ViolationLog.getInstance().getEntries()) {
+            found.append(entry.getDetail()).append('\n').append(entry.getStackTrace());
+        }
+        assertEquals("I/O en el main thread", "", found.toString());
+    }
+}
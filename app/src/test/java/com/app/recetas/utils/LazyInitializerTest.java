@@ -0,0 +1,183 @@
+package com.app.recetas.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests de la inicialización perezosa usada para FirebaseAuth
+ */
+public class LazyInitializerTest {
+    
+    private ExecutorService background;
+    private final List<Runnable> callbackQueue = new ArrayList<>();
+    
+    @Before
+    public void setUp() {
+        background = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "warm-up"));
+    }
+    
+    @After
+    public void tearDown() {
+        background.shutdownNow();
+    }
+    
+    @Test
+    public void warmUpCreatesOffTheCallingThread() throws Exception {
+        LazyInitializer<Object> lazy = newLazy(slowFactory(300, new AtomicInteger()));
+        
+        long start = System.nanoTime();
+        lazy.warmUpAsync();
+        long returnedAfterMs = (System.nanoTime() - start) / 1_000_000;
+        
+        // El que llama no espera la creación
+        assertTrue("warmUpAsync tardó " + returnedAfterMs + " ms", returnedAfterMs < 150);
+        assertFalse(lazy.isReady());
+        
+        // Esperar sin llamar a get(): si no, este thread podría crearlo antes que el warm-up
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!lazy.isReady() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(lazy.isReady());
+        assertEquals("warm-up", lazy.getInitThreadName());
+        assertTrue(lazy.getInitDurationMs() >= 250);
+    }
+    
+    @Test
+    public void concurrentCallersShareOneCreation() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        LazyInitializer<Object> lazy = newLazy(slowFactory(100, created));
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            lazy.warmUpAsync();
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(lazy::get));
+            }
+            Object first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, created.get());
+    }
+    
+    @Test
+    public void callbacksWaitForTheComponent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        LazyInitializer<Object> lazy = newLazy(() -> {
+            await(release);
+            return "auth";
+        });
+        List<Object> received = new ArrayList<>();
+        
+        lazy.whenReady(received::add);
+        assertTrue(received.isEmpty());
+        
+        release.countDown();
+        runCallbacks(1);
+        assertEquals(1, received.size());
+        assertEquals("auth", received.get(0));
+        
+        // Ya listo: se ejecuta enseguida, sin pasar por el executor de callbacks
+        lazy.whenReady(received::add);
+        assertEquals(2, received.size());
+        assertEquals(0, queuedCallbacks());
+    }
+    
+    @Test
+    public void failedCreationIsReportedOnce() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        LazyInitializer<Object> lazy = newLazy(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("sin google play services");
+        });
+        List<Object> received = new ArrayList<>();
+        received.add("pendiente");
+        
+        lazy.whenReady(value -> received.set(0, value));
+        runCallbacks(1);
+        assertTrue(lazy.isFailed());
+        assertNull(received.get(0));
+        
+        try {
+            lazy.get();
+            fail("Se esperaba el error de la creación");
+        } catch (IllegalStateException expected) {
+            assertEquals(1, attempts.get());
+        }
+    }
+    
+    private LazyInitializer<Object> newLazy(Supplier<Object> factory) {
+        return new LazyInitializer<>("Componente", factory, background, runnable -> {
+            synchronized (callbackQueue) {
+                callbackQueue.add(runnable);
+            }
+        });
+    }
+    
+    /**
+     * Espera los callbacks encolados y los ejecuta, como lo haría el main looper
+     */
+    private void runCallbacks(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (queuedCallbacks() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, queuedCallbacks());
+        List<Runnable> pending;
+        synchronized (callbackQueue) {
+            pending = new ArrayList<>(callbackQueue);
+            callbackQueue.clear();
+        }
+        for (Runnable runnable : pending) {
+            runnable.run();
+        }
+    }
+    
+    private int queuedCallbacks() {
+        synchronized (callbackQueue) {
+            return callbackQueue.size();
+        }
+    }
+    
+    private static Supplier<Object> slowFactory(long delayMs, AtomicInteger created) {
+        return () -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            created.incrementAndGet();
+            return new Object();
+        };
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
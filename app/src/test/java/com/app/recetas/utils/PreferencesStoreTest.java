@@ -0,0 +1,267 @@
+package com.app.recetas.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del almacén binario de preferencias: carga en background, migración del XML,
+ * combinación de escrituras (cuenta las escrituras del archivo) y observadores
+ */
+public class PreferencesStoreTest {
+    
+    private static final long FLUSH_DELAY_MS = 200;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private File file;
+    private ScheduledExecutorService executor;
+    
+    @Before
+    public void setUp() {
+        file = new File(folder.getRoot(), "prefs/recipe_preferences.bin");
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void repeatedActivityUpdatesBecomeOneWrite() throws Exception {
+        PreferencesStore store = newStore(null);
+        PreferencesManager manager = new PreferencesManager(store);
+        
+        // Como SessionValidator en cada validación
+        for (int i = 0; i < 100; i++) {
+            manager.updateLastActivityTime();
+        }
+        assertEquals(0, store.getFileWrites());
+        assertTrue(manager.getLastActivityTime() > 0);
+        
+        awaitWrites(store, 1);
+        Thread.sleep(FLUSH_DELAY_MS * 2);
+        
+        assertEquals(1, store.getFileWrites());
+        assertEquals(manager.getLastActivityTime(), newStore(null).getLong("last_activity_time", 0));
+    }
+    
+    @Test
+    public void migratesLegacyPreferencesOnce() throws Exception {
+        FakeMigration migration = new FakeMigration();
+        migration.values.put("user_email", "ana@example.com");
+        migration.values.put("user_logged_in", true);
+        migration.values.put("last_activity_time", 1_700_000_000_000L);
+        
+        PreferencesStore store = newStore(migration);
+        
+        assertEquals("ana@example.com", store.getString("user_email", null));
+        assertTrue(store.getBoolean("user_logged_in", false));
+        awaitWrites(store, 1);
+        assertEquals(1, migration.cleanUps.get());
+        
+        // El archivo binario ya existe: el XML no se vuelve a leer
+        FakeMigration again = new FakeMigration();
+        PreferencesStore reloaded = newStore(again);
+        assertEquals(1_700_000_000_000L, reloaded.getLong("last_activity_time", 0));
+        assertEquals(0, again.reads.get());
+    }
+    
+    @Test
+    public void changesMadeBeforeLoadAreKeptAndNotified() throws Exception {
+        // Thread del almacén ocupado: la carga todavía no empezó
+        CountDownLatch busy = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                busy.await();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        FakeMigration migration = new FakeMigration();
+        migration.values.put("user_email", "ana@example.com");
+        PreferencesStore store = newStore(migration);
+        Set<String> notified = new HashSet<>();
+        store.addListener(keys -> {
+            synchronized (notified) {
+                notified.addAll(keys);
+            }
+        });
+        
+        store.put("first_launch", false);
+        store.remove("user_email");
+        assertFalse(store.isLoaded());
+        busy.countDown();
+        
+        assertFalse(store.getBoolean("first_launch", true));
+        assertNull(store.getString("user_email", null));
+        awaitWrites(store, 1);
+        synchronized (notified) {
+            assertTrue(notified.contains("first_launch"));
+            assertTrue(notified.contains("user_email"));
+        }
+    }
+    
+    @Test
+    public void lastRecipeObserverSeesEachChangeOnce() throws Exception {
+        PreferencesStore store = newStore(null);
+        PreferencesManager manager = new PreferencesManager(store);
+        assertNull(manager.getLastRecipe()); // Espera la carga: los cambios avisan en el momento
+        AtomicInteger calls = new AtomicInteger();
+        Map<Integer, String[]> seen = new HashMap<>();
+        manager.observeLastRecipe(() -> {
+            synchronized (seen) {
+                seen.put(calls.incrementAndGet(), manager.getLastRecipe());
+            }
+        });
+        
+        manager.saveLastRecipe("52772", "Teriyaki Chicken Casserole");
+        manager.updateLastActivityTime(); // No es de la última receta: no avisa
+        manager.clearLastRecipe();
+        
+        assertEquals(2, calls.get());
+        synchronized (seen) {
+            assertArrayEquals(new String[]{"52772", "Teriyaki Chicken Casserole"},
+                    new String[]{seen.get(1)[0], seen.get(1)[1]});
+            assertNull(seen.get(2));
+        }
+    }
+    
+    @Test
+    public void corruptFileStartsEmpty() throws Exception {
+        assertTrue(file.getParentFile().mkdirs());
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{1, 2, 3});
+        }
+        FakeMigration migration = new FakeMigration();
+        migration.values.put("user_email", "ana@example.com");
+        
+        PreferencesStore store = newStore(migration);
+        
+        assertNull(store.getString("user_email", null));
+        assertEquals(0, migration.reads.get());
+    }
+    
+    @Test
+    public void clearAndFlushWriteOnlyWhenNeeded() throws Exception {
+        PreferencesStore store = newStore(null);
+        store.flush();
+        assertEquals(0, store.getFileWrites());
+        
+        store.put("user_email", "ana@example.com");
+        store.clear();
+        store.put("first_launch", false);
+        store.flushAsync();
+        awaitWrites(store, 1);
+        
+        PreferencesStore reloaded = newStore(null);
+        assertNull(reloaded.getString("user_email", null));
+        assertFalse(reloaded.getBoolean("first_launch", true));
+    }
+    
+    @Test
+    public void textsLongerThan64KbAreStored() throws Exception {
+        // Más de 65.535 bytes en UTF-8 (límite de writeUTF)
+        StringBuilder notes = new StringBuilder();
+        while (notes.length() < 70_000) {
+            notes.append("Añadir azúcar ");
+        }
+        PreferencesStore store = newStore(null);
+        store.put("last_recipe_notes", notes.toString());
+        store.flushAsync();
+        awaitWrites(store, 1);
+        
+        assertEquals(notes.toString(), newStore(null).getString("last_recipe_notes", null));
+    }
+    
+    @Test
+    public void readsFilesWrittenWithTheFirstFormat() throws Exception {
+        assertTrue(file.getParentFile().mkdirs());
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(0x52435046);
+            out.writeByte(1);
+            out.writeInt(2);
+            out.writeByte(1);
+            out.writeUTF("user_email");
+            out.writeUTF("ana@example.com");
+            out.writeByte(2);
+            out.writeUTF("last_activity_time");
+            out.writeLong(1_700_000_000_000L);
+        }
+        
+        PreferencesStore store = newStore(null);
+        
+        assertEquals("ana@example.com", store.getString("user_email", null));
+        assertEquals(1_700_000_000_000L, store.getLong("last_activity_time", 0));
+    }
+    
+    @Test
+    public void failedWriteIsRetriedWithoutNewChanges() throws Exception {
+        // Un archivo en lugar de la carpeta: la escritura falla hasta que se borra
+        File blocker = file.getParentFile();
+        assertTrue(blocker.createNewFile());
+        PreferencesStore store = newStore(null);
+        store.put("user_email", "ana@example.com");
+        
+        Thread.sleep(FLUSH_DELAY_MS * 2);
+        assertEquals(0, store.getFileWrites());
+        assertTrue(blocker.delete());
+        
+        awaitWrites(store, 1);
+        assertEquals("ana@example.com", newStore(null).getString("user_email", null));
+    }
+    
+    private PreferencesStore newStore(PreferencesStore.Migration migration) {
+        return new PreferencesStore(file, migration, executor, FLUSH_DELAY_MS);
+    }
+    
+    private static void awaitWrites(PreferencesStore store, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (store.getFileWrites() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, store.getFileWrites());
+    }
+    
+    /**
+     * XML viejo simulado: cuenta lecturas y borrados
+     */
+    private static class FakeMigration implements PreferencesStore.Migration {
+        
+        final Map<String, Object> values = new HashMap<>();
+        final AtomicInteger reads = new AtomicInteger();
+        final AtomicInteger cleanUps = new AtomicInteger();
+        
+        @Override
+        public Map<String, ?> read() {
+            reads.incrementAndGet();
+            return values;
+        }
+        
+        @Override
+        public void cleanUp() {
+            cleanUps.incrementAndGet();
+        }
+    }
+}
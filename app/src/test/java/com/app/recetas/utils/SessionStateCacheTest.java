@@ -0,0 +1,133 @@
+package com.app.recetas.utils;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del estado de sesión en memoria
+ */
+public class SessionStateCacheTest {
+    
+    private static final long DAY_MS = 24 * 60 * 60 * 1000;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private ScheduledExecutorService executor;
+    private final AtomicInteger preferenceReads = new AtomicInteger();
+    private final Map<String, Object> legacy = new HashMap<>();
+    
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+    
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void startsWithoutUserAndFollowsAuthChanges() {
+        SessionStateCache cache = newCache();
+        assertFalse(cache.getState().hasUser());
+        
+        cache.setUser("ana@example.com", false);
+        SessionStateCache.SessionState loggedIn = cache.getState();
+        assertTrue(loggedIn.hasUser());
+        assertEquals("ana@example.com", loggedIn.getEmail());
+        
+        // Logout: la foto anterior no cambia, se reemplaza
+        cache.onUserChanged(null);
+        assertFalse(cache.getState().hasUser());
+        assertTrue(loggedIn.hasUser());
+    }
+    
+    @Test
+    public void persistedActivityIsReadOnlyOnce() {
+        legacy.put("last_activity_time", System.currentTimeMillis() - 2 * DAY_MS);
+        SessionStateCache cache = newCache();
+        
+        assertTrue(cache.isInactiveFor(System.currentTimeMillis(), DAY_MS));
+        for (int i = 0; i < 1_000; i++) {
+            cache.isInactiveFor(System.currentTimeMillis(), DAY_MS);
+        }
+        
+        assertEquals(1, preferenceReads.get());
+    }
+    
+    @Test
+    public void warmUpReadsActivityOffTheCallingThread() throws InterruptedException {
+        legacy.put("last_activity_time", System.currentTimeMillis() - 2 * DAY_MS);
+        SessionStateCache cache = newCache();
+        
+        cache.warmUp();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (preferenceReads.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        
+        // La lectura la hizo el thread del almacén: aquí ya es memoria
+        assertTrue(cache.isInactiveFor(System.currentTimeMillis(), DAY_MS));
+        assertEquals(1, preferenceReads.get());
+    }
+    
+    @Test
+    public void recordedActivityKeepsTheSessionAlive() {
+        legacy.put("last_activity_time", System.currentTimeMillis() - 2 * DAY_MS);
+        SessionStateCache cache = newCache();
+        
+        cache.recordActivity();
+        
+        assertFalse(cache.isInactiveFor(System.currentTimeMillis(), DAY_MS));
+        assertTrue(System.currentTimeMillis() - cache.getLastActivityTime() < 1_000);
+    }
+    
+    @Test
+    public void clearedActivityNeverExpires() {
+        legacy.put("last_activity_time", System.currentTimeMillis() - 2 * DAY_MS);
+        SessionStateCache cache = newCache();
+        
+        cache.clearActivity();
+        
+        assertEquals(0, cache.getLastActivityTime());
+        assertFalse(cache.isInactiveFor(System.currentTimeMillis(), DAY_MS));
+    }
+    
+    private SessionStateCache newCache() {
+        PreferencesStore.Migration migration = new PreferencesStore.Migration() {
+            @Override
+            public Map<String, ?> read() {
+                return legacy;
+            }
+            
+            @Override
+            public void cleanUp() {
+            }
+        };
+        File file = new File(folder.getRoot(), "recipe_preferences.bin");
+        PreferencesStore store = new PreferencesStore(file, migration, executor, 60_000);
+        PreferencesManager preferences = new PreferencesManager(store) {
+            @Override
+            public long getLastActivityTime() {
+                preferenceReads.incrementAndGet();
+                return super.getLastActivityTime();
+            }
+        };
+        return new SessionStateCache(preferences, null);
+    }
+}
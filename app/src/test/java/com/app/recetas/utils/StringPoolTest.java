@@ -0,0 +1,100 @@
+package com.app.recetas.utils;
+
+import com.app.recetas.data.local.entities.Recipe;
+import com.app.recetas.data.remote.dto.MealDto;
+import com.app.recetas.data.remote.dto.MealResponse;
+import com.google.gson.Gson;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests del pool de categorías y áreas, también sobre una colección grande
+ */
+public class StringPoolTest {
+
+    private static final int RECIPES = 20_000;
+
+    private static final String[] CATEGORIES = {
+            "Beef", "Breakfast", "Chicken", "Dessert", "Goat", "Lamb", "Miscellaneous", "Pasta",
+            "Pork", "Seafood", "Side", "Starter", "Vegan", "Vegetarian",
+    };
+
+    private static final String[] AREAS = {
+            "American", "British", "Canadian", "Chinese", "Croatian", "Dutch", "Egyptian", "French",
+            "Greek", "Indian", "Irish", "Italian", "Jamaican", "Japanese", "Kenyan", "Malaysian",
+            "Mexican", "Moroccan", "Polish", "Portuguese", "Russian", "Spanish", "Thai", "Tunisian",
+            "Turkish", "Vietnamese",
+    };
+
+    @Test
+    public void equalTextsShareOneInstance() {
+        String first = new String("Seafood");
+        String second = new String("Seafood");
+        assertNotSame(first, second);
+
+        assertSame(StringPool.canonical(first), StringPool.canonical(second));
+        assertNull(StringPool.canonical(null));
+
+        String longText = new String(new char[StringPool.MAX_LENGTH + 1]).replace('\0', 'x');
+        assertSame(longText, StringPool.canonical(longText));
+    }
+
+    @Test
+    public void canonicalIsStableAcrossCalls() {
+        String value = StringPool.canonical(new String("Italian"));
+        for (int i = 0; i < 10; i++) {
+            assertSame(value, StringPool.canonical(new String("Italian")));
+        }
+        assertEquals("Italian", value);
+    }
+
+    @Test
+    public void recipesAndParsedMealsUseTheSharedInstances() {
+        Recipe recipe = new Recipe();
+        recipe.setCategory(new String("Chicken"));
+        recipe.setArea(new String("Japanese"));
+
+        MealResponse response = new Gson().fromJson(
+                "{\"meals\":[{\"idMeal\":\"1\",\"strCategory\":\"Chicken\",\"strArea\":\"Japanese\"},"
+                        + "{\"idMeal\":\"2\",\"strCategory\":\"Chicken\",\"strArea\":null}]}",
+                MealResponse.class);
+        MealDto first = response.meals.get(0);
+        MealDto second = response.meals.get(1);
+
+        assertSame(recipe.getCategory(), first.strCategory);
+        assertSame(first.strCategory, second.strCategory);
+        assertSame(recipe.getArea(), first.strArea);
+        assertNull(second.strArea);
+        assertSame(recipe.getCategory(), first.toRecipe().getCategory());
+    }
+
+    @Test
+    public void largeCollectionKeepsOneInstancePerValue() {
+        Random random = new Random(3);
+        Set<String> categories = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> areas = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < RECIPES; i++) {
+            // Como los lee un cursor: un String nuevo por fila
+            Recipe recipe = new Recipe();
+            recipe.setCategory(new String(CATEGORIES[random.nextInt(CATEGORIES.length)]));
+            recipe.setArea(new String(AREAS[random.nextInt(AREAS.length)]));
+            categories.add(recipe.getCategory());
+            areas.add(recipe.getArea());
+        }
+
+        assertEquals(CATEGORIES.length, categories.size());
+        assertEquals(AREAS.length, areas.size());
+        assertTrue(StringPool.size() <= StringPool.MAX_ENTRIES);
+    }
+}
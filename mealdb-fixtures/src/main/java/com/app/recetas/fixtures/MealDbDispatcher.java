@@ -0,0 +1,371 @@
+package com.app.recetas.fixtures;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+
+/**
+ * Dispatcher de MockWebServer que imita los endpoints de TheMealDB usados por MealApiService
+ * Responde con el catálogo de resources/mealdb/ en el mismo formato que la API real
+ * Permite inyectar latencia y errores (por probabilidad o forzados por endpoint)
+ */
+public class MealDbDispatcher extends Dispatcher {
+
+    /**
+     * Prefijo de ruta de la API real: la URL base para Retrofit es server.url(API_PATH)
+     */
+    public static final String API_PATH = "/api/json/v1/1/";
+
+    /**
+     * Tipos de error que se pueden inyectar
+     */
+    public enum Fault {
+        SERVER_ERROR,      // HTTP 500
+        UNAVAILABLE,       // HTTP 503
+        TOO_MANY_REQUESTS, // HTTP 429
+        DISCONNECT         // Se corta la conexión sin responder
+    }
+
+    private final Gson gson = new Gson();
+    private final List<JsonObject> meals;
+    private final JsonObject categories;
+    private final JsonObject areas;
+
+    // Latencia agregada a cada respuesta
+    private volatile long minLatencyMs = 0;
+    private volatile long maxLatencyMs = 0;
+
+    // Errores aleatorios
+    private volatile double faultRate = 0;
+    private volatile Fault randomFault = Fault.SERVER_ERROR;
+    private final Random random;
+
+    // Errores forzados por endpoint: cantidad de pedidos que deben fallar
+    private final Map<String, AtomicInteger> pendingFaults = new ConcurrentHashMap<>();
+    private final Map<String, Fault> pendingFaultTypes = new ConcurrentHashMap<>();
+
+    // Pedidos recibidos por endpoint
+    private final ConcurrentHashMap<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el dispatcher con el catálogo por defecto y una semilla fija (resultados reproducibles)
+     */
+    public MealDbDispatcher() {
+        this(42L);
+    }
+
+    /**
+     * Crea el dispatcher con el catálogo por defecto
+     * @param seed Semilla para la latencia, los errores aleatorios y random.php
+     */
+    public MealDbDispatcher(long seed) {
+        this.random = new Random(seed);
+        JsonArray mealArray = readResource("meals.json").getAsJsonArray("meals");
+        List<JsonObject> loaded = new ArrayList<>();
+        for (JsonElement element : mealArray) {
+            loaded.add(element.getAsJsonObject());
+        }
+        this.meals = Collections.unmodifiableList(loaded);
+        this.categories = readResource("categories.json");
+        this.areas = readResource("areas.json");
+    }
+
+    // ==================== CONFIGURACIÓN ====================
+
+    /**
+     * Agrega una latencia fija a cada respuesta
+     * @param latencyMs Demora en milisegundos antes de enviar los headers
+     */
+    public MealDbDispatcher setLatency(long latencyMs) {
+        return setLatency(latencyMs, latencyMs);
+    }
+
+    /**
+     * Agrega una latencia aleatoria (uniforme) a cada respuesta
+     * @param minMs Demora mínima en milisegundos
+     * @param maxMs Demora máxima en milisegundos
+     */
+    public MealDbDispatcher setLatency(long minMs, long maxMs) {
+        this.minLatencyMs = Math.max(0, minMs);
+        this.maxLatencyMs = Math.max(this.minLatencyMs, maxMs);
+        return this;
+    }
+
+    /**
+     * Hace fallar una fracción de los pedidos al azar
+     * @param rate Probabilidad de falla entre 0 y 1
+     * @param fault Tipo de error a inyectar
+     */
+    public MealDbDispatcher setFaultRate(double rate, Fault fault) {
+        this.faultRate = Math.max(0, Math.min(1, rate));
+        this.randomFault = fault;
+        return this;
+    }
+
+    /**
+     * Hace fallar los próximos pedidos a un endpoint
+     * @param endpoint Endpoint a afectar (ej: "lookup.php")
+     * @param count Cantidad de pedidos que deben fallar
+     * @param fault Tipo de error a inyectar
+     */
+    public MealDbDispatcher failNext(String endpoint, int count, Fault fault) {
+        pendingFaultTypes.put(endpoint, fault);
+        pendingFaults.put(endpoint, new AtomicInteger(count));
+        return this;
+    }
+
+    /**
+     * Cantidad de pedidos recibidos por un endpoint (incluye los que fallaron)
+     * @param endpoint Endpoint consultado (ej: "search.php")
+     */
+    public int getRequestCount(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Vuelve a la configuración inicial: sin latencia, sin errores y contadores en cero
+     */
+    public void reset() {
+        minLatencyMs = 0;
+        maxLatencyMs = 0;
+        faultRate = 0;
+        pendingFaults.clear();
+        pendingFaultTypes.clear();
+        requestCounts.clear();
+    }
+
+    /**
+     * Catálogo completo de recetas (útil para armar aserciones en tests)
+     * @return Recetas con todos sus campos, en el formato de lookup.php
+     */
+    public List<JsonObject> getMeals() {
+        return meals;
+    }
+
+    // ==================== DESPACHO ====================
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        if (url == null) {
+            return new MockResponse().setResponseCode(400);
+        }
+        List<String> segments = url.pathSegments();
+        String endpoint = segments.isEmpty() ? "" : segments.get(segments.size() - 1);
+        counterFor(endpoint).incrementAndGet();
+
+        Fault fault = nextFault(endpoint);
+        MockResponse response = fault != null ? faultResponse(fault) : route(endpoint, url);
+
+        long latency = nextLatency();
+        if (latency > 0) {
+            response.setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+        }
+        return response;
+    }
+
+    private MockResponse route(String endpoint, HttpUrl url) {
+        if (!url.encodedPath().startsWith(API_PATH)) {
+            return new MockResponse().setResponseCode(404);
+        }
+        switch (endpoint) {
+            case "search.php":
+                return json(mealsOrNull(searchByName(url.queryParameter("s"))));
+            case "filter.php":
+                return json(mealsOrNull(filter(url)));
+            case "lookup.php":
+                return json(mealsOrNull(lookup(url.queryParameter("i"))));
+            case "random.php":
+                return json(mealsOrNull(Collections.singletonList(randomMeal())));
+            case "categories.php":
+                return json(categories);
+            case "list.php":
+                return "list".equals(url.queryParameter("a"))
+                        ? json(areas)
+                        : new MockResponse().setResponseCode(404);
+            default:
+                return new MockResponse().setResponseCode(404);
+        }
+    }
+
+    private List<JsonObject> searchByName(String query) {
+        String needle = query != null ? query.trim().toLowerCase(Locale.ROOT) : "";
+        List<JsonObject> result = new ArrayList<>();
+        for (JsonObject meal : meals) {
+            if (field(meal, "strMeal").toLowerCase(Locale.ROOT).contains(needle)) {
+                result.add(meal);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * filter.php devuelve solo nombre, imagen e ID, igual que la API real
+     */
+    private List<JsonObject> filter(HttpUrl url) {
+        String category = url.queryParameter("c");
+        String area = url.queryParameter("a");
+        String ingredient = url.queryParameter("i");
+        List<JsonObject> result = new ArrayList<>();
+        for (JsonObject meal : meals) {
+            boolean matches;
+            if (category != null) {
+                matches = field(meal, "strCategory").equalsIgnoreCase(category.trim());
+            } else if (area != null) {
+                matches = field(meal, "strArea").equalsIgnoreCase(area.trim());
+            } else if (ingredient != null) {
+                matches = hasIngredient(meal, ingredient.trim().replace('_', ' '));
+            } else {
+                matches = false;
+            }
+            if (matches) {
+                JsonObject summary = new JsonObject();
+                summary.addProperty("strMeal", field(meal, "strMeal"));
+                summary.addProperty("strMealThumb", field(meal, "strMealThumb"));
+                summary.addProperty("idMeal", field(meal, "idMeal"));
+                result.add(summary);
+            }
+        }
+        return result;
+    }
+
+    private List<JsonObject> lookup(String id) {
+        for (JsonObject meal : meals) {
+            if (field(meal, "idMeal").equals(id)) {
+                return Collections.singletonList(meal);
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private synchronized JsonObject randomMeal() {
+        return meals.get(random.nextInt(meals.size()));
+    }
+
+    private static boolean hasIngredient(JsonObject meal, String ingredient) {
+        for (int i = 1; i <= 20; i++) {
+            if (field(meal, "strIngredient" + i).equalsIgnoreCase(ingredient)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ==================== ERRORES Y LATENCIA ====================
+
+    private Fault nextFault(String endpoint) {
+        AtomicInteger pending = pendingFaults.get(endpoint);
+        if (pending != null && pending.getAndDecrement() > 0) {
+            return pendingFaultTypes.get(endpoint);
+        }
+        if (faultRate > 0) {
+            synchronized (this) {
+                if (random.nextDouble() < faultRate) {
+                    return randomFault;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static MockResponse faultResponse(Fault fault) {
+        switch (fault) {
+            case UNAVAILABLE:
+                return new MockResponse().setResponseCode(503);
+            case TOO_MANY_REQUESTS:
+                return new MockResponse().setResponseCode(429);
+            case DISCONNECT:
+                return new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AFTER_REQUEST);
+            case SERVER_ERROR:
+            default:
+                return new MockResponse().setResponseCode(500);
+        }
+    }
+
+    private long nextLatency() {
+        long min = minLatencyMs;
+        long max = maxLatencyMs;
+        if (max <= min) {
+            return min;
+        }
+        synchronized (this) {
+            return min + (long) (random.nextDouble() * (max - min));
+        }
+    }
+
+    private AtomicInteger counterFor(String endpoint) {
+        AtomicInteger count = requestCounts.get(endpoint);
+        if (count == null) {
+            AtomicInteger created = new AtomicInteger();
+            AtomicInteger existing = requestCounts.putIfAbsent(endpoint, created);
+            count = existing != null ? existing : created;
+        }
+        return count;
+    }
+
+    // ==================== JSON ====================
+
+    /**
+     * La API real responde {"meals": null} cuando no hay resultados
+     */
+    private static JsonObject mealsOrNull(List<JsonObject> found) {
+        JsonObject body = new JsonObject();
+        if (found.isEmpty()) {
+            body.add("meals", JsonNull.INSTANCE);
+        } else {
+            JsonArray array = new JsonArray();
+            for (JsonObject meal : found) {
+                array.add(meal);
+            }
+            body.add("meals", array);
+        }
+        return body;
+    }
+
+    private MockResponse json(JsonObject body) {
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody(gson.toJson(body));
+    }
+
+    private static String field(JsonObject meal, String name) {
+        JsonElement value = meal.get(name);
+        return value != null && !value.isJsonNull() ? value.getAsString() : "";
+    }
+
+    private JsonObject readResource(String name) {
+        InputStream stream = MealDbDispatcher.class.getResourceAsStream("/mealdb/" + name);
+        if (stream == null) {
+            throw new IllegalStateException("Fixture no encontrado: mealdb/" + name);
+        }
+        try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, JsonObject.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo leer mealdb/" + name, e);
+        }
+    }
+}
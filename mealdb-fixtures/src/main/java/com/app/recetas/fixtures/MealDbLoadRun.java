@@ -0,0 +1,142 @@
+package com.app.recetas.fixtures;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Prueba de carga contra el servidor local: no necesita red ni dispositivo
+ * Argumentos (todos opcionales): pedidos concurrencia latenciaMs tasaDeError
+ * Ejemplo: ./gradlew :mealdb-fixtures:loadRun --args="500 16 40 0.05"
+ */
+public class MealDbLoadRun {
+
+    // Mezcla de pedidos similar al uso de la app (búsquedas y detalles primero)
+    private static final String[] PATHS = {
+            "search.php?s=chicken",
+            "search.php?s=pasta",
+            "search.php?s=a",
+            "lookup.php?i=52772",
+            "lookup.php?i=52844",
+            "filter.php?c=Seafood",
+            "filter.php?a=Italian",
+            "categories.php",
+            "list.php?a=list",
+            "random.php"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        long latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 20;
+        double faultRate = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        MealDbDispatcher dispatcher = new MealDbDispatcher()
+                .setLatency(latencyMs / 2, latencyMs * 3 / 2)
+                .setFaultRate(faultRate, MealDbDispatcher.Fault.UNAVAILABLE);
+
+        try (MealDbServer server = MealDbServer.start(dispatcher)) {
+            Result result = run(server.getBaseUrl(), requests, concurrency);
+            System.out.println(result);
+        }
+    }
+
+    /**
+     * Ejecuta la carga y mide la latencia de cada pedido
+     * @param baseUrl URL base del servidor
+     * @param requests Cantidad total de pedidos
+     * @param concurrency Hilos en paralelo
+     * @return Resumen con percentiles de latencia y errores
+     */
+    public static Result run(String baseUrl, int requests, int concurrency) throws Exception {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .retryOnConnectionFailure(false)
+                .build();
+        client.dispatcher().setMaxRequestsPerHost(concurrency);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        long[] latencies = new long[requests];
+        AtomicInteger errors = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            futures.add(executor.submit(() -> {
+                Request request = new Request.Builder()
+                        .url(baseUrl + PATHS[index % PATHS.length])
+                        .build();
+                long callStart = System.nanoTime();
+                try (Response response = client.newCall(request).execute()) {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        errors.incrementAndGet();
+                    } else {
+                        response.body().string();
+                    }
+                } catch (IOException e) {
+                    errors.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - callStart;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+
+        Arrays.sort(latencies);
+        return new Result(requests, errors.get(), TimeUnit.NANOSECONDS.toMillis(elapsed), latencies);
+    }
+
+    /**
+     * Resumen de una prueba de carga
+     */
+    public static class Result {
+        public final int requests;
+        public final int errors;
+        public final long totalMs;
+        private final long[] sortedLatenciesNanos;
+
+        Result(int requests, int errors, long totalMs, long[] sortedLatenciesNanos) {
+            this.requests = requests;
+            this.errors = errors;
+            this.totalMs = totalMs;
+            this.sortedLatenciesNanos = sortedLatenciesNanos;
+        }
+
+        /**
+         * Percentil de latencia en milisegundos
+         * @param percentile Valor entre 0 y 100
+         */
+        public double percentileMs(double percentile) {
+            if (sortedLatenciesNanos.length == 0) return 0;
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatenciesNanos.length) - 1;
+            index = Math.max(0, Math.min(sortedLatenciesNanos.length - 1, index));
+            return sortedLatenciesNanos[index] / 1_000_000.0;
+        }
+
+        public double throughputPerSecond() {
+            return totalMs > 0 ? requests * 1000.0 / totalMs : requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("pedidos=%d errores=%d total=%dms rps=%.1f p50=%.1fms p95=%.1fms p99=%.1fms",
+                    requests, errors, totalMs, throughputPerSecond(),
+                    percentileMs(50), percentileMs(95), percentileMs(99));
+        }
+    }
+}
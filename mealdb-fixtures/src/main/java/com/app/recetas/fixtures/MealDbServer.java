@@ -0,0 +1,74 @@
+package com.app.recetas.fixtures;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Servidor local que reemplaza a TheMealDB en tests y pruebas de carga
+ * Uso típico:
+ * <pre>
+ * MealDbServer server = MealDbServer.start();
+ * ApiClient.configure(server.getBaseUrl(), null);
+ * ...
+ * server.close();
+ * </pre>
+ */
+public class MealDbServer implements Closeable {
+
+    private final MockWebServer server;
+    private final MealDbDispatcher dispatcher;
+
+    private MealDbServer(MockWebServer server, MealDbDispatcher dispatcher) {
+        this.server = server;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Inicia el servidor en un puerto libre con el catálogo por defecto
+     * @return Servidor escuchando en localhost
+     */
+    public static MealDbServer start() throws IOException {
+        return start(new MealDbDispatcher());
+    }
+
+    /**
+     * Inicia el servidor en un puerto libre con un dispatcher configurado
+     * @param dispatcher Dispatcher con latencia y errores ya configurados
+     * @return Servidor escuchando en localhost
+     */
+    public static MealDbServer start(MealDbDispatcher dispatcher) throws IOException {
+        MockWebServer server = new MockWebServer();
+        server.setDispatcher(dispatcher);
+        server.start();
+        return new MealDbServer(server, dispatcher);
+    }
+
+    /**
+     * URL base para Retrofit, equivalente a https://www.themealdb.com/api/json/v1/1/
+     * @return URL terminada en "/"
+     */
+    public String getBaseUrl() {
+        return server.url(MealDbDispatcher.API_PATH).toString();
+    }
+
+    /**
+     * Dispatcher para configurar latencia, errores y consultar contadores
+     */
+    public MealDbDispatcher getDispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Servidor subyacente (ej: para inspeccionar los pedidos recibidos)
+     */
+    public MockWebServer getMockWebServer() {
+        return server;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}